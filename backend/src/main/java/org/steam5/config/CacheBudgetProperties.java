@@ -0,0 +1,61 @@
+package org.steam5.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Heap budget for the Caffeine caches in {@link CacheConfig}. Caches are bounded by estimated
+ * bytes ({@link CacheWeigher}) rather than entry counts; the budget is split across the named
+ * caches by their relative {@link #shares}.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "cache-budget")
+public class CacheBudgetProperties {
+
+    /** Share of the max heap ({@code -Xmx} / MaxRAMPercentage) all caches together may use. */
+    private int heapPercent = 10;
+
+    /** Absolute cap in MiB; when set (> 0) it replaces {@link #heapPercent}. */
+    private int maxMb = 0;
+
+    /** Estimated heap bytes per serialized JSON byte for entries that are not stored as bytes. */
+    private double retainedSizeFactor = 2.0;
+
+    /** Relative share of the budget per cache name; every cache in {@link CacheConfig} needs one. */
+    private Map<String, Integer> shares = new LinkedHashMap<>(Map.ofEntries(
+            Map.entry("one-hour", 4),
+            Map.entry("one-day", 12),
+            Map.entry("review-game", 20),
+            Map.entry("stats-long", 3),
+            Map.entry("stats-hourly", 6),
+            Map.entry("stats-short", 2),
+            Map.entry("leaderboard-static", 8),
+            Map.entry("cache-stats", 1),
+            Map.entry("season-current-response", 2),
+            Map.entry("season-list-response", 2),
+            Map.entry("season-awards-response", 3),
+            Map.entry("season-detail-response", 3),
+            Map.entry("season-awards", 2),
+            Map.entry("player-awards", 3),
+            Map.entry("player-spotlights", 2),
+            Map.entry("comments-for-day", 3),
+            Map.entry("comment-viewer-reactions", 1),
+            Map.entry("http-review-game", 6),
+            Map.entry("http-leaderboard-static", 6),
+            Map.entry("http-season-current", 1)
+    ));
+
+    /**
+     * @return the total budget in bytes for a JVM whose max heap is {@code maxHeapBytes}
+     */
+    public long totalBytes(final long maxHeapBytes) {
+        return maxMb > 0 ? maxMb * 1024L * 1024L : maxHeapBytes / 100L * heapPercent;
+    }
+}
@@ -0,0 +1,32 @@
+package org.steam5.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cross-node cache invalidation over Postgres {@code LISTEN/NOTIFY} (see
+ * {@code CacheInvalidationPublisher} and {@code CacheInvalidationListener}). Needed once more
+ * than one backend replica serves traffic; a single node does not need it.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "cache-bus")
+public class CacheBusProperties {
+
+    private boolean enabled = false;
+
+    /** Notification channel; a plain lower-case SQL identifier. */
+    private String channel = "steam5_cache_invalidation";
+
+    /**
+     * How long operations are collected before they are sent, and before a received burst is applied.
+     * 0 sends and applies without waiting.
+     */
+    private int batchWindowMillis = 50;
+
+    /** How often the listen connection is probed with {@code SELECT 1}, so a dead socket triggers a reconnect. */
+    private int livenessIntervalMillis = 30_000;
+}
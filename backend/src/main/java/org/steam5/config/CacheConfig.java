@@ -1,176 +1,219 @@
 package org.steam5.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.ObjectMapper;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Configuration
 public class CacheConfig {
 
     /**
-     * Configures the application's named Caffeine caches.
+     * Configures the application's named Caffeine caches. Each is bounded by its share of the
+     * cache heap budget ({@link CacheBudgetProperties}) in estimated bytes, not by entry count.
      *
      * @return a cache manager containing the configured caches
      */
     @Bean
-    public CacheManager cacheManager() {
-        final CaffeineCache cacheOneHour = new CaffeineCache(
+    public CacheManager cacheManager(final CacheBudgetProperties budgetProperties, final ObjectMapper objectMapper,
+                                     final CacheKeyFamilyMetrics keyFamilies) {
+        final Budget budget = new Budget(budgetProperties.totalBytes(Runtime.getRuntime().maxMemory()),
+                budgetProperties.getShares(), new CacheWeigher(objectMapper, budgetProperties.getRetainedSizeFactor()),
+                keyFamilies);
+        log.info("Cache heap budget: {} MiB across {} shares", budget.totalBytes() / (1024 * 1024), budget.totalShares());
+
+        // Background reloads of the refresh-ahead caches; they block on JDBC
+        final Executor refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+        final CaffeineCache cacheOneHour = new InstrumentedCaffeineCache(
                 "one-hour",
-                Caffeine.newBuilder()
+                budget.builder("one-hour")
                         .expireAfterWrite(1, TimeUnit.HOURS)
-                        .maximumSize(500)
-                        .recordStats()
-                        .build()
+                        .build(),
+                keyFamilies
         );
 
-        final CaffeineCache cacheOneDay = new CaffeineCache(
+        final CaffeineCache cacheOneDay = new InstrumentedCaffeineCache(
                 "one-day",
-                Caffeine.newBuilder()
+                budget.builder("one-day")
                         .expireAfterWrite(24, TimeUnit.HOURS)
-                        .maximumSize(500)
-                        .recordStats()
-                        .build()
+                        .build(),
+                keyFamilies
         );
 
-        final CaffeineCache cacheReviewGame = new CaffeineCache(
+        // Tagged: data changes invalidate only dependent entries (see DomainCacheEvictor)
+        final TaggedCaffeineCache cacheReviewGame = new TaggedCaffeineCache(
                 "review-game",
-                Caffeine.newBuilder()
+                budget.builder("review-game")
                         .expireAfterWrite(24, TimeUnit.HOURS)
-                        .maximumSize(500)
-                        .recordStats()
-                        .build()
+                        .build(),
+                Duration.ofHours(24),
+                new ReviewGameCacheTags(),
+                keyFamilies
         );
 
-        final CaffeineCache cacheStatsLong = new CaffeineCache(
+        // Refresh-ahead: readers keep the current value while one reload per key runs after the
+        // first interval; the second bounds staleness for keys nobody reads
+        final CaffeineCache cacheStatsLong = new RefreshAheadCaffeineCache(
                 "stats-long",
-                Caffeine.newBuilder()
-                        .expireAfterWrite(7, TimeUnit.DAYS)
-                        .maximumSize(500)
-                        .recordStats()
-                        .build()
+                budget.builder("stats-long"),
+                Duration.ofDays(7),
+                Duration.ofDays(14),
+                refreshExecutor,
+                keyFamilies
         );
 
-        final CaffeineCache cacheStatsHourly = new CaffeineCache(
+        final CaffeineCache cacheStatsHourly = new RefreshAheadCaffeineCache(
                 "stats-hourly",
-                Caffeine.newBuilder()
-                        .expireAfterWrite(1, TimeUnit.HOURS)
-                        .maximumSize(500)
-                        .recordStats()
-                        .build()
+                budget.builder("stats-hourly"),
+                Duration.ofHours(1),
+                Duration.ofHours(2),
+                refreshExecutor,
+                keyFamilies
         );
 
-        final CaffeineCache cacheStatsShort = new CaffeineCache(
+        final CaffeineCache cacheStatsShort = new RefreshAheadCaffeineCache(
                 "stats-short",
-                Caffeine.newBuilder()
-                        .expireAfterWrite(5, TimeUnit.MINUTES)
-                        .maximumSize(500)
-                        .recordStats()
-                        .build()
-        );
-
-        final CaffeineCache leaderboardLive = new CaffeineCache(
-                "leaderboard-live",
-                Caffeine.newBuilder()
-                        .expireAfterWrite(60, TimeUnit.SECONDS)
-                        .maximumSize(200)
-                        .recordStats()
-                        .build()
+                budget.builder("stats-short"),
+                Duration.ofMinutes(5),
+                Duration.ofMinutes(10),
+                refreshExecutor,
+                keyFamilies
         );
 
-        final CaffeineCache leaderboardStatic = new CaffeineCache(
+        final CaffeineCache leaderboardStatic = new RefreshAheadCaffeineCache(
                 "leaderboard-static",
-                Caffeine.newBuilder()
-                        .expireAfterWrite(10, TimeUnit.MINUTES)
-                        .maximumSize(200)
-                        .recordStats()
-                        .build()
+                budget.builder("leaderboard-static"),
+                Duration.ofMinutes(10),
+                Duration.ofMinutes(20),
+                refreshExecutor,
+                keyFamilies
         );
 
-        final CaffeineCache cacheStatsEndpoint = new CaffeineCache(
+        final CaffeineCache cacheStatsEndpoint = new InstrumentedCaffeineCache(
                 "cache-stats",
-                Caffeine.newBuilder()
+                budget.builder("cache-stats")
                         .expireAfterWrite(1, TimeUnit.MINUTES)
-                        .maximumSize(5)
-                        .recordStats()
-                        .build()
+                        .build(),
+                keyFamilies
         );
 
-        final CaffeineCache seasonCurrent = new CaffeineCache(
+        final CaffeineCache seasonCurrent = new InstrumentedCaffeineCache(
                 "season-current-response",
-                Caffeine.newBuilder()
+                budget.builder("season-current-response")
                         .expireAfterWrite(15, TimeUnit.MINUTES)
-                        .maximumSize(50)
-                        .recordStats()
-                        .build()
+                        .build(),
+                keyFamilies
         );
 
-        final CaffeineCache seasonList = new CaffeineCache(
+        final CaffeineCache seasonList = new InstrumentedCaffeineCache(
                 "season-list-response",
-                Caffeine.newBuilder()
+                budget.builder("season-list-response")
                         .expireAfterWrite(30, TimeUnit.MINUTES)
-                        .maximumSize(200)
-                        .recordStats()
-                        .build()
+                        .build(),
+                keyFamilies
         );
 
-        final CaffeineCache seasonAwardsResponse = new CaffeineCache(
+        final CaffeineCache seasonAwardsResponse = new InstrumentedCaffeineCache(
                 "season-awards-response",
-                Caffeine.newBuilder()
+                budget.builder("season-awards-response")
                         .expireAfterWrite(1, TimeUnit.HOURS)
-                        .maximumSize(200)
-                        .recordStats()
-                        .build()
+                        .build(),
+                keyFamilies
         );
 
-        final CaffeineCache seasonDetailResponse = new CaffeineCache(
+        final CaffeineCache seasonDetailResponse = new InstrumentedCaffeineCache(
                 "season-detail-response",
-                Caffeine.newBuilder()
+                budget.builder("season-detail-response")
                         .expireAfterWrite(30, TimeUnit.MINUTES)
-                        .maximumSize(200)
-                        .recordStats()
-                        .build()
+                        .build(),
+                keyFamilies
         );
 
-        final CaffeineCache seasonAwards = new CaffeineCache(
+        final CaffeineCache seasonAwards = new InstrumentedCaffeineCache(
                 "season-awards",
-                Caffeine.newBuilder()
+                budget.builder("season-awards")
                         .expireAfterWrite(1, TimeUnit.HOURS)
-                        .maximumSize(200)
-                        .recordStats()
-                        .build()
+                        .build(),
+                keyFamilies
         );
 
-        final CaffeineCache playerAwards = new CaffeineCache(
+        final CaffeineCache playerAwards = new InstrumentedCaffeineCache(
                 "player-awards",
-                Caffeine.newBuilder()
+                budget.builder("player-awards")
                         .expireAfterWrite(1, TimeUnit.HOURS)
-                        .maximumSize(500)
-                        .recordStats()
-                        .build()
+                        .build(),
+                keyFamilies
         );
 
-        final CaffeineCache playerSpotlights = new CaffeineCache(
+        final CaffeineCache playerSpotlights = new InstrumentedCaffeineCache(
                 "player-spotlights",
-                Caffeine.newBuilder()
+                budget.builder("player-spotlights")
                         .expireAfterWrite(1, TimeUnit.HOURS)
-                        .maximumSize(500)
-                        .recordStats()
-                        .build()
+                        .build(),
+                keyFamilies
         );
 
-        final CaffeineCache commentsForDay = new CaffeineCache(
+        // One shared list per day plus small per-viewer reaction sets; every comment write evicts
+        // what it changes (also on other nodes), so the TTL only bounds missed evictions.
+        final CaffeineCache commentsForDay = new InstrumentedCaffeineCache(
                 "comments-for-day",
-                Caffeine.newBuilder()
-                        .expireAfterWrite(60, TimeUnit.SECONDS)
-                        .maximumSize(500)
-                        .recordStats()
-                        .build()
+                budget.builder("comments-for-day")
+                        .expireAfterWrite(10, TimeUnit.MINUTES)
+                        .build(),
+                keyFamilies
+        );
+
+        final CaffeineCache commentViewerReactions = new InstrumentedCaffeineCache(
+                "comment-viewer-reactions",
+                budget.builder("comment-viewer-reactions")
+                        .expireAfterWrite(10, TimeUnit.MINUTES)
+                        .build(),
+                keyFamilies
+        );
+
+        // Byte-level response caches (ResponseBodyCacheFilter): TTLs no longer than the response
+        // caches they sit in front of, invalidated together with them. The review-game bodies
+        // carry the tags of the review-game entry they were rendered from.
+        final CaffeineCache httpReviewGame = new TaggedCaffeineCache(
+                CacheNames.HTTP_REVIEW_GAME,
+                budget.builder(CacheNames.HTTP_REVIEW_GAME)
+                        .expireAfterWrite(10, TimeUnit.MINUTES)
+                        .build(),
+                Duration.ofMinutes(10),
+                new ReviewGameBodyCacheTags(cacheReviewGame),
+                keyFamilies
+        );
+
+        final CaffeineCache httpLeaderboardStatic = new InstrumentedCaffeineCache(
+                CacheNames.HTTP_LEADERBOARD_STATIC,
+                budget.builder(CacheNames.HTTP_LEADERBOARD_STATIC)
+                        .expireAfterWrite(10, TimeUnit.MINUTES)
+                        .build(),
+                keyFamilies
+        );
+
+        final CaffeineCache httpSeasonCurrent = new InstrumentedCaffeineCache(
+                CacheNames.HTTP_SEASON_CURRENT,
+                budget.builder(CacheNames.HTTP_SEASON_CURRENT)
+                        .expireAfterWrite(15, TimeUnit.MINUTES)
+                        .build(),
+                keyFamilies
         );
 
         final SimpleCacheManager cacheManager = new SimpleCacheManager();
@@ -181,7 +224,6 @@ public class CacheConfig {
                 cacheStatsLong,
                 cacheStatsHourly,
                 cacheStatsShort,
-                leaderboardLive,
                 leaderboardStatic,
                 cacheStatsEndpoint,
                 seasonCurrent,
@@ -191,8 +233,78 @@ public class CacheConfig {
                 seasonAwards,
                 playerAwards,
                 playerSpotlights,
-                commentsForDay
+                commentsForDay,
+                commentViewerReactions,
+                httpReviewGame,
+                httpLeaderboardStatic,
+                httpSeasonCurrent
         ));
         return cacheManager;
     }
+
+    /**
+     * Per-key-family reads, loads and removals of the caches below; registered as a meter binder.
+     */
+    @Bean
+    public CacheKeyFamilyMetrics cacheKeyFamilyMetrics() {
+        return new CacheKeyFamilyMetrics();
+    }
+
+    /**
+     * Estimated bytes held by, and budgeted for, each cache; complements the hit/miss metrics
+     * Spring Boot binds from {@code recordStats()}.
+     */
+    @Bean
+    public MeterBinder cacheMemoryMetrics(final CacheManager cacheManager) {
+        return registry -> {
+            for (String name : cacheManager.getCacheNames()) {
+                if (!(cacheManager.getCache(name) instanceof CaffeineCache cache)) {
+                    continue;
+                }
+                final Policy.Eviction<Object, Object> eviction = cache.getNativeCache().policy().eviction().orElse(null);
+                if (eviction == null) {
+                    continue;
+                }
+                Gauge.builder("steam5.cache.estimated.bytes", eviction, e -> e.weightedSize().orElse(0L))
+                        .description("Estimated heap bytes held by the cache")
+                        .baseUnit("bytes")
+                        .tag("cache", name)
+                        .register(registry);
+                Gauge.builder("steam5.cache.budget.bytes", eviction, Policy.Eviction::getMaximum)
+                        .description("Heap bytes the cache may hold before evicting")
+                        .baseUnit("bytes")
+                        .tag("cache", name)
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * Splits the total budget across caches by share and builds weight-bounded Caffeine builders
+     * that report removals per key family.
+     */
+    record Budget(long totalBytes, Map<String, Integer> shares, CacheWeigher weigher,
+                  CacheKeyFamilyMetrics keyFamilies) {
+
+        int totalShares() {
+            return shares.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        long bytesFor(final String cacheName) {
+            final Integer share = shares.get(cacheName);
+            if (share == null || share <= 0) {
+                throw new IllegalStateException("No cache-budget.shares entry for cache '" + cacheName + "'");
+            }
+            return Math.max(1L, totalBytes / totalShares() * share);
+        }
+
+        Caffeine<Object, Object> builder(final String cacheName) {
+            final CacheKeyFamilyMetrics.CacheFamilies families = keyFamilies.forCache(cacheName);
+            return Caffeine.newBuilder()
+                    .maximumWeight(bytesFor(cacheName))
+                    .weigher(weigher)
+                    .removalListener((key, value, cause) -> families.recordRemoval(key, cause))
+                    .recordStats();
+        }
+    }
 }
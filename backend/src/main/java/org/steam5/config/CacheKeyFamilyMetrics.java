@@ -0,0 +1,220 @@
+package org.steam5.config;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit, miss, load and removal counts per cache and logical key family, so a cache holding several
+ * kinds of entries (e.g. {@code review-game}: {@code picks:*}, {@code archive-month:*}, per-guess
+ * {@code appId:bucket}, ...) can be tuned per kind. Families are derived from the key's shape by
+ * {@link #familyOf(Object)}; caches record into them via {@link InstrumentedCaffeineCache} and the
+ * removal listener {@link CacheConfig.Budget} installs.
+ *
+ * <p>Meters (tags {@code cache}, {@code family}): {@code steam5.cache.family.gets} ({@code result}
+ * hit/miss), {@code steam5.cache.family.loads} (timer) and {@code steam5.cache.family.removals}
+ * ({@code cause}). Families appearing after binding are registered as they appear.</p>
+ */
+public class CacheKeyFamilyMetrics implements MeterBinder {
+
+    /** Families per cache beyond which keys are counted as {@link #OTHER}; bounds meter cardinality. */
+    static final int MAX_FAMILIES = 64;
+    static final String OTHER = "other";
+    private static final int MAX_FAMILY_LENGTH = 64;
+
+    private final Map<String, CacheFamilies> caches = new ConcurrentHashMap<>();
+    private final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+
+    public CacheFamilies forCache(final String cacheName) {
+        return caches.computeIfAbsent(cacheName, CacheFamilies::new);
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        registries.add(registry);
+        for (CacheFamilies cache : caches.values()) {
+            for (Family family : cache.families()) {
+                register(registry, family);
+            }
+        }
+    }
+
+    /**
+     * The family of a cache key: the prefix before the first {@code ':'} when it names something
+     * ({@code "picks:2025-03-14"} → {@code picks}), the path of a request key, and otherwise the key
+     * with digit runs replaced by {@code #} ({@code "7review-count"} → {@code #review-count},
+     * {@code "7:101-1000"} → {@code #:*}, {@code 42L} → {@code #}).
+     */
+    static String familyOf(final Object key) {
+        if (key instanceof Number) {
+            return "#";
+        }
+        if (!(key instanceof String s)) {
+            return key == null ? "null" : key.getClass().getSimpleName();
+        }
+        final String family;
+        if (s.startsWith("/")) {
+            final int query = s.indexOf('?');
+            family = digitsToHash(query < 0 ? s : s.substring(0, query));
+        } else {
+            final int colon = s.indexOf(':');
+            if (colon < 0) {
+                family = digitsToHash(s);
+            } else {
+                final String prefix = s.substring(0, colon);
+                family = prefix.chars().anyMatch(Character::isLetter) ? prefix : digitsToHash(prefix) + ":*";
+            }
+        }
+        return family.length() > MAX_FAMILY_LENGTH ? family.substring(0, MAX_FAMILY_LENGTH) : family;
+    }
+
+    private static String digitsToHash(final String s) {
+        final StringBuilder out = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (Character.isDigit(c)) {
+                if (out.isEmpty() || out.charAt(out.length() - 1) != '#') {
+                    out.append('#');
+                }
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private static void register(final MeterRegistry registry, final Family family) {
+        FunctionCounter.builder("steam5.cache.family.gets", family.hits, LongAdder::sum)
+                .description("Cache reads per key family")
+                .tags("cache", family.cache, "family", family.name, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("steam5.cache.family.gets", family.misses, LongAdder::sum)
+                .description("Cache reads per key family")
+                .tags("cache", family.cache, "family", family.name, "result", "miss")
+                .register(registry);
+        FunctionTimer.builder("steam5.cache.family.loads", family,
+                        f -> f.loads.sum(), f -> f.loadNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Time spent computing missing cache values per key family")
+                .tags("cache", family.cache, "family", family.name)
+                .register(registry);
+        for (RemovalCause cause : RemovalCause.values()) {
+            FunctionCounter.builder("steam5.cache.family.removals", family.removals[cause.ordinal()], LongAdder::sum)
+                    .description("Cache entries removed per key family and cause")
+                    .tags("cache", family.cache, "family", family.name, "cause", cause.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+    }
+
+    /**
+     * The key families seen by one cache.
+     */
+    public final class CacheFamilies {
+
+        private final String cache;
+        private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+        private CacheFamilies(final String cache) {
+            this.cache = cache;
+        }
+
+        public Family family(final Object key) {
+            final String name = familyOf(key);
+            Family family = families.get(name);
+            if (family == null && families.size() >= MAX_FAMILIES) {
+                family = families.get(OTHER);
+            }
+            if (family != null) {
+                return family;
+            }
+            final boolean[] created = new boolean[1];
+            family = families.computeIfAbsent(families.size() < MAX_FAMILIES ? name : OTHER, n -> {
+                created[0] = true;
+                return new Family(cache, n);
+            });
+            if (created[0]) {
+                // After the put, so either this or bindTo sees the other's write
+                for (MeterRegistry registry : registries) {
+                    register(registry, family);
+                }
+            }
+            return family;
+        }
+
+        public void recordRemoval(final Object key, final RemovalCause cause) {
+            if (key != null) {
+                family(key).removals[cause.ordinal()].increment();
+            }
+        }
+
+        public Collection<Family> families() {
+            return new ArrayList<>(families.values());
+        }
+    }
+
+    /**
+     * Counters of one key family.
+     */
+    public static final class Family {
+
+        private final String cache;
+        private final String name;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder loads = new LongAdder();
+        private final LongAdder loadNanos = new LongAdder();
+        private final LongAdder[] removals = new LongAdder[RemovalCause.values().length];
+
+        private Family(final String cache, final String name) {
+            this.cache = cache;
+            this.name = name;
+            for (int i = 0; i < removals.length; i++) {
+                removals[i] = new LongAdder();
+            }
+        }
+
+        public void recordGet(final boolean hit) {
+            (hit ? hits : misses).increment();
+        }
+
+        public void recordLoad(final long nanos) {
+            loads.increment();
+            loadNanos.add(nanos);
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public long hitCount() {
+            return hits.sum();
+        }
+
+        public long missCount() {
+            return misses.sum();
+        }
+
+        public long loadCount() {
+            return loads.sum();
+        }
+
+        public long totalLoadNanos() {
+            return loadNanos.sum();
+        }
+
+        public long removalCount(final RemovalCause cause) {
+            return removals[cause.ordinal()].sum();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.steam5.config;
+
+/**
+ * Names of the caches declared in {@link CacheConfig} that code refers to directly (evictions,
+ * programmatic lookups, the response body cache). Annotation-only caches are named inline.
+ */
+public final class CacheNames {
+
+    private CacheNames() {}
+
+    public static final String REVIEW_GAME = "review-game";
+    public static final String ONE_DAY = "one-day";
+    public static final String LEADERBOARD_STATIC = "leaderboard-static";
+    public static final String STATS_HOURLY = "stats-hourly";
+    public static final String COMMENTS_FOR_DAY = "comments-for-day";
+    public static final String COMMENT_VIEWER_REACTIONS = "comment-viewer-reactions";
+    public static final String SEASON_CURRENT_RESPONSE = "season-current-response";
+
+    /** Stored response bodies ({@code ResponseBodyCacheFilter}) of the review-game routes. */
+    public static final String HTTP_REVIEW_GAME = "http-review-game";
+    /** Stored response bodies of the aggregate leaderboard routes. */
+    public static final String HTTP_LEADERBOARD_STATIC = "http-leaderboard-static";
+    /** Stored response body of the current-season route. */
+    public static final String HTTP_SEASON_CURRENT = "http-season-current";
+}
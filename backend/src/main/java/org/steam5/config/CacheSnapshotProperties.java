@@ -0,0 +1,39 @@
+package org.steam5.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opt-in warm start: selected caches are written to a local file on graceful shutdown and loaded
+ * back before the next start reports ready (see {@code CacheSnapshotService}). The file must live
+ * on a volume that survives the deploy.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "cache-snapshot")
+public class CacheSnapshotProperties {
+
+    private boolean enabled = false;
+
+    /** Snapshot file; written atomically on shutdown and deleted once loaded. */
+    private String path = "cache-snapshot.bin";
+
+    /**
+     * Caches to snapshot. Only long-lived entries whose values round-trip through JSON belong here;
+     * not caches of JPA entities (e.g. {@code one-day}, {@code season-awards}). Tagged caches are
+     * skipped on load while the cache bus is enabled.
+     */
+    private List<String> caches = new ArrayList<>(List.of("stats-long", "review-game"));
+
+    /** A snapshot older than this is ignored: too much may have changed while the app was down. */
+    private int maxAgeMinutes = 360;
+
+    /** How long startup waits for the snapshot to load before reporting ready without it. */
+    private int loadTimeoutSeconds = 30;
+}
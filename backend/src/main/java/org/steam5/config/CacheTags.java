@@ -0,0 +1,57 @@
+package org.steam5.config;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+
+/**
+ * Tags of {@link TaggedCaffeineCache} entries: what a cached value was derived from. The tag
+ * resolvers ({@link ReviewGameCacheTags}, {@link ReviewGameBodyCacheTags}) attach them and
+ * {@code DomainCacheEvictor} invalidates them when the data changes.
+ */
+public final class CacheTags {
+
+    private CacheTags() {}
+
+    /**
+     * Response bodies whose app ids could not be resolved when stored; dropped on any app-detail
+     * change (see {@link ReviewGameBodyCacheTags}).
+     */
+    public static final String UNRESOLVED_APPS_TAG = "apps:unresolved";
+
+    /** Set of pick days (the day list, archive pages and always-pick history). */
+    public static final String PICK_DAYS_TAG = "pick-days";
+
+    /** Entries embedding the app's store details (picks, names). */
+    public static String appTag(final long appId) {
+        return "app:" + appId;
+    }
+
+    /** Entries derived from the app's review counts (guesses, review-count lookups). */
+    public static String reviewsTag(final long appId) {
+        return "reviews:" + appId;
+    }
+
+    /** Entries holding the picks of one day. */
+    public static String dateTag(final LocalDate day) {
+        return "date:" + day;
+    }
+
+    /** Entries listing the picks of a whole month. */
+    public static String monthTag(final YearMonth month) {
+        return "month:" + month;
+    }
+
+    /**
+     * A cached response body that embeds apps by id, so its entry is tagged with their
+     * {@link #appTag}s. Implemented by response DTOs that do not hold {@code SteamAppDetail}s
+     * directly.
+     */
+    public interface EmbedsApps {
+
+        /**
+         * @return ids of the apps this value shows
+         */
+        Collection<Long> embeddedAppIds();
+    }
+}
@@ -0,0 +1,137 @@
+package org.steam5.config;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.NullValue;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Weighs cache entries by estimated retained heap bytes, so caches can be bounded by memory
+ * instead of entry count. Values that know their size ({@link Sized}, byte arrays, strings) are
+ * weighed directly; anything else is serialized to a counting sink with the application's
+ * {@link ObjectMapper}, without indentation, and scaled by {@code retainedSizeFactor}. Weighing
+ * runs inside the cache's compute on every write, so a large collection is weighed from an evenly
+ * spread sample of its elements rather than serialized whole.
+ */
+@Slf4j
+public class CacheWeigher implements Weigher<Object, Object> {
+
+    /** Caffeine node, map entry and wrapper objects per cache entry. */
+    static final long ENTRY_OVERHEAD = 96L;
+    /** Weight of a value that cannot be serialized (e.g. a detached entity with lazy state). */
+    static final long UNSERIALIZABLE_BYTES = 16 * 1024L;
+    /** Elements serialized to weigh a larger collection. */
+    static final int SAMPLE_SIZE = 32;
+
+    private final ObjectWriter writer;
+    private final double retainedSizeFactor;
+
+    public CacheWeigher(final ObjectMapper objectMapper, final double retainedSizeFactor) {
+        // The app mapper indents its output; whitespace is not retained, so do not count it
+        this.writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.retainedSizeFactor = retainedSizeFactor;
+    }
+
+    @Override
+    public int weigh(final Object key, final Object value) {
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD + estimate(key) + estimate(value));
+    }
+
+    /**
+     * @return estimated retained bytes of {@code value}
+     */
+    public long estimate(final Object value) {
+        return switch (value) {
+            case null -> 0L;
+            case NullValue ignored -> 0L;
+            case Sized sized -> sized.estimatedBytes(this);
+            case byte[] bytes -> 16L + bytes.length;
+            case CharSequence s -> 40L + s.length();
+            case Number ignored -> 16L;
+            case Boolean ignored -> 16L;
+            case Enum<?> ignored -> 0L;
+            case ResponseEntity<?> response -> 64L + headerBytes(response.getHeaders()) + estimate(response.getBody());
+            default -> serializedEstimate(value);
+        };
+    }
+
+    private static long headerBytes(final HttpHeaders headers) {
+        final long[] bytes = {0L};
+        headers.forEach((name, values) -> {
+            bytes[0] += 40L + name.length();
+            for (String v : values) {
+                bytes[0] += 40L + v.length();
+            }
+        });
+        return bytes[0];
+    }
+
+    private long serializedEstimate(final Object value) {
+        if (value instanceof Collection<?> c && c.isEmpty() || value instanceof Map<?, ?> m && m.isEmpty()) {
+            return 16L;
+        }
+        try {
+            if (value instanceof Collection<?> c && c.size() > SAMPLE_SIZE) {
+                return 16L + (long) (sampledBytes(c) * retainedSizeFactor);
+            }
+            return (long) (serializedBytes(value) * retainedSizeFactor);
+        } catch (RuntimeException e) {
+            log.debug("Could not weigh cache value of type {}", value.getClass().getName(), e);
+            return UNSERIALIZABLE_BYTES;
+        }
+    }
+
+    /**
+     * Serialized size of {@code values} extrapolated from every {@code size / SAMPLE_SIZE}-th element.
+     */
+    private long sampledBytes(final Collection<?> values) {
+        final int size = values.size();
+        final int stride = size / SAMPLE_SIZE;
+        long bytes = 0L;
+        int sampled = 0;
+        int i = 0;
+        for (Object element : values) {
+            if (i++ % stride == 0 && sampled < SAMPLE_SIZE) {
+                bytes += serializedBytes(element);
+                sampled++;
+            }
+        }
+        // Separators and brackets of the whole array
+        return bytes * size / sampled + size + 1L;
+    }
+
+    private long serializedBytes(final Object value) {
+        final CountingOutputStream out = new CountingOutputStream();
+        writer.writeValue(out, value);
+        return out.count;
+    }
+
+    /**
+     * A cache value that knows (or can cheaply compute) its own retained size.
+     */
+    public interface Sized {
+        long estimatedBytes(CacheWeigher weigher);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(final int b) {
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            count += len;
+        }
+    }
+}
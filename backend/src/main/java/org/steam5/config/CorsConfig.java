@@ -3,6 +3,7 @@ package org.steam5.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
@@ -12,8 +13,15 @@ import java.util.List;
 @Configuration
 public class CorsConfig {
 
+    /**
+     * Right after Spring Security's filter chain (-100 by default), and before
+     * {@link org.steam5.web.ResponseBodyCacheFilter}, whose cache hits therefore get CORS headers
+     * like any other response.
+     */
+    public static final int CORS_FILTER_ORDER = -99;
+
     @Bean
-    public CorsFilter corsFilter(
+    public UrlBasedCorsConfigurationSource corsConfigurationSource(
             @Value("${cors.allowedOrigins:https://steam5.org,https://next.steam5.org,http://localhost:3000}") String originsCsv
     ) {
         CorsConfiguration config = new CorsConfiguration();
@@ -24,7 +32,24 @@ public class CorsConfig {
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
-        return new CorsFilter(source);
+        return source;
+    }
+
+    @Bean
+    public CorsFilter corsFilter(UrlBasedCorsConfigurationSource corsConfigurationSource) {
+        return new OrderedCorsFilter(corsConfigurationSource);
+    }
+
+    private static final class OrderedCorsFilter extends CorsFilter implements Ordered {
+
+        private OrderedCorsFilter(final UrlBasedCorsConfigurationSource source) {
+            super(source);
+        }
+
+        @Override
+        public int getOrder() {
+            return CORS_FILTER_ORDER;
+        }
     }
 }
 
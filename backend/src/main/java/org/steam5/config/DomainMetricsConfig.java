@@ -6,6 +6,7 @@ import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.steam5.domain.GameDate;
 import org.steam5.repository.ReviewGamePickRepository;
 import org.steam5.repository.SteamAppIndexRepository;
 import org.steam5.repository.SteamAppReviewsRepository;
@@ -82,8 +83,9 @@ public class DomainMetricsConfig {
         final OffsetDateTime minUpdated = reviewsRepo.minUpdatedAt();
         final OffsetDateTime maxUpdated = reviewsRepo.maxUpdatedAt();
         final long picksTotal = pickRepo.count();
-        final long picksDistinctDays = pickRepo.countDistinctPickDates();
-        final LocalDate latestPickDate = pickRepo.findLatestPickDate();
+        final LocalDate today = GameDate.todayUtc();
+        final long picksDistinctDays = pickRepo.countDistinctPickDates(today);
+        final LocalDate latestPickDate = pickRepo.findLatestPickDate(today);
 
         final double nowEpoch = (double) System.currentTimeMillis() / 1000.0;
         final double reviewsCoverage = indexCount == 0 ? 0.0 : (double) withReviews / (double) indexCount;
@@ -0,0 +1,97 @@
+package org.steam5.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link CaffeineCache} that records reads and loads per key family
+ * ({@link CacheKeyFamilyMetrics}); Caffeine's own stats only count per cache. Removals are recorded
+ * by the native cache's removal listener, see {@link CacheConfig.Budget}.
+ *
+ * <p>Subclasses customise loading by overriding {@link #getOrLoad} instead of
+ * {@link #get(Object, Callable)}, so loads stay timed.</p>
+ *
+ * <p>{@link #clears()} counts full clears, so a caller that computes a value outside the cache
+ * (a servlet filter around a controller) can tell whether the cache was cleared while it ran
+ * and skip storing what it computed.</p>
+ */
+public class InstrumentedCaffeineCache extends CaffeineCache {
+
+    private final CacheKeyFamilyMetrics.CacheFamilies keyFamilies;
+    private final AtomicLong clears = new AtomicLong();
+
+    public InstrumentedCaffeineCache(final String name, final Cache<Object, Object> cache,
+                                     final CacheKeyFamilyMetrics keyFamilyMetrics) {
+        this(name, cache, true, keyFamilyMetrics);
+    }
+
+    public InstrumentedCaffeineCache(final String name, final Cache<Object, Object> cache,
+                                     final boolean allowNullValues, final CacheKeyFamilyMetrics keyFamilyMetrics) {
+        super(name, cache, allowNullValues);
+        this.keyFamilies = keyFamilyMetrics.forCache(name);
+    }
+
+    public CacheKeyFamilyMetrics.CacheFamilies keyFamilies() {
+        return keyFamilies;
+    }
+
+    /**
+     * @return the number of {@link #clear()}/{@link #invalidate()} calls so far
+     */
+    public long clears() {
+        return clears.get();
+    }
+
+    @Override
+    public void clear() {
+        clears.incrementAndGet();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        clears.incrementAndGet();
+        return super.invalidate();
+    }
+
+    @Override
+    public ValueWrapper get(final Object key) {
+        final ValueWrapper value = super.get(key);
+        keyFamilies.family(key).recordGet(value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(final Object key, final Class<T> type) {
+        final T value = super.get(key, type);
+        keyFamilies.family(key).recordGet(value != null);
+        return value;
+    }
+
+    @Override
+    public final <T> T get(final Object key, final Callable<T> valueLoader) {
+        final CacheKeyFamilyMetrics.Family family = keyFamilies.family(key);
+        final boolean[] loaded = new boolean[1];
+        final T value = getOrLoad(key, () -> {
+            loaded[0] = true;
+            final long start = System.nanoTime();
+            try {
+                return valueLoader.call();
+            } finally {
+                family.recordLoad(System.nanoTime() - start);
+            }
+        });
+        family.recordGet(!loaded[0]);
+        return value;
+    }
+
+    /**
+     * Returns the value of {@code key}, calling {@code valueLoader} if it is missing.
+     */
+    protected <T> T getOrLoad(final Object key, final Callable<T> valueLoader) {
+        return super.get(key, valueLoader);
+    }
+}
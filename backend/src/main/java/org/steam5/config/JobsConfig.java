@@ -20,6 +20,7 @@ public class JobsConfig {
     private SteamAppReviews steamAppReviews = new SteamAppReviews();
     private SteamAppDetails steamAppDetails = new SteamAppDetails();
     private Blurhash blurhash = new Blurhash();
+    private ReviewsRefresh reviewsRefresh = new ReviewsRefresh();
 
     @Getter
     @Setter
@@ -33,6 +34,12 @@ public class JobsConfig {
     public static class SteamAppReviews {
         /** Max apps whose review counts are fetched per ingest run. */
         private int batchLimit = 1000;
+        /** Parallel ingest workers (virtual threads); all share the appReviews rate-limit bucket. */
+        private int workers = 4;
+        /** Buffered review rows written per multi-row upsert (bulk ingest and nightly refresh). */
+        private int flushRows = 250;
+        /** Max seconds a buffered review row waits before being flushed. */
+        private int flushIntervalSeconds = 30;
     }
 
     @Getter
@@ -40,6 +47,8 @@ public class JobsConfig {
     public static class SteamAppDetails {
         /** Max apps whose store details are fetched per ingest run. */
         private int batchLimit = 500;
+        /** Parallel ingest workers (virtual threads); all share the appDetails rate-limit bucket. */
+        private int workers = 4;
     }
 
     @Getter
@@ -48,4 +57,21 @@ public class JobsConfig {
         /** Max screenshots encoded per full blurhash job run. */
         private int batchLimit = 100;
     }
+
+    @Getter
+    @Setter
+    public static class ReviewsRefresh {
+        /** Shortest gap between two refreshes of the same app, for the fastest movers. */
+        private int minIntervalHours = 12;
+        /** Longest gap, for apps whose counts have stopped moving. */
+        private int maxIntervalDays = 180;
+        /** Gap after the first observation of an app, before any velocity is known. */
+        private int firstIntervalDays = 7;
+        /** Velocity half-life: how quickly old review activity stops counting. */
+        private int velocityHalfLifeDays = 30;
+        /** Refresh before this fraction of the projected time to the nearest bucket boundary. */
+        private double boundaryLeadFactor = 0.5;
+        /** Refresh once the projected count drift reaches this fraction of the total. */
+        private double maxDriftFraction = 0.05;
+    }
 }
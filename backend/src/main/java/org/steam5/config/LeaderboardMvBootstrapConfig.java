@@ -22,19 +22,19 @@ import java.util.List;
 import java.util.Optional;
 
 /**
- * Creates the leaderboard and hardest-games materialized views and their unique indexes at
- * startup if they don't already exist, reading the canonical DDL from db/mv-leaderboard-*.sql
- * and db/mv-hardest-games.sql — the same files an operator would otherwise apply manually via
- * psql. Uses a raw JDBC connection with autocommit, not Hibernate's ddl-auto, because
- * CREATE INDEX CONCURRENTLY cannot run inside a transaction block.
+ * Creates the hardest-games materialized view and its unique index at startup if they don't
+ * already exist, reading the canonical DDL from db/mv-hardest-games.sql — the same file an
+ * operator would otherwise apply manually via psql. Uses a raw JDBC connection with autocommit,
+ * not Hibernate's ddl-auto, because CREATE INDEX CONCURRENTLY cannot run inside a transaction
+ * block. (The per-player leaderboards and perfect days are no longer views; they read the
+ * incrementally maintained aggregates of LeaderboardAggregateService.)
  *
  * <p>Also runs a one-time initial REFRESH (and records it in {@code leaderboard_refresh_state},
  * matching {@code LeaderboardRefreshService}'s bookkeeping) for any view found unpopulated —
  * whether just created here or already present but never refreshed. Without this, a fresh view
- * stays queryable-but-empty until whichever scheduled refresh job fires next; for the season MV
- * specifically (no intraday trigger, only a once-daily cron) that can be up to 24h, during which
- * every request — including a Next.js build-time prefetch — hits "materialized view ... has not
- * been populated".</p>
+ * stays queryable-but-empty until the scheduled refresh job fires next (a once-daily cron, so
+ * up to 24h), during which every request — including a Next.js build-time prefetch — hits
+ * "materialized view ... has not been populated".</p>
  *
  * <p>Gated by {@code app.leaderboard-mv.bootstrap.enabled} (default true) so ops retain an
  * escape hatch — e.g. a DBA who wants to control CREATE INDEX CONCURRENTLY timing on a huge
@@ -48,12 +48,7 @@ public class LeaderboardMvBootstrapConfig {
     }
 
     private static final List<MvDefinition> MV_DEFINITIONS = List.of(
-            new MvDefinition(LeaderboardType.ALL_TIME, "mv_leaderboard_all_time", "ux_mv_leaderboard_all_time_steam_id", "db/mv-leaderboard-all-time.sql"),
-            new MvDefinition(LeaderboardType.MONTHLY, "mv_leaderboard_monthly", "ux_mv_leaderboard_monthly_steam_id", "db/mv-leaderboard-monthly.sql"),
-            new MvDefinition(LeaderboardType.WEEKLY, "mv_leaderboard_weekly", "ux_mv_leaderboard_weekly_steam_id", "db/mv-leaderboard-weekly.sql"),
-            new MvDefinition(LeaderboardType.SEASON, "mv_leaderboard_season", "ux_mv_leaderboard_season_steam_id", "db/mv-leaderboard-season.sql"),
-            new MvDefinition(LeaderboardType.HARDEST_GAMES, "mv_hardest_games", "ux_mv_hardest_games_app_id", "db/mv-hardest-games.sql"),
-            new MvDefinition(LeaderboardType.PERFECT_DAYS, "mv_perfect_days", "ux_mv_perfect_days_entry", "db/mv-perfect-days.sql")
+            new MvDefinition(LeaderboardType.HARDEST_GAMES, "mv_hardest_games", "ux_mv_hardest_games_app_id", "db/mv-hardest-games.sql")
     );
 
     @Bean
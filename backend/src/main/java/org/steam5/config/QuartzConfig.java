@@ -61,6 +61,32 @@ public class QuartzConfig {
                 .build();
     }
 
+    @Bean
+    @ConditionalOnProperty(prefix = "jobs.review-game-staging", name = "enabled", havingValue = "true", matchIfMissing = false)
+    public Trigger triggerReviewGameStagingJob(@Qualifier("ReviewGameStagingJob") JobDetail job) {
+        return TriggerBuilder.newTrigger().forJob(job)
+                .withIdentity("ReviewGameStagingJob_Trigger")
+                // daily at 20:00 UTC, leaving hours to retry before the 00:01 rollover
+                .withSchedule(
+                        CronScheduleBuilder.cronSchedule("0 0 20 * * ?")
+                                .inTimeZone(TimeZone.getTimeZone("UTC"))
+                )
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "jobs.review-game-staging", name = "enabled", havingValue = "true", matchIfMissing = false)
+    public Trigger triggerReviewGameStagingRetryJob(@Qualifier("ReviewGameStagingJob") JobDetail job) {
+        return TriggerBuilder.newTrigger().forJob(job)
+                .withIdentity("ReviewGameStagingJob_RetryTrigger")
+                // 23:50 UTC: no-op if 20:00 succeeded, otherwise a last attempt; also re-warms caches
+                .withSchedule(
+                        CronScheduleBuilder.cronSchedule("0 50 23 * * ?")
+                                .inTimeZone(TimeZone.getTimeZone("UTC"))
+                )
+                .build();
+    }
+
     @Bean
     @ConditionalOnProperty(prefix = "jobs.blurhash", name = "enabled", havingValue = "true", matchIfMissing = false)
     public Trigger triggerBlurhashScreenshotJob(@Qualifier("BlurhashScreenshotsJob") JobDetail job) {
@@ -123,6 +149,20 @@ public class QuartzConfig {
                 .build();
     }
 
+    @Bean
+    @ConditionalOnProperty(prefix = "jobs.leaderboard-snapshots", name = "enabled", havingValue = "true", matchIfMissing = false)
+    public Trigger triggerLeaderboardSnapshotJob(@Qualifier("LeaderboardSnapshotJob") JobDetail job) {
+        return TriggerBuilder.newTrigger().forJob(job)
+                .withIdentity("LeaderboardSnapshotJob_Trigger")
+                // daily at 00:55 UTC — after the nightly leaderboard refreshes (00:40-00:50) have
+                // reconciled the last day of the period being frozen
+                .withSchedule(
+                        CronScheduleBuilder.cronSchedule("0 55 0 * * ?")
+                                .inTimeZone(TimeZone.getTimeZone("UTC"))
+                )
+                .build();
+    }
+
     @Bean
     @ConditionalOnProperty(prefix = "jobs.leaderboard-refresh-all-time", name = "enabled", havingValue = "true", matchIfMissing = false)
     public Trigger triggerLeaderboardRefreshAllTimeNightly(@Qualifier("LeaderboardRefreshJob_AllTime") JobDetail job) {
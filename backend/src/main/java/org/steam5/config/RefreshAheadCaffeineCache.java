@@ -0,0 +1,166 @@
+package org.steam5.config;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Caffeine cache for expensive, read-mostly aggregates (leaderboards, statistics) that refreshes
+ * ahead instead of expiring under load. Once an entry is older than {@code refreshAfter}, the
+ * next read still returns it and triggers a single background reload for that key. An entry that
+ * is not read (and so not refreshed) within {@code expireAfter} of its last load is dropped, which
+ * also bounds how stale a served value can get. Misses are single-flight: concurrent callers for
+ * the same key wait for one load.
+ *
+ * <p>Reloads go through the reader registered with {@link #reloadWith} for the key's prefix: a
+ * call to the owning bean (through its proxy, so transactions apply) that reads the key again via
+ * {@link #get(Object, Callable)}, i.e. {@code @Cacheable(sync = true)} or an explicit
+ * {@code cache.get(key, loader)}. While it runs on the refresh thread, that read of that key skips
+ * the stale entry and its loader's result becomes the reloaded value; other keys it reads are
+ * served as usual. Keys without a reader, or whose reader no longer reads them (e.g. a key
+ * containing yesterday's date), are not reloaded and expire. Results that the old {@code unless}
+ * guards rejected (null, non-2xx or bodyless responses) are returned but not cached;
+ * {@code sync} does not support {@code unless}.</p>
+ */
+public class RefreshAheadCaffeineCache extends InstrumentedCaffeineCache {
+
+    private static final ThreadLocal<Reload> RELOADING = new ThreadLocal<>();
+
+    private final Map<String, Consumer<String>> readers = new ConcurrentHashMap<>();
+
+    public RefreshAheadCaffeineCache(final String name, final Caffeine<Object, Object> builder,
+                                     final Duration refreshAfter, final Duration expireAfter,
+                                     final Executor executor) {
+        this(name, builder, refreshAfter, expireAfter, executor, new CacheKeyFamilyMetrics());
+    }
+
+    public RefreshAheadCaffeineCache(final String name, final Caffeine<Object, Object> builder,
+                                     final Duration refreshAfter, final Duration expireAfter,
+                                     final Executor executor, final CacheKeyFamilyMetrics keyFamilyMetrics) {
+        this(name, builder, refreshAfter, expireAfter, executor, keyFamilyMetrics, new Loader());
+    }
+
+    private RefreshAheadCaffeineCache(final String name, final Caffeine<Object, Object> builder,
+                                      final Duration refreshAfter, final Duration expireAfter,
+                                      final Executor executor, final CacheKeyFamilyMetrics keyFamilyMetrics,
+                                      final Loader loader) {
+        super(name, builder
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterWrite(expireAfter)
+                .executor(executor)
+                .build(loader), false, keyFamilyMetrics);
+        loader.cache = this;
+    }
+
+    /**
+     * Registers how keys starting with {@code keyPrefix} are reloaded; the longest matching prefix
+     * wins.
+     *
+     * @param reader reads the given key again through the public method that caches it
+     */
+    public void reloadWith(final String keyPrefix, final Consumer<String> reader) {
+        readers.put(keyPrefix, reader);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <T> T getOrLoad(final Object key, final Callable<T> valueLoader) {
+        final Reload reload = RELOADING.get();
+        if (reload != null && reload.cache == this && reload.key.equals(key)) {
+            final T value = (T) call(key, valueLoader);
+            reload.value = value;
+            return value;
+        }
+        final Object[] uncached = new Object[1];
+        final Object stored = getNativeCache().get(key, k -> {
+            final Object value = call(k, valueLoader);
+            if (!isCacheable(value)) {
+                uncached[0] = value;
+                return null;
+            }
+            return value;
+        });
+        return (T) (stored != null ? stored : uncached[0]);
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        if (isCacheable(value)) {
+            super.put(key, value);
+        }
+    }
+
+    static boolean isCacheable(final Object value) {
+        return value != null && !(value instanceof ResponseEntity<?> response
+                && (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null));
+    }
+
+    private static Object call(final Object key, final Callable<?> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+    }
+
+    private Consumer<String> readerFor(final String key) {
+        Consumer<String> reader = null;
+        int matched = -1;
+        for (Map.Entry<String, Consumer<String>> e : readers.entrySet()) {
+            if (key.startsWith(e.getKey()) && e.getKey().length() > matched) {
+                reader = e.getValue();
+                matched = e.getKey().length();
+            }
+        }
+        return reader;
+    }
+
+    private static final class Reload {
+        private final RefreshAheadCaffeineCache cache;
+        private final Object key;
+        private Object value;
+
+        private Reload(final RefreshAheadCaffeineCache cache, final Object key) {
+            this.cache = cache;
+            this.key = key;
+        }
+    }
+
+    /**
+     * Loader of the native cache: runs the registered reader of a key and keeps what that key's
+     * loader returned. Plain {@code get(key)} misses load as absent.
+     */
+    private static final class Loader implements CacheLoader<Object, Object> {
+
+        private RefreshAheadCaffeineCache cache;
+
+        @Override
+        public Object load(final Object key) {
+            return null;
+        }
+
+        @Override
+        public Object reload(final Object key, final Object oldValue) {
+            final Consumer<String> reader = cache.readerFor(String.valueOf(key));
+            if (reader == null) {
+                return null;
+            }
+            final Reload reload = new Reload(cache, key);
+            final Reload outer = RELOADING.get();
+            RELOADING.set(reload);
+            try {
+                reader.accept(String.valueOf(key));
+            } finally {
+                RELOADING.set(outer);
+            }
+            return isCacheable(reload.value) ? reload.value : null;
+        }
+    }
+}
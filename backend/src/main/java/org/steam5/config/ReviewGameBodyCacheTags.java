@@ -0,0 +1,56 @@
+package org.steam5.config;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.steam5.config.CacheTags.UNRESOLVED_APPS_TAG;
+import static org.steam5.config.CacheTags.dateTag;
+
+/**
+ * Tags for {@code http-review-game} entries ({@code ResponseBodyCacheFilter}): the stored bytes
+ * of {@code /today} and {@code /today/details} carry the tags of the {@code review-game} entry
+ * they were rendered from ({@link ReviewGameCacheTags}), so an app-detail change drops only the
+ * bodies embedding that app. If that entry is gone by the time the body is stored, the body is
+ * tagged {@link CacheTags#UNRESOLVED_APPS_TAG} and dropped on any app-detail change.
+ */
+public class ReviewGameBodyCacheTags implements TaggedCaffeineCache.TagResolver {
+
+    /** Filter route to the {@code review-game} key prefix of the response it serves. */
+    private static final Map<String, String> REVIEW_GAME_KEYS = Map.of(
+            "/api/review-game/today", "today-picks:",
+            "/api/review-game/today/details", "today-details:"
+    );
+
+    private final TaggedCaffeineCache reviewGame;
+
+    public ReviewGameBodyCacheTags(final TaggedCaffeineCache reviewGame) {
+        this.reviewGame = reviewGame;
+    }
+
+    @Override
+    public Collection<String> tagsFor(final Object key, final Object value) {
+        // Keys are "<path>?<query>@<game day>"
+        if (!(key instanceof String k) || k.indexOf('?') < 0 || k.lastIndexOf('@') < 0) {
+            return List.of();
+        }
+        final LocalDate day;
+        try {
+            day = LocalDate.parse(k.substring(k.lastIndexOf('@') + 1));
+        } catch (RuntimeException e) {
+            return List.of();
+        }
+        final String prefix = REVIEW_GAME_KEYS.get(k.substring(0, k.indexOf('?')));
+        final List<String> source = prefix != null ? reviewGame.tagsOf(prefix + day) : null;
+        final List<String> tags = new ArrayList<>();
+        tags.add(dateTag(day));
+        if (source != null) {
+            tags.addAll(source);
+        } else {
+            tags.add(UNRESOLVED_APPS_TAG);
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,83 @@
+package org.steam5.config;
+
+import org.springframework.http.ResponseEntity;
+import org.steam5.domain.details.SteamAppDetail;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.steam5.config.CacheTags.*;
+
+/**
+ * Tags for {@code review-game} entries, derived from the cache keys used by
+ * {@code ReviewGameStateController} and {@code ReviewGameStateService} and from the app IDs in
+ * the cached responses ({@link SteamAppDetail}s, or values that are {@link CacheTags.EmbedsApps}).
+ * Keep in sync with those keys; an unknown key gets no tags and lives until its TTL or a full
+ * clear.
+ */
+public class ReviewGameCacheTags implements TaggedCaffeineCache.TagResolver {
+
+    private static final String REVIEW_COUNT_SUFFIX = "review-count";
+
+    @Override
+    public Collection<String> tagsFor(final Object key, final Object value) {
+        if (!(key instanceof String k)) {
+            return List.of();
+        }
+        try {
+            if (k.equals("days")) {
+                return List.of(PICK_DAYS_TAG);
+            }
+            if (k.startsWith("picks:") || k.startsWith("today-picks:") || k.startsWith("today-details:")) {
+                final List<String> tags = new ArrayList<>();
+                tags.add(dateTag(LocalDate.parse(k.substring(k.indexOf(':') + 1))));
+                addAppTags(value, tags);
+                return tags;
+            }
+            if (k.startsWith("archive-month:")) {
+                final List<String> tags = new ArrayList<>();
+                tags.add(monthTag(YearMonth.parse(k.substring("archive-month:".length()))));
+                addAppTags(value, tags);
+                return tags;
+            }
+            if (k.startsWith("always-pick-hist:")) {
+                // Scores also drift with review counts of past picks; that drift is left to the TTL
+                return List.of(PICK_DAYS_TAG);
+            }
+            if (k.endsWith(REVIEW_COUNT_SUFFIX)) {
+                return List.of(reviewsTag(Long.parseLong(k.substring(0, k.length() - REVIEW_COUNT_SUFFIX.length()))));
+            }
+            final int colon = k.indexOf(':');
+            if (colon > 0) {
+                // Guess results: "<appId>:<bucketGuess>"
+                return List.of(reviewsTag(Long.parseLong(k.substring(0, colon))));
+            }
+        } catch (RuntimeException ignored) {
+            // Unparseable key: untagged
+        }
+        return List.of();
+    }
+
+    private static void addAppTags(final Object value, final List<String> tags) {
+        final Object body = value instanceof ResponseEntity<?> response ? response.getBody() : value;
+        final List<?> items = switch (body) {
+            case List<?> list -> list;
+            case null -> List.of();
+            default -> List.of(body);
+        };
+        for (Object item : items) {
+            if (item instanceof SteamAppDetail detail && detail.getAppId() != null) {
+                tags.add(appTag(detail.getAppId()));
+            } else if (item instanceof EmbedsApps embedding) {
+                for (Long appId : embedding.embeddedAppIds()) {
+                    if (appId != null) {
+                        tags.add(appTag(appId));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.steam5.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "steam.rate-limit")
+public class SteamRateLimitProperties {
+
+    /** Sustained rate for endpoints without their own entry in {@link #endpoints}. */
+    private double permitsPerSecond = 1.0;
+
+    /** Permits an idle bucket may accumulate and spend at once. */
+    private int burst = 1;
+
+    /**
+     * Per-endpoint overrides keyed by the {@code endpoint} metric tag (appDetails, appReviews,
+     * appList, openid, playerSummaries, other). Each endpoint gets its own bucket, so a long
+     * reviews refresh never delays an interactive login.
+     */
+    private Map<String, Bucket> endpoints = new LinkedHashMap<>();
+
+    /**
+     * Shared by every endpoint: caps the total rate sent to Steam whatever the per-endpoint buckets
+     * allow. Not throttled by 429s, which slow down only the endpoint that got them.
+     */
+    private Bucket host = new Bucket();
+
+    /** Lowest fraction of the configured rate a bucket may throttle down to after repeated 429s. */
+    private double minRateFactor = 0.1;
+
+    /** Quiet period without a 429 after which a throttled bucket steps its rate back up. */
+    private Duration recoveryInterval = Duration.ofSeconds(30);
+
+    @Getter
+    @Setter
+    public static class Bucket {
+        private double permitsPerSecond = 1.0;
+        private int burst = 1;
+    }
+}
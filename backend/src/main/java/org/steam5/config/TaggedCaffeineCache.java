@@ -0,0 +1,345 @@
+package org.steam5.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Caffeine cache whose entries record the tags (app IDs, pick dates, ...) they were derived
+ * from, so a data change invalidates only the dependent entries instead of the whole cache.
+ *
+ * <p>Invalidation is generational and lazy: {@link #invalidate} stamps each tag with a new
+ * sequence number, and an entry computed before the latest stamp of any of its tags is treated
+ * as a miss (and dropped) the next time it is read. An entry's "computed at" is the sequence at
+ * the read miss that triggered its load, so data invalidated while the load ran is never served.
+ * A stamp only matters while an entry with its tag, or a pending load, is older than it: once the
+ * stamps outnumber twice the count left by the last pruning, the others are dropped, and none
+ * outlives {@code ttl}. Loads through {@link #get(Object, Callable)} are single-flight per key
+ * and run outside the map's locks.</p>
+ *
+ * <p>The ETag of a cached 2xx {@link ResponseEntity} is recorded once, when the entry is
+ * populated, in a small index next to the bodies; {@link #etag} answers conditional requests from
+ * it without rebuilding the response. The index holds more keys than the body cache (an ETag is a
+ * few dozen bytes), shares its TTL and is invalidated by the same tags, clears and evictions.</p>
+ *
+ * <p>Still a {@link CaffeineCache}, so stats, {@code clear()} and {@code evict()} work as before;
+ * reads and loads are also counted per key family ({@link InstrumentedCaffeineCache}).</p>
+ */
+public class TaggedCaffeineCache extends InstrumentedCaffeineCache {
+
+    private static final long MIN_STAMPS_BEFORE_PRUNE = 1_024;
+
+    private final TagResolver tagResolver;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Cache<String, Long> invalidatedAt;
+    private final Cache<Object, Long> missedAt;
+    private final Cache<Object, Etag> etags;
+    private final ConcurrentMap<Object, Load> loads = new ConcurrentHashMap<>();
+    /**
+     * Held while a pending load's start sequence is recorded and while stamps are pruned, so a
+     * pruning pass never misses a load that started before it.
+     */
+    private final Object stampLock = new Object();
+    private volatile long pruneAbove = MIN_STAMPS_BEFORE_PRUNE;
+
+    public TaggedCaffeineCache(final String name, final Cache<Object, Object> cache, final Duration ttl,
+                               final TagResolver tagResolver) {
+        this(name, cache, ttl, tagResolver, new CacheKeyFamilyMetrics());
+    }
+
+    public TaggedCaffeineCache(final String name, final Cache<Object, Object> cache, final Duration ttl,
+                               final TagResolver tagResolver, final CacheKeyFamilyMetrics keyFamilyMetrics) {
+        super(name, cache, keyFamilyMetrics);
+        this.tagResolver = tagResolver;
+        this.invalidatedAt = Caffeine.newBuilder().expireAfterWrite(ttl).build();
+        // Pending loads only; bounded so failed or 'unless'-rejected loads cannot pile up
+        this.missedAt = Caffeine.newBuilder().expireAfterWrite(Duration.ofMinutes(10)).maximumSize(10_000).build();
+        this.etags = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(10_000).build();
+    }
+
+    /**
+     * Lazily invalidates every entry that depends on any of {@code tags}.
+     */
+    public void invalidate(final Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        final long seq = sequence.incrementAndGet();
+        for (String tag : tags) {
+            invalidatedAt.asMap().merge(tag, seq, Math::max);
+        }
+        if (invalidatedAt.estimatedSize() > pruneAbove) {
+            pruneStamps();
+        }
+    }
+
+    /**
+     * Drops the tag stamps that can no longer invalidate anything: no entry or recorded ETag with
+     * that tag is older than the stamp, and no pending load started before it.
+     */
+    void pruneStamps() {
+        synchronized (stampLock) {
+            long pending = sequence.get();
+            for (Long missed : missedAt.asMap().values()) {
+                pending = Math.min(pending, missed);
+            }
+            for (Load load : loads.values()) {
+                pending = Math.min(pending, load.start());
+            }
+            final Map<String, Long> oldestByTag = new HashMap<>();
+            for (Object stored : getNativeCache().asMap().values()) {
+                if (stored instanceof Entry entry) {
+                    for (String tag : entry.tags()) {
+                        oldestByTag.merge(tag, entry.computedAt(), Math::min);
+                    }
+                }
+            }
+            for (Etag etag : etags.asMap().values()) {
+                for (String tag : etag.tags()) {
+                    oldestByTag.merge(tag, etag.computedAt(), Math::min);
+                }
+            }
+            final long oldestPending = pending;
+            invalidatedAt.asMap().entrySet().removeIf(stamp -> stamp.getValue() <= oldestPending
+                    && oldestByTag.getOrDefault(stamp.getKey(), Long.MAX_VALUE) >= stamp.getValue());
+            pruneAbove = Math.max(MIN_STAMPS_BEFORE_PRUNE, 2 * invalidatedAt.estimatedSize());
+        }
+    }
+
+    /**
+     * @return number of tag stamps currently kept
+     */
+    long stampCount() {
+        return invalidatedAt.estimatedSize();
+    }
+
+    /**
+     * @return the ETag recorded when {@code key} was last populated, or null if it is unknown or
+     * has been invalidated since
+     */
+    public String etag(final Object key) {
+        final Etag etag = etags.getIfPresent(key);
+        if (etag == null) {
+            return null;
+        }
+        if (isCurrent(etag.tags(), etag.computedAt())) {
+            return etag.value();
+        }
+        etags.asMap().remove(key, etag);
+        return null;
+    }
+
+    /**
+     * @return the tags of {@code key}'s entry, or null if it is missing or no longer current.
+     * Does not count as a read.
+     */
+    public List<String> tagsOf(final Object key) {
+        return getNativeCache().getIfPresent(key) instanceof Entry entry && isCurrent(entry)
+                ? List.of(entry.tags()) : null;
+    }
+
+    /**
+     * Visits every entry that is still current, with its value as {@link #get} would return it.
+     * Does not count as a read.
+     */
+    public void forEachCurrent(final BiConsumer<Object, Object> action) {
+        getNativeCache().asMap().forEach((key, stored) -> {
+            if (stored instanceof Entry entry) {
+                if (isCurrent(entry)) {
+                    action.accept(key, fromStoreValue(entry.storeValue()));
+                }
+            } else {
+                action.accept(key, fromStoreValue(stored));
+            }
+        });
+    }
+
+    @Override
+    public void evict(final Object key) {
+        etags.invalidate(key);
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(final Object key) {
+        etags.invalidate(key);
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        etags.invalidateAll();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        etags.invalidateAll();
+        return super.invalidate();
+    }
+
+    @Override
+    protected Object lookup(final Object key) {
+        final Object stored = getNativeCache().getIfPresent(key);
+        if (stored instanceof Entry entry) {
+            if (isCurrent(entry)) {
+                return entry.storeValue();
+            }
+            getNativeCache().asMap().remove(key, entry);
+        } else if (stored != null) {
+            return stored;
+        }
+        synchronized (stampLock) {
+            missedAt.asMap().merge(key, sequence.get(), Math::min);
+        }
+        return null;
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        final Entry entry;
+        synchronized (stampLock) {
+            final Long since = missedAt.asMap().remove(key);
+            entry = entry(key, value, since != null ? since : sequence.get());
+            getNativeCache().put(key, entry);
+        }
+        index(key, entry);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(final Object key, final Object value) {
+        final Entry candidate = entry(key, value, sequence.get());
+        final Object existing = getNativeCache().asMap().merge(key, candidate,
+                (old, fresh) -> old instanceof Entry e && !isCurrent(e) ? fresh : old);
+        if (existing == candidate) {
+            index(key, candidate);
+            return null;
+        }
+        return toValueWrapper(existing instanceof Entry e ? e.storeValue() : existing);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <T> T getOrLoad(final Object key, final Callable<T> valueLoader) {
+        while (true) {
+            final Object stored = getNativeCache().getIfPresent(key);
+            if (stored instanceof Entry e) {
+                if (isCurrent(e)) {
+                    return (T) fromStoreValue(e.storeValue());
+                }
+                getNativeCache().asMap().remove(key, e);
+            } else if (stored != null) {
+                return (T) fromStoreValue(stored);
+            }
+            final Load load;
+            synchronized (stampLock) {
+                load = new Load(sequence.get(), new CompletableFuture<>());
+            }
+            final Load running = loads.putIfAbsent(key, load);
+            if (running == null) {
+                return (T) fromStoreValue(load(key, valueLoader, load).storeValue());
+            }
+            try {
+                return (T) fromStoreValue(running.result().join().storeValue());
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Runs {@code valueLoader} for the pending {@code load} of {@code key} (no lock held) and stores
+     * the result, dated at the load's start; callers waiting on the same key get the same result.
+     */
+    private Entry load(final Object key, final Callable<?> valueLoader, final Load load) {
+        try {
+            final Entry entry = entry(key, valueLoader.call(), load.start());
+            getNativeCache().put(key, entry);
+            index(key, entry);
+            load.result().complete(entry);
+            return entry;
+        } catch (Exception ex) {
+            final ValueRetrievalException failure = new ValueRetrievalException(key, valueLoader, ex);
+            load.result().completeExceptionally(failure);
+            throw failure;
+        } finally {
+            // An Error skipped both branches; release the waiters
+            load.result().cancel(false);
+            loads.remove(key, load);
+        }
+    }
+
+    private Entry entry(final Object key, final Object value, final long computedAt) {
+        final String[] tags = tagResolver.tagsFor(key, value).toArray(String[]::new);
+        final String etag = value instanceof ResponseEntity<?> response && response.getStatusCode().is2xxSuccessful()
+                ? response.getHeaders().getETag() : null;
+        return new Entry(toStoreValue(value), tags, computedAt, etag);
+    }
+
+    private void index(final Object key, final Entry entry) {
+        if (entry.etag() != null) {
+            etags.put(key, new Etag(entry.etag(), entry.tags(), entry.computedAt()));
+        } else {
+            etags.invalidate(key);
+        }
+    }
+
+    private boolean isCurrent(final Entry entry) {
+        return isCurrent(entry.tags(), entry.computedAt());
+    }
+
+    private boolean isCurrent(final String[] tags, final long computedAt) {
+        for (String tag : tags) {
+            final Long stamp = invalidatedAt.getIfPresent(tag);
+            if (stamp != null && stamp > computedAt) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Derives the tags an entry depends on from its key and (unwrapped) value.
+     */
+    @FunctionalInterface
+    public interface TagResolver {
+        Collection<String> tagsFor(Object key, Object value);
+    }
+
+    private record Entry(Object storeValue, String[] tags, long computedAt, String etag) implements CacheWeigher.Sized {
+        @Override
+        public long estimatedBytes(final CacheWeigher weigher) {
+            long bytes = 48L + weigher.estimate(storeValue) + weigher.estimate(etag);
+            for (String tag : tags) {
+                bytes += weigher.estimate(tag);
+            }
+            return bytes;
+        }
+    }
+
+    private record Etag(String value, String[] tags, long computedAt) {
+    }
+
+    /**
+     * A load in progress: the sequence it started at and its eventual entry.
+     */
+    private record Load(long start, CompletableFuture<Entry> result) {
+    }
+}
@@ -1,32 +1,70 @@
 package org.steam5.domain;
 
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * Single owner of the bucket-label parsing rule. A label like "100-1000" or "10000+"
  * encodes a review-count range; this class extracts the lower bound for ordering and
- * comparison. Both controllers previously carried identical private copies of this logic.
+ * comparison. Both controllers previously carried identical private copies of this logic, and
+ * the aggregate queries use its SQL form of the too-high/too-low rule.
  */
 public final class BucketLabel {
 
+    /**
+     * The lower bound of a label is its leading number, ignoring leading whitespace; a label
+     * without one is unordered, and a guess involving it is neither too high nor too low.
+     * {@link #lowerBound} and the SQL below both apply this pattern (its first group).
+     */
+    public static final String LOWER_BOUND_REGEX = "^\\s*([0-9]+)";
+
+    /** SQL condition for a too-high guess over a {@code guesses} row aliased {@code g}. */
+    public static final String GUESS_TOO_HIGH_SQL =
+            "CAST(substring(g.selected_bucket from '" + LOWER_BOUND_REGEX + "') AS BIGINT) > "
+                    + "CAST(substring(g.actual_bucket from '" + LOWER_BOUND_REGEX + "') AS BIGINT)";
+
+    /** SQL condition for a too-low guess over a {@code guesses} row aliased {@code g}. */
+    public static final String GUESS_TOO_LOW_SQL =
+            "CAST(substring(g.selected_bucket from '" + LOWER_BOUND_REGEX + "') AS BIGINT) < "
+                    + "CAST(substring(g.actual_bucket from '" + LOWER_BOUND_REGEX + "') AS BIGINT)";
+
+    private static final Pattern LOWER_BOUND = Pattern.compile(LOWER_BOUND_REGEX);
+
     private BucketLabel() {}
 
     /**
-     * Returns the lower bound encoded in a bucket label, used to determine whether a
-     * guess was too high or too low relative to the actual bucket.
-     * Returns {@link Integer#MIN_VALUE} for null or unparseable labels.
+     * Returns the lower bound encoded in a bucket label ("100-1000" and "100+" both give 100),
+     * or {@code null} for null or unordered labels.
      */
-    public static int order(final String label) {
-        if (label == null) return Integer.MIN_VALUE;
-        final String s = label.trim();
+    public static Long lowerBound(final String label) {
+        if (label == null) return null;
+        final Matcher m = LOWER_BOUND.matcher(label);
+        if (!m.find()) return null;
         try {
-            if (s.endsWith("+")) {
-                return Integer.parseInt(s.substring(0, s.length() - 1));
-            }
-            final int dash = s.indexOf('-');
-            if (dash > 0) {
-                return Integer.parseInt(s.substring(0, dash));
-            }
-        } catch (final Exception ignored) {
+            return Long.parseLong(m.group(1));
+        } catch (final NumberFormatException e) {
+            return null;
         }
-        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * Returns the lower bound encoded in a bucket label, for ordering labels.
+     * Returns {@link Integer#MIN_VALUE} for null or unordered labels.
+     */
+    public static int order(final String label) {
+        final Long bound = lowerBound(label);
+        return bound == null || bound > Integer.MAX_VALUE ? Integer.MIN_VALUE : bound.intValue();
+    }
+
+    /**
+     * Compares a guessed bucket with the actual one by lower bound.
+     *
+     * @return positive if the guess was too high, negative if too low, 0 if neither (same bound
+     * or either label unordered)
+     */
+    public static int compareGuess(final String selected, final String actual) {
+        final Long guessed = lowerBound(selected);
+        final Long real = lowerBound(actual);
+        return guessed == null || real == null ? 0 : Long.compare(guessed, real);
     }
 }
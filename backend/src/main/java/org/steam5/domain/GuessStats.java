@@ -24,10 +24,10 @@ public record GuessStats(
                 .count();
         final long flops = guesses.stream().filter(g -> g.getPoints() == 0).count();
         final long tooHigh = guesses.stream()
-                .filter(g -> BucketLabel.order(g.getSelectedBucket()) > BucketLabel.order(g.getActualBucket()))
+                .filter(g -> BucketLabel.compareGuess(g.getSelectedBucket(), g.getActualBucket()) > 0)
                 .count();
         final long tooLow = guesses.stream()
-                .filter(g -> BucketLabel.order(g.getSelectedBucket()) < BucketLabel.order(g.getActualBucket()))
+                .filter(g -> BucketLabel.compareGuess(g.getSelectedBucket(), g.getActualBucket()) < 0)
                 .count();
         final double avgPoints = rounds > 0 ? (double) totalPoints / rounds : 0.0;
         return new GuessStats(totalPoints, rounds, hits, flops, tooHigh, tooLow, avgPoints);
@@ -0,0 +1,49 @@
+package org.steam5.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * The final leaderboard of a completed week, month or season, ranked and serialized once when
+ * the period is frozen and served as-is from then on. Written by LeaderboardSnapshotService;
+ * rows are never updated.
+ */
+@Entity
+@Table(name = "leaderboard_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardSnapshot {
+
+    /** {@code 2026-W29}, {@code 2026-07} or {@code season-3}. */
+    @Id
+    @Column(name = "period", nullable = false, length = 32)
+    private String period;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @Column(name = "entry_count", nullable = false)
+    private int entryCount;
+
+    /** The JSON response body. */
+    @Column(name = "body", nullable = false)
+    private byte[] body;
+
+    @Column(name = "etag", nullable = false, length = 80)
+    private String etag;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+}
@@ -0,0 +1,70 @@
+package org.steam5.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * One player's guesses of one game day, summed: the partial that rolling-window, season and
+ * perfect-day leaderboards add up. Maintained by LeaderboardAggregateService — a delta per
+ * accepted guess, plus a periodic reconciliation of recent days against {@code guesses}.
+ * Hibernate-managed DDL; the entity exists for the schema, reads and writes are native SQL in
+ * LeaderboardAggregateRepository.
+ */
+@Entity
+@Table(name = "leaderboard_user_day", indexes = {
+        @Index(name = "idx_leaderboard_user_day_game_date", columnList = "game_date")
+})
+@IdClass(LeaderboardUserDay.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardUserDay {
+
+    @Id
+    @Column(name = "steam_id", nullable = false, length = 32)
+    private String steamId;
+
+    @Id
+    @Column(name = "game_date", nullable = false)
+    private LocalDate gameDate;
+
+    @Column(name = "total_points", nullable = false)
+    private int totalPoints;
+
+    @Column(name = "rounds", nullable = false)
+    private int rounds;
+
+    @Column(name = "hits", nullable = false)
+    private int hits;
+
+    @Column(name = "flops", nullable = false)
+    private int flops;
+
+    @Column(name = "too_high", nullable = false)
+    private int tooHigh;
+
+    @Column(name = "too_low", nullable = false)
+    private int tooLow;
+
+    /** Highest round index guessed; the day's round count is the maximum over all players. */
+    @Column(name = "max_round", nullable = false)
+    private int maxRound;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String steamId;
+        private LocalDate gameDate;
+    }
+}
@@ -0,0 +1,43 @@
+package org.steam5.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One player's guesses of all time, summed; backs the all-time leaderboard. Maintained together
+ * with {@link LeaderboardUserDay} by LeaderboardAggregateService.
+ */
+@Entity
+@Table(name = "leaderboard_user_total")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardUserTotal {
+
+    @Id
+    @Column(name = "steam_id", nullable = false, length = 32)
+    private String steamId;
+
+    @Column(name = "total_points", nullable = false)
+    private long totalPoints;
+
+    @Column(name = "rounds", nullable = false)
+    private long rounds;
+
+    @Column(name = "hits", nullable = false)
+    private long hits;
+
+    @Column(name = "flops", nullable = false)
+    private long flops;
+
+    @Column(name = "too_high", nullable = false)
+    private long tooHigh;
+
+    @Column(name = "too_low", nullable = false)
+    private long tooLow;
+}
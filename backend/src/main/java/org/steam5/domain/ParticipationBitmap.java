@@ -0,0 +1,241 @@
+package org.steam5.domain;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * The game days a player took part in, one bit per epoch day. Replaces streaming a player's
+ * distinct guess dates into a streak walk: the current streak costs one word per 64 days of
+ * streak, the longest streak one pass over the words.
+ *
+ * <p>Bit 0 of {@code words[0]} is {@link #originDay()}, always a multiple of 64, so the bitmap
+ * only spans the player's own history. Immutable; {@link #with} returns a widened copy. Stored
+ * as little-endian {@code bytea} (see UserParticipation).</p>
+ */
+public final class ParticipationBitmap {
+
+    private static final ParticipationBitmap EMPTY = new ParticipationBitmap(0, new long[0]);
+
+    private final int originDay;
+    private final long[] words;
+
+    private ParticipationBitmap(final int originDay, final long[] words) {
+        this.originDay = originDay;
+        this.words = words;
+    }
+
+    public static ParticipationBitmap empty() {
+        return EMPTY;
+    }
+
+    public static ParticipationBitmap of(final Collection<LocalDate> days) {
+        ParticipationBitmap bitmap = EMPTY;
+        for (final LocalDate day : days) {
+            bitmap = bitmap.with(day);
+        }
+        return bitmap;
+    }
+
+    /**
+     * @param originDay epoch day of the first bit, as returned by {@link #originDay()}
+     * @param bytes     the words, as returned by {@link #toBytes()}
+     */
+    public static ParticipationBitmap fromBytes(final int originDay, final byte[] bytes) {
+        if (bytes == null || bytes.length < Long.BYTES) {
+            return EMPTY;
+        }
+        final long[] words = new long[bytes.length / Long.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(words);
+        return new ParticipationBitmap(originDay, words);
+    }
+
+    public byte[] toBytes() {
+        final ByteBuffer buffer = ByteBuffer.allocate(words.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asLongBuffer().put(words);
+        return buffer.array();
+    }
+
+    public int originDay() {
+        return originDay;
+    }
+
+    public boolean isEmpty() {
+        return words.length == 0;
+    }
+
+    public boolean contains(final LocalDate day) {
+        final long index = day.toEpochDay() - originDay;
+        return index >= 0 && index < capacity() && (words[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    /**
+     * @return this bitmap with {@code day} set, widened at either end if needed
+     */
+    public ParticipationBitmap with(final LocalDate day) {
+        if (contains(day)) {
+            return this;
+        }
+        final int dayOrigin = alignedOrigin(day.toEpochDay());
+        final ParticipationBitmap widened = widen(dayOrigin, dayOrigin + 64L);
+        final long index = day.toEpochDay() - widened.originDay;
+        widened.words[(int) (index >>> 6)] |= 1L << index;
+        return widened;
+    }
+
+    /**
+     * @return the days set in either bitmap
+     */
+    public ParticipationBitmap or(final ParticipationBitmap other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        final ParticipationBitmap union = widen(other.originDay, other.originDay + other.capacity());
+        final int offset = (other.originDay - union.originDay) / 64;
+        for (int i = 0; i < other.words.length; i++) {
+            union.words[offset + i] |= other.words[i];
+        }
+        return union;
+    }
+
+    /**
+     * Current active streak: consecutive days ending at {@code asOf}, or at the day before it if
+     * {@code asOf} has not been played yet (a player who played yesterday keeps their streak).
+     * Days after {@code asOf} are ignored.
+     */
+    public int currentStreak(final LocalDate asOf) {
+        final LocalDate end = contains(asOf) ? asOf : asOf.minusDays(1);
+        if (!contains(end)) {
+            return 0;
+        }
+        final long index = end.toEpochDay() - originDay;
+        int word = (int) (index >>> 6);
+        final int bit = (int) (index & 63);
+        // Ones from the end bit downwards; the bits shifted in below it are zero and stop the count.
+        final int inWord = Long.numberOfLeadingZeros(~(words[word] << (63 - bit)));
+        if (inWord <= bit) {
+            return inWord;
+        }
+        int streak = inWord;
+        word--;
+        while (word >= 0 && words[word] == -1L) {
+            streak += 64;
+            word--;
+        }
+        if (word >= 0) {
+            streak += Long.numberOfLeadingZeros(~words[word]);
+        }
+        return streak;
+    }
+
+    /**
+     * @return the longest run of consecutive days ever played
+     */
+    public int longestStreak() {
+        return isEmpty() ? 0 : longestRun(0, capacity() - 1);
+    }
+
+    /**
+     * @return the longest run of consecutive days within {@code from}..{@code to} (inclusive)
+     */
+    public int longestStreakBetween(final LocalDate from, final LocalDate to) {
+        final long lo = Math.max(0, from.toEpochDay() - originDay);
+        final long hi = Math.min(capacity() - 1, to.toEpochDay() - originDay);
+        return lo > hi ? 0 : longestRun(lo, hi);
+    }
+
+    /**
+     * @return the number of days played within {@code from}..{@code to} (inclusive)
+     */
+    public int countBetween(final LocalDate from, final LocalDate to) {
+        final long lo = Math.max(0, from.toEpochDay() - originDay);
+        final long hi = Math.min(capacity() - 1, to.toEpochDay() - originDay);
+        int count = 0;
+        for (int w = (int) (lo >>> 6); lo <= hi && w <= (int) (hi >>> 6); w++) {
+            count += Long.bitCount(masked(w, lo, hi));
+        }
+        return count;
+    }
+
+    /**
+     * @return the last day played on or before {@code day}, or {@code null} if none
+     */
+    public LocalDate latestOnOrBefore(final LocalDate day) {
+        final long index = Math.min(capacity() - 1, day.toEpochDay() - originDay);
+        if (index < 0) {
+            return null;
+        }
+        int word = (int) (index >>> 6);
+        long bits = words[word] & (-1L >>> (63 - (index & 63)));
+        while (bits == 0 && word > 0) {
+            bits = words[--word];
+        }
+        if (bits == 0) {
+            return null;
+        }
+        return LocalDate.ofEpochDay(originDay + 64L * word + 63 - Long.numberOfLeadingZeros(bits));
+    }
+
+    private long capacity() {
+        return 64L * words.length;
+    }
+
+    /**
+     * A copy spanning at least epoch days {@code fromDay} (aligned) until {@code toDay}
+     * (exclusive, aligned) as well as this bitmap's own days.
+     */
+    private ParticipationBitmap widen(final int fromDay, final long toDay) {
+        if (isEmpty()) {
+            return new ParticipationBitmap(fromDay, new long[(int) ((toDay - fromDay) / 64)]);
+        }
+        final int origin = Math.min(originDay, fromDay);
+        final long end = Math.max(originDay + capacity(), toDay);
+        final long[] widened = new long[(int) ((end - origin) / 64)];
+        System.arraycopy(words, 0, widened, (originDay - origin) / 64, words.length);
+        return new ParticipationBitmap(origin, widened);
+    }
+
+    private int longestRun(final long lo, final long hi) {
+        int best = 0;
+        int run = 0;
+        for (int w = (int) (lo >>> 6); w <= (int) (hi >>> 6); w++) {
+            final long bits = masked(w, lo, hi);
+            if (bits == -1L) {
+                run += 64;
+                continue;
+            }
+            // Close the run carried in from the previous word, then the runs inside this one;
+            // the run reaching its top bit carries into the next word.
+            best = Math.max(best, run + Long.numberOfTrailingZeros(~bits));
+            best = Math.max(best, longestRunWithin(bits));
+            run = Long.numberOfLeadingZeros(~bits);
+        }
+        return Math.max(best, run);
+    }
+
+    /** Word {@code w} with the bits outside indexes {@code lo}..{@code hi} cleared. */
+    private long masked(final int w, final long lo, final long hi) {
+        long bits = words[w];
+        if (w == (int) (lo >>> 6)) {
+            bits &= -1L << (lo & 63);
+        }
+        if (w == (int) (hi >>> 6)) {
+            bits &= -1L >>> (63 - (hi & 63));
+        }
+        return bits;
+    }
+
+    private static int longestRunWithin(long bits) {
+        int length = 0;
+        while (bits != 0) {
+            bits &= bits << 1;
+            length++;
+        }
+        return length;
+    }
+
+    private static int alignedOrigin(final long epochDay) {
+        return (int) Math.floorDiv(epochDay, 64L) * 64;
+    }
+}
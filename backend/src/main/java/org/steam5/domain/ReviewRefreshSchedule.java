@@ -0,0 +1,41 @@
+package org.steam5.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Per-app review refresh bookkeeping: the total seen at the last check, the smoothed review
+ * velocity derived from successive checks, and when the app is next due. Written in bulk by
+ * {@code ReviewRefreshScheduleRepository}; an app without a row has never been observed.
+ */
+@Getter
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "review_refresh_schedule")
+public class ReviewRefreshSchedule {
+
+    @Id
+    @Column(name = "app_id", nullable = false)
+    private Long appId;
+
+    @Column(name = "last_total", nullable = false)
+    private int lastTotal;
+
+    @Column(name = "checked_at", nullable = false)
+    private OffsetDateTime checkedAt;
+
+    /** Exponentially smoothed reviews per day (absolute change, so removals count as movement). */
+    @Column(name = "reviews_per_day", nullable = false)
+    private double reviewsPerDay;
+
+    @Column(name = "next_due_at", nullable = false)
+    private OffsetDateTime nextDueAt;
+}
@@ -0,0 +1,32 @@
+package org.steam5.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The game days one player took part in, as a {@link ParticipationBitmap}; backs the streaks of
+ * the leaderboards, season awards and player spotlights. Maintained by ParticipationService.
+ */
+@Entity
+@Table(name = "user_participation")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserParticipation {
+
+    @Id
+    @Column(name = "steam_id", nullable = false, length = 32)
+    private String steamId;
+
+    /** Epoch day of the first bit of {@link #bits}. */
+    @Column(name = "origin_day", nullable = false)
+    private int originDay;
+
+    @Column(name = "bits", nullable = false)
+    private byte[] bits;
+}
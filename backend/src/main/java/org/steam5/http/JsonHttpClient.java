@@ -1,10 +1,13 @@
 package org.steam5.http;
 
 import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonParser;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class JsonHttpClient {
@@ -18,14 +21,46 @@ public class JsonHttpClient {
     }
 
     public JsonNode getJson(String url) throws IOException {
-        final String body = httpClient.get(url);
-        if (body == null || body.isBlank()) {
+        return SteamHttpClient.await(getJsonAsync(url));
+    }
+
+    /**
+     * Fetches and parses a JSON response without buffering the body into a string: Jackson reads
+     * straight from the response stream as bytes arrive, within the client's request timeout.
+     */
+    public CompletableFuture<JsonNode> getJsonAsync(String url) {
+        return httpClient.getAsync(url, body -> parse(body, url));
+    }
+
+    /**
+     * Fetches a JSON response and hands a token-level parser over the live response stream to
+     * {@code reader}, for responses too large to materialize as a tree. Blocks until the reader
+     * returns; the stream is closed afterwards. Only the time {@code reader} spends blocked on
+     * the stream counts against the request timeout, so it may write what it parsed as it goes.
+     * Once that time is used up the stream is closed under the reader, and the request is retried
+     * after the reader has returned: {@code reader} may run more than once, never concurrently,
+     * and must be safe to repeat.
+     */
+    public <T> T streamJson(String url, StreamingReader<T> reader) throws IOException {
+        return SteamHttpClient.await(httpClient.getAsync(url, body -> {
+            try (JsonParser parser = objectMapper.createParser(body)) {
+                return reader.read(parser);
+            }
+        }));
+    }
+
+    @FunctionalInterface
+    public interface StreamingReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    private JsonNode parse(InputStream body, String url) throws IOException {
+        final JsonNode root = objectMapper.readTree(body);
+        if (root == null || root.isMissingNode()) {
             // Never embed the raw URL — it contains key=<apiKey> and this
             // message is logged by every caller.
             throw new IOException("Empty response body for url=" + SteamHttpClient.sanitizeUrl(url));
         }
-        return objectMapper.readTree(body);
+        return root;
     }
 }
-
-
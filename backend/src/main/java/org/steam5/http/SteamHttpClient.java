@@ -4,30 +4,68 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.ResourceAccessException;
-import org.springframework.web.client.RestClientResponseException;
-import org.springframework.web.client.RestTemplate;
 import org.steam5.config.SteamAppsConfig;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Steam API client on {@link HttpClient}: one pooled, keep-alive client that negotiates
+ * HTTP/2 where Steam offers it, so concurrent requests to the same host share a connection.
+ * {@link #getAsync} never blocks a thread on the rate limiter, a backoff or the network;
+ * response bodies are handed to readers as streams so callers can parse without buffering a copy.
+ */
 @Slf4j
 @Component
 public class SteamHttpClient {
 
-    private final RestTemplate restTemplate;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long MIN_WATCH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
     private final SteamRateLimiter rateLimiter;
     private final MeterRegistry meterRegistry;
+    private final Duration requestTimeout;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
 
     public SteamHttpClient(SteamAppsConfig cfg, SteamRateLimiter rateLimiter, MeterRegistry meterRegistry) {
         this.rateLimiter = rateLimiter;
         this.meterRegistry = meterRegistry;
-        final SimpleClientHttpRequestFactory rf = new SimpleClientHttpRequestFactory();
-        rf.setConnectTimeout(cfg.getHttpTimeoutMs());
-        rf.setReadTimeout(cfg.getHttpTimeoutMs());
-        this.restTemplate = new RestTemplate(rf);
+        this.requestTimeout = Duration.ofMillis(cfg.getHttpTimeoutMs());
+        // Response handling and body parsing may block on the stream; keep that off platform threads.
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(requestTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        httpClient.shutdownNow();
+        executor.shutdownNow();
     }
 
     private static boolean shouldRetry(int status) {
@@ -35,15 +73,9 @@ public class SteamHttpClient {
         return status == 502 || status == 503 || status == 504 || status == 500;
     }
 
-    private void backoff(int attempt) {
+    private static long backoffMs(int attempt) {
         // Exponential backoff: 250ms, 750ms
-        final long sleepMs = 250L * (long) Math.pow(3, Math.max(0, attempt - 1));
-        log.debug("Backoff for {}ms before retry attempt {}", sleepMs, attempt + 1);
-        try {
-            Thread.sleep(sleepMs);
-        } catch (InterruptedException ignored) {
-            Thread.currentThread().interrupt();
-        }
+        return 250L * (long) Math.pow(3, Math.max(0, attempt - 1));
     }
 
     // Strip API key from URL before logging to prevent exposure in logs
@@ -54,13 +86,15 @@ public class SteamHttpClient {
 
     // Map a request URL to a bounded `endpoint` tag value. Anything not
     // recognised falls into `other` so the metric label cardinality stays
-    // fixed regardless of which job emits the request.
-    private static String endpointTag(String url) {
+    // fixed regardless of which job emits the request. The same value keys
+    // the per-endpoint rate-limit bucket.
+    static String endpointTag(String url) {
         if (url == null) return "other";
         if (url.contains("/api/appdetails")) return "appDetails";
         if (url.contains("/appreviews/")) return "appReviews";
         if (url.contains("GetAppList")) return "appList";
         if (url.contains("/openid/")) return "openid";
+        if (url.contains("GetPlayerSummaries")) return "playerSummaries";
         return "other";
     }
 
@@ -74,10 +108,11 @@ public class SteamHttpClient {
                 .description("Steam API request duration")
                 .tags(Tags.of("endpoint", endpoint, "outcome", outcome))
                 .register(meterRegistry)
-                .record(elapsedNanos, java.util.concurrent.TimeUnit.NANOSECONDS);
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
     }
 
     private void recordRateLimited(String endpoint) {
+        rateLimiter.recordRateLimited(endpoint);
         Counter.builder("steam.api.rate.limit.hits")
                 .description("Steam API responses observed with HTTP 429")
                 .tags(Tags.of("endpoint", endpoint))
@@ -85,58 +120,256 @@ public class SteamHttpClient {
                 .increment();
     }
 
+    /**
+     * Blocking GET returning the body as a string. Prefer {@link #getAsync} for bulk work.
+     */
     public String get(String url) throws SteamApiException {
-        final int maxAttempts = 3;
-        final String endpoint = endpointTag(url);
-        final long started = System.nanoTime();
-        int attempt = 0;
-        while (true) {
-            attempt++;
-            try {
-                rateLimiter.acquirePermit();
-                final ResponseEntity<String> resp = restTemplate.getForEntity(url, String.class);
-                final int status = resp.getStatusCode().value();
-                if (status >= 200 && status < 300) {
-                    if (attempt > 1) {
-                        log.info("Steam API call succeeded on attempt {}: {}", attempt, sanitizeUrl(url));
-                    }
-                    recordOutcome(endpoint, "success", System.nanoTime() - started);
-                    return resp.getBody();
-                }
-                // Non-2xx without exception (custom handlers) - treat as error
-                if (shouldRetry(status) && attempt < maxAttempts) {
-                    log.warn("Steam API returned {} on attempt {}/{}, retrying: {}",
-                             status, attempt, maxAttempts, sanitizeUrl(url));
-                    backoff(attempt);
-                    continue;
-                }
-                if (status == 429) recordRateLimited(endpoint);
-                recordOutcome(endpoint, status == 429 ? "rate_limited" : "failed", System.nanoTime() - started);
-                throw new SteamApiException(status, url, "HTTP " + status + " calling Steam API");
-            } catch (RestClientResponseException rcre) {
-                final int status = rcre.getStatusCode().value();
-                if (shouldRetry(status) && attempt < maxAttempts) {
-                    log.warn("Steam API exception {} on attempt {}/{}, retrying: {}",
-                             status, attempt, maxAttempts, sanitizeUrl(url));
-                    backoff(attempt);
-                    continue;
+        try {
+            return await(getAsync(url, body -> new String(body.readAllBytes(), StandardCharsets.UTF_8)));
+        } catch (SteamApiException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new SteamApiException(599, url, "Network error reading Steam API response", e);
+        }
+    }
+
+    /**
+     * Rate-limited GET with retry/backoff whose 2xx body is consumed by {@code reader} on a
+     * virtual thread, straight from the response stream. The request timeout bounds the wait
+     * for headers and, separately, the time spent blocked reading the body; time the reader
+     * spends between reads is not counted. A body that stalls has its stream closed, and the
+     * request is retried like any other network error once the reader has returned. Fails with
+     * {@link SteamApiException} for non-2xx responses and exhausted network retries.
+     */
+    public <T> CompletableFuture<T> getAsync(String url, BodyReader<T> reader) {
+        final HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .GET()
+                .build();
+        return attempt(request, url, endpointTag(url), reader, 1, System.nanoTime());
+    }
+
+    @FunctionalInterface
+    public interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
+
+    private <T> CompletableFuture<T> attempt(HttpRequest request, String url, String endpoint,
+                                             BodyReader<T> reader, int attempt, long started) {
+        return rateLimiter.acquireAsync(endpoint)
+                .thenCompose(ignored -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream()))
+                .thenCompose(resp -> onResponse(resp, url, endpoint, reader))
+                .handle((value, error) -> error != null
+                        ? onError(unwrap(error), request, url, endpoint, reader, attempt, started)
+                        : onSuccess(value, url, endpoint, attempt, started))
+                .thenCompose(Function.identity());
+    }
+
+    private <T> CompletableFuture<T> onResponse(HttpResponse<InputStream> resp, String url, String endpoint,
+                                                BodyReader<T> reader) {
+        final int status = resp.statusCode();
+        if (status >= 200 && status < 300) {
+            return read(resp, url, reader);
+        }
+        discard(resp);
+        if (status == 429) recordRateLimited(endpoint);
+        return CompletableFuture.failedFuture(new SteamApiException(status, url, "HTTP " + status + " calling Steam API"));
+    }
+
+    private <T> CompletableFuture<T> read(HttpResponse<InputStream> resp, String url, BodyReader<T> reader) {
+        final TimedBody body = new TimedBody(resp.body(), requestTimeout.toNanos());
+        final CompletableFuture<T> result = CompletableFuture.supplyAsync(() -> {
+            try (body) {
+                return reader.read(body);
+            } catch (IOException | RuntimeException e) {
+                // Jackson reports the closed stream as its own (unchecked) exception
+                if (body.timedOut()) {
+                    throw new UncheckedIOException(new HttpTimeoutException(
+                            "Timed out reading Steam API response body: " + sanitizeUrl(url)));
                 }
-                log.error("Steam API call failed after {} attempts: status={} url={}",
-                          attempt, status, sanitizeUrl(url));
-                if (status == 429) recordRateLimited(endpoint);
-                recordOutcome(endpoint, status == 429 ? "rate_limited" : "failed", System.nanoTime() - started);
-                throw new SteamApiException(status, url, "HTTP " + status + " calling Steam API", rcre);
-            } catch (ResourceAccessException rae) {
-                // I/O errors or timeouts; retry with backoff
-                if (attempt < maxAttempts) {
-                    log.warn("Steam API network error on attempt {}/{}, retrying: {} ({})",
-                             attempt, maxAttempts, sanitizeUrl(url), rae.getMessage());
-                    backoff(attempt);
-                    continue;
+                if (e instanceof IOException io) {
+                    throw new UncheckedIOException(io);
                 }
-                log.error("Steam API network error after {} attempts: url={}", attempt, sanitizeUrl(url), rae);
-                recordOutcome(endpoint, "network_error", System.nanoTime() - started);
-                throw new SteamApiException(599, url, "Network error calling Steam API", rae);
+                throw (RuntimeException) e;
+            }
+        }, executor);
+        watch(body, result);
+        // Completes only once the reader has returned, so a retry never runs alongside it
+        return result;
+    }
+
+    /**
+     * Closes {@code body} once its reads have used up the request timeout, which makes the read
+     * blocked in the reader fail. Time the reader spends between reads (e.g. writing what it
+     * parsed) does not count.
+     */
+    private void watch(TimedBody body, CompletableFuture<?> reading) {
+        if (reading.isDone()) {
+            return;
+        }
+        final long remaining = body.remainingNanos();
+        if (remaining <= 0) {
+            body.expire();
+            return;
+        }
+        CompletableFuture.runAsync(() -> watch(body, reading), CompletableFuture.delayedExecutor(
+                Math.max(remaining, MIN_WATCH_INTERVAL_NANOS), TimeUnit.NANOSECONDS, executor));
+    }
+
+    private <T> CompletableFuture<T> onSuccess(T value, String url, String endpoint, int attempt, long started) {
+        if (attempt > 1) {
+            log.info("Steam API call succeeded on attempt {}: {}", attempt, sanitizeUrl(url));
+        }
+        recordOutcome(endpoint, "success", System.nanoTime() - started);
+        return CompletableFuture.completedFuture(value);
+    }
+
+    private <T> CompletableFuture<T> onError(Throwable error, HttpRequest request, String url, String endpoint,
+                                             BodyReader<T> reader, int attempt, long started) {
+        if (error instanceof SteamApiException api) {
+            final int status = api.getStatusCode();
+            if (shouldRetry(status) && attempt < MAX_ATTEMPTS) {
+                log.warn("Steam API returned {} on attempt {}/{}, retrying: {}",
+                        status, attempt, MAX_ATTEMPTS, sanitizeUrl(url));
+                return retry(request, url, endpoint, reader, attempt, started);
+            }
+            log.error("Steam API call failed after {} attempts: status={} url={}",
+                    attempt, status, sanitizeUrl(url));
+            recordOutcome(endpoint, status == 429 ? "rate_limited" : "failed", System.nanoTime() - started);
+            return CompletableFuture.failedFuture(api);
+        }
+        if (!(error instanceof IOException)) {
+            return CompletableFuture.failedFuture(error);
+        }
+        // I/O errors or timeouts, waiting for headers or reading the body; retry with backoff
+        if (attempt < MAX_ATTEMPTS) {
+            log.warn("Steam API network error on attempt {}/{}, retrying: {} ({})",
+                    attempt, MAX_ATTEMPTS, sanitizeUrl(url), error.getMessage());
+            return retry(request, url, endpoint, reader, attempt, started);
+        }
+        log.error("Steam API network error after {} attempts: url={}", attempt, sanitizeUrl(url), error);
+        recordOutcome(endpoint, "network_error", System.nanoTime() - started);
+        return CompletableFuture.failedFuture(new SteamApiException(599, url, "Network error calling Steam API", error));
+    }
+
+    private <T> CompletableFuture<T> retry(HttpRequest request, String url, String endpoint,
+                                           BodyReader<T> reader, int attempt, long started) {
+        final long sleepMs = backoffMs(attempt);
+        log.debug("Backoff for {}ms before retry attempt {}", sleepMs, attempt + 1);
+        return CompletableFuture.runAsync(() -> {
+                }, CompletableFuture.delayedExecutor(sleepMs, TimeUnit.MILLISECONDS, executor))
+                .thenCompose(ignored -> attempt(request, url, endpoint, reader, attempt + 1, started));
+    }
+
+    private static void discard(HttpResponse<InputStream> resp) {
+        try (InputStream ignored = resp.body()) {
+            // Closing without reading lets the client release the stream/connection.
+        } catch (IOException ignored) {
+            // Nothing to recover; the response is being dropped anyway.
+        }
+    }
+
+    /**
+     * Waits for an async Steam call, rethrowing its {@link IOException} (usually a
+     * {@link SteamApiException}) as-is.
+     */
+    public static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new InterruptedIOException("Interrupted waiting for Steam API response");
+        } catch (ExecutionException e) {
+            final Throwable cause = unwrap(e.getCause());
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IOException(cause);
+        }
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        Throwable cur = t;
+        while ((cur instanceof CompletionException || cur instanceof ExecutionException) && cur.getCause() != null) {
+            cur = cur.getCause();
+        }
+        if (cur instanceof UncheckedIOException uio) {
+            return uio.getCause();
+        }
+        return cur;
+    }
+
+    /**
+     * Response body that counts the time spent blocked in its reads against a budget, and can be
+     * closed from another thread once that budget is spent.
+     */
+    private static final class TimedBody extends FilterInputStream {
+        private final long budgetNanos;
+        private long spentNanos;
+        private long readingSince;
+        private boolean reading;
+        private volatile boolean timedOut;
+
+        TimedBody(InputStream in, long budgetNanos) {
+            super(in);
+            this.budgetNanos = budgetNanos;
+        }
+
+        @Override
+        public int read() throws IOException {
+            begin();
+            try {
+                return super.read();
+            } finally {
+                end();
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            begin();
+            try {
+                return super.read(b, off, len);
+            } finally {
+                end();
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            begin();
+            try {
+                return super.skip(n);
+            } finally {
+                end();
+            }
+        }
+
+        private synchronized void begin() {
+            readingSince = System.nanoTime();
+            reading = true;
+        }
+
+        private synchronized void end() {
+            spentNanos += System.nanoTime() - readingSince;
+            reading = false;
+        }
+
+        synchronized long remainingNanos() {
+            return budgetNanos - spentNanos - (reading ? System.nanoTime() - readingSince : 0);
+        }
+
+        boolean timedOut() {
+            return timedOut;
+        }
+
+        void expire() {
+            timedOut = true;
+            try {
+                close();
+            } catch (IOException ignored) {
+                // The blocked read fails either way
             }
         }
     }
@@ -1,47 +1,208 @@
 package org.steam5.http;
 
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.steam5.config.SteamRateLimitProperties;
 
-import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
+/**
+ * Token-bucket limiter for outgoing Steam API calls, with one bucket per {@code endpoint} tag
+ * (see {@link SteamHttpClient}) under a shared {@code host} bucket. Each endpoint bucket refills
+ * at its configured rate and holds up to {@code burst} permits, so a busy endpoint does not use up
+ * another's share; the host bucket caps what all of them send to Steam together.
+ *
+ * <p>Permits are reserved up front: a caller is told how long to wait instead of spinning on
+ * the bucket, which lets {@link #acquireAsync} hand back a future that completes when the permit
+ * is due without parking a thread. A 429 reported through {@link #recordRateLimited} halves the
+ * bucket's rate (down to {@code minRateFactor}); the rate steps back up after every quiet
+ * {@code recoveryInterval}.</p>
+ */
+@Slf4j
 @Component
 public class SteamRateLimiter {
 
-    private volatile long nextAllowedEpochMs = 0L;
-    private long minIntervalMs = 1000L;
-    private final Timer waitTimer;
+    private static final String DEFAULT_ENDPOINT = "other";
+    private static final double THROTTLE_DOWN = 0.5;
+    private static final double THROTTLE_UP = 1.5;
 
-    public SteamRateLimiter(MeterRegistry meterRegistry) {
-        this.waitTimer = Timer.builder("steam.api.rate.limiter.wait")
-                .description("Time waited acquiring the Steam API rate-limit permit")
-                .register(meterRegistry);
+    private final SteamRateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+    private final Map<String, SteamRateLimitProperties.Bucket> configured;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Bucket host;
+
+    @Autowired
+    public SteamRateLimiter(SteamRateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
     }
 
-    public synchronized void setMinInterval(Duration interval) {
-        this.minIntervalMs = Math.max(0L, interval.toMillis());
+    SteamRateLimiter(SteamRateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+        // Relaxed binding may or may not preserve the case of map keys; match case-insensitively.
+        this.configured = new ConcurrentHashMap<>();
+        properties.getEndpoints().forEach((k, v) -> configured.put(normalize(k), v));
+        // No timer of its own: the wait it adds is recorded against the endpoint
+        this.host = new Bucket("host", properties.getHost().getPermitsPerSecond(), properties.getHost().getBurst(),
+                nanoClock.getAsLong(), null);
     }
 
-    public void acquirePermit() {
-        long now = System.currentTimeMillis();
-        long waitMs;
-        synchronized (this) {
-            if (now < nextAllowedEpochMs) {
-                waitMs = nextAllowedEpochMs - now;
-            } else {
-                waitMs = 0L;
-            }
-            nextAllowedEpochMs = Math.max(now, nextAllowedEpochMs) + minIntervalMs;
-        }
-        if (waitMs > 0) {
+    /**
+     * Blocks the calling thread until a permit for {@code endpoint} is available.
+     */
+    public void acquirePermit(String endpoint) {
+        final long waitNanos = reserve(endpoint);
+        if (waitNanos > 0) {
             try {
-                TimeUnit.MILLISECONDS.sleep(waitMs);
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
             } catch (InterruptedException ie) {
                 Thread.currentThread().interrupt();
             }
         }
-        waitTimer.record(waitMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reserves a permit for {@code endpoint} and returns a future that completes when it is due.
+     * No thread is held while waiting; dependent stages run on the common pool unless the caller
+     * supplies its own executor.
+     */
+    public CompletableFuture<Void> acquireAsync(String endpoint) {
+        final long waitNanos = reserve(endpoint);
+        if (waitNanos <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+        }, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Slows the endpoint's bucket down after Steam answered with HTTP 429.
+     */
+    public void recordRateLimited(String endpoint) {
+        final Bucket bucket = bucket(endpoint);
+        final double rate = bucket.throttle(nanoClock.getAsLong());
+        log.warn("Steam API rate limited on endpoint={}; throttling to {} permits/s", bucket.endpoint, String.format(Locale.ROOT, "%.3f", rate));
+    }
+
+    /**
+     * @return the current (possibly throttled) rate for {@code endpoint}, in permits per second
+     */
+    public double currentRate(String endpoint) {
+        return bucket(endpoint).rate();
+    }
+
+    /**
+     * Reserves the endpoint's permit, then the host permit from the moment the endpoint one is due.
+     *
+     * @return nanoseconds until both are due
+     */
+    long reserve(String endpoint) {
+        final Bucket bucket = bucket(endpoint);
+        final long now = nanoClock.getAsLong();
+        final long endpointWait = bucket.reserve(now, now);
+        final long waitNanos = host.reserve(now, now + endpointWait);
+        bucket.waitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+        return waitNanos;
+    }
+
+    private Bucket bucket(String endpoint) {
+        final String key = endpoint == null ? DEFAULT_ENDPOINT : normalize(endpoint);
+        return buckets.computeIfAbsent(key, k -> {
+            final SteamRateLimitProperties.Bucket cfg = configured.get(k);
+            final double rate = cfg != null ? cfg.getPermitsPerSecond() : properties.getPermitsPerSecond();
+            final int burst = cfg != null ? cfg.getBurst() : properties.getBurst();
+            final String name = endpoint == null ? DEFAULT_ENDPOINT : endpoint;
+            final Bucket b = new Bucket(name, rate, burst, nanoClock.getAsLong(), Timer.builder("steam.api.rate.limiter.wait")
+                    .description("Time waited acquiring the Steam API rate-limit permit")
+                    .tag("endpoint", name)
+                    .register(meterRegistry));
+            Gauge.builder("steam.api.rate.limiter.permits.per.second", b, Bucket::rate)
+                    .description("Current Steam API permit rate per endpoint, after 429 throttling")
+                    .tag("endpoint", b.endpoint)
+                    .register(meterRegistry);
+            return b;
+        });
+    }
+
+    private static String normalize(String endpoint) {
+        return endpoint.toLowerCase(Locale.ROOT);
+    }
+
+    private final class Bucket {
+        private final String endpoint;
+        private final double configuredRate;
+        private final double capacity;
+        private final Timer waitTimer;
+        private double throttle = 1.0;
+        // May go negative: each unit below zero is a permit already promised to a waiting caller.
+        private double tokens;
+        private long lastRefillNanos;
+        private long lastAdjustNanos;
+
+        Bucket(String endpoint, double configuredRate, int burst, long now, Timer waitTimer) {
+            this.endpoint = endpoint;
+            this.configuredRate = Math.max(configuredRate, 1e-6);
+            this.capacity = Math.max(1, burst);
+            this.tokens = capacity;
+            this.lastRefillNanos = now;
+            this.lastAdjustNanos = now;
+            this.waitTimer = waitTimer;
+        }
+
+        synchronized double rate() {
+            return configuredRate * throttle;
+        }
+
+        /**
+         * Takes a permit for use no earlier than {@code at} (>= {@code now}).
+         *
+         * @return nanoseconds from {@code now} until it is due
+         */
+        synchronized long reserve(long now, long at) {
+            recover(now);
+            refill(at);
+            tokens -= 1.0;
+            // A reservation further out than `at` already refilled up to then, so nothing is due before it
+            final long due = Math.max(at, lastRefillNanos);
+            return due - now + (tokens >= 0 ? 0L : (long) Math.ceil(-tokens / rate() * 1e9));
+        }
+
+        synchronized double throttle(long now) {
+            refill(now);
+            throttle = Math.max(properties.getMinRateFactor(), throttle * THROTTLE_DOWN);
+            // Drop any saved burst and push the next free slot out by one (slower) interval.
+            tokens = Math.min(tokens, 0.0) - 1.0;
+            lastAdjustNanos = now;
+            return rate();
+        }
+
+        private void recover(long now) {
+            final long interval = properties.getRecoveryInterval().toNanos();
+            if (throttle < 1.0 && interval > 0 && now - lastAdjustNanos >= interval) {
+                refill(now);
+                final long steps = (now - lastAdjustNanos) / interval;
+                throttle = Math.min(1.0, throttle * Math.pow(THROTTLE_UP, steps));
+                lastAdjustNanos = now;
+            }
+        }
+
+        private void refill(long now) {
+            if (now > lastRefillNanos) {
+                tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / 1e9 * rate());
+                lastRefillNanos = now;
+            }
+        }
     }
 }
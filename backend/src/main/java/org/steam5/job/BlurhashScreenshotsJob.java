@@ -2,8 +2,6 @@ package org.steam5.job;
 
 import lombok.extern.slf4j.Slf4j;
 import org.quartz.*;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
@@ -23,18 +21,15 @@ import java.util.Set;
 public class BlurhashScreenshotsJob implements Job {
 
     private final BlurhashService service;
-    private final CacheManager cacheManager;
     private final ScreenshotRepository screenshotRepository;
     private final DomainCacheEvictor cacheEvictor;
     private final JobsConfig jobsConfig;
 
     public BlurhashScreenshotsJob(final BlurhashService service,
-                                  final CacheManager cacheManager,
                                   final ScreenshotRepository screenshotRepository,
                                   final DomainCacheEvictor cacheEvictor,
                                   final JobsConfig jobsConfig) {
         this.service = service;
-        this.cacheManager = cacheManager;
         this.screenshotRepository = screenshotRepository;
         this.cacheEvictor = cacheEvictor;
         this.jobsConfig = jobsConfig;
@@ -129,17 +124,12 @@ public class BlurhashScreenshotsJob implements Job {
             log.info("BlurhashScreenshotsJob finished scanned={} encoded={} failed={} batchLimit={} durationMs={}",
                     scanned, encoded, failed, batchLimit, ms);
 
-            // Clear game cache once so the FE can pull new screenshot blur data.
+            // Invalidate only the processed apps' cached details (one-day entry plus tagged
+            // review-game responses embedding them) so the FE pulls the new blur data, while
+            // unrelated historical responses stay cached. Mirrors the targeted path.
             if (encoded > 0) {
-                final Cache cache = cacheManager.getCache("review-game");
-                if (cache != null) {
-                    cache.clear();
-                }
-                // Also evict each processed app's one-day detail cache entry so the freshly
-                // encoded screenshot blur data appears in cached app detail responses
-                // immediately instead of up to the 24h TTL (mirrors the targeted path).
                 for (final Long appId : processedAppIds) {
-                    cacheEvictor.evictAppDetailEntry(appId);
+                    cacheEvictor.evictAppDetail(appId);
                 }
             }
         }
@@ -0,0 +1,25 @@
+package org.steam5.job;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.steam5.service.CommentReactionCounters;
+
+/**
+ * Periodically writes pending comment reaction toggles; the interval bounds how long a toggle
+ * lives in memory only.
+ */
+@Component
+@RequiredArgsConstructor
+public class CommentReactionFlushScheduler {
+
+    private final CommentReactionCounters reactionCounters;
+
+    /**
+     * Writes all pending reaction toggles in one batch.
+     */
+    @Scheduled(fixedDelayString = "${comments.reactions.flush-interval-ms:1000}")
+    public void flushReactions() {
+        reactionCounters.flush();
+    }
+}
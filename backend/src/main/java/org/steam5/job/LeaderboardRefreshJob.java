@@ -17,7 +17,8 @@ import org.steam5.service.LeaderboardRefreshService;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Refreshes one leaderboard materialized view per firing, driven by the "type" JobDataMap
+ * Refreshes one leaderboard per firing — the hardest-games materialized view, or a reconciliation
+ * of the incrementally maintained aggregates for the others — driven by the "type" JobDataMap
  * entry set on each of the five JobDetail beans below. A single parameterized job class
  * (rather than five near-identical ones) keeps the refresh-then-evict flow in one place.
  */
@@ -0,0 +1,52 @@
+package org.steam5.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.*;
+import org.springframework.context.annotation.Bean;
+import org.springframework.stereotype.Component;
+import org.steam5.domain.GameDate;
+import org.steam5.service.LeaderboardSnapshotService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Freezes the leaderboards of the week, month and season that just ended, so their first
+ * history read is already a stored snapshot.
+ */
+@Component
+@Slf4j
+@DisallowConcurrentExecution
+public class LeaderboardSnapshotJob implements Job {
+
+    private final LeaderboardSnapshotService snapshotService;
+
+    public LeaderboardSnapshotJob(LeaderboardSnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        final long start = System.nanoTime();
+        log.info("LeaderboardSnapshotJob fired at {}", context.getFireTime());
+        try {
+            snapshotService.freezeCompletedPeriods(GameDate.todayUtc());
+        } catch (Exception ex) {
+            log.error("Leaderboard snapshot failed", ex);
+            // Periods not frozen here are frozen on their first history read instead
+            throw new JobExecutionException(ex, false);
+        } finally {
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.info("LeaderboardSnapshotJob completed in {}ms; next fire {}",
+                    durationMs,
+                    context.getTrigger() != null ? context.getTrigger().getNextFireTime() : null);
+        }
+    }
+
+    @Bean("LeaderboardSnapshotJob")
+    public JobDetail jobDetail() {
+        return JobBuilder.newJob().ofType(LeaderboardSnapshotJob.class)
+                .storeDurably()
+                .withIdentity("LeaderboardSnapshotJob")
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package org.steam5.job;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.*;
+import org.springframework.context.annotation.Bean;
+import org.springframework.stereotype.Component;
+import org.steam5.domain.GameDate;
+import org.steam5.service.ReviewGameStateService;
+import org.steam5.web.ReviewGameStateController;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stages tomorrow's daily picks ahead of the UTC rollover and pre-warms the {@code /today}
+ * cache entries under tomorrow's key, so the midnight run of {@link ReviewGameStateJob} and the
+ * first requests of the new day find everything in place.
+ */
+@Component
+@Slf4j
+@DisallowConcurrentExecution
+public class ReviewGameStagingJob implements Job {
+
+    private final ReviewGameStateService service;
+    private final ReviewGameStateController controller;
+    private final MeterRegistry meterRegistry;
+
+    public ReviewGameStagingJob(ReviewGameStateService service, ReviewGameStateController controller, MeterRegistry meterRegistry) {
+        this.service = service;
+        this.controller = controller;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        final long start = System.nanoTime();
+        log.info("Job start ReviewGameStagingJob key={} fireTime={} scheduled={} refireCount={}",
+                context.getJobDetail().getKey(), context.getFireTime(), context.getScheduledFireTime(), context.getRefireCount());
+        try {
+            final LocalDate tomorrow = GameDate.todayUtc().plusDays(1);
+            final var picks = service.stageNextDayPicks();
+            if (picks == null || picks.isEmpty()) {
+                // Not fatal: the midnight ReviewGameStateJob still generates on demand.
+                log.warn("Staging produced no picks for {}; rollover will generate them", tomorrow);
+                record("failure");
+                return;
+            }
+            controller.prewarmToday(tomorrow);
+            controller.prewarmTodayDetails(tomorrow);
+            log.info("Staged {} picks for {} and pre-warmed today caches", picks.size(), tomorrow);
+            record("success");
+        } catch (Exception e) {
+            log.error("ReviewGameStaging failed", e);
+            record("failure");
+            throw new JobExecutionException(e, false);
+        } finally {
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.info("Job end ReviewGameStagingJob durationMs={} nextFireTime={}", durationMs,
+                    context.getTrigger() != null ? context.getTrigger().getNextFireTime() : null);
+        }
+    }
+
+    private void record(final String outcome) {
+        Counter.builder("steam5.daily.picks.staged")
+                .description("Next-day picks staging runs by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Bean("ReviewGameStagingJob")
+    public JobDetail jobDetail() {
+        return JobBuilder.newJob().ofType(ReviewGameStagingJob.class)
+                .storeDurably()
+                .withIdentity("ReviewGameStagingJob")
+                .build();
+    }
+}
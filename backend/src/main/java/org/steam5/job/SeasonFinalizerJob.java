@@ -49,11 +49,12 @@ public class SeasonFinalizerJob implements Job {
             // ensureSeasonForDate above guarantees current.endDate >= todayUtc,
             // so no further season creation is needed here.
 
-            // Without this, mv_leaderboard_season would still reflect the previous season's
-            // window until the next scheduled 00:46 UTC refresh — up to ~21 minutes during
-            // which /season could serve the previous season's standings under the new
-            // season's cache key (LeaderboardController#season keys its manual cache by
-            // season number, which already flipped above).
+            // The season leaderboard sums day partials over the new season's window, so it
+            // flips by itself; this reconciles the partials and records the SEASON refresh
+            // state right away instead of at the next scheduled 00:46 UTC run, keeping the
+            // freshness header consistent with the new season's cache key
+            // (LeaderboardController#season keys its manual cache by season number, which
+            // already flipped above).
             leaderboardRefreshService.refreshSeason();
         } catch (Exception ex) {
             log.error("Season finalization failed", ex);
@@ -64,7 +65,7 @@ public class SeasonFinalizerJob implements Job {
         } finally {
             // Unconditional, matching LeaderboardRefreshJob's pattern: cheap and harmless even
             // if refreshSeason() above failed or wasn't reached, and prevents a request that
-            // populated the leaderboard-static cache from an overnight-stale MV (e.g. just
+            // populated the leaderboard-static cache from the previous season (e.g. just
             // before this job fired) from pairing stale entries with a fresher
             // X-Leaderboard-Refreshed-At header until the cache's own TTL clears it.
             cacheEvictor.evictLeaderboardStatic();
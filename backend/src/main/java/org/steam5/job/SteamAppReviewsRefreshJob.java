@@ -3,12 +3,11 @@ package org.steam5.job;
 import lombok.extern.slf4j.Slf4j;
 import org.quartz.*;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
 import org.steam5.http.SteamApiException;
-import org.steam5.repository.SteamAppReviewsRepository;
+import org.steam5.service.ReviewRefreshScheduler;
+import org.steam5.service.ReviewsWriteBuffer;
 import org.steam5.service.SteamAppReviewsFetcher;
 
 import java.util.List;
@@ -23,17 +22,14 @@ public class SteamAppReviewsRefreshJob implements Job {
     private static final int MAX_REFRESH_LIMIT = 10_000;
 
     private final SteamAppReviewsFetcher fetcher;
-    private final SteamAppReviewsRepository reviewsRepository;
-    private final CacheManager cacheManager;
+    private final ReviewRefreshScheduler refreshScheduler;
     private final int configuredNightlyLimit;
 
     public SteamAppReviewsRefreshJob(SteamAppReviewsFetcher fetcher,
-                                     SteamAppReviewsRepository reviewsRepository,
-                                     CacheManager cacheManager,
+                                     ReviewRefreshScheduler refreshScheduler,
                                      @Value("${jobs.reviews-refresh.nightly-limit:2500}") int configuredNightlyLimit) {
         this.fetcher = fetcher;
-        this.reviewsRepository = reviewsRepository;
-        this.cacheManager = cacheManager;
+        this.refreshScheduler = refreshScheduler;
         this.configuredNightlyLimit = configuredNightlyLimit;
     }
 
@@ -42,6 +38,8 @@ public class SteamAppReviewsRefreshJob implements Job {
         final long start = System.nanoTime();
         int refreshed = 0;
         Exception caughtException = null;
+        // Rows are written in multi-row batches; flushed on size/age and always in finally.
+        final ReviewsWriteBuffer buffer = fetcher.newWriteBuffer();
         try {
             int limit = configuredNightlyLimit > 0 ? configuredNightlyLimit : DEFAULT_NIGHTLY_REFRESH;
             final JobDataMap map = context.getMergedJobDataMap();
@@ -54,12 +52,14 @@ public class SteamAppReviewsRefreshJob implements Job {
             // Clamp limit to [1, MAX_REFRESH_LIMIT] to prevent unbounded queries
             limit = Math.max(1, Math.min(limit, MAX_REFRESH_LIMIT));
             log.info("SteamAppReviewsRefreshJob starting with limit={}", limit);
-            final List<Long> ids = reviewsRepository.findIdsOrderByUpdatedAtAsc(org.springframework.data.domain.PageRequest.of(0, limit));
+            // Due apps only, most overdue first; see ReviewRefreshScheduler. Unused budget is
+            // left unspent rather than re-checking apps that are not expected to have moved.
+            final List<Long> ids = refreshScheduler.dueAppIds(limit);
+            log.info("SteamAppReviewsRefreshJob found {} due apps", ids.size());
             for (Long appId : ids) {
                 try {
-                    // Per-app cache eviction only; avoid clearing review-game aggregates on every
-                    // app (that thrash forces DB reloads while this job is already heavy).
-                    final boolean success = fetcher.fetchForAppId(appId, false);
+                    // Changed apps invalidate only their own review-game entries on flush.
+                    final boolean success = fetcher.fetchIntoBuffer(appId, buffer);
                     if (success) {
                         refreshed++;
                     }
@@ -80,16 +80,17 @@ public class SteamAppReviewsRefreshJob implements Job {
             log.error("SteamAppReviewsRefreshJob error", e);
             caughtException = e;
         } finally {
-            // Clear review-game cache after any successful refreshes, even if job aborted early
-            if (refreshed > 0) {
-                final Cache reviewGame = cacheManager.getCache("review-game");
-                if (reviewGame != null) {
-                    reviewGame.clear();
-                    log.info("Cleared review-game cache after refreshing {} apps", refreshed);
+            try {
+                buffer.flush();
+            } catch (Exception e) {
+                log.error("SteamAppReviewsRefreshJob failed to flush buffered reviews", e);
+                if (caughtException == null) {
+                    caughtException = e;
                 }
             }
             long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
-            log.info("SteamAppReviewsRefreshJob refreshed={} durationMs={}", refreshed, ms);
+            log.info("SteamAppReviewsRefreshJob refreshed={} changed={} unchanged={} durationMs={}",
+                    refreshed, buffer.written(), buffer.touched(), ms);
             if (caughtException != null) {
                 throw new JobExecutionException(caughtException, false);
             }
@@ -0,0 +1,82 @@
+package org.steam5.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.steam5.domain.ReactionType;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+
+/**
+ * Set-based writes to {@code comment_reactions} for the reaction write-behind
+ * ({@link org.steam5.service.CommentReactionCounters}): one statement toggles every reaction of a
+ * flush against what the table holds at that moment.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CommentReactionBulkRepository {
+
+    /**
+     * Deletes the listed reactions that exist and inserts the rest. Both parts read the statement's
+     * snapshot, so a row is either deleted or inserted, never both.
+     */
+    private static final String TOGGLE_SQL = """
+            WITH t AS (
+                SELECT * FROM unnest(?::bigint[], ?::text[], ?::text[], ?::text[]::timestamptz[])
+                    AS t(comment_id, steam_id, reaction_type, created_at)
+            ), removed AS (
+                DELETE FROM comment_reactions r
+                USING t
+                WHERE r.comment_id = t.comment_id AND r.steam_id = t.steam_id AND r.reaction_type = t.reaction_type
+                RETURNING r.comment_id, r.steam_id, r.reaction_type
+            )
+            INSERT INTO comment_reactions(comment_id, steam_id, reaction_type, created_at)
+            SELECT t.comment_id, t.steam_id, t.reaction_type, t.created_at FROM t
+            WHERE NOT EXISTS (SELECT 1 FROM removed d
+                              WHERE d.comment_id = t.comment_id AND d.steam_id = t.steam_id
+                                AND d.reaction_type = t.reaction_type)
+            ON CONFLICT (comment_id, steam_id, reaction_type) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Toggles reactions in one transaction: existing ones are deleted, missing ones inserted.
+     * Flushes of all nodes are serialised by a transaction-scoped advisory lock taken before the
+     * toggle, so two nodes toggling the same reaction see each other's write and cancel out.
+     */
+    @Transactional
+    public void toggleAll(final Collection<ReactionRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.queryForObject("SELECT 1 FROM pg_advisory_xact_lock(hashtext('comment-reactions-flush'))",
+                Integer.class);
+        final int n = rows.size();
+        final Long[] commentIds = new Long[n];
+        final String[] steamIds = new String[n];
+        final String[] types = new String[n];
+        final String[] createdAt = new String[n];
+        int i = 0;
+        for (ReactionRow r : rows) {
+            commentIds[i] = r.commentId();
+            steamIds[i] = r.steamId();
+            types[i] = r.reactionType().name();
+            createdAt[i] = r.createdAt().toString();
+            i++;
+        }
+        jdbcTemplate.update(con -> {
+            final var ps = con.prepareStatement(TOGGLE_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", commentIds));
+            ps.setArray(2, con.createArrayOf("text", steamIds));
+            ps.setArray(3, con.createArrayOf("text", types));
+            ps.setArray(4, con.createArrayOf("text", createdAt));
+            return ps;
+        });
+    }
+
+    public record ReactionRow(long commentId, String steamId, ReactionType reactionType, OffsetDateTime createdAt) {
+    }
+}
@@ -1,13 +1,12 @@
 package org.steam5.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.steam5.domain.CommentReaction;
 import org.steam5.domain.ReactionType;
 
-import java.time.OffsetDateTime;
+import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -37,7 +36,8 @@ public interface CommentReactionRepository extends JpaRepository<CommentReaction
     List<CommentReaction> findTopReactorsByCommentIds(@Param("commentIds") Collection<Long> commentIds,
                                                        @Param("limit") int limit);
 
-    List<CommentReaction> findByComment_IdInAndSteamId(Collection<Long> commentIds, String steamId);
+    /** The user's reactions on the comments of one game day (archived ones included). */
+    List<CommentReaction> findByComment_GameDateAndSteamId(LocalDate gameDate, String steamId);
 
     Optional<CommentReaction> findByComment_IdAndSteamIdAndReactionType(
             Long commentId, String steamId, ReactionType reactionType);
@@ -52,23 +52,6 @@ public interface CommentReactionRepository extends JpaRepository<CommentReaction
             """)
     List<ReactionCountRow> countByCommentIds(@Param("commentIds") Collection<Long> commentIds);
 
-    /**
-     * Inserts a reaction, ignoring unique-constraint conflicts so the outer
-     * transaction remains usable under concurrent toggles.
-     *
-     * @return 1 when a row was inserted, 0 when the conflict was ignored
-     */
-    @Modifying
-    @Query(value = """
-            INSERT INTO comment_reactions (comment_id, steam_id, reaction_type, created_at)
-            VALUES (:commentId, :steamId, :reactionType, :createdAt)
-            ON CONFLICT (comment_id, steam_id, reaction_type) DO NOTHING
-            """, nativeQuery = true)
-    int insertIgnoreConflict(@Param("commentId") Long commentId,
-                             @Param("steamId") String steamId,
-                             @Param("reactionType") String reactionType,
-                             @Param("createdAt") OffsetDateTime createdAt);
-
     interface ReactionCountRow {
         Long getCommentId();
 
@@ -1,11 +1,15 @@
 package org.steam5.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.steam5.domain.ExcludedApp;
 
+import java.util.List;
+
 @Repository
 public interface ExcludedAppRepository extends JpaRepository<ExcludedApp, Long> {
-}
-
 
+    @Query("SELECT e.appId FROM ExcludedApp e")
+    List<Long> findAllAppIds();
+}
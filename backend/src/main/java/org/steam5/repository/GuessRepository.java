@@ -3,6 +3,7 @@ package org.steam5.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.steam5.domain.BucketLabel;
 import org.steam5.domain.Guess;
 
 import java.time.LocalDate;
@@ -124,45 +125,10 @@ public interface GuessRepository extends JpaRepository<Guess, Long> {
     List<SeasonStatRow> findSeasonStats(@Param("startDate") LocalDate startDate,
                                         @Param("endDate") LocalDate endDate);
 
-    interface SeasonDateRow {
-        String getSteamId();
-        LocalDate getGameDate();
-    }
-
-    /**
-     * Returns ordered (user, date) participation rows for streak/season processing.
-     * Uses idx_guesses_game_date for the bounded date filter.
-     */
-    @Query("""
-            select g.steamId as steamId,
-                   g.gameDate as gameDate
-            from Guess g
-            where g.gameDate between :startDate and :endDate
-            order by g.steamId asc, g.gameDate asc
-            """)
-    List<SeasonDateRow> findSeasonDates(@Param("startDate") LocalDate startDate,
-                                        @Param("endDate") LocalDate endDate);
-
     @Query("select distinct g.gameDate from Guess g where g.steamId = :steamId and g.gameDate <= :asOfDate order by g.gameDate desc")
     List<LocalDate> findDistinctDatesUpTo(@Param("steamId") String steamId,
                                           @Param("asOfDate") LocalDate asOfDate);
 
-    interface UserDateRow {
-        String getSteamId();
-        LocalDate getGameDate();
-    }
-
-    @Query("""
-            select distinct g.steamId as steamId,
-                   g.gameDate as gameDate
-            from Guess g
-            where g.steamId in :steamIds
-              and g.gameDate <= :asOfDate
-            order by g.steamId asc, g.gameDate desc
-            """)
-    List<UserDateRow> findDistinctDatesUpToForUsers(@Param("steamIds") List<String> steamIds,
-                                                    @Param("asOfDate") LocalDate asOfDate);
-
     // Average submission time per user (in minutes since midnight)
     interface AvgTimeRow {
         String getSteamId();
@@ -460,8 +426,8 @@ public interface GuessRepository extends JpaRepository<Guess, Long> {
     }
 
     /**
-     * Row shape shared with the leaderboard materialized views (see
-     * backend/src/main/resources/db/mv-leaderboard-*.sql) and {@link #aggregateAllTimeStatsHavingMinRounds}.
+     * Row shape of {@link #aggregateAllTimeStatsHavingMinRounds}, matching the leaderboard
+     * aggregates (see LeaderboardAggregateRepository).
      * tooHigh/tooLow are computed by extracting the leading numeric threshold from each bucket
      * label string (mirrors bucketOrderFromLabel in the controller).
      */
@@ -477,8 +443,8 @@ public interface GuessRepository extends JpaRepository<Guess, Long> {
     }
 
     /**
-     * Same metrics as the all-time leaderboard materialized view (see
-     * backend/src/main/resources/db/mv-leaderboard-all-time.sql) but filters results to
+     * Same metrics as the all-time leaderboard aggregates (see
+     * LeaderboardAggregateRepository#insertDaysFrom) but filters results to
      * players with at least {@code minRounds} guesses using a HAVING clause. Note that the
      * HAVING condition limits which aggregated groups are returned to Java, but does not
      * avoid scanning or aggregating the full table at the database level.
@@ -490,14 +456,10 @@ public interface GuessRepository extends JpaRepository<Guess, Long> {
                 COUNT(*)                                                            AS rounds,
                 SUM(CASE WHEN g.selected_bucket = g.actual_bucket THEN 1 ELSE 0 END) AS hits,
                 SUM(CASE WHEN g.points = 0 THEN 1 ELSE 0 END)                      AS flops,
-                SUM(CASE WHEN
-                    CAST(NULLIF(regexp_replace(g.selected_bucket, '^(\\d+).*', '\\1'), '') AS BIGINT) >
-                    CAST(NULLIF(regexp_replace(g.actual_bucket,   '^(\\d+).*', '\\1'), '') AS BIGINT)
-                THEN 1 ELSE 0 END)                                                  AS tooHigh,
-                SUM(CASE WHEN
-                    CAST(NULLIF(regexp_replace(g.selected_bucket, '^(\\d+).*', '\\1'), '') AS BIGINT) <
-                    CAST(NULLIF(regexp_replace(g.actual_bucket,   '^(\\d+).*', '\\1'), '') AS BIGINT)
-                THEN 1 ELSE 0 END)                                                  AS tooLow,
+                SUM(CASE WHEN\s""" + BucketLabel.GUESS_TOO_HIGH_SQL + """
+                    THEN 1 ELSE 0 END)                                                AS tooHigh,
+                SUM(CASE WHEN\s""" + BucketLabel.GUESS_TOO_LOW_SQL + """
+                    THEN 1 ELSE 0 END)                                                AS tooLow,
                 AVG(g.points)                                                       AS avgPoints
             FROM guesses g
             GROUP BY g.steam_id
@@ -0,0 +1,225 @@
+package org.steam5.repository;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.steam5.domain.BucketLabel;
+import org.steam5.domain.LeaderboardUserTotal;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Native access to the incrementally maintained leaderboard aggregates
+ * ({@code leaderboard_user_day} partials and {@code leaderboard_user_total}), which replaced the
+ * per-player leaderboard materialized views. Reads sum a handful of partial rows per player
+ * instead of grouping raw guesses; writes are the per-guess deltas and the set-based
+ * reconciliation from {@code guesses} (see LeaderboardAggregateService).
+ */
+public interface LeaderboardAggregateRepository extends Repository<LeaderboardUserTotal, String> {
+
+    interface LeaderboardRow {
+        String getSteamId();
+        Long getTotalPoints();
+        Long getRounds();
+        Long getHits();
+        Long getFlops();
+        Long getTooHigh();
+        Long getTooLow();
+        Double getAvgPoints();
+        String getPersonaName();
+        String getAvatarFull();
+        String getBlurdataAvatarFull();
+        String getProfileUrl();
+    }
+
+    interface PerfectDayRow {
+        String getSteamId();
+        String getPersonaName();
+        String getAvatarFull();
+        String getBlurdataAvatarFull();
+        String getProfileUrl();
+        LocalDate getGameDate();
+        String getAppNames();
+    }
+
+    @Query(value = """
+            SELECT t.steam_id AS steamId, t.total_points AS totalPoints, t.rounds, t.hits, t.flops,
+                   t.too_high AS tooHigh, t.too_low AS tooLow,
+                   CAST(t.total_points AS double precision) / t.rounds AS avgPoints,
+                   u.persona_name AS personaName, u.avatar_full AS avatarFull,
+                   u.blurdata_avatar_full AS blurdataAvatarFull, u.profile_url AS profileUrl
+            FROM leaderboard_user_total t
+            LEFT JOIN users u ON u.steam_id = t.steam_id
+            WHERE t.rounds > 0
+            ORDER BY t.total_points DESC, t.steam_id ASC
+            """, nativeQuery = true)
+    List<LeaderboardRow> findAllTime();
+
+    /**
+     * Players' sums over the game days {@code from}..{@code to} (inclusive).
+     */
+    @Query(value = """
+            SELECT d.steam_id AS steamId, SUM(d.total_points) AS totalPoints, SUM(d.rounds) AS rounds,
+                   SUM(d.hits) AS hits, SUM(d.flops) AS flops,
+                   SUM(d.too_high) AS tooHigh, SUM(d.too_low) AS tooLow,
+                   CAST(SUM(d.total_points) AS double precision) / SUM(d.rounds) AS avgPoints,
+                   MAX(u.persona_name) AS personaName, MAX(u.avatar_full) AS avatarFull,
+                   MAX(u.blurdata_avatar_full) AS blurdataAvatarFull, MAX(u.profile_url) AS profileUrl
+            FROM leaderboard_user_day d
+            LEFT JOIN users u ON u.steam_id = d.steam_id
+            WHERE d.game_date BETWEEN :from AND :to
+            GROUP BY d.steam_id
+            ORDER BY SUM(d.total_points) DESC, d.steam_id ASC
+            """, nativeQuery = true)
+    List<LeaderboardRow> findBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Players' sums over the season containing {@code day}; empty if no season does.
+     */
+    @Query(value = """
+            WITH current_season AS (
+                SELECT start_date, end_date
+                FROM seasons
+                WHERE start_date <= :day AND end_date >= :day
+                ORDER BY season_number DESC
+                LIMIT 1
+            )
+            SELECT d.steam_id AS steamId, SUM(d.total_points) AS totalPoints, SUM(d.rounds) AS rounds,
+                   SUM(d.hits) AS hits, SUM(d.flops) AS flops,
+                   SUM(d.too_high) AS tooHigh, SUM(d.too_low) AS tooLow,
+                   CAST(SUM(d.total_points) AS double precision) / SUM(d.rounds) AS avgPoints,
+                   MAX(u.persona_name) AS personaName, MAX(u.avatar_full) AS avatarFull,
+                   MAX(u.blurdata_avatar_full) AS blurdataAvatarFull, MAX(u.profile_url) AS profileUrl
+            FROM leaderboard_user_day d
+            JOIN current_season cs ON d.game_date BETWEEN cs.start_date AND cs.end_date
+            LEFT JOIN users u ON u.steam_id = d.steam_id
+            GROUP BY d.steam_id
+            ORDER BY SUM(d.total_points) DESC, d.steam_id ASC
+            """, nativeQuery = true)
+    List<LeaderboardRow> findSeasonContaining(@Param("day") LocalDate day);
+
+    /**
+     * Days on which a player scored the maximum on every round; the day's round count is the
+     * highest round index anyone guessed (the pick count is configurable).
+     */
+    @Query(value = """
+            SELECT d.steam_id AS steamId, COALESCE(u.persona_name, d.steam_id) AS personaName,
+                   u.avatar_full AS avatarFull, u.blurdata_avatar_full AS blurdataAvatarFull,
+                   u.profile_url AS profileUrl, d.game_date AS gameDate,
+                   (SELECT string_agg(COALESCE(sai.name, CAST(rgp.app_id AS TEXT)), ', ' ORDER BY rgp.created_at)
+                    FROM review_game_pick rgp
+                    LEFT JOIN steam_app_index sai ON sai.app_id = rgp.app_id
+                    WHERE rgp.pick_date = d.game_date) AS appNames
+            FROM leaderboard_user_day d
+            JOIN (SELECT game_date, MAX(max_round) AS rounds
+                  FROM leaderboard_user_day
+                  GROUP BY game_date) r ON r.game_date = d.game_date
+            LEFT JOIN users u ON u.steam_id = d.steam_id
+            WHERE d.total_points = 5 * r.rounds
+            ORDER BY d.game_date DESC, d.steam_id
+            """, nativeQuery = true)
+    List<PerfectDayRow> findPerfectDays();
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM leaderboard_user_total)", nativeQuery = true)
+    boolean hasTotals();
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM guesses)", nativeQuery = true)
+    boolean hasGuesses();
+
+    /**
+     * Transaction-scoped advisory locks serialising the per-guess deltas (shared) against the
+     * reconciliation (exclusive), so a reconciliation never misses or double-counts a guess whose
+     * transaction is in flight.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock_shared(:key)", nativeQuery = true)
+    Integer lockShared(@Param("key") long key);
+
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:key)", nativeQuery = true)
+    Integer lockExclusive(@Param("key") long key);
+
+    @Modifying(clearAutomatically = false, flushAutomatically = false)
+    @Query(value = """
+            INSERT INTO leaderboard_user_day
+                (steam_id, game_date, total_points, rounds, hits, flops, too_high, too_low, max_round)
+            VALUES (:steamId, :gameDate, :points, 1, :hits, :flops, :tooHigh, :tooLow, :round)
+            ON CONFLICT (steam_id, game_date) DO UPDATE SET
+                total_points = leaderboard_user_day.total_points + EXCLUDED.total_points,
+                rounds = leaderboard_user_day.rounds + 1,
+                hits = leaderboard_user_day.hits + EXCLUDED.hits,
+                flops = leaderboard_user_day.flops + EXCLUDED.flops,
+                too_high = leaderboard_user_day.too_high + EXCLUDED.too_high,
+                too_low = leaderboard_user_day.too_low + EXCLUDED.too_low,
+                max_round = GREATEST(leaderboard_user_day.max_round, EXCLUDED.max_round)
+            """, nativeQuery = true)
+    int addToDay(@Param("steamId") String steamId, @Param("gameDate") LocalDate gameDate,
+                 @Param("points") int points, @Param("hits") int hits, @Param("flops") int flops,
+                 @Param("tooHigh") int tooHigh, @Param("tooLow") int tooLow, @Param("round") int round);
+
+    @Modifying(clearAutomatically = false, flushAutomatically = false)
+    @Query(value = """
+            INSERT INTO leaderboard_user_total (steam_id, total_points, rounds, hits, flops, too_high, too_low)
+            VALUES (:steamId, :points, 1, :hits, :flops, :tooHigh, :tooLow)
+            ON CONFLICT (steam_id) DO UPDATE SET
+                total_points = leaderboard_user_total.total_points + EXCLUDED.total_points,
+                rounds = leaderboard_user_total.rounds + 1,
+                hits = leaderboard_user_total.hits + EXCLUDED.hits,
+                flops = leaderboard_user_total.flops + EXCLUDED.flops,
+                too_high = leaderboard_user_total.too_high + EXCLUDED.too_high,
+                too_low = leaderboard_user_total.too_low + EXCLUDED.too_low
+            """, nativeQuery = true)
+    int addToTotal(@Param("steamId") String steamId, @Param("points") int points, @Param("hits") int hits,
+                   @Param("flops") int flops, @Param("tooHigh") int tooHigh, @Param("tooLow") int tooLow);
+
+    @Modifying(clearAutomatically = false, flushAutomatically = false)
+    @Query(value = "DELETE FROM leaderboard_user_day WHERE game_date >= :from", nativeQuery = true)
+    int deleteDaysFrom(@Param("from") LocalDate from);
+
+    /**
+     * Recomputes the partials of game days from {@code from} on from {@code guesses}, with the
+     * too-high/too-low rule of {@link BucketLabel}, as the per-guess deltas use.
+     */
+    @Modifying(clearAutomatically = false, flushAutomatically = false)
+    @Query(value = """
+            INSERT INTO leaderboard_user_day
+                (steam_id, game_date, total_points, rounds, hits, flops, too_high, too_low, max_round)
+            SELECT g.steam_id, g.game_date, SUM(g.points), COUNT(*),
+                   SUM(CASE WHEN g.selected_bucket = g.actual_bucket THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN g.points = 0 THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN\s""" + BucketLabel.GUESS_TOO_HIGH_SQL + """
+                       THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN\s""" + BucketLabel.GUESS_TOO_LOW_SQL + """
+                       THEN 1 ELSE 0 END),
+                   MAX(g.round_index)
+            FROM guesses g
+            WHERE g.game_date >= :from
+            GROUP BY g.steam_id, g.game_date
+            """, nativeQuery = true)
+    int insertDaysFrom(@Param("from") LocalDate from);
+
+    /**
+     * Re-sums the totals of every player with a partial from {@code from} on.
+     */
+    @Modifying(clearAutomatically = false, flushAutomatically = false)
+    @Query(value = """
+            INSERT INTO leaderboard_user_total (steam_id, total_points, rounds, hits, flops, too_high, too_low)
+            SELECT d.steam_id, SUM(d.total_points), SUM(d.rounds), SUM(d.hits), SUM(d.flops),
+                   SUM(d.too_high), SUM(d.too_low)
+            FROM leaderboard_user_day d
+            WHERE d.steam_id IN (SELECT steam_id FROM leaderboard_user_day WHERE game_date >= :from)
+            GROUP BY d.steam_id
+            ON CONFLICT (steam_id) DO UPDATE SET
+                total_points = EXCLUDED.total_points,
+                rounds = EXCLUDED.rounds,
+                hits = EXCLUDED.hits,
+                flops = EXCLUDED.flops,
+                too_high = EXCLUDED.too_high,
+                too_low = EXCLUDED.too_low
+            """, nativeQuery = true)
+    int upsertTotalsForDaysFrom(@Param("from") LocalDate from);
+
+    @Modifying(clearAutomatically = false, flushAutomatically = false)
+    @Query(value = "DELETE FROM leaderboard_user_total", nativeQuery = true)
+    int deleteAllTotals();
+}
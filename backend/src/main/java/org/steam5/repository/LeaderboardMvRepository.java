@@ -10,53 +10,15 @@ import org.steam5.domain.Guess;
 import java.util.List;
 
 /**
- * Read access to the leaderboard materialized views (see
- * backend/src/main/resources/db/mv-leaderboard-*.sql). These views are not JPA-managed
- * entities, so this repository extends the plain {@link Repository} marker — every method
+ * Read access to the hardest-games materialized view (see
+ * backend/src/main/resources/db/mv-hardest-games.sql); the per-player leaderboards moved to
+ * incrementally maintained tables (LeaderboardAggregateRepository). The view is not a JPA-managed
+ * entity, so this repository extends the plain {@link Repository} marker — every method
  * is a hand-written native query. {@link Guess} is reused only to satisfy the generic bound;
  * none of these methods touch the {@code guesses} table directly.
  */
 public interface LeaderboardMvRepository extends Repository<Guess, Long> {
 
-    interface LeaderboardMvRow {
-        String getSteamId();
-        Long getTotalPoints();
-        Long getRounds();
-        Long getHits();
-        Long getFlops();
-        Long getTooHigh();
-        Long getTooLow();
-        Double getAvgPoints();
-        String getPersonaName();
-        String getAvatarFull();
-        String getBlurdataAvatarFull();
-        String getProfileUrl();
-    }
-
-    @Query(value = "SELECT steam_id AS steamId, total_points AS totalPoints, rounds, hits, flops, " +
-            "too_high AS tooHigh, too_low AS tooLow, avg_points AS avgPoints, persona_name AS personaName, " +
-            "avatar_full AS avatarFull, blurdata_avatar_full AS blurdataAvatarFull, profile_url AS profileUrl " +
-            "FROM mv_leaderboard_all_time ORDER BY total_points DESC, steam_id ASC", nativeQuery = true)
-    List<LeaderboardMvRow> findAllTime();
-
-    @Query(value = "SELECT steam_id AS steamId, total_points AS totalPoints, rounds, hits, flops, " +
-            "too_high AS tooHigh, too_low AS tooLow, avg_points AS avgPoints, persona_name AS personaName, " +
-            "avatar_full AS avatarFull, blurdata_avatar_full AS blurdataAvatarFull, profile_url AS profileUrl " +
-            "FROM mv_leaderboard_monthly ORDER BY total_points DESC, steam_id ASC", nativeQuery = true)
-    List<LeaderboardMvRow> findMonthly();
-
-    @Query(value = "SELECT steam_id AS steamId, total_points AS totalPoints, rounds, hits, flops, " +
-            "too_high AS tooHigh, too_low AS tooLow, avg_points AS avgPoints, persona_name AS personaName, " +
-            "avatar_full AS avatarFull, blurdata_avatar_full AS blurdataAvatarFull, profile_url AS profileUrl " +
-            "FROM mv_leaderboard_weekly ORDER BY total_points DESC, steam_id ASC", nativeQuery = true)
-    List<LeaderboardMvRow> findWeekly();
-
-    @Query(value = "SELECT steam_id AS steamId, total_points AS totalPoints, rounds, hits, flops, " +
-            "too_high AS tooHigh, too_low AS tooLow, avg_points AS avgPoints, persona_name AS personaName, " +
-            "avatar_full AS avatarFull, blurdata_avatar_full AS blurdataAvatarFull, profile_url AS profileUrl " +
-            "FROM mv_leaderboard_season ORDER BY total_points DESC, steam_id ASC", nativeQuery = true)
-    List<LeaderboardMvRow> findSeason();
-
     interface HardestGameMvRow {
         Long getAppId();
         String getAppName();
@@ -92,46 +54,6 @@ public interface LeaderboardMvRepository extends Repository<Guess, Long> {
     @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
     Boolean tryAdvisoryXactLock(@Param("key") long key);
 
-    @Transactional
-    @Modifying(clearAutomatically = false, flushAutomatically = false)
-    @Query(value = "REFRESH MATERIALIZED VIEW mv_leaderboard_all_time", nativeQuery = true)
-    void refreshAllTimeFull();
-
-    @Transactional
-    @Modifying(clearAutomatically = false, flushAutomatically = false)
-    @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY mv_leaderboard_all_time", nativeQuery = true)
-    void refreshAllTimeConcurrently();
-
-    @Transactional
-    @Modifying(clearAutomatically = false, flushAutomatically = false)
-    @Query(value = "REFRESH MATERIALIZED VIEW mv_leaderboard_monthly", nativeQuery = true)
-    void refreshMonthlyFull();
-
-    @Transactional
-    @Modifying(clearAutomatically = false, flushAutomatically = false)
-    @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY mv_leaderboard_monthly", nativeQuery = true)
-    void refreshMonthlyConcurrently();
-
-    @Transactional
-    @Modifying(clearAutomatically = false, flushAutomatically = false)
-    @Query(value = "REFRESH MATERIALIZED VIEW mv_leaderboard_weekly", nativeQuery = true)
-    void refreshWeeklyFull();
-
-    @Transactional
-    @Modifying(clearAutomatically = false, flushAutomatically = false)
-    @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY mv_leaderboard_weekly", nativeQuery = true)
-    void refreshWeeklyConcurrently();
-
-    @Transactional
-    @Modifying(clearAutomatically = false, flushAutomatically = false)
-    @Query(value = "REFRESH MATERIALIZED VIEW mv_leaderboard_season", nativeQuery = true)
-    void refreshSeasonFull();
-
-    @Transactional
-    @Modifying(clearAutomatically = false, flushAutomatically = false)
-    @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY mv_leaderboard_season", nativeQuery = true)
-    void refreshSeasonConcurrently();
-
     @Transactional
     @Modifying(clearAutomatically = false, flushAutomatically = false)
     @Query(value = "REFRESH MATERIALIZED VIEW mv_hardest_games", nativeQuery = true)
@@ -141,30 +63,4 @@ public interface LeaderboardMvRepository extends Repository<Guess, Long> {
     @Modifying(clearAutomatically = false, flushAutomatically = false)
     @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY mv_hardest_games", nativeQuery = true)
     void refreshHardestGamesConcurrently();
-
-    interface PerfectDayMvRow {
-        String getSteamId();
-        String getPersonaName();
-        String getAvatarFull();
-        String getBlurdataAvatarFull();
-        String getProfileUrl();
-        java.time.LocalDate getGameDate();
-        String getAppNames();
-    }
-
-    @Query(value = "SELECT steam_id AS steamId, persona_name AS personaName, " +
-            "avatar_full AS avatarFull, blurdata_avatar_full AS blurdataAvatarFull, profile_url AS profileUrl, " +
-            "game_date AS gameDate, app_names AS appNames " +
-            "FROM mv_perfect_days ORDER BY game_date DESC, steam_id", nativeQuery = true)
-    List<PerfectDayMvRow> findPerfectDays();
-
-    @Transactional
-    @Modifying(clearAutomatically = false, flushAutomatically = false)
-    @Query(value = "REFRESH MATERIALIZED VIEW mv_perfect_days", nativeQuery = true)
-    void refreshPerfectDaysFull();
-
-    @Transactional
-    @Modifying(clearAutomatically = false, flushAutomatically = false)
-    @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY mv_perfect_days", nativeQuery = true)
-    void refreshPerfectDaysConcurrently();
 }
@@ -0,0 +1,31 @@
+package org.steam5.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import org.steam5.domain.LeaderboardSnapshot;
+
+import java.time.LocalDate;
+
+public interface LeaderboardSnapshotRepository extends JpaRepository<LeaderboardSnapshot, String> {
+
+    /**
+     * Freezes a period unless another request or node already did; both would have written the
+     * same board, so the first one wins and the caller reads back whichever that was.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = false, flushAutomatically = false)
+    @Query(value = """
+            INSERT INTO leaderboard_snapshots (period, start_date, end_date, entry_count, body, etag, created_at)
+            VALUES (:period, :startDate, :endDate, :entryCount, :body, :etag, now())
+            ON CONFLICT (period) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("period") String period,
+                       @Param("startDate") LocalDate startDate,
+                       @Param("endDate") LocalDate endDate,
+                       @Param("entryCount") int entryCount,
+                       @Param("body") byte[] body,
+                       @Param("etag") String etag);
+}
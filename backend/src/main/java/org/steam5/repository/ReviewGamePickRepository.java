@@ -38,14 +38,31 @@ public interface ReviewGamePickRepository extends JpaRepository<ReviewGamePick,
     @Query(value = "SELECT app_id FROM review_game_pick WHERE pick_date >= :sinceDate", nativeQuery = true)
     List<Long> findAppIdsPickedSince(@Param("sinceDate") LocalDate sinceDate);
 
-    @Query(value = "SELECT COUNT(DISTINCT pick_date) FROM review_game_pick", nativeQuery = true)
-    long countDistinctPickDates();
+    /**
+     * Counts picks of played days up to {@code today}; staged picks for tomorrow are not counted.
+     */
+    @Query(value = "SELECT COUNT(*) FROM review_game_pick WHERE pick_date <= :today", nativeQuery = true)
+    long countPicksUpTo(@Param("today") LocalDate today);
 
-    @Query(value = "SELECT COALESCE(MAX(pick_date), DATE '1970-01-01') FROM review_game_pick", nativeQuery = true)
-    LocalDate findLatestPickDate();
+    /**
+     * Counts played days up to {@code today}; staged picks for tomorrow are not counted.
+     */
+    @Query(value = "SELECT COUNT(DISTINCT pick_date) FROM review_game_pick WHERE pick_date <= :today", nativeQuery = true)
+    long countDistinctPickDates(@Param("today") LocalDate today);
 
-    @Query("select distinct p.pickDate from ReviewGamePick p order by p.pickDate desc")
-    List<LocalDate> listDistinctPickDates(Pageable pageable);
+    /**
+     * Latest played day up to {@code today}, so staged picks for tomorrow do not count as the
+     * latest round.
+     */
+    @Query(value = "SELECT COALESCE(MAX(pick_date), DATE '1970-01-01') FROM review_game_pick WHERE pick_date <= :today", nativeQuery = true)
+    LocalDate findLatestPickDate(@Param("today") LocalDate today);
+
+    /**
+     * Lists played days, newest first. Bounded by {@code today} so staged picks for
+     * tomorrow are never listed before the rollover.
+     */
+    @Query("select distinct p.pickDate from ReviewGamePick p where p.pickDate <= :today order by p.pickDate desc")
+    List<LocalDate> listDistinctPickDates(@Param("today") LocalDate today, Pageable pageable);
 
     /**
      * Picks a single random historical pick date, excluding {@code today} (the
@@ -96,10 +113,11 @@ public interface ReviewGamePickRepository extends JpaRepository<ReviewGamePick,
             "JOIN steam_app_reviews r ON r.app_id = p.app_id " +
             "LEFT JOIN steam_app_details d ON d.app_id = p.app_id " +
             "WHERE (r.total_positive + r.total_negative) > 0 " +
+            "AND p.pick_date <= :today " +
             "GROUP BY p.app_id " +
             "ORDER BY MAX(r.total_positive + r.total_negative) DESC " +
             "LIMIT :limit", nativeQuery = true)
-    List<TopGameByReviewsRow> findTopGamesByReviewCount(@Param("limit") int limit);
+    List<TopGameByReviewsRow> findTopGamesByReviewCount(@Param("today") LocalDate today, @Param("limit") int limit);
 }
 
 
@@ -0,0 +1,120 @@
+package org.steam5.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based access to {@code review_refresh_schedule}; see
+ * {@link org.steam5.domain.ReviewRefreshSchedule}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReviewRefreshScheduleRepository {
+
+    // Apps never observed are due firstIntervalDays after their last review update, so a fresh
+    // table degrades to the old oldest-updated-first order instead of starving scheduled apps.
+    private static final String DUE_SQL = """
+            SELECT r.app_id
+            FROM steam_app_reviews r
+            LEFT JOIN review_refresh_schedule s ON s.app_id = r.app_id
+            WHERE COALESCE(s.next_due_at, r.updated_at + ? * interval '1 day') <= ?
+            ORDER BY COALESCE(s.next_due_at, r.updated_at + ? * interval '1 day') ASC
+            LIMIT ?
+            """;
+
+    private static final String STATES_SQL = """
+            SELECT r.app_id, r.total_positive + r.total_negative, s.last_total, s.checked_at, s.reviews_per_day
+            FROM steam_app_reviews r
+            LEFT JOIN review_refresh_schedule s ON s.app_id = r.app_id
+            WHERE r.app_id = ANY(?::bigint[])
+            """;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO review_refresh_schedule(app_id, last_total, checked_at, reviews_per_day, next_due_at)
+            SELECT u.app_id, u.last_total, ?::timestamptz, u.reviews_per_day, u.next_due_at
+            FROM unnest(?::bigint[], ?::int[], ?::float8[], ?::text[]::timestamptz[])
+                 AS u(app_id, last_total, reviews_per_day, next_due_at)
+            ON CONFLICT (app_id) DO UPDATE SET last_total      = EXCLUDED.last_total,
+                                               checked_at      = EXCLUDED.checked_at,
+                                               reviews_per_day = EXCLUDED.reviews_per_day,
+                                               next_due_at     = EXCLUDED.next_due_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return up to {@code limit} app IDs due at {@code now}, most overdue first
+     */
+    public List<Long> findDueAppIds(final OffsetDateTime now, final int firstIntervalDays, final int limit) {
+        return jdbcTemplate.queryForList(DUE_SQL, Long.class, firstIntervalDays, now, firstIntervalDays, limit);
+    }
+
+    /**
+     * Current stored totals joined with the previous observation, if any.
+     */
+    public List<AppRefreshState> findStates(final Collection<Long> appIds) {
+        if (appIds.isEmpty()) {
+            return List.of();
+        }
+        final Long[] ids = appIds.toArray(Long[]::new);
+        return jdbcTemplate.query(con -> {
+            final var ps = con.prepareStatement(STATES_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            return ps;
+        }, (rs, rowNum) -> {
+            final int lastTotal = rs.getInt(3);
+            final boolean observed = !rs.wasNull();
+            return new AppRefreshState(rs.getLong(1), rs.getInt(2),
+                    observed ? lastTotal : null,
+                    observed ? rs.getObject(4, OffsetDateTime.class) : null,
+                    observed ? rs.getDouble(5) : 0d);
+        });
+    }
+
+    /**
+     * @return number of rows written
+     */
+    public int upsertAll(final Collection<ScheduleUpdate> updates, final OffsetDateTime checkedAt) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        final int n = updates.size();
+        final Long[] appIds = new Long[n];
+        final Integer[] totals = new Integer[n];
+        final Double[] velocities = new Double[n];
+        final String[] nextDue = new String[n];
+        int i = 0;
+        for (ScheduleUpdate u : updates) {
+            appIds[i] = u.appId();
+            totals[i] = u.total();
+            velocities[i] = u.reviewsPerDay();
+            nextDue[i] = u.nextDueAt().toString();
+            i++;
+        }
+        return jdbcTemplate.update(con -> {
+            final var ps = con.prepareStatement(UPSERT_SQL);
+            ps.setObject(1, checkedAt);
+            ps.setArray(2, con.createArrayOf("bigint", appIds));
+            ps.setArray(3, con.createArrayOf("int4", totals));
+            ps.setArray(4, con.createArrayOf("float8", velocities));
+            ps.setArray(5, con.createArrayOf("text", nextDue));
+            return ps;
+        });
+    }
+
+    /**
+     * @param lastTotal     total at the previous check, or null if the app was never observed
+     * @param lastCheckedAt time of the previous check, or null if never observed
+     */
+    public record AppRefreshState(long appId, int total, Integer lastTotal, OffsetDateTime lastCheckedAt,
+                                  double reviewsPerDay) {
+    }
+
+    public record ScheduleUpdate(long appId, int total, double reviewsPerDay, OffsetDateTime nextDueAt) {
+    }
+}
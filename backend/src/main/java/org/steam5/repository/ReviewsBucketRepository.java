@@ -2,6 +2,7 @@ package org.steam5.repository;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -205,6 +206,16 @@ public class ReviewsBucketRepository {
         return mapRows(sql);
     }
 
+    /**
+     * Streams every app with at least one review as {@code (appId, total)} pairs. Used to seed the
+     * in-memory pick candidate index without materializing entities.
+     */
+    public void forEachReviewedApp(final AppTotalConsumer consumer) {
+        jdbcTemplate.query("SELECT app_id, (total_positive + total_negative) AS total " +
+                        "FROM steam_app_reviews WHERE (total_positive + total_negative) > 0",
+                (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getInt(2)));
+    }
+
     private List<Bucket> mapRows(String sql) {
         return jdbcTemplate.query(sql, (rs, rowNum) -> new Bucket(
                 rs.getInt("bucket"),
@@ -215,6 +226,11 @@ public class ReviewsBucketRepository {
         ));
     }
 
+    @FunctionalInterface
+    public interface AppTotalConsumer {
+        void accept(long appId, int total);
+    }
+
     public record Bucket(int bucket, Long lower, Long upper, String label, long countInBucket) {
     }
 }
@@ -0,0 +1,63 @@
+package org.steam5.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based writes to {@code steam_app_index} for the app-list ingest, which handles tens of
+ * thousands of rows per page and would otherwise pay a JPA merge (SELECT + INSERT/UPDATE) each.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SteamAppIndexBulkRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO steam_app_index(app_id, name)
+            SELECT * FROM unnest(?::bigint[], ?::text[])
+            ON CONFLICT (app_id) DO UPDATE SET name = EXCLUDED.name
+            WHERE steam_app_index.name IS DISTINCT FROM EXCLUDED.name
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Streams every indexed app with an ID greater than {@code afterAppId}, in ascending ID order,
+     * without materializing entities.
+     */
+    public void forEachName(final long afterAppId, final AppNameConsumer consumer) {
+        jdbcTemplate.query("SELECT app_id, name FROM steam_app_index WHERE app_id > ? ORDER BY app_id",
+                (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getString(2)),
+                afterAppId);
+    }
+
+    /**
+     * Inserts or renames the given apps in one statement. Rows whose name did not change are
+     * left untouched (no dead tuple).
+     *
+     * @return number of rows inserted or updated
+     */
+    public int upsertNames(final long[] appIds, final String[] names, final int count) {
+        if (count == 0) {
+            return 0;
+        }
+        final Long[] ids = new Long[count];
+        final String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = appIds[i];
+            values[i] = names[i];
+        }
+        return jdbcTemplate.update(con -> {
+            final var ps = con.prepareStatement(UPSERT_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            ps.setArray(2, con.createArrayOf("text", values));
+            return ps;
+        });
+    }
+
+    @FunctionalInterface
+    public interface AppNameConsumer {
+        void accept(long appId, String name);
+    }
+}
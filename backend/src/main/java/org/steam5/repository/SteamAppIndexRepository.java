@@ -4,13 +4,26 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.steam5.domain.SteamAppIndex;
 
+import java.util.List;
+
 @Repository
 public interface SteamAppIndexRepository extends JpaRepository<SteamAppIndex, Long> {
     Page<SteamAppIndex> findByAppIdGreaterThan(Long appId, Pageable pageable);
 
+    @Query("SELECT MAX(i.appId) FROM SteamAppIndex i")
+    Long findMaxAppId();
+
+    /**
+     * App IDs in {@code (after, upper]}, ascending. Used by the partitioned ingest to walk one
+     * app-ID range without loading entities.
+     */
+    @Query("SELECT i.appId FROM SteamAppIndex i WHERE i.appId > :after AND i.appId <= :upper ORDER BY i.appId")
+    List<Long> findAppIdsInRange(@Param("after") long after, @Param("upper") long upper, Pageable pageable);
+
     @Query(value = "SELECT COUNT(*) FROM steam_app_index i JOIN steam_app_reviews r ON r.app_id = i.app_id", nativeQuery = true)
     long countWithReviews();
 
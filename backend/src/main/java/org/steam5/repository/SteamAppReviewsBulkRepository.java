@@ -0,0 +1,96 @@
+package org.steam5.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.steam5.domain.SteamAppReviews;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+
+/**
+ * Set-based writes to {@code steam_app_reviews} for bulk review ingests: one statement (and one
+ * commit) per flush instead of a JPA merge and transaction per app.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SteamAppReviewsBulkRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO steam_app_reviews(app_id, total_positive, total_negative, updated_at)
+            SELECT * FROM unnest(?::bigint[], ?::int[], ?::int[], ?::text[]::timestamptz[])
+            ON CONFLICT (app_id) DO UPDATE SET total_positive = EXCLUDED.total_positive,
+                                               total_negative = EXCLUDED.total_negative,
+                                               updated_at     = EXCLUDED.updated_at
+            """;
+
+    private static final String TOUCH_SQL =
+            "UPDATE steam_app_reviews SET updated_at = ? WHERE app_id = ANY(?::bigint[])";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Streams the stored counts of every app as {@code (appId, positive, negative)}. Used to seed
+     * {@link org.steam5.service.ReviewCountSnapshot}.
+     */
+    public void forEachCount(final AppCountsConsumer consumer) {
+        jdbcTemplate.query("SELECT app_id, total_positive, total_negative FROM steam_app_reviews",
+                (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getInt(2), rs.getInt(3)));
+    }
+
+    /**
+     * Marks apps as refreshed without rewriting their counts, in one statement. Keeps the
+     * {@code updated_at} refresh order correct for apps whose counts did not move.
+     *
+     * @return number of rows touched
+     */
+    public int touchUpdatedAt(final Collection<Long> appIds, final OffsetDateTime at) {
+        if (appIds.isEmpty()) {
+            return 0;
+        }
+        final Long[] ids = appIds.toArray(Long[]::new);
+        return jdbcTemplate.update(con -> {
+            final var ps = con.prepareStatement(TOUCH_SQL);
+            ps.setObject(1, at);
+            ps.setArray(2, con.createArrayOf("bigint", ids));
+            return ps;
+        });
+    }
+
+    /**
+     * @param rows at most one row per app ID
+     * @return number of rows written
+     */
+    public int upsertAll(final Collection<SteamAppReviews> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        final int n = rows.size();
+        final Long[] appIds = new Long[n];
+        final Integer[] positive = new Integer[n];
+        final Integer[] negative = new Integer[n];
+        final String[] updatedAt = new String[n];
+        int i = 0;
+        for (SteamAppReviews r : rows) {
+            appIds[i] = r.getAppId();
+            positive[i] = r.getTotalPositive();
+            negative[i] = r.getTotalNegative();
+            updatedAt[i] = r.getUpdatedAt().toString();
+            i++;
+        }
+        return jdbcTemplate.update(con -> {
+            final var ps = con.prepareStatement(UPSERT_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", appIds));
+            ps.setArray(2, con.createArrayOf("int4", positive));
+            ps.setArray(3, con.createArrayOf("int4", negative));
+            ps.setArray(4, con.createArrayOf("text", updatedAt));
+            return ps;
+        });
+    }
+
+    @FunctionalInterface
+    public interface AppCountsConsumer {
+        void accept(long appId, int totalPositive, int totalNegative);
+    }
+}
@@ -214,9 +214,6 @@ public interface SteamAppReviewsRepository extends JpaRepository<SteamAppReviews
                              @Param("lower") int lower,
                              Pageable pageable);
 
-    @Query(value = "SELECT app_id FROM steam_app_reviews ORDER BY updated_at ASC", nativeQuery = true)
-    List<Long> findIdsOrderByUpdatedAtAsc(Pageable pageable);
-
     interface ReviewThresholds {
         Integer getLowThreshold();
 
@@ -0,0 +1,77 @@
+package org.steam5.repository;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.steam5.domain.UserParticipation;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Native access to the per-player participation bitmaps ({@code user_participation}), which
+ * replaced streaming every player's distinct guess dates for streaks (see ParticipationService).
+ */
+public interface UserParticipationRepository extends Repository<UserParticipation, String> {
+
+    interface ParticipationRow {
+        String getSteamId();
+        Integer getOriginDay();
+        byte[] getBits();
+    }
+
+    interface UserDateRow {
+        String getSteamId();
+        LocalDate getGameDate();
+    }
+
+    @Query(value = """
+            SELECT steam_id AS steamId, origin_day AS originDay, bits
+            FROM user_participation
+            WHERE steam_id IN (:steamIds)
+            """, nativeQuery = true)
+    List<ParticipationRow> findAllBySteamIdIn(@Param("steamIds") Collection<String> steamIds);
+
+    /**
+     * Locks one player's row for a read-modify-write; {@link #insertIfAbsent} first so there is
+     * always a row to lock.
+     */
+    @Query(value = """
+            SELECT steam_id AS steamId, origin_day AS originDay, bits
+            FROM user_participation
+            WHERE steam_id = :steamId
+            FOR UPDATE
+            """, nativeQuery = true)
+    ParticipationRow lockBySteamId(@Param("steamId") String steamId);
+
+    @Modifying(clearAutomatically = false, flushAutomatically = false)
+    @Query(value = """
+            INSERT INTO user_participation (steam_id, origin_day, bits)
+            VALUES (:steamId, 0, CAST('' AS bytea))
+            ON CONFLICT (steam_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("steamId") String steamId);
+
+    @Modifying(clearAutomatically = false, flushAutomatically = false)
+    @Query(value = "UPDATE user_participation SET origin_day = :originDay, bits = :bits WHERE steam_id = :steamId",
+            nativeQuery = true)
+    int update(@Param("steamId") String steamId, @Param("originDay") int originDay, @Param("bits") byte[] bits);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM user_participation)", nativeQuery = true)
+    boolean hasAny();
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM guesses)", nativeQuery = true)
+    boolean hasGuesses();
+
+    /**
+     * Every player's distinct guess dates, grouped by player; only for building the bitmaps once.
+     */
+    @Query(value = """
+            SELECT DISTINCT steam_id AS steamId, game_date AS gameDate
+            FROM guesses
+            ORDER BY steam_id, game_date
+            """, nativeQuery = true)
+    List<UserDateRow> findAllDistinctDates();
+}
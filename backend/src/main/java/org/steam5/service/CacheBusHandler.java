@@ -0,0 +1,27 @@
+package org.steam5.service;
+
+/**
+ * Node-local state other than the Spring caches that follows changes made on other nodes through
+ * the cache bus ({@link CacheInvalidationPublisher}, {@link CacheInvalidationListener}). The owner
+ * publishes {@code "<operation()> <argument>"} itself; the listener hands operations with that name
+ * to {@link #apply} instead of {@link DomainCacheEvictor}.
+ */
+public interface CacheBusHandler {
+
+    /**
+     * @return the operation name this handler applies; must not clash with another handler's or
+     * a {@link DomainCacheEvictor} operation
+     */
+    String operation();
+
+    /**
+     * Applies an operation published by another node, without publishing it again.
+     */
+    void apply(String argument);
+
+    /**
+     * Called after the bus reconnected, when operations sent meanwhile were lost: drop whatever
+     * they could have changed.
+     */
+    void resync();
+}
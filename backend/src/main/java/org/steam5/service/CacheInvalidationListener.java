@@ -0,0 +1,234 @@
+package org.steam5.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.steam5.config.CacheBusProperties;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Applies cache invalidations published by other nodes ({@link CacheInvalidationPublisher}) to
+ * this node's caches.
+ *
+ * <p>Listens on its own connection, outside the Hikari pool, since a {@code LISTEN} connection is
+ * held for the lifetime of the app. Notifications arriving in a burst (e.g. during an ingest run)
+ * are collected until {@code cache-bus.batch-window-millis} pass without one, de-duplicated and
+ * applied together; this node's own notifications are skipped. Operations go to the
+ * {@link CacheBusHandler} registered for their name, or else to {@link DomainCacheEvictor}.
+ * Notifications sent while the connection was down are lost, so after a reconnect every cache the
+ * bus covers is cleared and every handler resyncs.</p>
+ *
+ * <p>Waiting for notifications never touches the socket, so a half-open connection (peer gone
+ * without a FIN, e.g. a failover or a dropped NAT entry) would otherwise look like a quiet
+ * channel forever. Every {@code cache-bus.liveness-interval-millis} the listener runs
+ * {@code SELECT 1}; with TCP keepalive and a socket timeout on the connection, a dead socket makes
+ * that throw, which drops into the reconnect path above.</p>
+ */
+@Slf4j
+@Component
+public class CacheInvalidationListener implements SmartLifecycle {
+
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final int POLL_MILLIS = 1_000;
+    private static final int MAX_BATCH = 1_000;
+    private static final long RECONNECT_DELAY_MILLIS = 5_000L;
+
+    private final DomainCacheEvictor cacheEvictor;
+    private final Map<String, CacheBusHandler> handlers;
+    private final CacheInvalidationPublisher publisher;
+    private final CacheBusProperties properties;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public CacheInvalidationListener(final DomainCacheEvictor cacheEvictor,
+                                     final List<CacheBusHandler> handlers,
+                                     final CacheInvalidationPublisher publisher,
+                                     final CacheBusProperties properties,
+                                     @Value("${spring.datasource.url}") final String url,
+                                     @Value("${spring.datasource.username}") final String username,
+                                     @Value("${spring.datasource.password}") final String password) {
+        this.cacheEvictor = cacheEvictor;
+        this.handlers = handlers.stream().collect(Collectors.toMap(CacheBusHandler::operation, Function.identity()));
+        this.publisher = publisher;
+        this.properties = properties;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!CHANNEL.matcher(properties.getChannel()).matches()) {
+            throw new IllegalStateException("cache-bus.channel must be a lower-case identifier: " + properties.getChannel());
+        }
+        running = true;
+        thread = Thread.ofPlatform().daemon().name("cache-bus-listen").start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, connectionProperties(username, password, properties))) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + properties.getChannel());
+                }
+                if (connectedBefore) {
+                    cacheEvictor.evictAllShared();
+                    handlers.values().forEach(CacheBusHandler::resync);
+                    log.info("Cache bus reconnected; cleared shared caches that may have missed invalidations");
+                }
+                connectedBefore = true;
+                final PGConnection pg = connection.unwrap(PGConnection.class);
+                long probedAt = System.nanoTime();
+                while (running) {
+                    if (System.nanoTime() - probedAt >= properties.getLivenessIntervalMillis() * 1_000_000L) {
+                        probe(connection);
+                        probedAt = System.nanoTime();
+                    }
+                    final List<String> payloads = new ArrayList<>();
+                    if (!collect(pg, POLL_MILLIS, payloads)) {
+                        continue;
+                    }
+                    while (payloads.size() < MAX_BATCH && collect(pg, properties.getBatchWindowMillis(), payloads)) {
+                        // drain the burst
+                    }
+                    apply(operations(payloads, publisher.nodeId()));
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache bus connection failed, retrying in {}ms: {}", RECONNECT_DELAY_MILLIS, e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Round-trips to the server so a dead socket surfaces as an {@link SQLException}.
+     */
+    private static void probe(final Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT 1");
+        }
+    }
+
+    /**
+     * @return the listen connection's properties: credentials, TCP keepalive, and a socket timeout
+     * of twice the liveness interval (at least the poll interval) so a probe on a dead socket
+     * fails instead of blocking
+     */
+    static Properties connectionProperties(final String username, final String password,
+                                           final CacheBusProperties properties) {
+        final Properties props = new Properties();
+        if (username != null) {
+            props.setProperty("user", username);
+        }
+        if (password != null) {
+            props.setProperty("password", password);
+        }
+        props.setProperty("tcpKeepAlive", "true");
+        final long timeoutMillis = Math.max(POLL_MILLIS, 2L * properties.getLivenessIntervalMillis());
+        props.setProperty("socketTimeout", Long.toString((timeoutMillis + 999) / 1_000));
+        return props;
+    }
+
+    /**
+     * Waits up to {@code timeoutMillis} for notifications and adds their payloads. A timeout of 0 or
+     * less only takes what has already arrived (the driver would block forever on 0).
+     *
+     * @return whether any arrived
+     */
+    static boolean collect(final PGConnection pg, final int timeoutMillis, final List<String> payloads)
+            throws SQLException {
+        final PGNotification[] notifications = timeoutMillis > 0
+                ? pg.getNotifications(timeoutMillis)
+                : pg.getNotifications();
+        if (notifications == null || notifications.length == 0) {
+            return false;
+        }
+        for (PGNotification n : notifications) {
+            payloads.add(n.getParameter());
+        }
+        return true;
+    }
+
+    private void apply(final Set<String> operations) {
+        for (String op : operations) {
+            try {
+                final int space = op.indexOf(' ');
+                final CacheBusHandler handler = handlers.get(space < 0 ? op : op.substring(0, space));
+                if (handler != null) {
+                    handler.apply(space < 0 ? "" : op.substring(space + 1));
+                } else {
+                    cacheEvictor.apply(op);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to apply cache invalidation '{}': {}", op, e.getMessage());
+            }
+        }
+        if (!operations.isEmpty()) {
+            log.debug("Applied {} cache invalidations from other nodes", operations.size());
+        }
+    }
+
+    /**
+     * @return the distinct operations of {@code payloads} sent by other nodes, in arrival order
+     */
+    static Set<String> operations(final Collection<String> payloads, final String ownNodeId) {
+        final Set<String> operations = new LinkedHashSet<>();
+        for (String payload : payloads) {
+            final String[] lines = payload.split("\n");
+            if (lines[0].equals(ownNodeId)) {
+                continue;
+            }
+            for (int i = 1; i < lines.length; i++) {
+                if (!lines[i].isBlank()) {
+                    operations.add(lines[i]);
+                }
+            }
+        }
+        return operations;
+    }
+}
@@ -0,0 +1,134 @@
+package org.steam5.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.steam5.config.CacheBusProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sends {@link DomainCacheEvictor} operations to the other nodes via {@code pg_notify}.
+ *
+ * <p>Operations are queued once the current transaction has committed (immediately without one),
+ * collected for {@code cache-bus.batch-window-millis}, de-duplicated and sent as few notifications
+ * as possible from a background thread. Sending outside the caller's thread also keeps
+ * {@code pg_notify} off a connection that is still bound to a finished transaction, as it is in an
+ * {@code afterCommit} callback. A failed send is logged and dropped: the other nodes then fall
+ * back to their TTLs, as they did before the bus.</p>
+ *
+ * <p>Payload: the sending node id on the first line, then one operation per line.</p>
+ */
+@Slf4j
+@Component
+public class CacheInvalidationPublisher {
+
+    /** Postgres rejects payloads of 8000 bytes or more. */
+    static final int MAX_PAYLOAD_BYTES = 7_500;
+
+    private static final Executor SENDER = r -> Thread.ofVirtual().name("cache-bus-publish").start(r);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheBusProperties properties;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public CacheInvalidationPublisher(final JdbcTemplate jdbcTemplate, final CacheBusProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * @return id of this node; notifications carrying it are ignored by this node's listener
+     */
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Broadcasts {@code operation} to the other nodes once the current transaction (if any) commits.
+     */
+    public void publish(final String operation) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // afterCompletion, not afterCommit: callers often publish from an afterCommit callback,
+            // and synchronizations registered there only see afterCompletion
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(final int status) {
+                    if (status == STATUS_COMMITTED) {
+                        enqueue(operation);
+                    }
+                }
+            });
+        } else {
+            enqueue(operation);
+        }
+    }
+
+    private void enqueue(final String operation) {
+        pending.add(operation);
+        if (scheduled.compareAndSet(false, true)) {
+            CompletableFuture.delayedExecutor(properties.getBatchWindowMillis(), TimeUnit.MILLISECONDS, SENDER)
+                    .execute(this::flush);
+        }
+    }
+
+    void flush() {
+        // Reset first: an operation queued while draining schedules the next flush
+        scheduled.set(false);
+        final Set<String> operations = new LinkedHashSet<>();
+        for (String op; (op = pending.poll()) != null; ) {
+            operations.add(op);
+        }
+        if (operations.isEmpty()) {
+            return;
+        }
+        for (String payload : payloads(nodeId, operations)) {
+            try {
+                jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", properties.getChannel(), payload);
+            } catch (RuntimeException e) {
+                log.warn("Failed to publish cache invalidations on {}: {}", properties.getChannel(), e.getMessage());
+            }
+        }
+        log.debug("Published {} cache invalidations", operations.size());
+    }
+
+    /**
+     * Packs operations into as few payloads under {@link #MAX_PAYLOAD_BYTES} as possible.
+     */
+    static List<String> payloads(final String nodeId, final Set<String> operations) {
+        final List<String> payloads = new ArrayList<>();
+        StringBuilder current = new StringBuilder(nodeId);
+        int bytes = nodeId.length();
+        for (String op : operations) {
+            final int opBytes = op.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (bytes + opBytes > MAX_PAYLOAD_BYTES && current.length() > nodeId.length()) {
+                payloads.add(current.toString());
+                current = new StringBuilder(nodeId);
+                bytes = nodeId.length();
+            }
+            current.append('\n').append(op);
+            bytes += opBytes;
+        }
+        if (current.length() > nodeId.length()) {
+            payloads.add(current.toString());
+        }
+        return payloads;
+    }
+}
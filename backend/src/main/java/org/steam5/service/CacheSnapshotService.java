@@ -0,0 +1,401 @@
+package org.steam5.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.steam5.config.CacheBusProperties;
+import org.steam5.config.CacheSnapshotProperties;
+import org.steam5.config.TaggedCaffeineCache;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.type.TypeFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Warm start for long-lived caches across restarts (opt-in, {@link CacheSnapshotProperties}).
+ *
+ * <p>On graceful shutdown the configured caches are written to a gzip'd file of length-prefixed
+ * binary frames: cache name, typed key, remaining TTL, and the value as JSON with a small type
+ * descriptor ({@link ResponseEntity} status and headers are kept, the body becomes JSON). At the
+ * next start the file is loaded on a background thread as soon as the context is up, and startup
+ * waits for it (bounded) before the app reports ready. Restored entries expire when their original
+ * TTL would have, minus the downtime, and never replace an entry that is already cached.</p>
+ *
+ * <p>Values are restored by type from JSON, so they are equal to the originals as far as their
+ * JSON goes, which is how cached responses are consumed. Anything that does not round-trip (e.g.
+ * entities with lazy associations, classes that changed incompatibly) is skipped per entry.</p>
+ *
+ * <p>With the cache bus enabled, tagged caches are not restored: other nodes kept writing while this
+ * one was down and the bus does not replay the invalidations it missed, so they are treated like
+ * after a bus reconnect ({@link DomainCacheEvictor#evictAllShared()}) and start empty.</p>
+ */
+@Slf4j
+@Component
+public class CacheSnapshotService implements SmartLifecycle, ApplicationRunner {
+
+    private static final int MAGIC = 0x53354353; // "S5CS"
+    private static final int VERSION = 1;
+    private static final byte END = 0;
+    private static final byte FRAME = 1;
+    private static final byte VALUE_PLAIN = 0;
+    private static final byte VALUE_RESPONSE = 1;
+    private static final byte KEY_STRING = 0;
+    private static final byte KEY_LONG = 1;
+    private static final byte KEY_INT = 2;
+
+    /** Only these are instantiated from a snapshot. */
+    private static final List<String> ALLOWED_PACKAGES =
+            List.of("org.steam5.", "java.lang.", "java.util.", "java.time.", "java.math.");
+
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final CacheSnapshotProperties properties;
+    private final CacheBusProperties busProperties;
+
+    private volatile boolean running;
+    private volatile CompletableFuture<Void> loading = CompletableFuture.completedFuture(null);
+
+    public CacheSnapshotService(final CacheManager cacheManager, final ObjectMapper objectMapper,
+                                final CacheSnapshotProperties properties, final CacheBusProperties busProperties) {
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.busProperties = busProperties;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (properties.isEnabled()) {
+            loading = CompletableFuture.runAsync(this::loadQuietly,
+                    r -> Thread.ofVirtual().name("cache-snapshot-load").start(r));
+        }
+    }
+
+    /**
+     * Holds startup (runners complete before readiness) until the snapshot has loaded.
+     */
+    @Override
+    public void run(final ApplicationArguments args) {
+        try {
+            loading.get(properties.getLoadTimeoutSeconds(), TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Cache snapshot still loading after {}s; reporting ready without waiting",
+                    properties.getLoadTimeoutSeconds());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Cache snapshot load failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (properties.isEnabled() && running) {
+            try {
+                write();
+            } catch (Exception e) {
+                log.warn("Failed to write cache snapshot to {}", properties.getPath(), e);
+            }
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server (higher phases stop first), so no request changes the caches
+     * while they are written.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    void write() throws IOException {
+        final long start = System.nanoTime();
+        final Path target = Path.of(properties.getPath());
+        final Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        int written = 0;
+        int skipped = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            for (String name : properties.getCaches()) {
+                if (!(cacheManager.getCache(name) instanceof CaffeineCache cache)) {
+                    continue;
+                }
+                final var expiry = cache.getNativeCache().policy().expireAfterWrite().orElse(null);
+                if (expiry == null) {
+                    continue;
+                }
+                final Map<Object, Object> entries = new LinkedHashMap<>();
+                if (cache instanceof TaggedCaffeineCache tagged) {
+                    tagged.forEachCurrent(entries::put);
+                } else {
+                    cache.getNativeCache().asMap().forEach(entries::put);
+                }
+                for (Map.Entry<Object, Object> e : entries.entrySet()) {
+                    final Duration age = expiry.ageOf(e.getKey()).orElse(null);
+                    if (age == null || e.getValue() == null || e.getValue() instanceof NullValue) {
+                        continue;
+                    }
+                    try {
+                        final byte[] frame = encode(name, e.getKey(),
+                                expiry.getExpiresAfter().minus(age).toMillis(), e.getValue());
+                        out.writeByte(FRAME);
+                        out.writeInt(frame.length);
+                        out.write(frame);
+                        written++;
+                    } catch (Exception ex) {
+                        skipped++;
+                        log.debug("Not snapshotting {} entry {}", name, e.getKey(), ex);
+                    }
+                }
+            }
+            out.writeByte(END);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Wrote cache snapshot {}: entries={} skipped={} bytes={} in {}ms", target, written, skipped,
+                Files.size(target), (System.nanoTime() - start) / 1_000_000L);
+    }
+
+    private void loadQuietly() {
+        try {
+            load();
+        } catch (Exception e) {
+            log.warn("Failed to load cache snapshot from {}", properties.getPath(), e);
+        }
+    }
+
+    void load() throws IOException {
+        final long start = System.nanoTime();
+        final Path file = Path.of(properties.getPath());
+        int restored = 0;
+        int skipped = 0;
+        final long downtimeMillis;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.warn("Ignoring cache snapshot {}: unknown format", file);
+                return;
+            }
+            downtimeMillis = Math.max(0L, System.currentTimeMillis() - in.readLong());
+            if (downtimeMillis > TimeUnit.MINUTES.toMillis(properties.getMaxAgeMinutes())) {
+                log.info("Ignoring cache snapshot {}: written {} minutes ago", file, downtimeMillis / 60_000L);
+                return;
+            }
+            while (in.readByte() == FRAME) {
+                final byte[] frame = new byte[in.readInt()];
+                in.readFully(frame);
+                try {
+                    if (restore(frame, downtimeMillis)) {
+                        restored++;
+                    } else {
+                        skipped++;
+                    }
+                } catch (Exception e) {
+                    skipped++;
+                    log.debug("Skipping unreadable cache snapshot entry", e);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return;
+        } finally {
+            // One shot: a crash before the next graceful shutdown must not restore it again
+            Files.deleteIfExists(file);
+        }
+        log.info("Loaded cache snapshot {}: restored={} skipped={} downtime={}s in {}ms", file, restored, skipped,
+                downtimeMillis / 1000L, (System.nanoTime() - start) / 1_000_000L);
+    }
+
+    private byte[] encode(final String cacheName, final Object key, final long remainingMillis,
+                          final Object value) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(buffer);
+        out.writeUTF(cacheName);
+        switch (key) {
+            case String s -> {
+                out.writeByte(KEY_STRING);
+                out.writeUTF(s);
+            }
+            case Long l -> {
+                out.writeByte(KEY_LONG);
+                out.writeLong(l);
+            }
+            case Integer i -> {
+                out.writeByte(KEY_INT);
+                out.writeInt(i);
+            }
+            default -> throw new IllegalArgumentException("Unsupported key type " + key.getClass().getName());
+        }
+        out.writeLong(remainingMillis);
+        if (value instanceof ResponseEntity<?> response) {
+            out.writeByte(VALUE_RESPONSE);
+            out.writeInt(response.getStatusCode().value());
+            final List<Map.Entry<String, List<String>>> headers = new ArrayList<>();
+            response.getHeaders().forEach((name, values) -> headers.add(Map.entry(name, values)));
+            out.writeInt(headers.size());
+            for (Map.Entry<String, List<String>> header : headers) {
+                out.writeUTF(header.getKey());
+                out.writeInt(header.getValue().size());
+                for (String v : header.getValue()) {
+                    out.writeUTF(v);
+                }
+            }
+            writeValue(out, response.getBody());
+        } else {
+            out.writeByte(VALUE_PLAIN);
+            writeValue(out, value);
+        }
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    private void writeValue(final DataOutputStream out, final Object value) throws IOException {
+        if (value == null) {
+            throw new IllegalArgumentException("null value");
+        }
+        final String descriptor = describe(value);
+        // Fail while writing rather than on the next start
+        type(descriptor);
+        final byte[] json = objectMapper.writeValueAsBytes(value);
+        out.writeUTF(descriptor);
+        out.writeInt(json.length);
+        out.write(json);
+    }
+
+    private boolean restore(final byte[] frame, final long downtimeMillis) throws IOException, ClassNotFoundException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+        final String cacheName = in.readUTF();
+        final Object key = switch (in.readByte()) {
+            case KEY_STRING -> in.readUTF();
+            case KEY_LONG -> in.readLong();
+            case KEY_INT -> in.readInt();
+            default -> throw new IOException("Unknown key type");
+        };
+        final long remainingMillis = in.readLong() - downtimeMillis;
+        if (remainingMillis <= 0L || !properties.getCaches().contains(cacheName)
+                || !(cacheManager.getCache(cacheName) instanceof CaffeineCache cache)
+                || (cache instanceof TaggedCaffeineCache && busProperties.isEnabled())) {
+            return false;
+        }
+        final Object value;
+        if (in.readByte() == VALUE_RESPONSE) {
+            final int status = in.readInt();
+            final HttpHeaders headers = new HttpHeaders();
+            final int headerCount = in.readInt();
+            for (int i = 0; i < headerCount; i++) {
+                final String name = in.readUTF();
+                final int valueCount = in.readInt();
+                for (int j = 0; j < valueCount; j++) {
+                    headers.add(name, in.readUTF());
+                }
+            }
+            value = ResponseEntity.status(status).headers(headers).body(readValue(in));
+        } else {
+            value = readValue(in);
+        }
+        if (cache.putIfAbsent(key, value) != null) {
+            return false;
+        }
+        expireAfter(cache, key, remainingMillis);
+        return true;
+    }
+
+    /**
+     * Drops a restored entry when its original TTL would have run out, unless it was replaced.
+     */
+    private static void expireAfter(final CaffeineCache cache, final Object key, final long remainingMillis) {
+        final Object stored = cache.getNativeCache().asMap().get(key);
+        if (stored == null) {
+            return;
+        }
+        CompletableFuture.delayedExecutor(remainingMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            if (cache.getNativeCache().asMap().remove(key, stored) && cache instanceof TaggedCaffeineCache tagged) {
+                // Drops the ETag recorded for the restored entry as well
+                tagged.evict(key);
+            }
+        });
+    }
+
+    private Object readValue(final DataInputStream in) throws IOException, ClassNotFoundException {
+        final JavaType type = type(in.readUTF());
+        final byte[] json = new byte[in.readInt()];
+        in.readFully(json);
+        return objectMapper.readValue(json, type);
+    }
+
+    private static String describe(final Object value) {
+        return switch (value) {
+            case List<?> list -> "L:" + elementClass(list);
+            case Set<?> set -> "S:" + elementClass(set);
+            case Map<?, ?> map -> "M:" + elementClass(map.keySet()) + ":" + elementClass(map.values());
+            default -> "O:" + value.getClass().getName();
+        };
+    }
+
+    private static String elementClass(final Collection<?> values) {
+        for (Object v : values) {
+            if (v != null) {
+                return v.getClass().getName();
+            }
+        }
+        return Object.class.getName();
+    }
+
+    private JavaType type(final String descriptor) throws ClassNotFoundException {
+        final String[] parts = descriptor.split(":");
+        final TypeFactory types = objectMapper.getTypeFactory();
+        return switch (parts[0]) {
+            case "L" -> types.constructCollectionType(List.class, load(parts[1]));
+            case "S" -> types.constructCollectionType(LinkedHashSet.class, load(parts[1]));
+            case "M" -> types.constructMapType(LinkedHashMap.class, load(parts[1]), load(parts[2]));
+            default -> types.constructType(load(parts[1]));
+        };
+    }
+
+    private Class<?> load(final String className) throws ClassNotFoundException {
+        if (ALLOWED_PACKAGES.stream().noneMatch(className::startsWith)) {
+            throw new ClassNotFoundException("Not restorable from a cache snapshot: " + className);
+        }
+        return Class.forName(className, false, getClass().getClassLoader());
+    }
+}
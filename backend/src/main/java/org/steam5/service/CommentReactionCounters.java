@@ -0,0 +1,390 @@
+package org.steam5.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.steam5.domain.Comment;
+import org.steam5.domain.ReactionType;
+import org.steam5.repository.CommentReactionBulkRepository;
+import org.steam5.repository.CommentReactionBulkRepository.ReactionRow;
+import org.steam5.repository.CommentReactionRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory reaction state for comments: per-comment counts by {@link ReactionType}, and the
+ * reaction toggles not yet written to the database (write-behind).
+ *
+ * <p>A toggle updates memory only and reads nothing from the database: it flips the user's pending
+ * toggle (two toggles cancel out) and adjusts the counts under a per-comment lock stripe, assuming
+ * the state the caller last read. The database decides at {@link #flush()}: every
+ * {@code comments.reactions.flush-interval-ms} (the durability lag), once {@code max-pending}
+ * toggles queue up, and on shutdown, the queued toggles are swapped out under the stripes and
+ * written outside them as one statement that deletes the reactions that exist and inserts the
+ * rest. Toggles of several nodes therefore compose instead of overwriting each other.</p>
+ *
+ * <p>Counts are seeded lazily, with one {@code GROUP BY} per batch of comments not yet seeded, plus
+ * the unwritten toggles. A flush publishes one operation (a {@link CacheBusHandler}) that, on
+ * every node, evicts the cached comment lists and viewer reaction sets of the days it wrote and
+ * drops the counts of the comments it touched, so they re-seed from the database; the
+ * {@code counts-ttl-seconds} expiry is only a backstop.</p>
+ */
+@Slf4j
+@Component
+public class CommentReactionCounters implements CacheBusHandler {
+
+    static final String OP_FLUSHED = "comment-reactions-flushed";
+
+    private static final int STRIPES = 64;
+    /** Beyond this the flushed operation drops all counts rather than listing comment ids. */
+    private static final int MAX_OPERATION_CHARS = 6_000;
+    private static final ReactionType[] TYPES = ReactionType.values();
+
+    private final CommentReactionRepository reactionRepository;
+    private final CommentReactionBulkRepository bulkRepository;
+    private final DomainCacheEvictor cacheEvictor;
+    private final CacheInvalidationPublisher publisher;
+    private final int maxPending;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    /** Serialises flushes. */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    /** Toggles not yet handed to a flush; replaced (under every stripe) when a flush takes them. */
+    private volatile Map<ReactionKey, PendingReaction> pending = new ConcurrentHashMap<>();
+    /** Toggles being written by the running flush; still part of the in-memory state until it ends. */
+    private volatile Map<ReactionKey, PendingReaction> inFlight = Map.of();
+    /** Counts per comment, indexed by {@link ReactionType#ordinal()}. */
+    private final Cache<Long, AtomicLongArray> counts;
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private volatile long flushGeneration;
+
+    public CommentReactionCounters(final CommentReactionRepository reactionRepository,
+                                   final CommentReactionBulkRepository bulkRepository,
+                                   final DomainCacheEvictor cacheEvictor,
+                                   final CacheInvalidationPublisher publisher,
+                                   @Value("${comments.reactions.max-pending:1000}") final int maxPending,
+                                   @Value("${comments.reactions.counts-ttl-seconds:60}") final long countsTtlSeconds) {
+        this.reactionRepository = reactionRepository;
+        this.bulkRepository = bulkRepository;
+        this.cacheEvictor = cacheEvictor;
+        this.publisher = publisher;
+        this.maxPending = Math.max(1, maxPending);
+        this.counts = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(countsTtlSeconds))
+                .maximumSize(20_000)
+                .build();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Toggles {@code steamId}'s {@code type} reaction on {@code comment} in memory.
+     *
+     * @param stored whether the user held the reaction in the database state the caller read (their
+     *               cached reaction set); only the returned state and the counts depend on it, the
+     *               flush toggles whatever the database then holds
+     * @return whether the user holds the reaction afterwards
+     */
+    public boolean toggle(final Comment comment, final String steamId, final ReactionType type, final boolean stored) {
+        final ReactionKey key = new ReactionKey(comment.getId(), steamId, type);
+        final ReentrantLock lock = stripe(comment.getId());
+        final boolean held;
+        lock.lock();
+        try {
+            final PendingReaction queued = pending.remove(key);
+            if (queued != null) {
+                // Cancels out: back to the state before it
+                held = !queued.add();
+            } else {
+                final PendingReaction writing = inFlight.get(key);
+                held = !(writing != null ? writing.add() : stored);
+                pending.put(key, new PendingReaction(held, comment.getGameDate(), OffsetDateTime.now()));
+            }
+            final AtomicLongArray current = counts.getIfPresent(comment.getId());
+            if (current != null) {
+                current.addAndGet(type.ordinal(), held ? 1 : -1);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (pending.size() >= maxPending && flushQueued.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("comment-reactions-flush").start(() -> {
+                try {
+                    flush();
+                } finally {
+                    flushQueued.set(false);
+                }
+            });
+        }
+        return held;
+    }
+
+    /**
+     * @return current counts per comment; comments without reactions map to an empty map
+     */
+    public Map<Long, Map<ReactionType, Long>> counts(final Collection<Long> commentIds) {
+        final Map<Long, AtomicLongArray> found = new HashMap<>(counts.getAllPresent(commentIds));
+        final List<Long> missing = new ArrayList<>();
+        for (Long id : commentIds) {
+            if (!found.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            found.putAll(seed(missing));
+        }
+        final Map<Long, Map<ReactionType, Long>> result = new HashMap<>();
+        found.forEach((id, values) -> {
+            final Map<ReactionType, Long> byType = new EnumMap<>(ReactionType.class);
+            for (ReactionType type : TYPES) {
+                final long n = values.get(type.ordinal());
+                if (n > 0) {
+                    byType.put(type, n);
+                }
+            }
+            result.put(id, byType);
+        });
+        return result;
+    }
+
+    private Map<Long, AtomicLongArray> seed(final List<Long> commentIds) {
+        final long generation = flushGeneration;
+        final Map<Long, long[]> stored = new HashMap<>();
+        for (final CommentReactionRepository.ReactionCountRow row : reactionRepository.countByCommentIds(commentIds)) {
+            stored.computeIfAbsent(row.getCommentId(), id -> new long[TYPES.length])
+                    [row.getReactionType().ordinal()] = row.getReactionCount();
+        }
+        final Map<Long, AtomicLongArray> seeded = new HashMap<>();
+        for (Long id : commentIds) {
+            final ReentrantLock lock = stripe(id);
+            lock.lock();
+            try {
+                final AtomicLongArray existing = counts.getIfPresent(id);
+                if (existing != null) {
+                    seeded.put(id, existing);
+                    continue;
+                }
+                final AtomicLongArray values = new AtomicLongArray(stored.getOrDefault(id, new long[TYPES.length]));
+                for (Map<ReactionKey, PendingReaction> queued : List.of(inFlight, pending)) {
+                    queued.forEach((key, p) -> {
+                        if (key.commentId() == id) {
+                            values.addAndGet(key.type().ordinal(), p.add() ? 1 : -1);
+                        }
+                    });
+                }
+                // A flush writing during or since the read may have counted toggles twice or not
+                // at all: good enough for this call's callers only, so do not keep it
+                if (flushGeneration == generation && generation % 2 == 0) {
+                    counts.put(id, values);
+                }
+                seeded.put(id, values);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return seeded;
+    }
+
+    /**
+     * @return {@code stored} (a user's reactions by comment id, as read from the database) with
+     * that user's unwritten toggles applied; {@code stored} itself when there are none
+     */
+    public Map<Long, Set<ReactionType>> withPending(final String steamId, final Map<Long, Set<ReactionType>> stored) {
+        Map<Long, Set<ReactionType>> result = null;
+        // The running flush's toggles first: a pending one was decided on top of them
+        for (Map<ReactionKey, PendingReaction> queued : List.of(inFlight, pending)) {
+            for (Map.Entry<ReactionKey, PendingReaction> e : queued.entrySet()) {
+                final ReactionKey key = e.getKey();
+                if (!key.steamId().equals(steamId)) {
+                    continue;
+                }
+                if (result == null) {
+                    result = new HashMap<>();
+                    for (Map.Entry<Long, Set<ReactionType>> s : stored.entrySet()) {
+                        result.put(s.getKey(), s.getValue().isEmpty()
+                                ? EnumSet.noneOf(ReactionType.class) : EnumSet.copyOf(s.getValue()));
+                    }
+                }
+                final Set<ReactionType> held = result.computeIfAbsent(key.commentId(), id -> EnumSet.noneOf(ReactionType.class));
+                if (e.getValue().add()) {
+                    held.add(key.type());
+                } else {
+                    held.remove(key.type());
+                }
+            }
+        }
+        return result != null ? result : stored;
+    }
+
+    /**
+     * Incremented when a flush starts writing and again when it ends, so it is odd while one is
+     * in progress; lets readers detect that data they read from the database may lack or already
+     * include the rows it wrote.
+     */
+    public long flushGeneration() {
+        return flushGeneration;
+    }
+
+    /**
+     * Writes all queued toggles. Only swapping them out holds the stripes; the write runs outside
+     * them, in one transaction. On failure the toggles are queued again for the next flush.
+     */
+    @PreDestroy
+    public void flush() {
+        flushLock.lock();
+        try {
+            final Map<ReactionKey, PendingReaction> taken = take();
+            if (taken != null) {
+                write(taken);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private Map<ReactionKey, PendingReaction> take() {
+        lockAll();
+        try {
+            if (pending.isEmpty()) {
+                return null;
+            }
+            final Map<ReactionKey, PendingReaction> taken = pending;
+            inFlight = taken;
+            pending = new ConcurrentHashMap<>();
+            flushGeneration++;
+            return taken;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    private void write(final Map<ReactionKey, PendingReaction> taken) {
+        final List<ReactionRow> rows = new ArrayList<>(taken.size());
+        final Set<LocalDate> days = new TreeSet<>();
+        final Set<Long> commentIds = new TreeSet<>();
+        taken.forEach((key, p) -> {
+            rows.add(new ReactionRow(key.commentId(), key.steamId(), key.type(), p.at()));
+            days.add(p.gameDate());
+            commentIds.add(key.commentId());
+        });
+        try {
+            bulkRepository.toggleAll(rows);
+        } catch (RuntimeException e) {
+            log.warn("Failed to write {} pending comment reactions; retrying on the next flush", rows.size(), e);
+            requeue(taken);
+            return;
+        }
+        // Viewer sets are evicted while the written toggles still apply on top of them
+        cacheEvictor.commentReactionsWritten(days);
+        lockAll();
+        try {
+            inFlight = Map.of();
+            flushGeneration++;
+        } finally {
+            unlockAll();
+        }
+        counts.invalidateAll(commentIds);
+        publisher.publish(flushedOperation(days, commentIds));
+        log.debug("Flushed {} comment reaction toggles", rows.size());
+    }
+
+    /**
+     * Puts the toggles of a failed write back. A toggle queued since was decided on top of the
+     * failed one, so the two cancel out.
+     */
+    private void requeue(final Map<ReactionKey, PendingReaction> taken) {
+        lockAll();
+        try {
+            taken.forEach((key, p) -> {
+                if (pending.remove(key) == null) {
+                    pending.put(key, p);
+                }
+            });
+            inFlight = Map.of();
+            flushGeneration++;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    static String flushedOperation(final Collection<LocalDate> days, final Collection<Long> commentIds) {
+        final String ids = String.join(",", commentIds.stream().map(String::valueOf).toList());
+        return OP_FLUSHED + " " + String.join(",", days.stream().map(LocalDate::toString).toList())
+                + " " + (ids.length() > MAX_OPERATION_CHARS ? "*" : ids);
+    }
+
+    @Override
+    public String operation() {
+        return OP_FLUSHED;
+    }
+
+    /**
+     * Applies another node's flush: {@code "<day>,... <commentId>,..."}, or {@code *} for all comments.
+     */
+    @Override
+    public void apply(final String argument) {
+        final String[] parts = argument.split(" ");
+        cacheEvictor.commentReactionsWritten(Arrays.stream(parts[0].split(",")).map(LocalDate::parse).toList());
+        if (parts[1].equals("*")) {
+            counts.invalidateAll();
+        } else {
+            counts.invalidateAll(Arrays.stream(parts[1].split(",")).map(Long::valueOf).toList());
+        }
+    }
+
+    @Override
+    public void resync() {
+        counts.invalidateAll();
+    }
+
+    /**
+     * @return number of toggles not yet written
+     */
+    public int pendingCount() {
+        return pending.size() + inFlight.size();
+    }
+
+    private void lockAll() {
+        for (ReentrantLock lock : stripes) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = STRIPES - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+    private ReentrantLock stripe(final long commentId) {
+        return stripes[Math.floorMod(Long.hashCode(commentId), STRIPES)];
+    }
+
+    private record ReactionKey(long commentId, String steamId, ReactionType type) {
+    }
+
+    /**
+     * @param add whether the toggle was taken to leave the reaction held
+     */
+    private record PendingReaction(boolean add, LocalDate gameDate, OffsetDateTime at) {
+    }
+}
@@ -3,12 +3,14 @@ package org.steam5.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.steam5.config.CacheNames;
 import org.steam5.domain.Comment;
 import org.steam5.domain.CommentModerator;
 import org.steam5.domain.CommentReaction;
@@ -28,11 +30,13 @@ import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -51,6 +55,8 @@ public class CommentService {
     private final ReviewGamePickRepository pickRepository;
     private final UserRepository userRepository;
     private final DomainCacheEvictor cacheEvictor;
+    private final CacheManager cacheManager;
+    private final CommentReactionCounters reactionCounters;
 
     /**
      * Creates a comment for the current UTC game day after the user has completed it.
@@ -88,10 +94,37 @@ public class CommentService {
 
     /**
      * Lists unarchived comments for a game date (newest first), with reactions and authors.
+     *
+     * <p>The list itself (comments, reactor names, authors) is the same for every viewer and
+     * cached once per day in {@code comments-for-day}; concurrent misses share one build. Counts
+     * come from {@link CommentReactionCounters} and the viewer's own reactions from a small
+     * per-viewer set ({@code comment-viewer-reactions}); both are merged in per request.</p>
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "comments-for-day", key = "#gameDate.toString() + ':' + (#viewerSteamId != null ? #viewerSteamId : 'anon')")
     public List<CommentDto> listComments(final LocalDate gameDate, final String viewerSteamId) {
+        final List<CommentDto> comments = cached(CacheNames.COMMENTS_FOR_DAY, gameDate.toString(),
+                () -> buildCommentList(gameDate));
+        if (comments.isEmpty()) {
+            return comments;
+        }
+        final Map<Long, Map<ReactionType, Long>> counts =
+                reactionCounters.counts(comments.stream().map(CommentDto::id).toList());
+        final Map<Long, Set<ReactionType>> viewerReactions = viewerSteamId == null || viewerSteamId.isBlank()
+                ? Map.of()
+                : viewerReactions(gameDate, viewerSteamId);
+        final List<CommentDto> result = new ArrayList<>(comments.size());
+        for (final CommentDto dto : comments) {
+            result.add(withReactionState(dto, counts.getOrDefault(dto.id(), Map.of()),
+                    viewerReactions.getOrDefault(dto.id(), Set.of())));
+        }
+        return result;
+    }
+
+    /**
+     * Builds the viewer-independent comment list of a day; counts are zero and every
+     * {@code reactedByViewer} is false until {@link #withReactionState} fills them in.
+     */
+    private List<CommentDto> buildCommentList(final LocalDate gameDate) {
         final List<Comment> comments = commentRepository.findByGameDateAndArchivedFalseOrderByCreatedAtDesc(
                 gameDate, PageRequest.of(0, LIST_PAGE_SIZE));
         if (comments.isEmpty()) {
@@ -99,24 +132,6 @@ public class CommentService {
         }
 
         final List<Long> commentIds = comments.stream().map(Comment::getId).toList();
-        final Map<Long, Map<ReactionType, Long>> countsByComment = new HashMap<>();
-        for (final CommentReactionRepository.ReactionCountRow row
-                : commentReactionRepository.countByCommentIds(commentIds)) {
-            countsByComment
-                    .computeIfAbsent(row.getCommentId(), id -> new EnumMap<>(ReactionType.class))
-                    .put(row.getReactionType(), row.getReactionCount());
-        }
-
-        final Map<Long, Set<ReactionType>> viewerReactionsByComment = new HashMap<>();
-        if (viewerSteamId != null && !viewerSteamId.isBlank()) {
-            for (final CommentReaction reaction
-                    : commentReactionRepository.findByComment_IdInAndSteamId(commentIds, viewerSteamId)) {
-                viewerReactionsByComment
-                        .computeIfAbsent(reaction.getComment().getId(), id -> new HashSet<>())
-                        .add(reaction.getReactionType());
-            }
-        }
-
         final Map<Long, Map<ReactionType, List<String>>> reactorIdsByComment = new HashMap<>();
         final Set<String> reactorSteamIds = new HashSet<>();
         for (final CommentReaction row
@@ -138,39 +153,106 @@ public class CommentService {
         for (final Comment comment : comments) {
             result.add(toDto(
                     comment,
-                    countsByComment.getOrDefault(comment.getId(), Map.of()),
-                    viewerReactionsByComment.getOrDefault(comment.getId(), Set.of()),
+                    Map.of(),
+                    Set.of(),
                     usersById.get(comment.getSteamId()),
                     reactorIdsByComment.getOrDefault(comment.getId(), Map.of()),
                     usersById
             ));
         }
-        return result;
+        return List.copyOf(result);
     }
 
     /**
-     * Toggles a reaction on a comment for the current UTC game day.
+     * The viewer's reactions on a day's comments, by comment id: the cached set read from the
+     * database plus their toggles that are not written yet.
      */
-    @Transactional
+    private Map<Long, Set<ReactionType>> viewerReactions(final LocalDate gameDate, final String steamId) {
+        final long generation = reactionCounters.flushGeneration();
+        final Map<Long, Set<ReactionType>> held = reactionCounters.withPending(steamId,
+                cached(CacheNames.COMMENT_VIEWER_REACTIONS,
+                        DomainCacheEvictor.viewerReactionsKey(gameDate, steamId),
+                        () -> loadViewerReactions(gameDate, steamId)));
+        if (reactionCounters.flushGeneration() == generation) {
+            return held;
+        }
+        return reactionCounters.withPending(steamId, reloadViewerReactions(gameDate, steamId));
+    }
+
+    /**
+     * The viewer's reactions on a day's comments as last read from the database, without their
+     * unwritten toggles.
+     */
+    private Map<Long, Set<ReactionType>> storedViewerReactions(final LocalDate gameDate, final String steamId) {
+        final long generation = reactionCounters.flushGeneration();
+        final Map<Long, Set<ReactionType>> stored = cached(CacheNames.COMMENT_VIEWER_REACTIONS,
+                DomainCacheEvictor.viewerReactionsKey(gameDate, steamId),
+                () -> loadViewerReactions(gameDate, steamId));
+        return reactionCounters.flushGeneration() == generation ? stored : reloadViewerReactions(gameDate, steamId);
+    }
+
+    /**
+     * Re-reads a viewer set after a flush turned unwritten toggles into rows the cached one may lack.
+     * The flush evicts the day's sets on every node, but this one may have been cached after that.
+     */
+    private Map<Long, Set<ReactionType>> reloadViewerReactions(final LocalDate gameDate, final String steamId) {
+        final Cache cache = cacheManager.getCache(CacheNames.COMMENT_VIEWER_REACTIONS);
+        if (cache != null) {
+            cache.evict(DomainCacheEvictor.viewerReactionsKey(gameDate, steamId));
+        }
+        return loadViewerReactions(gameDate, steamId);
+    }
+
+    /**
+     * Loads which reactions {@code steamId} holds on the comments of a day, by comment id.
+     */
+    private Map<Long, Set<ReactionType>> loadViewerReactions(final LocalDate gameDate, final String steamId) {
+        final Map<Long, Set<ReactionType>> byComment = new HashMap<>();
+        for (final CommentReaction reaction
+                : commentReactionRepository.findByComment_GameDateAndSteamId(gameDate, steamId)) {
+            byComment.computeIfAbsent(reaction.getComment().getId(), id -> EnumSet.noneOf(ReactionType.class))
+                    .add(reaction.getReactionType());
+        }
+        return byComment;
+    }
+
+    private static CommentDto withReactionState(final CommentDto dto,
+                                                final Map<ReactionType, Long> counts,
+                                                final Set<ReactionType> held) {
+        final List<ReactionDto> reactions = new ArrayList<>(dto.reactions().size());
+        for (final ReactionDto r : dto.reactions()) {
+            final ReactionType type = ReactionType.valueOf(r.reactionType());
+            reactions.add(new ReactionDto(r.reactionType(), counts.getOrDefault(type, 0L),
+                    held.contains(type), r.reactors()));
+        }
+        return new CommentDto(dto.id(), dto.body(), dto.createdAt(), dto.author(), reactions);
+    }
+
+    private <T> T cached(final String cacheName, final String key, final Supplier<T> loader) {
+        final Cache cache = cacheManager.getCache(cacheName);
+        return cache != null ? cache.get(key, loader::get) : loader.get();
+    }
+
+    /**
+     * Toggles a reaction on a comment for the current UTC game day. The toggle is applied in
+     * memory and written behind in batches ({@link CommentReactionCounters}); the returned counts
+     * and viewer state already reflect it, taking the viewer's current state from their cached
+     * reaction set. Reactor names come from the day's cached comment list, so a toggle queries
+     * neither reactions, reactors nor users once those are cached.
+     */
+    @Transactional(readOnly = true)
     public List<ReactionDto> toggleReaction(final Long commentId, final String steamId, final ReactionType reactionType) {
-        final Comment comment = commentRepository.findByIdForUpdate(commentId)
+        final Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new ReviewGameException(404, "comment_not_found"));
         if (comment.isArchived()) {
             throw new ReviewGameException(404, "comment_not_found");
         }
         requireCurrentGameDay(comment.getGameDate());
 
-        final var existing = commentReactionRepository.findByComment_IdAndSteamIdAndReactionType(
-                commentId, steamId, reactionType);
-        if (existing.isPresent()) {
-            commentReactionRepository.delete(existing.get());
-        } else {
-            commentReactionRepository.insertIgnoreConflict(
-                    commentId, steamId, reactionType.name(), OffsetDateTime.now());
-        }
-
-        evictCommentsForDayAfterCommit(comment.getGameDate());
-        return buildReactionDtos(commentId, steamId);
+        final boolean stored = storedViewerReactions(comment.getGameDate(), steamId)
+                .getOrDefault(commentId, Set.of()).contains(reactionType);
+        reactionCounters.toggle(comment, steamId, reactionType, stored);
+        return buildReactionDtos(comment, steamId);
     }
 
     /**
@@ -212,35 +294,30 @@ public class CommentService {
     }
 
     /**
-     * Builds reaction details for a comment, including counts, viewer state, and reactor display names.
+     * Builds reaction details for a comment from memory: counts from {@link CommentReactionCounters},
+     * the viewer's state with their unwritten toggles, and reactor names from the day's cached
+     * comment list. Names are as of the last write (the list is evicted after each flush), the same
+     * ones {@link #listComments} serves; a comment outside the cached page gets none.
      *
-     * @param commentId    the comment identifier
+     * @param comment       the comment
      * @param viewerSteamId the Steam ID of the viewing user
      * @return the reaction details for every reaction type
      */
-    private List<ReactionDto> buildReactionDtos(final Long commentId, final String viewerSteamId) {
-        final Map<ReactionType, Long> counts = new EnumMap<>(ReactionType.class);
-        for (final CommentReactionRepository.ReactionCountRow row
-                : commentReactionRepository.countByCommentIds(List.of(commentId))) {
-            counts.put(row.getReactionType(), row.getReactionCount());
-        }
-        final Set<ReactionType> viewerHeld = new HashSet<>();
-        for (final CommentReaction reaction
-                : commentReactionRepository.findByComment_IdInAndSteamId(List.of(commentId), viewerSteamId)) {
-            viewerHeld.add(reaction.getReactionType());
-        }
-
-        final Map<ReactionType, List<String>> reactorIdsByType = new EnumMap<>(ReactionType.class);
-        final Set<String> reactorSteamIds = new HashSet<>();
-        for (final CommentReaction row
-                : commentReactionRepository.findTopReactorsByCommentIds(List.of(commentId), MAX_REACTORS_PER_TYPE)) {
-            reactorIdsByType.computeIfAbsent(row.getReactionType(), type -> new ArrayList<>()).add(row.getSteamId());
-            reactorSteamIds.add(row.getSteamId());
+    private List<ReactionDto> buildReactionDtos(final Comment comment, final String viewerSteamId) {
+        final Long commentId = comment.getId();
+        final Map<ReactionType, Long> counts =
+                reactionCounters.counts(List.of(commentId)).getOrDefault(commentId, Map.of());
+        final Set<ReactionType> viewerHeld =
+                viewerReactions(comment.getGameDate(), viewerSteamId).getOrDefault(commentId, Set.of());
+
+        final List<CommentDto> day = cached(CacheNames.COMMENTS_FOR_DAY, comment.getGameDate().toString(),
+                () -> buildCommentList(comment.getGameDate()));
+        for (final CommentDto dto : day) {
+            if (dto.id().equals(commentId)) {
+                return withReactionState(dto, counts, viewerHeld).reactions();
+            }
         }
-        final Map<String, User> usersById = userRepository.findAllById(reactorSteamIds).stream()
-                .collect(Collectors.toMap(User::getSteamId, u -> u, (a, b) -> a));
-
-        return reactionDtos(counts, viewerHeld, reactorIdsByType, usersById);
+        return reactionDtos(counts, viewerHeld, Map.of(), Map.of());
     }
 
     private CommentDto toDto(final Comment comment,
@@ -1,12 +1,24 @@
 package org.steam5.service;
 
-import com.github.benmanes.caffeine.cache.Cache;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.caffeine.CaffeineCache;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
+import org.steam5.config.TaggedCaffeineCache;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+import static org.steam5.config.CacheNames.*;
+import static org.steam5.config.CacheTags.*;
 
 /**
  * Single owner of the domain cache topology: which Caffeine caches exist and which
@@ -14,54 +26,97 @@ import java.time.LocalDate;
  * operations below rather than reaching for cache keys directly, so that adding a
  * cache or renaming a key is a one-file change.
  *
- * <p>Cache names mirror the beans declared in
- * {@link org.steam5.config.CacheConfig}.</p>
+ * <p>Cache names and tags are shared with the cache configuration
+ * ({@link org.steam5.config.CacheNames}, {@link org.steam5.config.CacheTags}).</p>
+ *
+ * <p>{@code review-game} is a {@link TaggedCaffeineCache}: its entries are tagged (see
+ * {@code ReviewGameCacheTags}), as are the stored bodies in {@code http-review-game}, and the
+ * review-game operations invalidate tags rather than clearing either cache, so immutable
+ * historical responses survive ingest runs.</p>
+ *
+ * <p>Every public eviction is applied locally and published to the other nodes
+ * ({@link CacheInvalidationPublisher}), which re-apply it through {@link #apply(String)}. Operations
+ * are encoded as {@code "<name> <argument>"}.</p>
  */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class DomainCacheEvictor {
 
-    static final String REVIEW_GAME = "review-game";
-    static final String ONE_DAY = "one-day";
-    static final String LEADERBOARD_STATIC = "leaderboard-static";
-    static final String STATS_HOURLY = "stats-hourly";
-    static final String COMMENTS_FOR_DAY = "comments-for-day";
+    static final String OP_REVIEW_GAME_STATE = "review-game-state";
+    static final String OP_APP_DETAIL = "app-detail";
+    static final String OP_REVIEW_COUNTS = "review-counts";
+    static final String OP_LEADERBOARD_STATIC = "leaderboard-static";
+    static final String OP_STATS_HOURLY = "stats-hourly";
+    static final String OP_COMMENTS_FOR_DAY = "comments-for-day";
+    static final String OP_SEASON_CURRENT = "season-current";
+
+    /** App ids per published review-counts operation, to stay well under the notification size limit. */
+    private static final int REVIEW_COUNTS_PER_OPERATION = 500;
 
     private final CacheManager cacheManager;
+    private final CacheInvalidationPublisher publisher;
+
+    /** Key of a viewer's reactions on one day's comments in {@code comment-viewer-reactions}. */
+    static String viewerReactionsKey(final LocalDate day, final String steamId) {
+        return day + ":" + steamId;
+    }
 
     /**
-     * Drop all cached review-game state. Call after the day's picks are (re)generated,
-     * since the cached picks/state are no longer current.
+     * Drop cached review-game state for one day. Call after that day's picks are (re)generated:
+     * its picks, its month's archive page and the day list are no longer current. Other days'
+     * entries stay cached.
      */
-    public void evictReviewGameState() {
-        clear(REVIEW_GAME);
+    public void evictReviewGameState(final LocalDate day) {
+        reviewGameState(day);
+        publisher.publish(OP_REVIEW_GAME_STATE + " " + day);
+    }
+
+    private void reviewGameState(final LocalDate day) {
+        final List<String> tags = List.of(dateTag(day), monthTag(YearMonth.from(day)), PICK_DAYS_TAG);
+        invalidate(REVIEW_GAME, tags);
+        invalidate(HTTP_REVIEW_GAME, tags);
     }
 
     /**
      * Drop cached data derived from a single app's details. Call after an app's
      * details are upserted: the per-app {@code one-day} entry is stale, and the
-     * review-game responses embed app details so they must be dropped too.
+     * review-game responses (and their stored bodies) that embed this app's details must be
+     * dropped too; responses of other apps stay cached.
      */
     public void evictAppDetail(final Long appId) {
+        appDetail(appId);
+        publisher.publish(OP_APP_DETAIL + " " + appId);
+    }
+
+    private void appDetail(final Long appId) {
         final org.springframework.cache.Cache oneDay = cacheManager.getCache(ONE_DAY);
         if (oneDay != null) {
             oneDay.evict(appId);
         }
-        clear(REVIEW_GAME);
+        invalidate(REVIEW_GAME, List.of(appTag(appId)));
+        invalidate(HTTP_REVIEW_GAME, List.of(appTag(appId), UNRESOLVED_APPS_TAG));
     }
 
     /**
-     * Drop only the per-app {@code one-day} cache entry for a single app, without clearing
-     * the shared {@code review-game} cache. Used by bulk loops (e.g. the full-run blurhash
-     * job) that clear {@code review-game} once up front but still need each processed app's
-     * cached detail response invalidated so freshly encoded screenshot blur data is served
-     * immediately rather than up to 24h later.
+     * Drop cached review-game entries derived from these apps' review counts. Call after their
+     * counts changed.
      */
-    public void evictAppDetailEntry(final Long appId) {
-        final org.springframework.cache.Cache oneDay = cacheManager.getCache(ONE_DAY);
-        if (oneDay != null) {
-            oneDay.evict(appId);
+    public void evictReviewCounts(final Collection<Long> appIds) {
+        reviewCounts(appIds);
+        final List<Long> ids = List.copyOf(appIds);
+        for (int from = 0; from < ids.size(); from += REVIEW_COUNTS_PER_OPERATION) {
+            final List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + REVIEW_COUNTS_PER_OPERATION));
+            publisher.publish(OP_REVIEW_COUNTS + " " + String.join(",", chunk.stream().map(String::valueOf).toList()));
+        }
+    }
+
+    private void reviewCounts(final Collection<Long> appIds) {
+        final List<String> tags = new ArrayList<>(appIds.size());
+        for (Long appId : appIds) {
+            tags.add(reviewsTag(appId));
         }
+        invalidate(REVIEW_GAME, tags);
     }
 
     /**
@@ -70,7 +125,13 @@ public class DomainCacheEvictor {
      * keep serving pre-refresh data for up to the cache's 10-minute TTL.
      */
     public void evictLeaderboardStatic() {
+        leaderboardStatic();
+        publisher.publish(OP_LEADERBOARD_STATIC);
+    }
+
+    private void leaderboardStatic() {
         clear(LEADERBOARD_STATIC);
+        clear(HTTP_LEADERBOARD_STATIC);
     }
 
     /**
@@ -78,29 +139,117 @@ public class DomainCacheEvictor {
      */
     public void evictStatsHourly() {
         clear(STATS_HOURLY);
+        publisher.publish(OP_STATS_HOURLY);
+    }
+
+    /**
+     * Drops the cached current-season response and its stored body. Call after seasons were
+     * created or finalized.
+     */
+    public void evictSeasonCurrent() {
+        seasonCurrent();
+        publisher.publish(OP_SEASON_CURRENT);
+    }
+
+    private void seasonCurrent() {
+        clear(SEASON_CURRENT_RESPONSE);
+        clear(HTTP_SEASON_CURRENT);
     }
 
     /**
-     * Clears cached comment-list entries for the given day only.
-     * Keys match {@code CommentService.listComments}: {@code gameDate.toString() + ':' + viewer}.
+     * Drops the cached comment list of the given day only. The list is shared by all viewers and
+     * keyed by {@code gameDate.toString()} (see {@code CommentService.listComments}).
      *
-     * @param day the day whose comment cache entries must be dropped
+     * @param day the day whose comment cache entry must be dropped
      */
     public void evictCommentsForDay(final LocalDate day) {
-        final org.springframework.cache.Cache cache = cacheManager.getCache(COMMENTS_FOR_DAY);
+        commentsForDay(day);
+        publisher.publish(OP_COMMENTS_FOR_DAY + " " + day);
+    }
+
+    private void commentsForDay(final LocalDate day) {
+        evict(COMMENTS_FOR_DAY, day.toString());
+    }
+
+    /**
+     * Drops, on this node only, the cached comment lists and every viewer's reaction set of these
+     * days. Called by {@link CommentReactionCounters} after a flush wrote reactions of those days;
+     * it publishes the flush as a single operation of its own.
+     */
+    void commentReactionsWritten(final Collection<LocalDate> days) {
+        days.forEach(this::commentsForDay);
+        final org.springframework.cache.Cache cache = cacheManager.getCache(COMMENT_VIEWER_REACTIONS);
         if (cache == null) {
             return;
         }
-        if (!(cache instanceof CaffeineCache caffeineCache)) {
+        final Set<String> prefixes = new HashSet<>();
+        days.forEach(day -> prefixes.add(viewerReactionsKey(day, "")));
+        final Predicate<Object> written = key -> {
+            final String k = key.toString();
+            final int colon = k.indexOf(':');
+            return colon >= 0 && prefixes.contains(k.substring(0, colon + 1));
+        };
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            caffeine.asMap().keySet().removeIf(written);
+        } else if (cache.getNativeCache() instanceof ConcurrentMap<?, ?> map) {
+            map.keySet().removeIf(written);
+        } else {
             cache.clear();
-            return;
         }
-        final String prefix = day.toString() + ":";
-        final Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
-        for (final Object key : nativeCache.asMap().keySet()) {
-            if (key instanceof String s && s.startsWith(prefix)) {
-                caffeineCache.evict(key);
-            }
+    }
+
+    /**
+     * Applies an operation published by another node, without publishing it again.
+     *
+     * @param operation {@code "<name> <argument>"} as published by the evictions above
+     */
+    public void apply(final String operation) {
+        final int space = operation.indexOf(' ');
+        final String name = space < 0 ? operation : operation.substring(0, space);
+        final String argument = space < 0 ? "" : operation.substring(space + 1);
+        switch (name) {
+            case OP_REVIEW_GAME_STATE -> reviewGameState(LocalDate.parse(argument));
+            case OP_APP_DETAIL -> appDetail(Long.valueOf(argument));
+            case OP_REVIEW_COUNTS -> reviewCounts(Arrays.stream(argument.split(",")).map(Long::valueOf).toList());
+            case OP_LEADERBOARD_STATIC -> leaderboardStatic();
+            case OP_STATS_HOURLY -> clear(STATS_HOURLY);
+            case OP_COMMENTS_FOR_DAY -> commentsForDay(LocalDate.parse(argument));
+            case OP_SEASON_CURRENT -> seasonCurrent();
+            default -> log.warn("Ignoring unknown cache invalidation '{}'", operation);
+        }
+    }
+
+    /**
+     * Clears every cache the evictions above touch, locally. For a node that may have missed
+     * invalidations from other nodes (see {@link CacheInvalidationListener}).
+     */
+    public void evictAllShared() {
+        for (String name : List.of(REVIEW_GAME, ONE_DAY, LEADERBOARD_STATIC, STATS_HOURLY, COMMENTS_FOR_DAY,
+                COMMENT_VIEWER_REACTIONS, SEASON_CURRENT_RESPONSE, HTTP_REVIEW_GAME, HTTP_LEADERBOARD_STATIC,
+                HTTP_SEASON_CURRENT)) {
+            clear(name);
+        }
+    }
+
+    /**
+     * Invalidates the tagged entries of the named cache, or clears it if it is not tagged.
+     */
+    private void invalidate(final String cacheName, final Collection<String> tags) {
+        final org.springframework.cache.Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof TaggedCaffeineCache tagged) {
+            tagged.invalidate(tags);
+        } else if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Evicts one key of the named cache when it is available.
+     */
+    private void evict(final String cacheName, final Object key) {
+        final org.springframework.cache.Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
         }
     }
 
@@ -0,0 +1,133 @@
+package org.steam5.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.steam5.domain.GameDate;
+import org.steam5.domain.Guess;
+import org.steam5.domain.GuessStats;
+import org.steam5.repository.LeaderboardAggregateRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maintains the leaderboard aggregates incrementally instead of re-grouping all guesses:
+ * each accepted guess adds its delta to the player's day partial and all-time total in the
+ * guess's own transaction ({@link #applyGuess}), so leaderboards read from them are current
+ * as soon as it commits. Rolling windows and seasons sum the day partials.
+ *
+ * <p>{@link #reconcile()} (run by the former materialized-view refresh jobs) recomputes the
+ * partials of the last {@code leaderboard.aggregates.reconcile-days} game days from
+ * {@code guesses} and re-sums the affected totals, repairing any drift at a cost bounded by
+ * those days rather than by all history. On startup, empty aggregates are built once from all
+ * guesses.</p>
+ */
+@Slf4j
+@Service
+public class LeaderboardAggregateService implements ApplicationRunner {
+
+    static final long AGGREGATE_LOCK_KEY = 5_927_200L;
+    private static final LocalDate BEGINNING = LocalDate.of(1970, 1, 1);
+
+    private final LeaderboardAggregateRepository repository;
+    private final TodayLeaderboard todayLeaderboard;
+    private final DomainCacheEvictor cacheEvictor;
+    private final TransactionTemplate transactionTemplate;
+    private final int reconcileDays;
+
+    public LeaderboardAggregateService(final LeaderboardAggregateRepository repository,
+                                       final TodayLeaderboard todayLeaderboard,
+                                       final DomainCacheEvictor cacheEvictor,
+                                       final PlatformTransactionManager transactionManager,
+                                       @Value("${leaderboard.aggregates.reconcile-days:2}") final int reconcileDays) {
+        this.repository = repository;
+        this.todayLeaderboard = todayLeaderboard;
+        this.cacheEvictor = cacheEvictor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconcileDays = Math.max(1, reconcileDays);
+    }
+
+    /**
+     * Adds a newly persisted guess to the aggregates; must run in the transaction that saved it.
+     * Once that commits, the player's row of the in-memory today leaderboard is re-read and the
+     * cached full boards (all-time, monthly, weekly, season) are dropped on every node.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyGuess(final Guess guess) {
+        final GuessStats delta = GuessStats.from(List.of(guess));
+        repository.lockShared(AGGREGATE_LOCK_KEY);
+        repository.addToDay(guess.getSteamId(), guess.getGameDate(), guess.getPoints(),
+                (int) delta.hits(), (int) delta.flops(), (int) delta.tooHigh(), (int) delta.tooLow(),
+                guess.getRoundIndex());
+        repository.addToTotal(guess.getSteamId(), guess.getPoints(),
+                (int) delta.hits(), (int) delta.flops(), (int) delta.tooHigh(), (int) delta.tooLow());
+        afterGuessCommitted(guess);
+    }
+
+    private void afterGuessCommitted(final Guess guess) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    guessCommitted(guess);
+                }
+            });
+        } else {
+            guessCommitted(guess);
+        }
+    }
+
+    private void guessCommitted(final Guess guess) {
+        todayLeaderboard.playerGuessed(guess.getGameDate(), guess.getSteamId());
+        cacheEvictor.evictLeaderboardStatic();
+    }
+
+    /**
+     * Recomputes the recent day partials from {@code guesses} and the totals of their players.
+     */
+    @Transactional
+    public void reconcile() {
+        final LocalDate from = GameDate.todayUtc().minusDays(reconcileDays - 1L);
+        repository.lockExclusive(AGGREGATE_LOCK_KEY);
+        repository.deleteDaysFrom(from);
+        final int days = repository.insertDaysFrom(from);
+        final int totals = repository.upsertTotalsForDaysFrom(from);
+        log.info("Reconciled {} leaderboard day partials and {} totals since {}", days, totals, from);
+    }
+
+    /**
+     * Rebuilds all aggregates from {@code guesses}.
+     */
+    @Transactional
+    public void rebuild() {
+        repository.lockExclusive(AGGREGATE_LOCK_KEY);
+        repository.deleteAllTotals();
+        repository.deleteDaysFrom(BEGINNING);
+        final int days = repository.insertDaysFrom(BEGINNING);
+        final int totals = repository.upsertTotalsForDaysFrom(BEGINNING);
+        log.info("Rebuilt leaderboard aggregates: {} day partials, {} totals", days, totals);
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!repository.hasTotals() && repository.hasGuesses()) {
+                    log.info("Leaderboard aggregates are empty — building them from all guesses");
+                    rebuild();
+                }
+            });
+        } catch (Exception e) {
+            log.error("Failed to build leaderboard aggregates", e);
+        }
+    }
+}
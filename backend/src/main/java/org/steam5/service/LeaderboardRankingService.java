@@ -0,0 +1,126 @@
+package org.steam5.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.steam5.domain.LeaderboardType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Top-K pages and rank-of-player lookups over the aggregate-backed leaderboards, so clients no
+ * longer need the whole board (with a streak for every player) to show the top of it or where
+ * one player stands.
+ *
+ * <p>Each board is held as a {@link RankedLeaderboard} in {@code leaderboard-static} under
+ * {@code ranked:<type>:<asOfDate>}; leaderboard evictions clear it together with the full
+ * boards, so pages and ranks never run ahead of or behind them. Streaks are computed for the
+ * returned rows only.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class LeaderboardRankingService {
+
+    public static final int MAX_LIMIT = 100;
+    public static final int MAX_NEIGHBOURS = 25;
+
+    private final LeaderboardService leaderboardService;
+    private final CacheManager cacheManager;
+
+    /**
+     * @param cursor {@link LeaderboardPage#nextCursor()} of the previous page, or {@code null}
+     *               for the first page; a cursor stays valid when rows move, paging continues
+     *               after the row it names
+     */
+    public LeaderboardPage top(final LeaderboardType type, final LocalDate asOfDate,
+                               final String cursor, final int limit) {
+        final RankedLeaderboard board = ranked(type, asOfDate);
+        final int from = cursor == null ? 0 : positionAfter(board, cursor);
+        final int to = from + Math.min(Math.max(limit, 1), MAX_LIMIT);
+        final List<LeaderboardService.LeaderEntry> rows = board.slice(from, to);
+        final String nextCursor = to < board.size() ? encodeCursor(rows.getLast()) : null;
+        return new LeaderboardPage(board.size(), from + 1, leaderboardService.withStreaks(rows, asOfDate), nextCursor);
+    }
+
+    /**
+     * @param neighbours rows to include above and below the player
+     * @throws ResponseStatusException 404 if the player is not on the board
+     */
+    public PlayerRank around(final LeaderboardType type, final LocalDate asOfDate,
+                             final String steamId, final int neighbours) {
+        final RankedLeaderboard board = ranked(type, asOfDate);
+        final int position = board.positionOf(steamId);
+        if (position < 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Player is not on this leaderboard");
+        }
+        final int span = Math.min(Math.max(neighbours, 0), MAX_NEIGHBOURS);
+        final int from = Math.max(0, position - span);
+        final List<LeaderboardService.LeaderEntry> rows = board.slice(from, position + span + 1);
+        return new PlayerRank(steamId, position + 1, board.size(), from + 1,
+                leaderboardService.withStreaks(rows, asOfDate));
+    }
+
+    private RankedLeaderboard ranked(final LeaderboardType type, final LocalDate asOfDate) {
+        final Supplier<RankedLeaderboard> loader = switch (type) {
+            case ALL_TIME -> leaderboardService::rankAllTime;
+            case MONTHLY -> () -> leaderboardService.rankMonthly(asOfDate);
+            case WEEKLY -> () -> leaderboardService.rankWeekly(asOfDate);
+            case SEASON -> () -> leaderboardService.rankSeason(asOfDate);
+            default -> throw new IllegalArgumentException("No ranked leaderboard for " + type);
+        };
+        final Cache cache = cacheManager.getCache("leaderboard-static");
+        // Single-flight and refreshed ahead, like the full boards in the same cache
+        return cache != null
+                ? cache.get("ranked:" + type + ":" + asOfDate, loader::get)
+                : loader.get();
+    }
+
+    private static int positionAfter(final RankedLeaderboard board, final String cursor) {
+        final String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        final int separator = decoded.indexOf(':');
+        if (separator <= 0 || separator == decoded.length() - 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        final long totalPoints;
+        try {
+            totalPoints = Long.parseLong(decoded.substring(0, separator));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        return board.positionAfter(totalPoints, decoded.substring(separator + 1));
+    }
+
+    static String encodeCursor(final LeaderboardService.LeaderEntry last) {
+        final String keyset = last.totalPoints() + ":" + last.steamId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(keyset.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param total     players on the board
+     * @param firstRank rank of the first entry (1-based)
+     */
+    public record LeaderboardPage(int total, int firstRank, List<LeaderboardService.LeaderEntry> entries,
+                                  String nextCursor) {
+    }
+
+    /**
+     * @param rank      the player's rank (1-based)
+     * @param total     players on the board
+     * @param firstRank rank of the first entry, the highest-ranked neighbour
+     */
+    public record PlayerRank(String steamId, int rank, int total, int firstRank,
+                             List<LeaderboardService.LeaderEntry> entries) {
+    }
+}
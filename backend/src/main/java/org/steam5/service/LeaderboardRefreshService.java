@@ -17,30 +17,31 @@ import java.time.OffsetDateTime;
 public class LeaderboardRefreshService {
 
     // Arbitrary namespaced base so these keys don't collide with advisory locks taken
-    // elsewhere in the app (there are none today, but this keeps that assumption explicit).
+    // elsewhere in the app (LeaderboardAggregateService uses 5_927_200).
     private static final long ADVISORY_LOCK_BASE = 5_927_100L;
 
     private final LeaderboardMvRepository leaderboardMvRepository;
     private final LeaderboardRefreshStateRepository refreshStateRepository;
+    private final LeaderboardAggregateService aggregateService;
 
     @Transactional
     public void refreshAllTime() {
-        refresh(LeaderboardType.ALL_TIME, "mv_leaderboard_all_time", leaderboardMvRepository::refreshAllTimeConcurrently, leaderboardMvRepository::refreshAllTimeFull);
+        reconcile(LeaderboardType.ALL_TIME);
     }
 
     @Transactional
     public void refreshMonthly() {
-        refresh(LeaderboardType.MONTHLY, "mv_leaderboard_monthly", leaderboardMvRepository::refreshMonthlyConcurrently, leaderboardMvRepository::refreshMonthlyFull);
+        reconcile(LeaderboardType.MONTHLY);
     }
 
     @Transactional
     public void refreshWeekly() {
-        refresh(LeaderboardType.WEEKLY, "mv_leaderboard_weekly", leaderboardMvRepository::refreshWeeklyConcurrently, leaderboardMvRepository::refreshWeeklyFull);
+        reconcile(LeaderboardType.WEEKLY);
     }
 
     @Transactional
     public void refreshSeason() {
-        refresh(LeaderboardType.SEASON, "mv_leaderboard_season", leaderboardMvRepository::refreshSeasonConcurrently, leaderboardMvRepository::refreshSeasonFull);
+        reconcile(LeaderboardType.SEASON);
     }
 
     @Transactional
@@ -50,7 +51,17 @@ public class LeaderboardRefreshService {
 
     @Transactional
     public void refreshPerfectDays() {
-        refresh(LeaderboardType.PERFECT_DAYS, "mv_perfect_days", leaderboardMvRepository::refreshPerfectDaysConcurrently, leaderboardMvRepository::refreshPerfectDaysFull);
+        reconcile(LeaderboardType.PERFECT_DAYS);
+    }
+
+    /**
+     * The per-player leaderboards and perfect days read the incrementally maintained aggregates
+     * (see {@link LeaderboardAggregateService}); their jobs only reconcile recent days. The
+     * aggregate service's own advisory lock serialises this against guesses and other runs.
+     */
+    private void reconcile(final LeaderboardType type) {
+        aggregateService.reconcile();
+        refreshStateRepository.save(new LeaderboardRefreshState(type, OffsetDateTime.now()));
     }
 
     /**
@@ -65,7 +76,7 @@ public class LeaderboardRefreshService {
      * instead of blocking or deadlocking — the next scheduled tick retries.
      *
      * <p>REFRESH MATERIALIZED VIEW CONCURRENTLY also requires the view to already be populated
-     * (see mv-leaderboard-*.sql, created WITH NO DATA). Before that first population, fall back
+     * (see mv-hardest-games.sql, created WITH NO DATA). Before that first population, fall back
      * to a plain REFRESH so the job self-heals instead of failing forever. On success, records
      * the refresh timestamp so LeaderboardController can report data freshness.</p>
      */
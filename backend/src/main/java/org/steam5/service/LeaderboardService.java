@@ -4,14 +4,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.steam5.domain.Guess;
 import org.steam5.domain.GuessStats;
-import org.steam5.domain.StreakCalculator;
+import org.steam5.domain.ParticipationBitmap;
 import org.steam5.domain.User;
-import org.steam5.repository.GuessRepository;
-import org.steam5.repository.LeaderboardMvRepository;
+import org.steam5.repository.LeaderboardAggregateRepository;
 import org.steam5.repository.UserRepository;
 
 import java.time.LocalDate;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -21,9 +19,9 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class LeaderboardService {
 
-    private final GuessRepository guessRepository;
+    private final ParticipationService participationService;
     private final UserRepository userRepository;
-    private final LeaderboardMvRepository leaderboardMvRepository;
+    private final LeaderboardAggregateRepository leaderboardAggregateRepository;
 
     /**
      * Aggregates a set of guesses (already fetched for a specific day/range) into a
@@ -39,86 +37,132 @@ public class LeaderboardService {
         final Map<String, User> usersById = userRepository.findAllById(steamIds).stream()
                 .collect(Collectors.toMap(User::getSteamId, user -> user));
 
-        final Map<String, List<LocalDate>> streakDatesById = guessRepository.findDistinctDatesUpToForUsers(List.copyOf(steamIds), asOfDate)
-                .stream()
-                .collect(Collectors.groupingBy(GuessRepository.UserDateRow::getSteamId,
-                        Collectors.mapping(GuessRepository.UserDateRow::getGameDate, Collectors.toList())));
+        final Map<String, ParticipationBitmap> participationById = participationService.findAll(steamIds);
 
         return byUser.entrySet().stream()
-                .map(entry -> buildEntry(entry, usersById, streakDatesById, asOfDate))
-                .sorted(Comparator.comparingLong(LeaderEntry::totalPoints).reversed()
-                        .thenComparing(LeaderEntry::steamId))
+                .map(entry -> buildEntry(entry, usersById, participationById, asOfDate))
+                .sorted(RankedLeaderboard.ORDER)
                 .toList();
     }
 
     /**
-     * Builds the all-time leaderboard from the {@code mv_leaderboard_all_time} materialized
-     * view (see backend/src/main/resources/db/mv-leaderboard-all-time.sql), overlaying each
-     * player's current streak from the live guesses table.
+     * Builds the all-time leaderboard from the per-player totals maintained by
+     * {@link LeaderboardAggregateService}, overlaying each player's current streak from their
+     * participation bitmap.
      *
      * @param today the date used to calculate current streaks
-     * @return leaderboard entries in the order provided by the materialized view (total points descending)
+     * @return leaderboard entries ordered by total points descending
      */
     public List<LeaderEntry> buildAllTimeLeaderboard(final LocalDate today) {
-        return buildFromMv(leaderboardMvRepository.findAllTime(), today);
+        return buildFromAggregates(leaderboardAggregateRepository.findAllTime(), today);
     }
 
     /**
-     * Builds the rolling 30-day leaderboard from {@code mv_leaderboard_monthly}.
-     * See backend/src/main/resources/db/mv-leaderboard-monthly.sql for the window definition.
+     * Builds the rolling 30-day leaderboard (the 30 game days ending on {@code today}) from the
+     * per-day partials.
      *
-     * @param today the date used to calculate current streaks
+     * @param today the last day of the window, also used to calculate current streaks
      */
     public List<LeaderEntry> buildMonthlyLeaderboard(final LocalDate today) {
-        return buildFromMv(leaderboardMvRepository.findMonthly(), today);
+        return buildFromAggregates(leaderboardAggregateRepository.findBetween(today.minusDays(29), today), today);
     }
 
     /**
-     * Builds the rolling 7-day ("floating") leaderboard from {@code mv_leaderboard_weekly}.
-     * The non-floating (previous full Monday-Sunday week) variant is not backed by this view
-     * and continues to be computed live in {@code LeaderboardController#weekly}.
-     * See backend/src/main/resources/db/mv-leaderboard-weekly.sql for the window definition.
+     * Builds the rolling 7-day ("floating") leaderboard from the per-day partials.
+     * The non-floating (previous full Monday-Sunday week) variant continues to be computed live
+     * in {@code LeaderboardController#weekly}.
      *
-     * @param today the date used to calculate current streaks
+     * @param today the last day of the window, also used to calculate current streaks
      */
     public List<LeaderEntry> buildWeeklyLeaderboard(final LocalDate today) {
-        return buildFromMv(leaderboardMvRepository.findWeekly(), today);
+        return buildFromAggregates(leaderboardAggregateRepository.findBetween(today.minusDays(6), today), today);
     }
 
     /**
-     * Builds the current-season leaderboard from {@code mv_leaderboard_season}, which scopes
-     * itself — as of its last refresh, not at read time — to whichever season row contains
-     * (now() AT TIME ZONE 'UTC')::date, i.e. the current UTC date at refresh time (not the
-     * database session's CURRENT_DATE). See backend/src/main/resources/db/mv-leaderboard-season.sql.
+     * Builds the leaderboard of the season containing {@code asOfDate} from the per-day partials;
+     * empty if no season does.
      *
-     * @param asOfDate the date used to calculate current streaks (the earlier of "today" and
-     *                 the season's end date, matching the season endpoint's existing behavior)
+     * @param asOfDate the date used to pick the season and calculate current streaks (the earlier
+     *                 of "today" and the season's end date, matching the season endpoint's
+     *                 existing behavior)
      */
     public List<LeaderEntry> buildSeasonLeaderboard(final LocalDate asOfDate) {
-        return buildFromMv(leaderboardMvRepository.findSeason(), asOfDate);
+        return buildFromAggregates(leaderboardAggregateRepository.findSeasonContaining(asOfDate), asOfDate);
+    }
+
+    /**
+     * Builds the leaderboard of a completed period ({@code from}..{@code to}, inclusive) from the
+     * per-day partials, with streaks as they stood on its last day; see
+     * {@link LeaderboardSnapshotService}.
+     */
+    public List<LeaderEntry> buildPeriodLeaderboard(final LocalDate from, final LocalDate to) {
+        return buildFromAggregates(leaderboardAggregateRepository.findBetween(from, to), to);
+    }
+
+    /**
+     * The all-time leaderboard in rank order, without streaks, for paging and rank lookups.
+     */
+    public RankedLeaderboard rankAllTime() {
+        return new RankedLeaderboard(toEntries(leaderboardAggregateRepository.findAllTime()));
+    }
+
+    /**
+     * The rolling 30-day leaderboard ending on {@code today} in rank order, without streaks.
+     */
+    public RankedLeaderboard rankMonthly(final LocalDate today) {
+        return new RankedLeaderboard(toEntries(leaderboardAggregateRepository.findBetween(today.minusDays(29), today)));
     }
 
     /**
-     * Shared assembly step for the four materialized-view-backed leaderboards: overlays each
-     * row's current streak (computed live from {@code findDistinctDatesUpToForUsers}) onto the
-     * pre-aggregated MV columns. Row order (total points descending) comes from the MV query.
+     * The rolling 7-day leaderboard ending on {@code today} in rank order, without streaks.
      */
-    private List<LeaderEntry> buildFromMv(final List<LeaderboardMvRepository.LeaderboardMvRow> rows, final LocalDate asOfDate) {
-        if (rows.isEmpty()) {
+    public RankedLeaderboard rankWeekly(final LocalDate today) {
+        return new RankedLeaderboard(toEntries(leaderboardAggregateRepository.findBetween(today.minusDays(6), today)));
+    }
+
+    /**
+     * The leaderboard of the season containing {@code asOfDate} in rank order, without streaks.
+     */
+    public RankedLeaderboard rankSeason(final LocalDate asOfDate) {
+        return new RankedLeaderboard(toEntries(leaderboardAggregateRepository.findSeasonContaining(asOfDate)));
+    }
+
+    /**
+     * Overlays each entry's current streak (from the player's {@link ParticipationBitmap}) as of
+     * {@code asOfDate}; one bitmap read for the given entries only, so a page of a large board
+     * costs a page's worth of bitmaps.
+     */
+    public List<LeaderEntry> withStreaks(final List<LeaderEntry> entries, final LocalDate asOfDate) {
+        if (entries.isEmpty()) {
             return List.of();
         }
+        final List<String> steamIds = entries.stream().map(LeaderEntry::steamId).toList();
+        final Map<String, ParticipationBitmap> participationById = participationService.findAll(steamIds);
+        return entries.stream()
+                .map(entry -> {
+                    final int streak = participationById
+                            .getOrDefault(entry.steamId(), ParticipationBitmap.empty())
+                            .currentStreak(asOfDate);
+                    return new LeaderEntry(entry.steamId(), entry.personaName(), entry.totalPoints(), entry.rounds(),
+                            entry.hits(), entry.flops(), entry.tooHigh(), entry.tooLow(), entry.avgPoints(),
+                            streak, entry.avatar(), entry.profileUrl());
+                })
+                .toList();
+    }
 
-        final List<String> steamIds = rows.stream().map(LeaderboardMvRepository.LeaderboardMvRow::getSteamId).toList();
-        final Map<String, List<LocalDate>> streakDatesById = guessRepository
-                .findDistinctDatesUpToForUsers(steamIds, asOfDate)
-                .stream()
-                .collect(Collectors.groupingBy(GuessRepository.UserDateRow::getSteamId,
-                        Collectors.mapping(GuessRepository.UserDateRow::getGameDate, Collectors.toList())));
+    /**
+     * Shared assembly step for the aggregate-backed leaderboards: the pre-aggregated columns
+     * with each row's current streak overlaid. Row order (total points descending) comes from
+     * the query.
+     */
+    private List<LeaderEntry> buildFromAggregates(final List<LeaderboardAggregateRepository.LeaderboardRow> rows,
+                                                  final LocalDate asOfDate) {
+        return withStreaks(toEntries(rows), asOfDate);
+    }
 
+    private static List<LeaderEntry> toEntries(final List<LeaderboardAggregateRepository.LeaderboardRow> rows) {
         return rows.stream()
                 .map(row -> {
-                    final List<LocalDate> dates = streakDatesById.getOrDefault(row.getSteamId(), List.of());
-                    final int streak = StreakCalculator.currentStreak(dates, asOfDate);
                     final String personaName = row.getPersonaName() != null && !row.getPersonaName().isBlank()
                             ? row.getPersonaName() : row.getSteamId();
                     return new LeaderEntry(
@@ -131,7 +175,7 @@ public class LeaderboardService {
                             row.getTooHigh() != null ? row.getTooHigh() : 0L,
                             row.getTooLow() != null ? row.getTooLow() : 0L,
                             row.getAvgPoints() != null ? row.getAvgPoints() : 0.0,
-                            streak,
+                            0,
                             blankToNull(row.getAvatarFull()),
                             blankToNull(row.getProfileUrl())
                     );
@@ -144,23 +188,22 @@ public class LeaderboardService {
     }
 
     /**
-     * Builds a leaderboard entry from a user's guesses and activity dates.
+     * Builds a leaderboard entry from a user's guesses and participation.
      *
-     * @param entry          the user's Steam ID and guesses
-     * @param usersById      user profiles keyed by Steam ID
-     * @param streakDatesById game dates keyed by Steam ID
-     * @param asOfDate       date used to calculate the current streak
+     * @param entry             the user's Steam ID and guesses
+     * @param usersById         user profiles keyed by Steam ID
+     * @param participationById participation bitmaps keyed by Steam ID
+     * @param asOfDate          date used to calculate the current streak
      * @return the computed leaderboard entry
      */
     private LeaderEntry buildEntry(final Map.Entry<String, List<Guess>> entry,
                                     final Map<String, User> usersById,
-                                    final Map<String, List<LocalDate>> streakDatesById,
+                                    final Map<String, ParticipationBitmap> participationById,
                                     final LocalDate asOfDate) {
         final String steamId = entry.getKey();
         final GuessStats stats = GuessStats.from(entry.getValue());
         final User user = usersById.get(steamId);
-        final List<LocalDate> dates = streakDatesById.getOrDefault(steamId, List.of());
-        final int streak = StreakCalculator.currentStreak(dates, asOfDate);
+        final int streak = participationById.getOrDefault(steamId, ParticipationBitmap.empty()).currentStreak(asOfDate);
         return getLeaderEntry(steamId, stats.totalPoints(), stats.rounds(), stats.hits(),
                 stats.flops(), stats.tooHigh(), stats.tooLow(), stats.avgPoints(), streak, user);
     }
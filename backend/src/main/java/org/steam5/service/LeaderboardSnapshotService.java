@@ -0,0 +1,166 @@
+package org.steam5.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.steam5.domain.LeaderboardSnapshot;
+import org.steam5.domain.Season;
+import org.steam5.repository.LeaderboardSnapshotRepository;
+import tools.jackson.databind.ObjectMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.IsoFields;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Freezes the leaderboards of completed weeks, months and seasons into
+ * {@code leaderboard_snapshots}: ranked from the per-day partials once, serialized once, and
+ * served as stored bytes from then on. A period that has ended can never change again, so past
+ * boards no longer touch {@code guesses} or the aggregates after their first read.
+ *
+ * <p>Periods are frozen by LeaderboardSnapshotJob right after they close (once the nightly
+ * leaderboard jobs have reconciled the last day's partials), or on first request for older
+ * ones. Periods are named {@code 2026-W29} (ISO week, Monday to Sunday), {@code 2026-07}
+ * (calendar month) or {@code season-3}.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaderboardSnapshotService {
+
+    private static final Pattern WEEK = Pattern.compile("(\\d{4})-W(\\d{2})");
+    private static final Pattern SEASON = Pattern.compile("season-(\\d{1,6})");
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final LeaderboardSnapshotRepository repository;
+    private final LeaderboardService leaderboardService;
+    private final SeasonService seasonService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param today the current game date; only periods ending before it can be frozen
+     * @return the period's frozen board, freezing it first if needed; empty if nobody played
+     * @throws ResponseStatusException 400 for a malformed period, 404 for an unknown season or a
+     *                                 period that has not ended yet
+     */
+    public Optional<LeaderboardSnapshot> find(final String period, final LocalDate today) {
+        final Period resolved = resolve(period);
+        if (!resolved.endDate().isBefore(today)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Period has not ended yet");
+        }
+        return repository.findById(resolved.key()).or(() -> freeze(resolved));
+    }
+
+    /**
+     * @return the entries of a frozen board, in rank order
+     */
+    public List<LeaderboardService.LeaderEntry> entries(final LeaderboardSnapshot snapshot) {
+        return objectMapper.readValue(snapshot.getBody(), PeriodBoard.class).entries();
+    }
+
+    /**
+     * Freezes the most recently completed week, month and season, if not done yet.
+     */
+    public void freezeCompletedPeriods(final LocalDate today) {
+        final LocalDate startOfWeek = today.with(DayOfWeek.MONDAY);
+        freezeIfAbsent(week(startOfWeek.minusDays(1)));
+        freezeIfAbsent(month(YearMonth.from(today).minusMonths(1)));
+        seasonService.findSeasonContaining(today)
+                .flatMap(current -> seasonService.findSeasonContaining(current.getStartDate().minusDays(1)))
+                .ifPresent(previous -> freezeIfAbsent(season(previous)));
+    }
+
+    /**
+     * @return the name of the ISO week containing {@code day}, e.g. {@code 2026-W29}
+     */
+    public static String weekOf(final LocalDate day) {
+        return week(day).key();
+    }
+
+    private void freezeIfAbsent(final Period period) {
+        if (!repository.existsById(period.key())) {
+            freeze(period);
+        }
+    }
+
+    private Optional<LeaderboardSnapshot> freeze(final Period period) {
+        final List<LeaderboardService.LeaderEntry> entries =
+                leaderboardService.buildPeriodLeaderboard(period.startDate(), period.endDate());
+        if (entries.isEmpty()) {
+            // Nothing to freeze; not stored, so a period nobody played costs one aggregate read per request
+            return Optional.empty();
+        }
+        final byte[] body = objectMapper.writeValueAsBytes(
+                new PeriodBoard(period.key(), period.startDate(), period.endDate(), entries));
+        repository.insertIfAbsent(period.key(), period.startDate(), period.endDate(), entries.size(), body, etag(body));
+        log.info("Froze leaderboard {} ({} players)", period.key(), entries.size());
+        return repository.findById(period.key());
+    }
+
+    private Period resolve(final String period) {
+        final Matcher week = WEEK.matcher(period);
+        if (week.matches()) {
+            final LocalDate jan4 = LocalDate.of(Integer.parseInt(week.group(1)), 1, 4);
+            final int number = Integer.parseInt(week.group(2));
+            if (!IsoFields.WEEK_OF_WEEK_BASED_YEAR.rangeRefinedBy(jan4).isValidIntValue(number)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid period");
+            }
+            return week(jan4.with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, number));
+        }
+        final Matcher season = SEASON.matcher(period);
+        if (season.matches()) {
+            return season(seasonService.findSeasonByNumber(Integer.parseInt(season.group(1)))
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Season not found")));
+        }
+        try {
+            return month(YearMonth.parse(period));
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid period");
+        }
+    }
+
+    private static Period week(final LocalDate day) {
+        final LocalDate monday = day.with(DayOfWeek.MONDAY);
+        final String key = "%d-W%02d".formatted(monday.get(IsoFields.WEEK_BASED_YEAR),
+                monday.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+        return new Period(key, monday, monday.plusDays(6));
+    }
+
+    private static Period month(final YearMonth month) {
+        return new Period(month.toString(), month.atDay(1), month.atEndOfMonth());
+    }
+
+    private static Period season(final Season season) {
+        return new Period("season-" + season.getSeasonNumber(), season.getStartDate(), season.getEndDate());
+    }
+
+    private static String etag(final byte[] body) {
+        try {
+            return "\"" + HEX.formatHex(MessageDigest.getInstance("SHA-256").digest(body)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Period(String key, LocalDate startDate, LocalDate endDate) {
+    }
+
+    /**
+     * The stored (and served) body of a frozen board; entries in rank order, streaks as of the
+     * period's last day.
+     */
+    public record PeriodBoard(String period, LocalDate startDate, LocalDate endDate,
+                              List<LeaderboardService.LeaderEntry> entries) {
+    }
+}
@@ -0,0 +1,115 @@
+package org.steam5.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.steam5.domain.ParticipationBitmap;
+import org.steam5.repository.UserParticipationRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps one {@link ParticipationBitmap} per player so streaks no longer stream every distinct
+ * guess date of every listed player: each accepted guess sets its day's bit in the guess's own
+ * transaction ({@link #markPlayed}), and readers fetch one small row per player
+ * ({@link #findAll}). On startup, empty bitmaps are built once from all guesses.
+ */
+@Slf4j
+@Service
+public class ParticipationService implements ApplicationRunner {
+
+    private static final int BUILD_BATCH_SIZE = 500;
+
+    private final UserParticipationRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ParticipationService(final UserParticipationRepository repository,
+                                final PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @return each player's bitmap; empty for players who never played
+     */
+    public Map<String, ParticipationBitmap> findAll(final Collection<String> steamIds) {
+        final Map<String, ParticipationBitmap> bySteamId = new HashMap<>();
+        if (steamIds.isEmpty()) {
+            return bySteamId;
+        }
+        for (final UserParticipationRepository.ParticipationRow row : repository.findAllBySteamIdIn(steamIds)) {
+            bySteamId.put(row.getSteamId(), decode(row));
+        }
+        for (final String steamId : steamIds) {
+            bySteamId.putIfAbsent(steamId, ParticipationBitmap.empty());
+        }
+        return bySteamId;
+    }
+
+    /**
+     * Sets {@code day} in the player's bitmap; must run in the transaction that saved the guess.
+     * Only a player's first guess of a day writes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void markPlayed(final String steamId, final LocalDate day) {
+        final List<UserParticipationRepository.ParticipationRow> current = repository.findAllBySteamIdIn(List.of(steamId));
+        if (!current.isEmpty() && decode(current.getFirst()).contains(day)) {
+            return;
+        }
+        merge(steamId, ParticipationBitmap.empty().with(day));
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        try {
+            final Boolean empty = transactionTemplate.execute(status -> !repository.hasAny() && repository.hasGuesses());
+            if (Boolean.TRUE.equals(empty)) {
+                log.info("Participation bitmaps are empty — building them from all guesses");
+                build();
+            }
+        } catch (Exception e) {
+            log.error("Failed to build participation bitmaps", e);
+        }
+    }
+
+    /**
+     * Builds every player's bitmap from {@code guesses}. Merged into whatever a concurrent guess
+     * has written meanwhile, so it is safe while guesses are accepted.
+     */
+    void build() {
+        final Map<String, List<LocalDate>> datesBySteamId = new HashMap<>();
+        for (final UserParticipationRepository.UserDateRow row : repository.findAllDistinctDates()) {
+            datesBySteamId.computeIfAbsent(row.getSteamId(), k -> new ArrayList<>()).add(row.getGameDate());
+        }
+        final List<String> steamIds = new ArrayList<>(datesBySteamId.keySet());
+        for (int from = 0; from < steamIds.size(); from += BUILD_BATCH_SIZE) {
+            final List<String> batch = steamIds.subList(from, Math.min(from + BUILD_BATCH_SIZE, steamIds.size()));
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(steamId ->
+                    merge(steamId, ParticipationBitmap.of(datesBySteamId.get(steamId)))));
+        }
+        log.info("Built participation bitmaps for {} players", steamIds.size());
+    }
+
+    private void merge(final String steamId, final ParticipationBitmap days) {
+        repository.insertIfAbsent(steamId);
+        final ParticipationBitmap merged = decode(repository.lockBySteamId(steamId)).or(days);
+        repository.update(steamId, merged.originDay(), merged.toBytes());
+    }
+
+    private static ParticipationBitmap decode(final UserParticipationRepository.ParticipationRow row) {
+        if (row == null || row.getOriginDay() == null) {
+            return ParticipationBitmap.empty();
+        }
+        return ParticipationBitmap.fromBytes(row.getOriginDay(), row.getBits());
+    }
+}
@@ -0,0 +1,245 @@
+package org.steam5.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.steam5.domain.IngestState;
+import org.steam5.http.SteamApiException;
+import org.steam5.repository.IngestStateRepository;
+import org.steam5.repository.SteamAppIndexRepository;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a one-HTTP-call-per-app ingest over {@code steam_app_index} with parallel workers.
+ *
+ * <p>The app-ID space is cut into fixed ranges of {@link #RANGE_WIDTH} IDs, each with its own
+ * cursor row in {@code ingest_state} ({@code <stateKey>#<range>}). Workers (virtual threads)
+ * take a range from a shared queue, process up to {@link #CHUNK_SIZE} apps from its cursor,
+ * commit the cursor once for the chunk and put the range back at the tail, so an idle worker
+ * always picks up whichever range still has work. Throughput is bounded by the per-endpoint
+ * bucket in {@link org.steam5.http.SteamRateLimiter}, which all workers share.</p>
+ *
+ * <p>The first failure (including a 429) stops every worker from taking more work; each one
+ * commits the cursor of its last successful app before the run ends, so nothing is skipped or
+ * lost and the next run resumes from there. A range whose cursor has reached its last app is
+ * reset to its start, which makes the next run a refresh pass over it.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PartitionedIngestEngine {
+
+    /**
+     * App IDs per range. Fixed on purpose: cursors are keyed by range index, so changing this
+     * would orphan every stored cursor.
+     */
+    static final long RANGE_WIDTH = 250_000L;
+
+    /** Apps a worker processes from one range before committing its cursor and yielding it. */
+    static final int CHUNK_SIZE = 50;
+
+    private final SteamAppIndexRepository appIndexRepository;
+    private final IngestStateRepository ingestStateRepository;
+
+    @FunctionalInterface
+    public interface AppTask {
+        void process(long appId) throws IOException;
+    }
+
+    /**
+     * Receives range cursor commits. The default writes each one straight to
+     * {@code ingest_state}; a write-behind task instead holds them until the rows they cover are
+     * durable, so a cursor never gets ahead of the data.
+     */
+    public interface CursorSink {
+        void commit(String key, long cursor);
+
+        /** Called once when the run ends, successfully or not. */
+        default void flush() throws IOException {
+        }
+    }
+
+    /**
+     * @param stateKey   {@code ingest_state} id prefix; the single legacy cursor under this id seeds
+     *                   range cursors that do not exist yet
+     * @param workers    number of parallel workers
+     * @param batchLimit max apps processed in this run, across all workers
+     * @return number of apps processed successfully
+     */
+    public long run(final String stateKey, final int workers, final int batchLimit, final AppTask task) throws IOException {
+        return run(stateKey, workers, batchLimit, task,
+                (key, cursor) -> ingestStateRepository.upsert(key, cursor, OffsetDateTime.now()));
+    }
+
+    /**
+     * Like {@link #run(String, int, int, AppTask)}, with cursor commits routed through
+     * {@code cursors}, which is flushed when the run ends (also after a failure).
+     */
+    public long run(final String stateKey, final int workers, final int batchLimit, final AppTask task,
+                    final CursorSink cursors) throws IOException {
+        final Long maxAppId = appIndexRepository.findMaxAppId();
+        if (maxAppId == null || maxAppId <= 0) {
+            return 0L;
+        }
+        final ConcurrentLinkedDeque<Range> queue = new ConcurrentLinkedDeque<>(loadRanges(stateKey, maxAppId));
+        final AtomicInteger budget = new AtomicInteger(Math.max(1, batchLimit));
+        final AtomicLong processed = new AtomicLong();
+        final AtomicBoolean stop = new AtomicBoolean();
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+
+        final int n = Math.max(1, workers);
+        log.info("Starting partitioned ingest {}: ranges={} workers={} batchLimit={}", stateKey, queue.size(), n, batchLimit);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < n; i++) {
+                executor.submit(() -> {
+                    try {
+                        work(stateKey, queue, budget, processed, stop, task, cursors, failure);
+                    } catch (RuntimeException e) {
+                        // e.g. a cursor write failing; stop the others too
+                        fail(failure, stop, e);
+                    }
+                });
+            }
+        }
+        try {
+            cursors.flush();
+        } catch (IOException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+        }
+
+        final Exception error = failure.get();
+        if (error != null) {
+            if (error instanceof SteamApiException sae && sae.getStatusCode() == 429) {
+                log.warn("Partitioned ingest {} paused by HTTP 429 after {} apps; cursors saved", stateKey, processed.get());
+            }
+            if (error instanceof IOException io) throw io;
+            if (error instanceof RuntimeException re) throw re;
+            throw new IOException(error);
+        }
+        return processed.get();
+    }
+
+    private void work(final String stateKey, final ConcurrentLinkedDeque<Range> queue, final AtomicInteger budget,
+                      final AtomicLong processed, final AtomicBoolean stop, final AppTask task,
+                      final CursorSink cursors, final AtomicReference<Exception> failure) {
+        while (!stop.get()) {
+            // Claim budget before taking a range so an exhausted budget never drops a range
+            // another worker could still use.
+            final int claimed = claim(budget);
+            if (claimed == 0) {
+                return;
+            }
+            final Range range = queue.pollFirst();
+            if (range == null) {
+                budget.addAndGet(claimed);
+                return;
+            }
+            final List<Long> appIds = appIndexRepository.findAppIdsInRange(range.cursor, range.upper, PageRequest.of(0, claimed));
+            budget.addAndGet(claimed - appIds.size());
+            if (appIds.isEmpty()) {
+                // Range exhausted: start over next run (refresh pass). Not re-queued this run.
+                if (range.cursor > range.lower) {
+                    commit(cursors, stateKey, range, range.lower);
+                }
+                continue;
+            }
+
+            long last = range.cursor;
+            int done = 0;
+            try {
+                for (Long appId : appIds) {
+                    if (stop.get()) {
+                        break;
+                    }
+                    task.process(appId);
+                    last = appId;
+                    done++;
+                }
+            } catch (Exception e) {
+                fail(failure, stop, e);
+            } finally {
+                budget.addAndGet(appIds.size() - done);
+                if (done > 0) {
+                    // One cursor write per chunk, and only up to the last success: a failed app
+                    // is retried next run instead of being skipped.
+                    commit(cursors, stateKey, range, last);
+                    processed.addAndGet(done);
+                }
+            }
+            if (!stop.get()) {
+                queue.addLast(range);
+            }
+        }
+    }
+
+    private static int claim(final AtomicInteger budget) {
+        final int before = budget.getAndUpdate(v -> v - Math.min(v, CHUNK_SIZE));
+        return Math.min(before, CHUNK_SIZE);
+    }
+
+    private static void fail(final AtomicReference<Exception> failure, final AtomicBoolean stop, final Exception e) {
+        failure.compareAndSet(null, e);
+        stop.set(true);
+    }
+
+    private static void commit(final CursorSink cursors, final String stateKey, final Range range, final long cursor) {
+        cursors.commit(key(stateKey, range.index), cursor);
+        range.cursor = cursor;
+    }
+
+    private List<Range> loadRanges(final String stateKey, final long maxAppId) {
+        final int count = (int) ((maxAppId - 1) / RANGE_WIDTH) + 1;
+        final List<String> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add(key(stateKey, i));
+        }
+        final Map<String, Long> stored = ingestStateRepository.findAllById(keys).stream()
+                .collect(Collectors.toMap(IngestState::getId, IngestState::getLastAppId));
+        final long legacy = stored.size() < count
+                ? ingestStateRepository.findById(stateKey).map(IngestState::getLastAppId).orElse(0L)
+                : 0L;
+
+        final List<Range> ranges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final long lower = i * RANGE_WIDTH;
+            final long upper = lower + RANGE_WIDTH;
+            final Long cursor = stored.get(keys.get(i));
+            // Seed from the pre-partitioning single cursor so an upgrade keeps its progress.
+            ranges.add(new Range(i, lower, upper, cursor != null ? cursor : Math.clamp(legacy, lower, upper)));
+        }
+        return ranges;
+    }
+
+    static String key(final String stateKey, final int range) {
+        return stateKey + "#" + range;
+    }
+
+    /** Range {@code (lower, upper]} of app IDs; the cursor is the last processed app ID. */
+    private static final class Range {
+        private final int index;
+        private final long lower;
+        private final long upper;
+        private volatile long cursor;
+
+        Range(final int index, final long lower, final long upper, final long cursor) {
+            this.index = index;
+            this.lower = lower;
+            this.upper = upper;
+            this.cursor = cursor;
+        }
+    }
+}
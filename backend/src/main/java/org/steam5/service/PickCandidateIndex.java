@@ -0,0 +1,364 @@
+package org.steam5.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.steam5.config.ReviewGameConfig;
+import org.steam5.repository.ExcludedAppRepository;
+import org.steam5.repository.ReviewGamePickRepository;
+import org.steam5.repository.ReviewsBucketRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-memory index of daily-pick candidates: one sorted {@code long[]} of app IDs per review-count
+ * bucket, plus bitsets of excluded and recently picked apps. Replaces the per-bucket
+ * {@code ORDER BY random()} scans over {@code steam_app_reviews} during pick generation with
+ * O(1) sampling and no database round-trip.
+ *
+ * <p>Seeded once at startup and kept current incrementally: {@link SteamAppReviewsFetcher}
+ * reports each flush of saved review counts and {@link ReviewGameStateService} reports new
+ * exclusions and picks, applied when they commit. The recently-picked set depends on the do-not-repeat window, so it is reloaded (one
+ * small query) whenever a caller samples with a different window start, i.e. once per day.
+ * Until the index has loaded, {@link #isReady()} is false and callers fall back to SQL.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PickCandidateIndex implements ApplicationRunner {
+
+    /**
+     * Random probes per requested candidate before falling back to a linear scan. Keeps sampling
+     * O(1) in the common case while still finding eligible apps in a heavily blocked bucket.
+     */
+    private static final int PROBES_PER_CANDIDATE = 8;
+
+    private final ReviewsBucketRepository bucketRepository;
+    private final ExcludedAppRepository excludedAppRepository;
+    private final ReviewGamePickRepository pickRepository;
+    private final ReviewGameConfig config;
+
+    /** Serialises batch bucket updates, which read and replace {@link #buckets} as a whole. */
+    private final Object updateLock = new Object();
+    private final BitSet excluded = new BitSet();
+    private final BitSet recentlyPicked = new BitSet();
+    private List<int[]> ranges = List.of();
+    private long[][] buckets = new long[0][];
+    private LocalDate recentSince;
+    private volatile boolean ready;
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Failed to load pick candidate index; pick generation falls back to SQL sampling", e);
+        }
+    }
+
+    /**
+     * @return true once the index has been loaded and may be sampled
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Reloads all buckets and the exclusion set from the database. The recently-picked set is
+     * reloaded lazily on the next sample.
+     */
+    public void rebuild() {
+        final long start = System.nanoTime();
+        final List<int[]> newRanges = ReviewGameStateService.bucketRanges(config.getBucketBoundaries());
+        final LongList[] collected = new LongList[newRanges.size()];
+        for (int i = 0; i < collected.length; i++) {
+            collected[i] = new LongList();
+        }
+        bucketRepository.forEachReviewedApp((appId, total) -> {
+            final int b = bucketOf(newRanges, total);
+            if (b >= 0 && indexable(appId)) {
+                collected[b].add(appId);
+            }
+        });
+        final long[][] newBuckets = new long[collected.length][];
+        for (int i = 0; i < collected.length; i++) {
+            newBuckets[i] = collected[i].toSortedArray();
+        }
+        final BitSet newExcluded = new BitSet();
+        for (Long appId : excludedAppRepository.findAllAppIds()) {
+            if (appId != null && indexable(appId)) {
+                newExcluded.set((int) (long) appId);
+            }
+        }
+
+        synchronized (updateLock) {
+            synchronized (this) {
+                ranges = newRanges;
+                buckets = newBuckets;
+                excluded.clear();
+                excluded.or(newExcluded);
+                recentSince = null;
+                ready = true;
+            }
+        }
+        log.info("Loaded pick candidate index: buckets={} excluded={} in {}ms",
+                Arrays.stream(newBuckets).map(b -> String.valueOf(b.length)).toList(),
+                newExcluded.cardinality(), (System.nanoTime() - start) / 1_000_000L);
+    }
+
+    /**
+     * Samples up to {@code count} distinct eligible app IDs from one bucket.
+     *
+     * @param bucketIndex  index into the configured bucket ranges
+     * @param excludeSince apps picked on or after this date are not eligible
+     */
+    public List<Long> sample(final int bucketIndex, final int count, final LocalDate excludeSince) {
+        ensureRecentWindow(excludeSince);
+        synchronized (this) {
+            if (bucketIndex < 0 || bucketIndex >= buckets.length) {
+                return List.of();
+            }
+            return sampleFrom(new long[][]{buckets[bucketIndex]}, count);
+        }
+    }
+
+    /**
+     * Samples up to {@code count} distinct eligible app IDs from all buckets, weighted by bucket
+     * size (the in-memory equivalent of {@code findRandomAnyAppIds}).
+     */
+    public List<Long> sampleAny(final int count, final LocalDate excludeSince) {
+        ensureRecentWindow(excludeSince);
+        synchronized (this) {
+            return sampleFrom(buckets, count);
+        }
+    }
+
+    /**
+     * Moves apps into the buckets matching their freshly saved review totals. Called once per
+     * {@code steam_app_reviews} flush; each bucket that gains or loses apps is rebuilt once for
+     * the whole batch, outside the lock that sampling takes.
+     *
+     * @param totals app ID to its saved review total
+     */
+    public void onReviewsSaved(final Map<Long, Integer> totals) {
+        if (!ready || totals.isEmpty()) {
+            return;
+        }
+        synchronized (updateLock) {
+            final List<int[]> currentRanges;
+            final long[][] current;
+            synchronized (this) {
+                currentRanges = ranges;
+                current = buckets;
+            }
+            final LongList[] added = new LongList[current.length];
+            final LongList[] removed = new LongList[current.length];
+            for (Map.Entry<Long, Integer> e : totals.entrySet()) {
+                final long appId = e.getKey();
+                if (!indexable(appId)) {
+                    continue;
+                }
+                final int total = e.getValue();
+                final int target = total > 0 ? bucketOf(currentRanges, total) : -1;
+                for (int b = 0; b < current.length; b++) {
+                    if (b != target && Arrays.binarySearch(current[b], appId) >= 0) {
+                        listAt(removed, b).add(appId);
+                    }
+                }
+                if (target >= 0 && Arrays.binarySearch(current[target], appId) < 0) {
+                    listAt(added, target).add(appId);
+                }
+            }
+            final long[][] next = current.clone();
+            boolean changed = false;
+            for (int b = 0; b < next.length; b++) {
+                if (added[b] != null || removed[b] != null) {
+                    next[b] = merge(current[b], added[b], removed[b]);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                synchronized (this) {
+                    buckets = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks an app as permanently excluded once the {@code ExcludedApp} row commits; immediately
+     * when there is no transaction.
+     */
+    public void onExcluded(final long appId) {
+        if (indexable(appId)) {
+            afterCommit(() -> {
+                synchronized (this) {
+                    excluded.set((int) appId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Marks saved picks as recently picked, once they commit, so they are not sampled again
+     * within the current do-not-repeat window; immediately when there is no transaction.
+     */
+    public void onPicked(final Collection<Long> appIds) {
+        final List<Long> ids = appIds.stream().filter(id -> id != null && indexable(id)).toList();
+        afterCommit(() -> {
+            synchronized (this) {
+                for (Long appId : ids) {
+                    recentlyPicked.set((int) (long) appId);
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(final Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void ensureRecentWindow(final LocalDate since) {
+        synchronized (this) {
+            if (since.equals(recentSince)) {
+                return;
+            }
+        }
+        // Query outside the lock so review writes are not blocked behind the database.
+        final List<Long> picked = pickRepository.findAppIdsPickedSince(since);
+        synchronized (this) {
+            recentlyPicked.clear();
+            for (Long appId : picked) {
+                if (appId != null && indexable(appId)) {
+                    recentlyPicked.set((int) (long) appId);
+                }
+            }
+            recentSince = since;
+        }
+    }
+
+    private List<Long> sampleFrom(final long[][] pools, final int count) {
+        int size = 0;
+        for (long[] pool : pools) {
+            size += pool.length;
+        }
+        final List<Long> out = new ArrayList<>(count);
+        if (size == 0 || count <= 0) {
+            return out;
+        }
+        final ThreadLocalRandom rng = ThreadLocalRandom.current();
+        final int probes = count * PROBES_PER_CANDIDATE;
+        for (int i = 0; i < probes && out.size() < count; i++) {
+            offerIfEligible(out, at(pools, rng.nextInt(size)));
+        }
+        if (out.size() < count) {
+            // Mostly blocked pool: one linear pass from a random offset still finds every
+            // eligible app, matching what the SQL query would have returned.
+            final int offset = rng.nextInt(size);
+            for (int i = 0; i < size && out.size() < count; i++) {
+                offerIfEligible(out, at(pools, (offset + i) % size));
+            }
+        }
+        return out;
+    }
+
+    private void offerIfEligible(final List<Long> out, final long appId) {
+        final int bit = (int) appId;
+        if (!excluded.get(bit) && !recentlyPicked.get(bit) && !out.contains(appId)) {
+            out.add(appId);
+        }
+    }
+
+    private static long at(final long[][] pools, int position) {
+        for (long[] pool : pools) {
+            if (position < pool.length) {
+                return pool[position];
+            }
+            position -= pool.length;
+        }
+        throw new IndexOutOfBoundsException(position);
+    }
+
+    private static int bucketOf(final List<int[]> ranges, final int total) {
+        for (int i = 0; i < ranges.size(); i++) {
+            final int[] range = ranges.get(i);
+            if (total >= range[0] && total <= range[1]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Steam app IDs fit in an int; anything else cannot be addressed by the bitsets. */
+    private static boolean indexable(final long appId) {
+        return appId >= 0 && appId <= Integer.MAX_VALUE;
+    }
+
+    private static LongList listAt(final LongList[] lists, final int index) {
+        if (lists[index] == null) {
+            lists[index] = new LongList();
+        }
+        return lists[index];
+    }
+
+    /** Returns {@code sorted} without {@code removed} and with {@code added}, sorted. */
+    private static long[] merge(final long[] sorted, final LongList added, final LongList removed) {
+        final long[] drop = removed != null ? removed.toSortedArray() : new long[0];
+        final long[] add = added != null ? added.toSortedArray() : new long[0];
+        final long[] out = new long[sorted.length - drop.length + add.length];
+        int a = 0;
+        int n = 0;
+        for (final long appId : sorted) {
+            if (Arrays.binarySearch(drop, appId) >= 0) {
+                continue;
+            }
+            while (a < add.length && add[a] < appId) {
+                out[n++] = add[a++];
+            }
+            out[n++] = appId;
+        }
+        while (a < add.length) {
+            out[n++] = add[a++];
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /** Growable primitive list used while streaming the initial load. */
+    private static final class LongList {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(final long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toSortedArray() {
+            final long[] out = Arrays.copyOf(values, size);
+            Arrays.sort(out);
+            return out;
+        }
+    }
+}
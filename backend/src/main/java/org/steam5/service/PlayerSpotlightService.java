@@ -8,9 +8,9 @@ import org.springframework.transaction.annotation.Transactional;
 import org.steam5.domain.Comment;
 import org.steam5.domain.GameDate;
 import org.steam5.domain.Guess;
+import org.steam5.domain.ParticipationBitmap;
 import org.steam5.domain.PlayerSpotlight;
 import org.steam5.domain.PlayerSpotlightInsightType;
-import org.steam5.domain.StreakCalculator;
 import org.steam5.domain.User;
 import org.steam5.repository.CommentReactionRepository;
 import org.steam5.repository.CommentRepository;
@@ -218,6 +218,7 @@ public class PlayerSpotlightService {
     private final PlayerSpotlightRepository playerSpotlightRepository;
     private final CommentRepository commentRepository;
     private final CommentReactionRepository commentReactionRepository;
+    private final ParticipationService participationService;
 
     /**
      * Computes and persists today's spotlight, if one doesn't already exist.
@@ -241,7 +242,7 @@ public class PlayerSpotlightService {
         }
     }
 
-    @Cacheable(value = "stats-short", key = "'spotlight-today:' + T(org.steam5.domain.GameDate).todayUtc()", unless = "#result == null")
+    @Cacheable(value = "stats-short", key = "'spotlight-today:' + T(org.steam5.domain.GameDate).todayUtc()", sync = true)
     public Optional<SpotlightResponse> getTodaySpotlight() {
         return playerSpotlightRepository.findById(GameDate.todayUtc()).map(this::toResponse);
     }
@@ -398,13 +399,7 @@ public class PlayerSpotlightService {
         }
 
         final List<String> candidateIds = new ArrayList<>(eligibleAllTime.keySet());
-        final Map<String, List<LocalDate>> datesByUser = guessRepository
-                .findDistinctDatesUpToForUsers(candidateIds, today).stream()
-                .collect(Collectors.groupingBy(
-                        GuessRepository.UserDateRow::getSteamId,
-                        LinkedHashMap::new,
-                        Collectors.mapping(GuessRepository.UserDateRow::getGameDate, Collectors.toList())
-                ));
+        final Map<String, ParticipationBitmap> participationByUser = participationService.findAll(candidateIds);
 
         // Established (>=70 all-time, or the relaxed floor above) isn't enough on its own — a
         // long-dormant veteran who banked those rounds long ago, then plays a single light day,
@@ -423,8 +418,8 @@ public class PlayerSpotlightService {
             if (roundsInWindow < minRoundsInRecencyWindow) {
                 continue;
             }
-            final List<LocalDate> datesDesc = datesByUser.getOrDefault(steamId, List.of());
-            eligible.add(new Candidate(steamId, eligibleAllTime.get(steamId), datesDesc));
+            final ParticipationBitmap participation = participationByUser.getOrDefault(steamId, ParticipationBitmap.empty());
+            eligible.add(new Candidate(steamId, eligibleAllTime.get(steamId), participation));
         }
         return eligible;
     }
@@ -437,12 +432,10 @@ public class PlayerSpotlightService {
 
         final List<Tiered> tier = new ArrayList<>();
         for (final Candidate c : eligible) {
-            final int currentStreak = StreakCalculator.currentStreak(c.datesDesc(), today);
+            final int currentStreak = c.participation().currentStreak(today);
             if (currentStreak < MIN_DAY_STREAK) continue;
 
-            final List<LocalDate> datesAsc = new ArrayList<>(c.datesDesc());
-            Collections.reverse(datesAsc);
-            final long longest = StreakCalculator.longestStreak(datesAsc);
+            final long longest = c.participation().longestStreakBetween(LocalDate.EPOCH, today);
             final boolean isPersonalBest = currentStreak >= longest;
 
             final String detail = String.format(isPersonalBest ? personalBestTemplate : plainStreakTemplate, currentStreak);
@@ -523,11 +516,10 @@ public class PlayerSpotlightService {
 
         final List<Tiered> tier = new ArrayList<>();
         for (final Candidate c : eligible) {
-            final List<LocalDate> datesDesc = c.datesDesc();
-            if (datesDesc.size() < 2) continue;
-
-            final LocalDate mostRecent = datesDesc.get(0);
-            final LocalDate previous = datesDesc.get(1);
+            final LocalDate mostRecent = c.participation().latestOnOrBefore(today);
+            if (mostRecent == null) continue;
+            final LocalDate previous = c.participation().latestOnOrBefore(mostRecent.minusDays(1));
+            if (previous == null) continue;
             final long gapDays = ChronoUnit.DAYS.between(previous, mostRecent);
             if (gapDays < WELCOME_BACK_MIN_GAP_DAYS) continue;
 
@@ -799,7 +791,7 @@ public class PlayerSpotlightService {
         return entity;
     }
 
-    private record Candidate(String steamId, GuessRepository.AllTimeStatsRow allTime, List<LocalDate> datesDesc) {
+    private record Candidate(String steamId, GuessRepository.AllTimeStatsRow allTime, ParticipationBitmap participation) {
     }
 
     private record Tiered(String steamId, PlayerSpotlightInsightType insightType, String headline, String detail,
@@ -0,0 +1,85 @@
+package org.steam5.service;
+
+import org.steam5.config.CacheWeigher;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One leaderboard in rank order (total points descending, then steam id) with each player's
+ * position indexed, so a page after a keyset cursor costs a binary search plus the page, and a
+ * player's rank a map lookup. Rows carry no streak; {@link LeaderboardService#withStreaks} fills
+ * it in for the rows actually returned. Immutable; cached per board and day in
+ * {@code leaderboard-static}, so it is rebuilt whenever the full leaderboard would be.
+ */
+public final class RankedLeaderboard implements CacheWeigher.Sized {
+
+    static final Comparator<LeaderboardService.LeaderEntry> ORDER =
+            Comparator.comparingLong(LeaderboardService.LeaderEntry::totalPoints).reversed()
+                    .thenComparing(LeaderboardService.LeaderEntry::steamId);
+
+    private final List<LeaderboardService.LeaderEntry> entries;
+    private final Map<String, Integer> positionBySteamId;
+
+    RankedLeaderboard(final List<LeaderboardService.LeaderEntry> rows) {
+        final List<LeaderboardService.LeaderEntry> sorted = new ArrayList<>(rows);
+        // Rows usually arrive in this order already; re-sorting pins the order the binary search
+        // relies on to Java's comparison rather than the database collation.
+        sorted.sort(ORDER);
+        this.entries = List.copyOf(sorted);
+        this.positionBySteamId = new HashMap<>(Math.max(16, sorted.size() * 2));
+        for (int i = 0; i < sorted.size(); i++) {
+            positionBySteamId.put(sorted.get(i).steamId(), i);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the player's 0-based position, or -1 if they are not on the board
+     */
+    public int positionOf(final String steamId) {
+        return positionBySteamId.getOrDefault(steamId, -1);
+    }
+
+    /**
+     * @return the position of the first row ranked after ({@code totalPoints}, {@code steamId}),
+     * whether or not that row is still on the board
+     */
+    public int positionAfter(final long totalPoints, final String steamId) {
+        int lo = 0;
+        int hi = entries.size();
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            final LeaderboardService.LeaderEntry entry = entries.get(mid);
+            final int cmp = entry.totalPoints() != totalPoints
+                    ? Long.compare(totalPoints, entry.totalPoints())
+                    : entry.steamId().compareTo(steamId);
+            if (cmp <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * @return the rows at positions {@code from} (inclusive) to {@code to} (exclusive), clamped
+     */
+    public List<LeaderboardService.LeaderEntry> slice(final int from, final int to) {
+        final int start = Math.max(0, Math.min(from, entries.size()));
+        return entries.subList(start, Math.max(start, Math.min(to, entries.size())));
+    }
+
+    @Override
+    public long estimatedBytes(final CacheWeigher weigher) {
+        // Per row: the record and its strings, plus a map node and boxed position.
+        return 64L + entries.size() * 320L;
+    }
+}
@@ -0,0 +1,139 @@
+package org.steam5.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.steam5.repository.SteamAppReviewsBulkRepository;
+
+/**
+ * In-memory copy of the stored review counts, keyed by app ID, so a refresh can tell whether
+ * Steam's numbers actually moved before writing anything. Primitive open-addressing table
+ * (one {@code long} key and two {@code int} counts per app, ~24 bytes at the load factor used)
+ * instead of a {@code Map<Long, ...>}.
+ *
+ * <p>Seeded at startup and kept current by {@link SteamAppReviewsFetcher} after every write,
+ * which is the only writer of {@code steam_app_reviews}. Until it has loaded, every count is
+ * reported as changed, i.e. the fetcher behaves as if there were no snapshot.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReviewCountSnapshot implements ApplicationRunner {
+
+    private final SteamAppReviewsBulkRepository repository;
+
+    private Table table = new Table(16);
+    private volatile boolean ready;
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Failed to load review count snapshot; every refresh will be written", e);
+        }
+    }
+
+    /**
+     * Replaces the snapshot with the current database contents.
+     */
+    public void reload() {
+        final long start = System.nanoTime();
+        final Table loaded = new Table(1 << 16);
+        repository.forEachCount(loaded::put);
+        synchronized (this) {
+            table = loaded;
+            ready = true;
+        }
+        log.info("Loaded review count snapshot: apps={} in {}ms", loaded.size, (System.nanoTime() - start) / 1_000_000L);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return true only if the snapshot is loaded and holds exactly these counts for the app
+     */
+    public synchronized boolean isUnchanged(final long appId, final int totalPositive, final int totalNegative) {
+        return ready && table.matches(appId, totalPositive, totalNegative);
+    }
+
+    /**
+     * Records freshly written counts.
+     */
+    public synchronized void put(final long appId, final int totalPositive, final int totalNegative) {
+        table.put(appId, totalPositive, totalNegative);
+    }
+
+    /** Linear-probing table; app IDs are positive, so 0 marks a free slot. */
+    private static final class Table {
+        private long[] keys;
+        private int[] positive;
+        private int[] negative;
+        private int mask;
+        private int size;
+
+        Table(final int capacity) {
+            allocate(Integer.highestOneBit(Math.max(16, capacity) - 1) << 1);
+        }
+
+        private void allocate(final int capacity) {
+            keys = new long[capacity];
+            positive = new int[capacity];
+            negative = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        private int slot(final long appId) {
+            final long h = appId * 0x9E3779B97F4A7C15L;
+            int i = (int) (h ^ (h >>> 32)) & mask;
+            while (keys[i] != 0L && keys[i] != appId) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        boolean matches(final long appId, final int pos, final int neg) {
+            if (appId <= 0) {
+                return false;
+            }
+            final int i = slot(appId);
+            return keys[i] == appId && positive[i] == pos && negative[i] == neg;
+        }
+
+        void put(final long appId, final int pos, final int neg) {
+            if (appId <= 0) {
+                return;
+            }
+            int i = slot(appId);
+            if (keys[i] == 0L) {
+                if ((size + 1) * 2 > keys.length) {
+                    grow();
+                    i = slot(appId);
+                }
+                keys[i] = appId;
+                size++;
+            }
+            positive[i] = pos;
+            negative[i] = neg;
+        }
+
+        private void grow() {
+            final long[] oldKeys = keys;
+            final int[] oldPositive = positive;
+            final int[] oldNegative = negative;
+            allocate(oldKeys.length * 2);
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] != 0L) {
+                    final int i = slot(oldKeys[j]);
+                    keys[i] = oldKeys[j];
+                    positive[i] = oldPositive[j];
+                    negative[i] = oldNegative[j];
+                }
+            }
+        }
+    }
+}
@@ -21,10 +21,20 @@ import org.steam5.repository.DailyPickLockRepository;
 import org.steam5.repository.ExcludedAppRepository;
 import org.steam5.repository.ReviewGamePickRepository;
 import org.steam5.repository.SteamAppReviewsRepository;
+import tools.jackson.databind.JsonNode;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
 @Service
@@ -34,10 +44,29 @@ public class ReviewGameStateService {
 
     public static final int MIN_BUCKET_BOUND = 1;
 
+    /**
+     * Candidates validated concurrently per round: the current one plus one speculative prefetch.
+     */
+    private static final int VALIDATION_PIPELINE_DEPTH = 2;
+
     @Transactional
     public List<ReviewGamePick> generateDailyPicks() {
-        final LocalDate today = GameDate.todayUtc();
-        final List<ReviewGamePick> existing = pickRepository.findByPickDate(today);
+        return generatePicksFor(GameDate.todayUtc());
+    }
+
+    /**
+     * Staged-picks mode: generates, validates and enriches tomorrow's picks hours ahead of
+     * the UTC rollover, written with tomorrow's {@code pick_date}. At midnight
+     * {@link #generateDailyPicks()} then finds them already in place, so rollover never
+     * enters the lock-wait loop. Idempotent: returns the staged picks if they exist.
+     */
+    @Transactional
+    public List<ReviewGamePick> stageNextDayPicks() {
+        return generatePicksFor(GameDate.todayUtc().plusDays(1));
+    }
+
+    private List<ReviewGamePick> generatePicksFor(final LocalDate pickDate) {
+        final List<ReviewGamePick> existing = pickRepository.findByPickDate(pickDate);
         if (!existing.isEmpty()) {
             return existing;
         }
@@ -46,11 +75,11 @@ public class ReviewGameStateService {
         // endpoint). This is a NON-BLOCKING advisory lock — concurrent callers
         // return immediately instead of blocking on the daily_pick_lock unique
         // index for the winner's whole (potentially slow) transaction.
-        final boolean acquired = pickLockRepository.tryAcquire(today.toString());
+        final boolean acquired = pickLockRepository.tryAcquire(pickDate.toString());
         if (!acquired) {
             // Another generator is running/just ran; wait briefly for it to finish then return existing
             for (int i = 0; i < 20; i++) { // ~2s total
-                final List<ReviewGamePick> concurrent = pickRepository.findByPickDate(today);
+                final List<ReviewGamePick> concurrent = pickRepository.findByPickDate(pickDate);
                 if (!concurrent.isEmpty()) return concurrent;
                 try {
                     Thread.sleep(100);
@@ -59,14 +88,14 @@ public class ReviewGameStateService {
                 }
             }
             // Do not attempt to generate if lock not acquired
-            return pickRepository.findByPickDate(today);
+            return pickRepository.findByPickDate(pickDate);
         }
 
-        log.info("Generating review-game picks for {}", today);
+        log.info("Generating review-game picks for {}", pickDate);
 
         // Exclusion window parameterized
         final int doNotRepeatDays = Math.max(0, config.getDoNotRepeatDays());
-        final LocalDate excludeSince = doNotRepeatDays >= 36500 ? LocalDate.of(1970, MIN_BUCKET_BOUND, MIN_BUCKET_BOUND) : today.minusDays(doNotRepeatDays);
+        final LocalDate excludeSince = doNotRepeatDays >= 36500 ? LocalDate.of(1970, MIN_BUCKET_BOUND, MIN_BUCKET_BOUND) : pickDate.minusDays(doNotRepeatDays);
 
         final List<ReviewGamePick> picks = new ArrayList<>(5);
         final Set<Long> chosenIds = new HashSet<>();
@@ -74,54 +103,75 @@ public class ReviewGameStateService {
         // Build and validate buckets from configured boundaries
         final List<int[]> bucketRanges = buildBucketRanges();
 
-        // Decide on strategy for today (seeded for reproducibility)
-        final BUCKET_STRATEGY strategy = chooseStrategyForDate(today);
-        log.info("Bucket strategy for {}: {}", today, strategy);
+        // Decide on strategy for the day (seeded for reproducibility)
+        final BUCKET_STRATEGY strategy = chooseStrategyForDate(pickDate);
+        log.info("Bucket strategy for {}: {}", pickDate, strategy);
 
-        final List<Integer> bucketOrder = planBucketSelection(strategy, bucketRanges.size(), bucketRanges.size(), today);
+        final List<Integer> bucketOrder = planBucketSelection(strategy, bucketRanges.size(), bucketRanges.size(), pickDate);
 
         // For logging, prepare labels for each bucket
         final List<String> labels = getBucketLabels();
 
-        // Pick apps according to planned buckets, with fallback to ANY while preserving uniqueness
-        int round = 1;
-        for (Integer bucketIndex : bucketOrder) {
-            final int[] range = bucketRanges.get(bucketIndex);
-            boolean added = false;
-            final List<Long> candidates = (range[1] == Integer.MAX_VALUE)
-                    ? reviewsRepository.findRandomGte(excludeSince, range[0], PageRequest.of(0, 8))
-                    : reviewsRepository.findRandomBetween(excludeSince, range[0], range[1], PageRequest.of(0, 8));
-
-            for (Long id : candidates) {
-                if (!chosenIds.contains(id) && validateAppOrExclude(id)) {
-                    chosenIds.add(id);
-                    picks.add(new ReviewGamePick(null, today, id, OffsetDateTime.now()));
-                    log.info("Round {}: bucket {} (range {}-{}) -> picked appId {}", round, (labels.isEmpty() ? bucketIndex : labels.get(bucketIndex)), range[0], range[1] == Integer.MAX_VALUE ? "∞" : String.valueOf(range[1]), id);
-                    added = true;
-                    break;
+        // Pick apps according to planned buckets, with fallback to ANY while preserving uniqueness.
+        // Each round validates its candidates in its own lane on a virtual thread, so the Steam
+        // round-trips of all rounds overlap instead of running back to back while the lock is held.
+        // A round whose bucket yields no valid app falls back to ANY in the same lane, without
+        // waiting for the other rounds. Lanes only fetch; exclusions and the winners' details are
+        // written below, on this thread, so they commit or roll back with the picks.
+        final int rounds = bucketOrder.size();
+        final Validation[] winners = new Validation[rounds];
+        final boolean[] fellBack = new boolean[rounds];
+        final Set<Long> claimed = ConcurrentHashMap.newKeySet();
+        final Queue<Validation> rejected = new ConcurrentLinkedQueue<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final List<Future<Validation>> lanes = new ArrayList<>(rounds);
+            for (int r = 0; r < rounds; r++) {
+                final int round = r;
+                final int bucketIndex = bucketOrder.get(r);
+                final List<Long> candidates = sampleBucket(bucketIndex, bucketRanges.get(bucketIndex), excludeSince);
+                lanes.add(executor.submit(() -> {
+                    final Validation inBucket = firstValid(candidates, claimed, rejected, executor);
+                    if (inBucket != null) {
+                        return inBucket;
+                    }
+                    fellBack[round] = true;
+                    return firstValid(sampleAny(excludeSince), claimed, rejected, executor);
+                }));
+            }
+            awaitLanes(lanes, winners, executor);
+
+            for (Validation rejection : rejected) {
+                if (rejection.exclusion() != null) {
+                    excludedAppRepository.save(new org.steam5.domain.ExcludedApp(rejection.appId(), rejection.exclusion(), OffsetDateTime.now()));
+                    candidateIndex.onExcluded(rejection.appId());
                 }
             }
 
-            if (!added) {
-                // fallback ANY
-                final List<Long> anyIds = reviewsRepository.findRandomAnyAppIds(excludeSince, PageRequest.of(0, 10));
-                for (Long id : anyIds) {
-                    if (!chosenIds.contains(id) && validateAppOrExclude(id)) {
-                        chosenIds.add(id);
-                        picks.add(new ReviewGamePick(null, today, id, OffsetDateTime.now()));
-                        log.info("Round {}: bucket {} fallback ANY -> picked appId {}", round, (labels.isEmpty() ? bucketIndex : labels.get(bucketIndex)), id);
-                        break;
-                    }
+            for (int r = 0; r < rounds; r++) {
+                final int bucketIndex = bucketOrder.get(r);
+                final int[] range = bucketRanges.get(bucketIndex);
+                final Object bucketLabel = labels.isEmpty() ? bucketIndex : labels.get(bucketIndex);
+                final Validation winner = winners[r];
+                if (winner == null) {
+                    continue;
+                }
+                final Long id = winner.appId();
+                detailsFetcher.store(id, winner.details());
+                chosenIds.add(id);
+                picks.add(new ReviewGamePick(null, pickDate, id, OffsetDateTime.now()));
+                if (!fellBack[r]) {
+                    log.info("Round {}: bucket {} (range {}-{}) -> picked appId {}", r + 1, bucketLabel, range[0], range[1] == Integer.MAX_VALUE ? "∞" : String.valueOf(range[1]), id);
+                } else {
+                    log.info("Round {}: bucket {} fallback ANY -> picked appId {}", r + 1, bucketLabel, id);
                 }
             }
-            round++;
         }
 
         if (picks.isEmpty()) {
             // A full generation pass produced no picks (e.g. Steam API outage). Do
             // NOT record the daily lock row — the advisory lock is released at
             // commit, so later requests can retry generation for the same day.
-            log.warn("Pick generation produced no picks for {}; day remains unlocked for later retry", today);
+            log.warn("Pick generation produced no picks for {}; day remains unlocked for later retry", pickDate);
             return List.of();
         }
 
@@ -133,8 +183,9 @@ public class ReviewGameStateService {
             picks.get(i).setRoundIndex(i + 1);
         }
         final List<ReviewGamePick> saved = pickRepository.saveAll(picks);
-        pickLockRepository.save(new DailyPickLock(today, OffsetDateTime.now()));
-        log.info("Generated {} review-game picks for {}", saved.size(), today);
+        pickLockRepository.save(new DailyPickLock(pickDate, OffsetDateTime.now()));
+        candidateIndex.onPicked(chosenIds);
+        log.info("Generated {} review-game picks for {}", saved.size(), pickDate);
 
         // Blurhash events are @TransactionalEventListener(AFTER_COMMIT): they
         // MUST be published inside this transaction or they are dropped.
@@ -145,7 +196,11 @@ public class ReviewGameStateService {
         // Slow Steam enrichment runs AFTER the transaction commits so the lock
         // and picks are durably visible before the API calls start.
         enrichPickedAppsAfterCommit(saved);
-        evictReviewGameStateAfterCommit();
+        // Staged (future) picks change nothing that is served today; their cache
+        // entries are pre-warmed separately before the rollover.
+        if (!pickDate.isAfter(GameDate.todayUtc())) {
+            evictReviewGameStateAfterCommit(pickDate);
+        }
         return saved;
     }
 
@@ -171,34 +226,173 @@ public class ReviewGameStateService {
     }
 
     /**
-     * Drop the review-game cache once the new picks are durably committed. Evicting
+     * Drop the day's review-game entries once the new picks are durably committed. Evicting
      * inline (this method is {@code @Transactional}) would clear the cache before the
      * picks are visible to other transactions, leaving a window where a concurrent
      * request repopulates the cache from the pre-generation state — and would wrongly
      * clear it if the transaction later rolls back. Registering an {@code afterCommit}
-     * callback guarantees the cache is dropped exactly when, and only if, the new picks
+     * callback guarantees the entries are dropped exactly when, and only if, the new picks
      * land. With no active transaction (e.g. a plain unit test) we evict immediately.
      */
-    private void evictReviewGameStateAfterCommit() {
+    private void evictReviewGameStateAfterCommit(final LocalDate pickDate) {
         if (TransactionSynchronizationManager.isSynchronizationActive()) {
             TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
                 @Override
                 public void afterCommit() {
-                    cacheEvictor.evictReviewGameState();
+                    cacheEvictor.evictReviewGameState(pickDate);
                 }
             });
         } else {
-            cacheEvictor.evictReviewGameState();
+            cacheEvictor.evictReviewGameState(pickDate);
+        }
+    }
+
+    /**
+     * Validates a round's candidates in order and returns the first valid one, or {@code null};
+     * candidates found invalid before it are added to {@code rejected}. The next candidate is
+     * validated speculatively while the current one is in flight, so a rejected candidate costs
+     * no extra round-trip. Every app is claimed in the shared set before validation so concurrent
+     * lanes never validate or pick the same app. Once a winner is found, speculative validations
+     * still in flight are cancelled and their results dropped; each one's claim is released for
+     * other lanes only after it has stopped running.
+     */
+    private Validation firstValid(final List<Long> candidates, final Set<Long> claimed,
+                                  final Queue<Validation> rejected, final ExecutorService executor) {
+        final Deque<PendingValidation> inFlight = new ArrayDeque<>(VALIDATION_PIPELINE_DEPTH);
+        final Iterator<Long> remaining = candidates.iterator();
+        while (true) {
+            while (inFlight.size() < VALIDATION_PIPELINE_DEPTH && remaining.hasNext()) {
+                final Long id = remaining.next();
+                if (claimed.add(id)) {
+                    inFlight.add(new PendingValidation(id, () -> validateApp(id), claimed, executor));
+                }
+            }
+            final PendingValidation head = inFlight.poll();
+            if (head == null) {
+                return null;
+            }
+            final Validation validation = await(head.result);
+            if (validation.valid()) {
+                inFlight.forEach(PendingValidation::abandon);
+                return validation;
+            }
+            rejected.add(validation);
         }
     }
 
+    /**
+     * Collects lane results in round order. The first lane to fail (a 429 from
+     * {@link #validateApp}) stops every other lane and aborts generation.
+     */
+    private void awaitLanes(final List<Future<Validation>> lanes, final Validation[] winners,
+                            final ExecutorService executor) {
+        for (int r = 0; r < lanes.size(); r++) {
+            try {
+                winners[r] = await(lanes.get(r));
+            } catch (RuntimeException e) {
+                executor.shutdownNow();
+                throw e;
+            }
+        }
+    }
+
+    private static <T> T await(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating pick candidates", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * One candidate's validation, running on its own virtual thread. The app stays claimed
+     * unless the lane abandons it, and then only until the validation has exited.
+     */
+    private static final class PendingValidation {
+        private final Long appId;
+        private final Set<Long> claimed;
+        private final FutureTask<Validation> result;
+        // Task exit and abandonment each release one; the claim goes with the last
+        private final AtomicInteger holds = new AtomicInteger(2);
+
+        PendingValidation(final Long appId, final Callable<Validation> validation,
+                          final Set<Long> claimed, final ExecutorService executor) {
+            this.appId = appId;
+            this.claimed = claimed;
+            this.result = new FutureTask<>(validation);
+            executor.execute(() -> {
+                try {
+                    result.run();
+                } finally {
+                    release();
+                }
+            });
+        }
+
+        void abandon() {
+            result.cancel(true);
+            release();
+        }
+
+        private void release() {
+            if (holds.decrementAndGet() == 0) {
+                claimed.remove(appId);
+            }
+        }
+    }
+
+    /**
+     * Outcome of validating one candidate: its fetched details if usable, else the reason to
+     * exclude it (null for a transient failure, which skips the app without excluding it).
+     */
+    private record Validation(Long appId, JsonNode details, String exclusion) {
+        boolean valid() {
+            return details != null;
+        }
+    }
+
+    /**
+     * Samples up to 8 eligible candidates for one bucket. Served from the in-memory
+     * {@link PickCandidateIndex} once it is loaded; until then (or if loading failed)
+     * falls back to the {@code ORDER BY random()} queries.
+     */
+    private List<Long> sampleBucket(final int bucketIndex, final int[] range, final LocalDate excludeSince) {
+        if (candidateIndex.isReady()) {
+            return candidateIndex.sample(bucketIndex, 8, excludeSince);
+        }
+        return (range[1] == Integer.MAX_VALUE)
+                ? reviewsRepository.findRandomGte(excludeSince, range[0], PageRequest.of(0, 8))
+                : reviewsRepository.findRandomBetween(excludeSince, range[0], range[1], PageRequest.of(0, 8));
+    }
+
+    /**
+     * Samples up to 10 eligible candidates from any bucket, for rounds whose planned
+     * bucket yielded no valid app.
+     */
+    private List<Long> sampleAny(final LocalDate excludeSince) {
+        if (candidateIndex.isReady()) {
+            return candidateIndex.sampleAny(10, excludeSince);
+        }
+        return reviewsRepository.findRandomAnyAppIds(excludeSince, PageRequest.of(0, 10));
+    }
+
+    private List<int[]> buildBucketRanges() {
+        return bucketRanges(config.getBucketBoundaries());
+    }
+
     /**
      * Builds the review-count bucket ranges from configured boundaries (falling back
      * to defaults when unconfigured) and validates the resulting count: at least 5
-     * buckets, and an odd count when more than 5.
+     * buckets, and an odd count when more than 5. Shared with {@link PickCandidateIndex}
+     * so both agree on bucket indexes.
      */
-    private List<int[]> buildBucketRanges() {
-        final List<Integer> bounds = config.getBucketBoundaries();
+    public static List<int[]> bucketRanges(final List<Integer> bounds) {
         final List<int[]> bucketRanges = new ArrayList<>(5);
         if (bounds != null && !bounds.isEmpty()) {
             int prev = MIN_BUCKET_BOUND;
@@ -223,7 +417,8 @@ public class ReviewGameStateService {
     }
 
     /**
-     * Validates an appId by fetching its details. Returns {@code true} if usable.
+     * Validates an appId by fetching its details; runs on a lane's virtual thread, outside the
+     * generation transaction, so it writes nothing — the caller persists the outcome.
      * A Steam API 429 (rate limit) is never treated as an exclusion — it aborts
      * generation by propagating, so we respect the API rather than poisoning the
      * pool. Transient failures (5xx, network 599, or any non-Steam exception)
@@ -231,13 +426,10 @@ public class ReviewGameStateService {
      * shrink the candidate pool. Only definitive rejections are excluded: Steam
      * answering {@code success=false} (app gone/unavailable) or a 4xx response.
      */
-    private boolean validateAppOrExclude(final Long appId) {
+    private Validation validateApp(final Long appId) {
         try {
-            boolean ok = detailsFetcher.fetchForAppId(appId);
-            if (!ok) {
-                excludedAppRepository.save(new org.steam5.domain.ExcludedApp(appId, "details fetch failed or success=false", OffsetDateTime.now()));
-            }
-            return ok;
+            final JsonNode details = detailsFetcher.fetchDetails(appId);
+            return new Validation(appId, details, details == null ? "details fetch failed or success=false" : null);
         } catch (SteamApiException sae) {
             if (sae.getStatusCode() == 429) {
                 log.warn("Steam API rate limited (429) while validating appId {}. Aborting pick generation without exclusion.", appId);
@@ -246,16 +438,15 @@ public class ReviewGameStateService {
             if (sae.getStatusCode() >= 500 || sae.getStatusCode() == 599) {
                 // Transient upstream/network failure — never permanently exclude.
                 log.warn("Transient Steam API failure (HTTP {}) while validating appId {}; skipping without exclusion", sae.getStatusCode(), appId);
-                return false;
+                return new Validation(appId, null, null);
             }
-            excludedAppRepository.save(new org.steam5.domain.ExcludedApp(appId, "details fetch error: HTTP " + sae.getStatusCode(), OffsetDateTime.now()));
-            return false;
+            return new Validation(appId, null, "details fetch error: HTTP " + sae.getStatusCode());
         } catch (Exception e) {
-            // Unknown failures (parsing, persistence) are treated as transient: a
+            // Unknown failures (parsing) are treated as transient: a
             // permanent exclusion here could poison the pool and, during an
             // outage, lock a day to zero picks.
             log.warn("Non-Steam failure while validating appId {}; skipping without exclusion", appId, e);
-            return false;
+            return new Validation(appId, null, null);
         }
     }
 
@@ -301,6 +492,7 @@ public class ReviewGameStateService {
     private final ReviewGameConfig config;
     private final DomainCacheEvictor cacheEvictor;
     private final ApplicationEventPublisher eventPublisher;
+    private final PickCandidateIndex candidateIndex;
 
     public List<String> getBucketLabels() {
         final List<Integer> bounds = config.getBucketBoundaries();
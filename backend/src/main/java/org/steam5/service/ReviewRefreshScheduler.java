@@ -0,0 +1,121 @@
+package org.steam5.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.steam5.config.JobsConfig;
+import org.steam5.config.ReviewGameConfig;
+import org.steam5.repository.ReviewRefreshScheduleRepository;
+import org.steam5.repository.ReviewRefreshScheduleRepository.AppRefreshState;
+import org.steam5.repository.ReviewRefreshScheduleRepository.ScheduleUpdate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Decides which apps the nightly review refresh spends its request budget on. Every refresh
+ * records the app's total, from which a smoothed review velocity is derived; the app is then due
+ * again after roughly the time its count needs to either approach the nearest bucket boundary
+ * or drift by a meaningful fraction. Fast movers and apps sitting next to a boundary come back
+ * within hours, apps whose counts have not moved in months only every {@code maxIntervalDays},
+ * or sooner the closer they sit to a boundary.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReviewRefreshScheduler {
+
+    private static final double DAY_SECONDS = 86_400d;
+
+    private final ReviewRefreshScheduleRepository repository;
+    private final ReviewGameConfig gameConfig;
+    private final JobsConfig jobsConfig;
+
+    /**
+     * @return up to {@code limit} app IDs that are due now, most overdue first
+     */
+    public List<Long> dueAppIds(final int limit) {
+        return repository.findDueAppIds(OffsetDateTime.now(), cfg().getFirstIntervalDays(), limit);
+    }
+
+    /**
+     * Records a completed refresh of {@code appIds} (changed or not) and reschedules them. Must run
+     * after their review rows were written. Best-effort, but no app drops out of the schedule: one
+     * whose next slot cannot be computed comes back after {@code minIntervalHours}, and if the
+     * write fails every app keeps its previous (now overdue) slot, so the next run retries it.
+     */
+    public void recordRefreshed(final Collection<Long> appIds, final OffsetDateTime at) {
+        if (appIds.isEmpty()) {
+            return;
+        }
+        try {
+            final List<AppRefreshState> states = repository.findStates(appIds);
+            final List<ScheduleUpdate> updates = new ArrayList<>(states.size());
+            for (AppRefreshState s : states) {
+                try {
+                    updates.add(next(s, at));
+                } catch (RuntimeException e) {
+                    log.warn("Failed to compute the next review refresh of app {}; retrying in {}h",
+                            s.appId(), cfg().getMinIntervalHours(), e);
+                    updates.add(new ScheduleUpdate(s.appId(), s.total(), s.reviewsPerDay(),
+                            at.plusHours(cfg().getMinIntervalHours())));
+                }
+            }
+            repository.upsertAll(updates, at);
+        } catch (Exception e) {
+            log.warn("Failed to reschedule {} refreshed apps (e.g. {}); they stay due on their previous schedule",
+                    appIds.size(), appIds.iterator().next(), e);
+        }
+    }
+
+    ScheduleUpdate next(final AppRefreshState s, final OffsetDateTime at) {
+        final JobsConfig.ReviewsRefresh cfg = cfg();
+        if (s.lastTotal() == null || s.lastCheckedAt() == null) {
+            return new ScheduleUpdate(s.appId(), s.total(), 0d, at.plusDays(cfg.getFirstIntervalDays()));
+        }
+        final double elapsedDays = Math.max(1d / 24, Duration.between(s.lastCheckedAt(), at).toSeconds() / DAY_SECONDS);
+        final double observed = Math.abs(s.total() - s.lastTotal()) / elapsedDays;
+        // Time-aware EWMA: a long gap carries more evidence than a short one
+        final double alpha = 1d - Math.pow(0.5, elapsedDays / Math.max(1, cfg.getVelocityHalfLifeDays()));
+        final double velocity = alpha * observed + (1d - alpha) * s.reviewsPerDay();
+        final double intervalDays = intervalDays(s.total(), velocity, gameConfig.getBucketBoundaries(), cfg);
+        return new ScheduleUpdate(s.appId(), s.total(), velocity,
+                at.plusSeconds(Math.round(intervalDays * DAY_SECONDS)));
+    }
+
+    static double intervalDays(final int total, final double velocity, final List<Integer> boundaries,
+                               final JobsConfig.ReviewsRefresh cfg) {
+        final double min = cfg.getMinIntervalHours() / 24d;
+        final double max = Math.max(min, cfg.getMaxIntervalDays());
+        final long distance = boundaryDistance(total, boundaries);
+        final double drift = Math.max(1d, total * cfg.getMaxDriftFraction());
+        // Velocity is only an estimate, and a dormant app one review short of a boundary can still
+        // cross it: within drift range of a boundary the longest gap shrinks with the distance
+        final double proximityCap = max * Math.min(1d, distance / drift);
+        if (velocity <= 0d) {
+            return Math.clamp(proximityCap, min, max);
+        }
+        final double toBoundary = distance / velocity * cfg.getBoundaryLeadFactor();
+        final double toDrift = drift / velocity;
+        return Math.clamp(Math.min(proximityCap, Math.min(toBoundary, toDrift)), min, max);
+    }
+
+    /**
+     * Reviews the app must gain or lose to change bucket. Buckets are upper-inclusive, so at
+     * boundary {@code b} a total of {@code b} is one review away from moving up.
+     */
+    static long boundaryDistance(final int total, final List<Integer> boundaries) {
+        long best = Long.MAX_VALUE;
+        for (int b : boundaries) {
+            best = Math.min(best, total <= b ? (long) b + 1 - total : (long) total - b);
+        }
+        return best;
+    }
+
+    private JobsConfig.ReviewsRefresh cfg() {
+        return jobsConfig.getReviewsRefresh();
+    }
+}
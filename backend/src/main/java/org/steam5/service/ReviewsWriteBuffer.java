@@ -0,0 +1,268 @@
+package org.steam5.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.steam5.domain.SteamAppReviews;
+import org.steam5.repository.IngestStateRepository;
+import org.steam5.repository.SteamAppReviewsBulkRepository;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Write-behind buffer for bulk review ingests. Fetched review counts accumulate in memory and
+ * are written with one multi-row upsert when the buffer reaches {@code maxRows} or its oldest
+ * row reaches {@code maxAge} (checked on every add and by a timer, so a stalled run still
+ * flushes), and always on {@link #flush()} at job end or abort. Apps whose counts did not change
+ * are only {@link #touch touched}: their {@code updated_at} moves in one statement per flush and
+ * nothing else is rewritten.
+ *
+ * <p>As a {@link PartitionedIngestEngine.CursorSink} it also holds range cursor commits and
+ * writes them right after the rows, so cursors advance once per flush and never point past a
+ * row that is not yet durable. A flush swaps the pending state out under the monitor and writes
+ * it outside, so workers keep buffering meanwhile; flushes themselves run one at a time. One
+ * instance per run; safe for concurrent workers.</p>
+ */
+@Slf4j
+public class ReviewsWriteBuffer implements PartitionedIngestEngine.CursorSink {
+
+    private static final Executor FLUSHER = r -> Thread.ofVirtual().name("reviews-write-buffer-flush").start(r);
+
+    private final SteamAppReviewsBulkRepository bulkRepository;
+    private final IngestStateRepository ingestStateRepository;
+    private final Consumer<List<SteamAppReviews>> onFlushed;
+    private final Consumer<List<Long>> onRefreshed;
+    private final int maxRows;
+    private final long maxAgeNanos;
+    private final LongSupplier nanoClock;
+    /** Held for a whole flush, so batches and their cursors are written in order. */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private Map<Long, SteamAppReviews> rows = new LinkedHashMap<>();
+    private Set<Long> touched = new LinkedHashSet<>();
+    private Map<String, Long> cursors = new LinkedHashMap<>();
+    private long oldestNanos;
+    private boolean timerPending;
+    private long flushes;
+    private long written;
+    private long touchedTotal;
+
+    ReviewsWriteBuffer(final SteamAppReviewsBulkRepository bulkRepository,
+                       final IngestStateRepository ingestStateRepository,
+                       final Consumer<List<SteamAppReviews>> onFlushed,
+                       final Consumer<List<Long>> onRefreshed,
+                       final int maxRows,
+                       final Duration maxAge,
+                       final LongSupplier nanoClock) {
+        this.bulkRepository = bulkRepository;
+        this.ingestStateRepository = ingestStateRepository;
+        this.onFlushed = onFlushed;
+        this.onRefreshed = onRefreshed;
+        this.maxRows = Math.max(1, maxRows);
+        this.maxAgeNanos = maxAge.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Buffers one row (replacing any buffered row for the same app) and flushes when the size
+     * or age threshold is crossed.
+     */
+    public void add(final SteamAppReviews row) {
+        final boolean due;
+        synchronized (this) {
+            final long now = markPending();
+            touched.remove(row.getAppId());
+            rows.put(row.getAppId(), row);
+            due = isDue(now);
+        }
+        if (due) {
+            flush();
+        }
+    }
+
+    /**
+     * Buffers an app whose counts were re-checked and found unchanged; only its
+     * {@code updated_at} is written on flush.
+     */
+    public void touch(final long appId) {
+        final boolean due;
+        synchronized (this) {
+            if (rows.containsKey(appId)) {
+                return;
+            }
+            final long now = markPending();
+            touched.add(appId);
+            due = isDue(now);
+        }
+        if (due) {
+            flush();
+        }
+    }
+
+    private long markPending() {
+        final long now = nanoClock.getAsLong();
+        if (isEmpty()) {
+            oldestNanos = now;
+            scheduleFlush(maxAgeNanos);
+        }
+        return now;
+    }
+
+    private boolean isEmpty() {
+        return rows.isEmpty() && touched.isEmpty();
+    }
+
+    private boolean isDue(final long now) {
+        return rows.size() + touched.size() >= maxRows || now - oldestNanos >= maxAgeNanos;
+    }
+
+    private void scheduleFlush(final long delayNanos) {
+        if (!timerPending) {
+            timerPending = true;
+            CompletableFuture.delayedExecutor(Math.max(0L, delayNanos), TimeUnit.NANOSECONDS, FLUSHER)
+                    .execute(this::flushIfStale);
+        }
+    }
+
+    /**
+     * Timer side of the age threshold: flushes if the oldest pending row is old enough, otherwise
+     * (rows flushed and buffered again since the timer was set) waits for the new oldest row.
+     */
+    void flushIfStale() {
+        synchronized (this) {
+            timerPending = false;
+            if (isEmpty()) {
+                return;
+            }
+            final long remaining = maxAgeNanos - (nanoClock.getAsLong() - oldestNanos);
+            if (remaining > 0) {
+                scheduleFlush(remaining);
+                return;
+            }
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // The rows stay buffered and the timer is set again; the job's own flush reports failures
+            log.warn("Timed flush of buffered review rows failed; retrying", e);
+        }
+    }
+
+    @Override
+    public synchronized void commit(final String key, final long cursor) {
+        cursors.put(key, cursor);
+    }
+
+    /**
+     * Writes all buffered rows in one statement, touches unchanged apps in another, then writes
+     * the pending cursors. {@code onFlushed} sees the written rows, {@code onRefreshed} the IDs
+     * of every app in this flush, written or touched. Whatever was not written stays buffered.
+     */
+    @Override
+    public void flush() {
+        writeLock.lock();
+        try {
+            final Map<Long, SteamAppReviews> batchRows;
+            final Set<Long> batchTouched;
+            final Map<String, Long> batchCursors;
+            final long batchOldest;
+            synchronized (this) {
+                if (isEmpty() && cursors.isEmpty()) {
+                    return;
+                }
+                batchRows = rows;
+                batchTouched = touched;
+                batchCursors = cursors;
+                batchOldest = oldestNanos;
+                rows = new LinkedHashMap<>();
+                touched = new LinkedHashSet<>();
+                cursors = new LinkedHashMap<>();
+            }
+            boolean rowsWritten = false;
+            boolean touchWritten = false;
+            try {
+                final List<Long> refreshed = new ArrayList<>(batchRows.size() + batchTouched.size());
+                if (!batchRows.isEmpty()) {
+                    final List<SteamAppReviews> batch = new ArrayList<>(batchRows.values());
+                    bulkRepository.upsertAll(batch);
+                    rowsWritten = true;
+                    synchronized (this) {
+                        flushes++;
+                        written += batch.size();
+                    }
+                    onFlushed.accept(batch);
+                    batch.forEach(r -> refreshed.add(r.getAppId()));
+                }
+                final OffsetDateTime now = OffsetDateTime.now();
+                if (!batchTouched.isEmpty()) {
+                    final List<Long> ids = new ArrayList<>(batchTouched);
+                    bulkRepository.touchUpdatedAt(ids, now);
+                    touchWritten = true;
+                    synchronized (this) {
+                        touchedTotal += ids.size();
+                    }
+                    refreshed.addAll(ids);
+                }
+                if (!refreshed.isEmpty()) {
+                    onRefreshed.accept(refreshed);
+                }
+                batchCursors.forEach((key, cursor) -> ingestStateRepository.upsert(key, cursor, now));
+            } catch (RuntimeException e) {
+                restore(rowsWritten ? Map.of() : batchRows, touchWritten ? Set.of() : batchTouched,
+                        batchCursors, batchOldest);
+                throw e;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Puts back what a failed flush did not write; anything buffered since supersedes it.
+     */
+    private synchronized void restore(final Map<Long, SteamAppReviews> failedRows, final Set<Long> failedTouched,
+                                      final Map<String, Long> failedCursors, final long failedOldest) {
+        if (failedRows.isEmpty() && failedTouched.isEmpty() && failedCursors.isEmpty()) {
+            return;
+        }
+        final Map<Long, SteamAppReviews> mergedRows = new LinkedHashMap<>(failedRows);
+        mergedRows.putAll(rows);
+        final Set<Long> mergedTouched = new LinkedHashSet<>(failedTouched);
+        mergedTouched.addAll(touched);
+        mergedTouched.removeAll(mergedRows.keySet());
+        final Map<String, Long> mergedCursors = new LinkedHashMap<>(failedCursors);
+        mergedCursors.putAll(cursors);
+        if (!failedRows.isEmpty() || !failedTouched.isEmpty()) {
+            oldestNanos = isEmpty() ? failedOldest : Math.min(oldestNanos, failedOldest);
+        }
+        rows = mergedRows;
+        touched = mergedTouched;
+        cursors = mergedCursors;
+        if (!isEmpty()) {
+            scheduleFlush(maxAgeNanos);
+        }
+    }
+
+    public synchronized long written() {
+        return written;
+    }
+
+    public synchronized long touched() {
+        return touchedTotal;
+    }
+
+    public synchronized long flushes() {
+        return flushes;
+    }
+}
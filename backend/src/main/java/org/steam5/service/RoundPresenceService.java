@@ -23,7 +23,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * In-memory registry of active WebSocket sessions per game-day scope. Broadcasts
- * per-scope presence snapshots when membership changes.
+ * per-scope presence snapshots when membership changes, and the day's leaderboard updates
+ * ({@link TodayLeaderboard}).
  *
  * <p>Presence is scoped to a game day ({@code YYYY-MM-DD}). All live round pages
  * for that day share one pool so counts reflect everyone playing today's game.</p>
@@ -198,13 +199,29 @@ public class RoundPresenceService {
         if (scopeKey == null) return;
         final CopyOnWriteArrayList<WebSocketSession> list = sessionsByScope.get(scopeKey);
         if (list == null || list.isEmpty()) return;
+        send(scopeKey, list, computeSnapshot(list));
+    }
+
+    /**
+     * Broadcasts another message (e.g. a {@link TodayLeaderboard.RankDelta}) to all open sessions
+     * in a scope. Unlike the snapshot, such messages carry a {@code type} field.
+     *
+     * @param scopeKey the scope to broadcast to
+     * @param message  the message, serialized as JSON
+     */
+    public void broadcast(final String scopeKey, final Object message) {
+        if (scopeKey == null) return;
+        final CopyOnWriteArrayList<WebSocketSession> list = sessionsByScope.get(scopeKey);
+        if (list == null || list.isEmpty()) return;
+        send(scopeKey, list, message);
+    }
 
-        final Snapshot snapshot = computeSnapshot(list);
+    private void send(final String scopeKey, final CopyOnWriteArrayList<WebSocketSession> list, final Object body) {
         final String payload;
         try {
-            payload = objectMapper.writeValueAsString(snapshot);
+            payload = objectMapper.writeValueAsString(body);
         } catch (RuntimeException e) {
-            log.warn("Failed to serialize presence snapshot for scope {}", scopeKey, e);
+            log.warn("Failed to serialize presence message for scope {}", scopeKey, e);
             return;
         }
 
@@ -217,7 +234,11 @@ public class RoundPresenceService {
                 continue;
             }
             try {
-                session.sendMessage(message);
+                // Snapshots and leaderboard updates are sent from different threads; a session
+                // rejects a send while another is still being written.
+                synchronized (session) {
+                    session.sendMessage(message);
+                }
             } catch (IOException | IllegalStateException e) {
                 presenceMetrics.getObject().recordBroadcastFailure();
                 log.debug("Pruning failed presence session {} for scope {}: {}",
@@ -8,11 +8,11 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.steam5.config.SeasonProperties;
+import org.steam5.domain.ParticipationBitmap;
 import org.steam5.domain.Season;
 import org.steam5.domain.SeasonAwardCategory;
 import org.steam5.domain.SeasonAwardResult;
 import org.steam5.domain.SeasonStatus;
-import org.steam5.domain.StreakCalculator;
 import org.steam5.repository.GuessRepository;
 import org.steam5.repository.SeasonAwardResultRepository;
 import org.steam5.repository.SeasonRepository;
@@ -38,6 +38,8 @@ public class SeasonService {
     private final GuessRepository guessRepository;
     private final SeasonProperties seasonProperties;
     private final SeasonCreatorService seasonCreator;
+    private final ParticipationService participationService;
+    private final DomainCacheEvictor cacheEvictor;
 
     private static final int TIE_ROLL_MAX = 1_000_000;
 
@@ -152,7 +154,9 @@ public class SeasonService {
         return seasonRepository.findByStartDateLessThanEqualAndEndDateGreaterThanEqual(date, date)
                 .orElseGet(() -> {
                     try {
-                        return seasonCreator.createSeasonsUntil(date);
+                        final Season created = seasonCreator.createSeasonsUntil(date);
+                        cacheEvictor.evictSeasonCurrent();
+                        return created;
                     } catch (DataIntegrityViolationException e) {
                         return seasonRepository
                                 .findByStartDateLessThanEqualAndEndDateGreaterThanEqual(date, date)
@@ -224,6 +228,9 @@ public class SeasonService {
             created.add(last);
             nextStart = last.getEndDate().plusDays(1);
         }
+        if (!created.isEmpty()) {
+            cacheEvictor.evictSeasonCurrent();
+        }
         return created;
     }
 
@@ -261,9 +268,10 @@ public class SeasonService {
         log.info("Finalizing season #{} ({} - {})", managed.getSeasonNumber(), managed.getStartDate(), managed.getEndDate());
 
         List<GuessRepository.SeasonStatRow> rows = guessRepository.findSeasonStats(managed.getStartDate(), managed.getEndDate());
-        Map<String, List<LocalDate>> participationDates = buildSeasonParticipationDates(managed.getStartDate(), managed.getEndDate());
+        Map<String, ParticipationBitmap> participation = findParticipation(rows);
         Map<String, SeasonStats> statsByPlayer = rows.stream()
-                .map(row -> buildSeasonStats(row, participationDates.getOrDefault(row.getSteamId(), List.of())))
+                .map(row -> buildSeasonStats(row, participation.getOrDefault(row.getSteamId(), ParticipationBitmap.empty()),
+                        managed.getStartDate(), managed.getEndDate()))
                 .collect(Collectors.toMap(SeasonStats::steamId, Function.identity()));
         final int minRoundsRequired = Math.max(1, seasonProperties.getAwards().getMinRounds());
         statsByPlayer.entrySet().removeIf(entry -> entry.getValue().rounds() < minRoundsRequired);
@@ -279,6 +287,7 @@ public class SeasonService {
         managed.setStatus(SeasonStatus.FINALIZED);
         managed.setAwardsFinalizedAt(OffsetDateTime.now());
         managed.setUpdatedAt(OffsetDateTime.now());
+        cacheEvictor.evictSeasonCurrent();
         return seasonRepository.save(managed);
     }
 
@@ -295,29 +304,20 @@ public class SeasonService {
         return season;
     }
 
-    private SeasonStats buildSeasonStats(GuessRepository.SeasonStatRow row, List<LocalDate> participationDates) {
+    private SeasonStats buildSeasonStats(GuessRepository.SeasonStatRow row, ParticipationBitmap participation,
+                                         LocalDate startDate, LocalDate endDate) {
         long totalPoints = coerce(row.getTotalPoints());
         long hits = coerce(row.getHits());
         long flops = coerce(row.getFlops());
         long rounds = coerce(row.getRounds());
-        long activeDays = row.getActiveDays() != null ? row.getActiveDays() : participationDates.size();
+        long activeDays = row.getActiveDays() != null ? row.getActiveDays() : participation.countBetween(startDate, endDate);
         double avgPointsPerDay = activeDays > 0 ? (double) totalPoints / activeDays : 0d;
-        long longestStreak = StreakCalculator.longestStreak(participationDates);
+        long longestStreak = participation.longestStreakBetween(startDate, endDate);
         return new SeasonStats(row.getSteamId(), totalPoints, hits, flops, rounds, activeDays, avgPointsPerDay, longestStreak);
     }
 
-    private Map<String, List<LocalDate>> buildSeasonParticipationDates(LocalDate startDate, LocalDate endDate) {
-        List<GuessRepository.SeasonDateRow> rows = guessRepository.findSeasonDates(startDate, endDate);
-        Map<String, List<LocalDate>> map = new HashMap<>();
-        for (GuessRepository.SeasonDateRow row : rows) {
-            map.computeIfAbsent(row.getSteamId(), key -> new ArrayList<>());
-            List<LocalDate> dates = map.get(row.getSteamId());
-            LocalDate date = row.getGameDate();
-            if (dates.isEmpty() || !dates.get(dates.size() - 1).equals(date)) {
-                dates.add(date);
-            }
-        }
-        return map;
+    private Map<String, ParticipationBitmap> findParticipation(List<GuessRepository.SeasonStatRow> rows) {
+        return participationService.findAll(rows.stream().map(GuessRepository.SeasonStatRow::getSteamId).toList());
     }
 
     private List<SeasonAwardResult> generateAwardsForCategory(Season season,
@@ -378,9 +378,10 @@ public class SeasonService {
 
     private List<PlayerSeasonStat> buildPlayerSeasonStats(Season season, LocalDate statsEnd) {
         List<GuessRepository.SeasonStatRow> rows = guessRepository.findSeasonStats(season.getStartDate(), statsEnd);
-        Map<String, List<LocalDate>> participationDates = buildSeasonParticipationDates(season.getStartDate(), statsEnd);
+        Map<String, ParticipationBitmap> participation = findParticipation(rows);
         return rows.stream()
-                .map(row -> buildSeasonStats(row, participationDates.getOrDefault(row.getSteamId(), List.of())))
+                .map(row -> buildSeasonStats(row, participation.getOrDefault(row.getSteamId(), ParticipationBitmap.empty()),
+                        season.getStartDate(), statsEnd))
                 .map(this::mapPlayerSeasonStat)
                 .sorted(Comparator.comparingLong(PlayerSeasonStat::totalPoints)
                         .reversed()
@@ -9,6 +9,7 @@ import org.steam5.domain.GameDate;
 import org.steam5.domain.ReviewGamePick;
 import org.steam5.domain.Season;
 import org.steam5.repository.GuessRepository;
+import org.steam5.repository.LeaderboardAggregateRepository;
 import org.steam5.repository.LeaderboardMvRepository;
 import org.steam5.repository.ReviewGamePickRepository;
 import org.steam5.repository.ReviewsBucketRepository;
@@ -33,6 +34,7 @@ public class StatisticsService {
     private final SeasonService seasonService;
     private final CacheManager cacheManager;
     private final LeaderboardMvRepository leaderboardMvRepository;
+    private final LeaderboardAggregateRepository leaderboardAggregateRepository;
 
     /**
      * Returns the all-time query result when {@code startDate} is null, the ranged result otherwise.
@@ -59,21 +61,21 @@ public class StatisticsService {
         }
     }
 
-    @Cacheable(value = "stats-long", key = "'stats-genres-'+#limit", unless = "#result == null")
+    @Cacheable(value = "stats-long", key = "'stats-genres-'+#limit", sync = true)
     public List<LabelCount> topGenres(int limit) {
         return detailRepository.topGenres(limit).stream()
                 .map(p -> new LabelCount(p.getLabel(), p.getCount()))
                 .toList();
     }
 
-    @Cacheable(value = "stats-long", key = "'stats-categories-'+#limit", unless = "#result == null")
+    @Cacheable(value = "stats-long", key = "'stats-categories-'+#limit", sync = true)
     public List<LabelCount> topCategories(int limit) {
         return detailRepository.topCategories(limit).stream()
                 .map(p -> new LabelCount(p.getLabel(), p.getCount()))
                 .toList();
     }
 
-    @Cacheable(value = "stats-long", key = "'stats-review-buckets-'+#mode", unless = "#result == null")
+    @Cacheable(value = "stats-long", key = "'stats-review-buckets-'+#mode", sync = true)
     public List<Bucket> reviewBuckets(BucketMode mode) {
         return switch (mode) {
             case EQUAL_WIDTH -> reviewsBucketRepository.equalWidth().stream()
@@ -96,17 +98,17 @@ public class StatisticsService {
         return getUserAchievementsForTimeframe(Timeframe.ALL_TIME);
     }
 
-    @Cacheable(value = "stats-hourly", key = "'stats-user-labels-weekly'", unless = "#result == null")
+    @Cacheable(value = "stats-hourly", key = "'stats-user-labels-weekly'", sync = true)
     public List<UserLabel> getUserAchievementsWeekly() {
         return getUserAchievementsForTimeframe(Timeframe.WEEKLY);
     }
 
-    @Cacheable(value = "stats-short", key = "'stats-user-labels-daily'", unless = "#result == null")
+    @Cacheable(value = "stats-short", key = "'stats-user-labels-daily'", sync = true)
     public List<UserLabel> getUserAchievementsDaily() {
         return getUserAchievementsForTimeframe(Timeframe.DAILY);
     }
 
-    @Cacheable(value = "stats-hourly", key = "'stats-user-labels-monthly'", unless = "#result == null")
+    @Cacheable(value = "stats-hourly", key = "'stats-user-labels-monthly'", sync = true)
     public List<UserLabel> getUserAchievementsMonthly() {
         return getUserAchievementsForTimeframe(Timeframe.MONTHLY);
     }
@@ -118,19 +120,12 @@ public class StatisticsService {
         final LocalDate asOfDate = season.getEndDate().isBefore(today) ? season.getEndDate() : today;
         final String cacheKey = "stats-user-labels-season:" + season.getSeasonNumber() + ":" + asOfDate;
         final Cache cache = cacheManager.getCache("stats-hourly");
-        if (cache != null) {
-            final Cache.ValueWrapper wrapper = cache.get(cacheKey);
-            if (wrapper != null && wrapper.get() instanceof List<?> cached) {
-                @SuppressWarnings("unchecked") final List<UserLabel> cachedEntries = (List<UserLabel>) cached;
-                return cachedEntries;
-            }
-        }
-
-        final List<UserLabel> result = getUserAchievementsForTimeframe(Timeframe.SEASON, season.getStartDate(), asOfDate);
-        if (cache != null) {
-            cache.put(cacheKey, result);
+        if (cache == null) {
+            return getUserAchievementsForTimeframe(Timeframe.SEASON, season.getStartDate(), asOfDate);
         }
-        return result;
+        // Single-flight and refreshed ahead, like the @Cacheable(sync = true) siblings
+        return cache.get(cacheKey,
+                () -> getUserAchievementsForTimeframe(Timeframe.SEASON, season.getStartDate(), asOfDate));
     }
 
     private List<UserLabel> getUserAchievementsForTimeframe(Timeframe timeframe) {
@@ -256,9 +251,9 @@ public class StatisticsService {
                 row -> new UserLabel(row.getSteamId(), UserAchievement.SLOTH, null, null, null, null, row.getTotalSeconds()));
     }
 
-    @Cacheable(value = "stats-hourly", key = "'top-games-by-reviews-' + #limit", unless = "#result == null")
+    @Cacheable(value = "stats-hourly", key = "'top-games-by-reviews-' + #limit", sync = true)
     public List<TopGameByReviews> getTopGamesByReviewCount(int limit) {
-        final List<ReviewGamePickRepository.TopGameByReviewsRow> rows = reviewGamePickRepository.findTopGamesByReviewCount(limit);
+        final List<ReviewGamePickRepository.TopGameByReviewsRow> rows = reviewGamePickRepository.findTopGamesByReviewCount(GameDate.todayUtc(), limit);
         final Set<LocalDate> pickDates = rows.stream()
                 .map(ReviewGamePickRepository.TopGameByReviewsRow::getPickDate)
                 .filter(java.util.Objects::nonNull)
@@ -301,9 +296,9 @@ public class StatisticsService {
                 .toList();
     }
 
-    @Cacheable(value = "stats-hourly", key = "'perfect-days'", unless = "#result == null")
+    @Cacheable(value = "stats-hourly", key = "'perfect-days'", sync = true)
     public List<PerfectDayEntry> getPerfectDays() {
-        return leaderboardMvRepository.findPerfectDays().stream()
+        return leaderboardAggregateRepository.findPerfectDays().stream()
                 .map(row -> new PerfectDayEntry(
                         row.getSteamId(),
                         row.getPersonaName(),
@@ -315,7 +310,7 @@ public class StatisticsService {
                 .toList();
     }
 
-    @Cacheable(value = "stats-hourly", key = "'hardest-games-' + #limit", unless = "#result == null")
+    @Cacheable(value = "stats-hourly", key = "'hardest-games-' + #limit", sync = true)
     public List<HardestGame> getHardestGames(int limit) {
         final List<LeaderboardMvRepository.HardestGameMvRow> rows = leaderboardMvRepository.findHardestGames();
         return rows.stream()
@@ -350,7 +345,7 @@ public class StatisticsService {
                 .toList();
     }
 
-    @Cacheable(value = "stats-hourly", key = "'daily-avg-scores'", unless = "#result == null")
+    @Cacheable(value = "stats-hourly", key = "'daily-avg-scores'", sync = true)
     public DailyAvgScoreStats getDailyAvgScoreStats() {
         final List<GuessRepository.DailyAvgScoreRow> allScores = guessRepository.findDailyAvgScoresDesc();
         if (allScores.isEmpty()) {
@@ -6,32 +6,43 @@ import org.springframework.web.util.UriComponentsBuilder;
 import org.steam5.config.JobsConfig;
 import org.steam5.config.SteamAppsConfig;
 import org.steam5.domain.IngestState;
-import org.steam5.domain.SteamAppIndex;
 import org.steam5.http.JsonHttpClient;
 import org.steam5.repository.IngestStateRepository;
-import org.steam5.repository.SteamAppIndexRepository;
-import tools.jackson.databind.JsonNode;
+import org.steam5.repository.SteamAppIndexBulkRepository;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
 
 import java.io.IOException;
 import java.time.OffsetDateTime;
-
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingests the Steam app list into {@code steam_app_index}. Each GetAppList page (up to 50k apps)
+ * is read token by token straight off the response stream and written in chunks of
+ * {@link #CHUNK_SIZE} with one set-based upsert each, so neither the JSON tree nor the entities
+ * are ever materialized. Apps whose name hash matches the stored name are skipped before
+ * reaching the database.
+ */
 @Slf4j
 @Service
 public class SteamAppListFetcher implements Fetcher {
 
+    static final int CHUNK_SIZE = 5_000;
+
     private final SteamAppsConfig properties;
     private final JsonHttpClient jsonHttpClient;
-    private final SteamAppIndexRepository appIndexRepository;
+    private final SteamAppIndexBulkRepository appIndexBulkRepository;
     private final IngestStateRepository ingestStateRepository;
     private final JobsConfig jobsConfig;
 
     public SteamAppListFetcher(SteamAppsConfig properties,
-                               SteamAppIndexRepository appIndexRepository,
+                               SteamAppIndexBulkRepository appIndexBulkRepository,
                                IngestStateRepository ingestStateRepository,
                                JsonHttpClient jsonHttpClient,
                                JobsConfig jobsConfig) {
         this.properties = properties;
-        this.appIndexRepository = appIndexRepository;
+        this.appIndexBulkRepository = appIndexBulkRepository;
         this.ingestStateRepository = ingestStateRepository;
         this.jsonHttpClient = jsonHttpClient;
         this.jobsConfig = jobsConfig;
@@ -49,37 +60,28 @@ public class SteamAppListFetcher implements Fetcher {
         int page = 0;
         long totalApps = 0;
 
+        final long start = System.nanoTime();
+        final NameHashes known = new NameHashes();
+        appIndexBulkRepository.forEachName(lastAppId, known::add);
+        log.info("Loaded {} known app name hashes after last_appid={} in {}ms",
+                known.size, lastAppId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
         while (haveMore && page < pageLimit) {
             page++;
             final String url = buildUrl(lastAppId);
             log.info("Fetching Steam app list page {} of {} with last_appid={} ...", page, pageLimit, lastAppId);
 
-            final JsonNode root = jsonHttpClient.getJson(url);
-            final JsonNode response = root.path("response");
-            final JsonNode apps = response.path("apps");
-
-            int batchCount = 0;
-            if (apps.isArray()) {
-                for (JsonNode app : apps) {
-                    final long appId = app.path("appid").asLong();
-                    final String name = app.path("name").asText("");
-                    if (appId <= 0 || name.isEmpty()) {
-                        continue;
-                    }
-                    appIndexRepository.save(new SteamAppIndex(appId, name));
-                    batchCount++;
-                }
-                totalApps += apps.size();
-            }
-
-            haveMore = response.path("have_more_results").asBoolean(false);
-            lastAppId = response.path("last_appid").asLong(lastAppId);
+            final long cursor = lastAppId;
+            final PageResult result = jsonHttpClient.streamJson(url, parser -> readPage(parser, known, cursor));
+            totalApps += result.seen();
+            haveMore = result.haveMore();
+            lastAppId = result.lastAppId();
 
             // Persist cursor after each page
             ingestStateRepository.upsert("steam_app_list", lastAppId, OffsetDateTime.now());
 
-            log.info("Persisted page {} (apps processed: {} of {}), have_more_results={}, next last_appid={}",
-                    page, batchCount, apps.isArray() ? apps.size() : -1, haveMore, lastAppId);
+            log.info("Persisted page {} (apps seen: {}, written: {}, unchanged: {}), have_more_results={}, next last_appid={}",
+                    page, result.seen(), result.written(), result.unchanged(), haveMore, lastAppId);
 
             if (page >= pageLimit && haveMore) {
                 log.info("Steam app list page limit reached ({}); cursor saved for next run", pageLimit);
@@ -87,7 +89,59 @@ public class SteamAppListFetcher implements Fetcher {
             }
         }
 
-        log.info("Steam app list ingestion finished. pages={} pageLimit={} total_apps_seen={}", page, pageLimit, totalApps);
+        log.info("Steam app list ingestion finished. pages={} pageLimit={} total_apps_seen={} durationMs={}",
+                page, pageLimit, totalApps, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private PageResult readPage(final JsonParser p, final NameHashes known, final long cursor) throws IOException {
+        final ChunkWriter writer = new ChunkWriter(known);
+        boolean haveMore = false;
+        long lastAppId = cursor;
+        if (p.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Unexpected GetAppList payload: expected a JSON object");
+        }
+        while (p.nextToken() == JsonToken.PROPERTY_NAME) {
+            final String field = p.currentName();
+            if (p.nextToken() != JsonToken.START_OBJECT || !"response".equals(field)) {
+                p.skipChildren();
+                continue;
+            }
+            while (p.nextToken() == JsonToken.PROPERTY_NAME) {
+                final String name = p.currentName();
+                final JsonToken value = p.nextToken();
+                switch (name) {
+                    case "apps" -> {
+                        if (value == JsonToken.START_ARRAY) {
+                            readApps(p, writer);
+                        } else {
+                            p.skipChildren();
+                        }
+                    }
+                    case "have_more_results" -> haveMore = p.getValueAsBoolean(false);
+                    case "last_appid" -> lastAppId = p.getValueAsLong(lastAppId);
+                    default -> p.skipChildren();
+                }
+            }
+        }
+        writer.flush();
+        return new PageResult(writer.seen, writer.written, writer.unchanged, haveMore, lastAppId);
+    }
+
+    private static void readApps(final JsonParser p, final ChunkWriter writer) {
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            long appId = 0;
+            String name = "";
+            while (p.nextToken() == JsonToken.PROPERTY_NAME) {
+                final String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "appid" -> appId = p.getValueAsLong(0L);
+                    case "name" -> name = p.getValueAsString("");
+                    default -> p.skipChildren();
+                }
+            }
+            writer.offer(appId, name);
+        }
     }
 
     private String buildUrl(long lastAppId) {
@@ -102,6 +156,77 @@ public class SteamAppListFetcher implements Fetcher {
 
         return b.build(true).toUriString();
     }
-}
 
+    private record PageResult(int seen, int written, int unchanged, boolean haveMore, long lastAppId) {
+    }
+
+    /** Buffers parsed apps and flushes them to the database in fixed-size chunks. */
+    private final class ChunkWriter {
+        private final NameHashes known;
+        private final long[] appIds = new long[CHUNK_SIZE];
+        private final String[] names = new String[CHUNK_SIZE];
+        private int size;
+        private long lastOffered = Long.MIN_VALUE;
+        private int seen;
+        private int written;
+        private int unchanged;
+
+        ChunkWriter(final NameHashes known) {
+            this.known = known;
+        }
+
+        void offer(final long appId, final String name) {
+            seen++;
+            // A repeated ID in one statement would make ON CONFLICT fail ("cannot affect row a second time").
+            if (appId <= 0 || name == null || name.isEmpty() || appId == lastOffered) {
+                return;
+            }
+            lastOffered = appId;
+            if (known.unchanged(appId, name)) {
+                unchanged++;
+                return;
+            }
+            appIds[size] = appId;
+            names[size] = name;
+            if (++size == CHUNK_SIZE) {
+                flush();
+            }
+        }
 
+        void flush() {
+            if (size == 0) {
+                return;
+            }
+            written += appIndexBulkRepository.upsertNames(appIds, names, size);
+            Arrays.fill(names, 0, size, null);
+            size = 0;
+        }
+    }
+
+    /**
+     * {@code String.hashCode()} of every stored name, keyed by app ID: 12 bytes per app instead
+     * of the names themselves. A hash collision on a rename would skip that one update until
+     * the name changes again; the upsert's own {@code IS DISTINCT FROM} guard covers the reverse.
+     */
+    static final class NameHashes {
+        private long[] appIds = new long[4096];
+        private int[] hashes = new int[4096];
+        private int size;
+
+        /** Rows must arrive in ascending app ID order. */
+        void add(final long appId, final String name) {
+            if (size == appIds.length) {
+                appIds = Arrays.copyOf(appIds, size * 2);
+                hashes = Arrays.copyOf(hashes, size * 2);
+            }
+            appIds[size] = appId;
+            hashes[size] = name == null ? 0 : name.hashCode();
+            size++;
+        }
+
+        boolean unchanged(final long appId, final String name) {
+            final int pos = Arrays.binarySearch(appIds, 0, size, appId);
+            return pos >= 0 && hashes[pos] == name.hashCode();
+        }
+    }
+}
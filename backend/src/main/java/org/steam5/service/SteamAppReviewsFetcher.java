@@ -1,25 +1,26 @@
 package org.steam5.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.CacheManager;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.UriComponentsBuilder;
 import org.steam5.config.JobsConfig;
 import org.steam5.config.SteamAppsConfig;
-import org.steam5.domain.IngestState;
-import org.steam5.domain.SteamAppIndex;
 import org.steam5.domain.SteamAppReviews;
 import org.steam5.http.JsonHttpClient;
 import org.steam5.repository.IngestStateRepository;
-import org.steam5.repository.SteamAppIndexRepository;
+import org.steam5.repository.SteamAppReviewsBulkRepository;
 import org.steam5.repository.SteamAppReviewsRepository;
 import tools.jackson.databind.JsonNode;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
@@ -27,26 +28,50 @@ public class SteamAppReviewsFetcher implements Fetcher {
 
     private final SteamAppsConfig properties;
     private final JsonHttpClient jsonHttpClient;
-    private final SteamAppIndexRepository appIndexRepository;
+    private final PartitionedIngestEngine ingestEngine;
     private final SteamAppReviewsRepository reviewsRepository;
+    private final SteamAppReviewsBulkRepository reviewsBulkRepository;
     private final IngestStateRepository ingestStateRepository;
-    private final CacheManager cacheManager;
+    private final DomainCacheEvictor cacheEvictor;
     private final JobsConfig jobsConfig;
+    private final PickCandidateIndex candidateIndex;
+    private final ReviewCountSnapshot countSnapshot;
+    private final ReviewRefreshScheduler refreshScheduler;
+    private final Counter changedCounter;
+    private final Counter unchangedCounter;
 
     public SteamAppReviewsFetcher(SteamAppsConfig properties,
                                   JsonHttpClient jsonHttpClient,
-                                  SteamAppIndexRepository appIndexRepository,
+                                  PartitionedIngestEngine ingestEngine,
                                   SteamAppReviewsRepository reviewsRepository,
+                                  SteamAppReviewsBulkRepository reviewsBulkRepository,
                                   IngestStateRepository ingestStateRepository,
-                                  CacheManager cacheManager,
-                                  JobsConfig jobsConfig) {
+                                  DomainCacheEvictor cacheEvictor,
+                                  JobsConfig jobsConfig,
+                                  PickCandidateIndex candidateIndex,
+                                  ReviewCountSnapshot countSnapshot,
+                                  ReviewRefreshScheduler refreshScheduler,
+                                  MeterRegistry meterRegistry) {
         this.properties = properties;
         this.jsonHttpClient = jsonHttpClient;
-        this.appIndexRepository = appIndexRepository;
+        this.ingestEngine = ingestEngine;
         this.reviewsRepository = reviewsRepository;
+        this.reviewsBulkRepository = reviewsBulkRepository;
         this.ingestStateRepository = ingestStateRepository;
-        this.cacheManager = cacheManager;
+        this.cacheEvictor = cacheEvictor;
         this.jobsConfig = jobsConfig;
+        this.candidateIndex = candidateIndex;
+        this.countSnapshot = countSnapshot;
+        this.refreshScheduler = refreshScheduler;
+        this.changedCounter = resultCounter(meterRegistry, "changed");
+        this.unchangedCounter = resultCounter(meterRegistry, "unchanged");
+    }
+
+    private static Counter resultCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("steam5.reviews.refresh.results")
+                .description("Review summary fetches by whether the stored counts changed")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
     @Override
@@ -55,73 +80,73 @@ public class SteamAppReviewsFetcher implements Fetcher {
             throw new IllegalStateException("STEAM_API_KEY must be configured");
         }
 
-        final long lastAppId = ingestStateRepository.findById("steam_app_reviews").map(IngestState::getLastAppId).orElse(0L);
         final int batchLimit = Math.max(1, jobsConfig.getSteamAppReviews().getBatchLimit());
+        final int workers = Math.max(1, jobsConfig.getSteamAppReviews().getWorkers());
 
-        // Same cursor reset as details ingest: once the pointer is past the last
-        // indexed app every run would be a permanent no-op, leaving review counts
-        // stale forever. Reset to 0 so the next run re-walks as a refresh pass.
-        long effectiveLastAppId = lastAppId;
-        if (effectiveLastAppId > 0) {
-            final Page<SteamAppIndex> ahead = appIndexRepository.findByAppIdGreaterThan(effectiveLastAppId, PageRequest.of(0, 1, Sort.by("appId").ascending()));
-            if (ahead.isEmpty()) {
-                log.info("Reviews ingest cursor {} is at/after the last indexed appId; resetting to 0 for the next refresh pass", effectiveLastAppId);
-                ingestStateRepository.upsert("steam_app_reviews", 0L, OffsetDateTime.now());
-                effectiveLastAppId = 0L;
-            }
-        }
-
-        log.info("Starting reviews ingestion from appId > {} (batchLimit={})", effectiveLastAppId, batchLimit);
-
-        long processed = 0L;
-        Long cursor = effectiveLastAppId;
-        final int pageSize = 1000; // large batches; single HTTP call per app
-        boolean more = true;
-        while (more && processed < batchLimit) {
-            final Page<SteamAppIndex> page = appIndexRepository.findByAppIdGreaterThan(cursor, PageRequest.of(0, pageSize, Sort.by("appId").ascending()));
-            if (page.isEmpty()) {
-                break;
-            }
-            for (SteamAppIndex idx : page) {
-                if (processed >= batchLimit) {
-                    break;
-                }
-                final Long appId = idx.getAppId();
-                if (appId == null) continue;
-                // Bulk path: skip the aggregate cache clear per app (it would
-                // thrash the whole review-game cache up to batchLimit times per
-                // run); the cache is cleared once at the end of the job below.
-                fetchForAppId(appId, false);
-                ingestStateRepository.upsert("steam_app_reviews", appId, OffsetDateTime.now());
-                processed++;
-                cursor = appId;
-            }
-            more = page.hasNext() && processed < batchLimit;
-        }
+        // Rows and range cursors are written together once per buffer flush; each flush
+        // invalidates only the changed apps' review-game entries.
+        final ReviewsWriteBuffer buffer = newWriteBuffer();
+        final long processed = ingestEngine.run("steam_app_reviews", workers, batchLimit,
+                appId -> fetchIntoBuffer(appId, buffer), buffer);
 
-        if (processed > 0) {
-            final var reviewGame = cacheManager.getCache("review-game");
-            if (reviewGame != null) {
-                reviewGame.clear();
-                log.info("Cleared review-game cache after bulk reviews ingestion of {} apps", processed);
-            }
-        }
+        log.info("Reviews ingestion finished. processed={} batchLimit={} workers={} flushes={} written={} unchanged={}",
+                processed, batchLimit, workers, buffer.flushes(), buffer.written(), buffer.touched());
+    }
 
-        log.info("Reviews ingestion finished. processed={} batchLimit={} starting_after={}", processed, batchLimit, effectiveLastAppId);
+    /**
+     * A write-behind buffer for bulk callers; see {@link #fetchIntoBuffer}. The caller must
+     * {@link ReviewsWriteBuffer#flush() flush} it when done, including on failure.
+     */
+    public ReviewsWriteBuffer newWriteBuffer() {
+        final JobsConfig.SteamAppReviews cfg = jobsConfig.getSteamAppReviews();
+        return new ReviewsWriteBuffer(reviewsBulkRepository, ingestStateRepository, this::afterSaved,
+                ids -> refreshScheduler.recordRefreshed(ids, OffsetDateTime.now()),
+                cfg.getFlushRows(), Duration.ofSeconds(cfg.getFlushIntervalSeconds()), System::nanoTime);
     }
 
-    public boolean fetchForAppId(Long appId) throws IOException {
-        return fetchForAppId(appId, true);
+    /**
+     * Bulk variant of {@link #fetchForAppId(Long)}: fetches the review summary and hands it to
+     * {@code buffer} instead of saving it. Cache invalidation and candidate-index updates happen
+     * when the buffer flushes. Unchanged counts are only touched, so they cause no eviction at all.
+     *
+     * @return true if the API response was successful and the row was buffered
+     */
+    public boolean fetchIntoBuffer(Long appId, ReviewsWriteBuffer buffer) throws IOException {
+        final SteamAppReviews row = fetchSummary(appId);
+        if (row == null) {
+            return false;
+        }
+        if (isUnchanged(row)) {
+            buffer.touch(appId);
+        } else {
+            buffer.add(row);
+        }
+        return true;
     }
 
     /**
-     * @param clearReviewGameAggregates when true, clears the whole {@code review-game} cache after
-     *                                  saving (safe for single-app updates). Nightly bulk refresh
-     *                                  should pass false and clear once at the end of the job to
-     *                                  avoid thrashing caches under memory pressure.
+     * Fetches and saves one app's review counts, invalidating the review-game entries derived
+     * from them. When the counts are unchanged only {@code updated_at} is written.
+     *
      * @return true if the API response was successful and data was persisted, false otherwise
      */
-    public boolean fetchForAppId(Long appId, boolean clearReviewGameAggregates) throws IOException {
+    public boolean fetchForAppId(Long appId) throws IOException {
+        final SteamAppReviews entity = fetchSummary(appId);
+        if (entity == null) {
+            return false;
+        }
+        if (isUnchanged(entity)) {
+            reviewsBulkRepository.touchUpdatedAt(List.of(appId), entity.getUpdatedAt());
+            refreshScheduler.recordRefreshed(List.of(appId), entity.getUpdatedAt());
+            return true;
+        }
+        reviewsRepository.save(entity);
+        afterSaved(List.of(entity));
+        refreshScheduler.recordRefreshed(List.of(appId), entity.getUpdatedAt());
+        return true;
+    }
+
+    private SteamAppReviews fetchSummary(Long appId) throws IOException {
         final String url = UriComponentsBuilder.fromUriString("https://store.steampowered.com/appreviews/" + appId)
                 .queryParam("json", 1)
                 .queryParam("num_per_page", 0) //  don't fetch actual review details
@@ -134,25 +159,33 @@ public class SteamAppReviewsFetcher implements Fetcher {
         final JsonNode root = jsonHttpClient.getJson(url);
         if (root.path("success").asInt(0) != 1) {
             log.error("Reviews API returned non-success for appId {}", appId);
-            return false;
+            return null;
         }
 
         final JsonNode summary = root.path("query_summary");
         int totalPositive = summary.path("total_positive").asInt(0);
         int totalNegative = summary.path("total_negative").asInt(0);
 
-        SteamAppReviews entity = new SteamAppReviews(appId, totalPositive, totalNegative, OffsetDateTime.now());
-        reviewsRepository.save(entity);
+        return new SteamAppReviews(appId, totalPositive, totalNegative, OffsetDateTime.now());
+    }
 
-        final var reviewGame = cacheManager.getCache("review-game");
-        if (reviewGame != null) {
-            reviewGame.evict(appId + "review-count");
-            if (clearReviewGameAggregates) {
-                // today/picks can change derived buckets if numbers shift
-                reviewGame.clear();
-            }
+    private boolean isUnchanged(SteamAppReviews row) {
+        final boolean unchanged = countSnapshot.isUnchanged(row.getAppId(), row.getTotalPositive(), row.getTotalNegative());
+        (unchanged ? unchangedCounter : changedCounter).increment();
+        return unchanged;
+    }
+
+    private void afterSaved(List<SteamAppReviews> saved) {
+        final List<Long> appIds = new ArrayList<>(saved.size());
+        final Map<Long, Integer> totals = new HashMap<>(saved.size() * 2);
+        for (SteamAppReviews r : saved) {
+            countSnapshot.put(r.getAppId(), r.getTotalPositive(), r.getTotalNegative());
+            totals.put(r.getAppId(), r.getTotalPositive() + r.getTotalNegative());
+            appIds.add(r.getAppId());
         }
-        return true;
+        candidateIndex.onReviewsSaved(totals);
+        // Review-count lookups and cached guess results for these apps
+        cacheEvictor.evictReviewCounts(appIds);
     }
 }
 
@@ -0,0 +1,282 @@
+package org.steam5.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.steam5.domain.Guess;
+import org.steam5.domain.GuessStats;
+import org.steam5.repository.GuessRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Today's leaderboard, held in memory so {@code /api/leaderboard/today} no longer loads and
+ * re-aggregates every guess of the day. Rows are kept in a skip list ordered like
+ * {@link LeaderboardService#buildLeaderboard} (total points descending, then steam id), so the
+ * top {@code k} are read in O(k).
+ *
+ * <p>After a guess commits, {@link #playerGuessed} re-reads that player's guesses of the day and
+ * current streak and replaces their row, on this node and (through the cache bus, as a
+ * {@link CacheBusHandler}) on the others, then sends that row to the day's presence scope
+ * ({@code <date>}, which the today leaderboard page subscribes to) as a {@link RankDelta}. Ranks
+ * come from a count of players per point total, so they cost O(distinct totals) rather than
+ * O(rank), and are read after the write lock is released. The first access for a new game day
+ * rebuilds the board from {@code guesses}.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TodayLeaderboard implements CacheBusHandler {
+
+    /** {@code type} of the {@link RankDelta} messages on the presence socket. */
+    public static final String MESSAGE_TYPE = "leaderboard";
+
+    static final String OP_PLAYER_GUESSED = "today-leaderboard-player";
+
+    private static final Executor UPDATER = r -> Thread.ofVirtual().name("today-leaderboard").start(r);
+
+    private final GuessRepository guessRepository;
+    private final LeaderboardService leaderboardService;
+    private final RoundPresenceService presenceService;
+    private final CacheInvalidationPublisher publisher;
+
+    /** Serialises row replacements and day rollovers; reads never take it. */
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Board board = new Board(null);
+
+    /**
+     * @param limit maximum number of entries; all of them when {@code <= 0}
+     * @return the leaderboard of {@code date}, best first
+     */
+    public List<LeaderboardService.LeaderEntry> top(final LocalDate date, final int limit) {
+        final Board current = boardFor(date);
+        if (current == null) {
+            // A day before the board's: not held in memory.
+            final List<LeaderboardService.LeaderEntry> all =
+                    leaderboardService.buildLeaderboard(guessRepository.findAllByDate(date), date);
+            return limit > 0 && all.size() > limit ? all.subList(0, limit) : all;
+        }
+        return current.top(limit);
+    }
+
+    /**
+     * Re-reads one player's row of {@code date} in the background, here and on the other nodes.
+     * Call once their guess has committed.
+     */
+    public void playerGuessed(final LocalDate date, final String steamId) {
+        refreshPlayerAsync(date, steamId);
+        publisher.publish(OP_PLAYER_GUESSED + " " + date + " " + steamId);
+    }
+
+    @Override
+    public String operation() {
+        return OP_PLAYER_GUESSED;
+    }
+
+    @Override
+    public void apply(final String argument) {
+        final int space = argument.indexOf(' ');
+        refreshPlayerAsync(LocalDate.parse(argument.substring(0, space)), argument.substring(space + 1));
+    }
+
+    @Override
+    public void resync() {
+        invalidate();
+    }
+
+    private void refreshPlayerAsync(final LocalDate date, final String steamId) {
+        UPDATER.execute(() -> {
+            try {
+                refreshPlayer(date, steamId);
+            } catch (RuntimeException e) {
+                log.warn("Failed to update today's leaderboard for {} on {}", steamId, date, e);
+            }
+        });
+    }
+
+    /**
+     * Drops the board; the next access rebuilds it from {@code guesses}. For a node that may have
+     * missed other nodes' updates.
+     */
+    public void invalidate() {
+        lock.lock();
+        try {
+            board = new Board(null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void refreshPlayer(final LocalDate date, final String steamId) {
+        final Board current = boardFor(date);
+        if (current == null) {
+            return;
+        }
+        final List<Guess> guesses = guessRepository.findAllForDay(steamId, date);
+        if (guesses.isEmpty()) {
+            return;
+        }
+        final LeaderboardService.LeaderEntry known = current.bySteamId.get(steamId);
+        // The profile only needs loading the first time a player shows up on the day; the streak
+        // can change with any guess (e.g. the one that completes the day)
+        final LeaderboardService.LeaderEntry next = known != null
+                ? leaderboardService.withStreaks(List.of(withStats(known, GuessStats.from(guesses))), date).getFirst()
+                : leaderboardService.buildLeaderboard(guesses, date).getFirst();
+
+        final LeaderboardService.LeaderEntry replaced;
+        lock.lock();
+        try {
+            if (board != current) {
+                return;
+            }
+            replaced = current.bySteamId.get(steamId);
+            // Guesses are only ever added, so a row with as many rounds is at least as recent.
+            if (replaced != null && replaced.rounds() >= next.rounds()) {
+                return;
+            }
+            current.put(next, replaced);
+        } finally {
+            lock.unlock();
+        }
+        final int rank = current.rankOf(next.totalPoints());
+        final Integer previousRank = replaced != null ? current.previousRankOf(replaced, next) : null;
+        presenceService.broadcast(date.toString(), new RankDelta(MESSAGE_TYPE, date.toString(), rank, previousRank, next));
+    }
+
+    /**
+     * @return the board of {@code date}, rebuilding it from {@code guesses} when {@code date} is a
+     * later day than the current board's; {@code null} for an earlier day
+     */
+    private Board boardFor(final LocalDate date) {
+        final Board current = board;
+        if (date.equals(current.date)) {
+            return current;
+        }
+        if (current.date != null && date.isBefore(current.date)) {
+            return null;
+        }
+        lock.lock();
+        try {
+            if (board.date == null || date.isAfter(board.date)) {
+                board = load(date);
+            }
+            return date.equals(board.date) ? board : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Board load(final LocalDate date) {
+        final Board loaded = new Board(date);
+        leaderboardService.buildLeaderboard(guessRepository.findAllByDate(date), date)
+                .forEach(entry -> loaded.put(entry, null));
+        log.info("Loaded today's leaderboard for {}: {} players", date, loaded.bySteamId.size());
+        return loaded;
+    }
+
+    private static LeaderboardService.LeaderEntry withStats(final LeaderboardService.LeaderEntry entry,
+                                                            final GuessStats stats) {
+        return new LeaderboardService.LeaderEntry(entry.steamId(), entry.personaName(),
+                stats.totalPoints(), stats.rounds(), stats.hits(), stats.flops(), stats.tooHigh(), stats.tooLow(),
+                stats.avgPoints(), entry.streak(), entry.avatar(), entry.profileUrl());
+    }
+
+    /**
+     * One player's new standing, sent to the day's presence sockets after each of their guesses;
+     * the today leaderboard page replaces the player's row with {@code entry}. Ranks are 1 plus the
+     * number of players with more points, so tied players share one; {@code previousRank} is null
+     * when the player is new to the board.
+     */
+    public record RankDelta(String type, String date, int rank, Integer previousRank,
+                            LeaderboardService.LeaderEntry entry) {
+    }
+
+    private record RankKey(long totalPoints, String steamId) implements Comparable<RankKey> {
+
+        static RankKey of(final LeaderboardService.LeaderEntry entry) {
+            return new RankKey(entry.totalPoints(), entry.steamId());
+        }
+
+        @Override
+        public int compareTo(final RankKey other) {
+            final int byPoints = Long.compare(other.totalPoints, totalPoints);
+            return byPoints != 0 ? byPoints : steamId.compareTo(other.steamId);
+        }
+    }
+
+    private static final class Board {
+
+        private final LocalDate date;
+        private final ConcurrentHashMap<String, LeaderboardService.LeaderEntry> bySteamId = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<RankKey, LeaderboardService.LeaderEntry> ranked = new ConcurrentSkipListMap<>();
+        /** Players per total, highest total first. */
+        private final ConcurrentSkipListMap<Long, Integer> playersByPoints =
+                new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+
+        private Board(final LocalDate date) {
+            this.date = date;
+        }
+
+        /**
+         * Inserts the new row before removing the old one. Points never drop, so the new row sorts
+         * at or before the old one: a concurrent reader meets it first and skips the old row as a
+         * duplicate, rather than missing the player.
+         */
+        void put(final LeaderboardService.LeaderEntry next, final LeaderboardService.LeaderEntry replaced) {
+            final RankKey key = RankKey.of(next);
+            ranked.put(key, next);
+            bySteamId.put(next.steamId(), next);
+            playersByPoints.merge(next.totalPoints(), 1, Integer::sum);
+            if (replaced != null) {
+                playersByPoints.computeIfPresent(replaced.totalPoints(), (points, count) -> count > 1 ? count - 1 : null);
+                if (!RankKey.of(replaced).equals(key)) {
+                    ranked.remove(RankKey.of(replaced));
+                }
+            }
+        }
+
+        /**
+         * 1-based; O(distinct point totals), without the write lock. Only exact while no other
+         * write is in progress.
+         */
+        int rankOf(final long totalPoints) {
+            int ahead = 0;
+            for (final int count : playersByPoints.headMap(totalPoints).values()) {
+                ahead += count;
+            }
+            return ahead + 1;
+        }
+
+        /**
+         * @return the rank {@code replaced} had before {@code next} (the same player) took its
+         * place, not counting the player's own new row if it now sorts ahead of the old one
+         */
+        int previousRankOf(final LeaderboardService.LeaderEntry replaced, final LeaderboardService.LeaderEntry next) {
+            final int rank = rankOf(replaced.totalPoints());
+            return next.totalPoints() > replaced.totalPoints() ? rank - 1 : rank;
+        }
+
+        List<LeaderboardService.LeaderEntry> top(final int limit) {
+            final List<LeaderboardService.LeaderEntry> out = new ArrayList<>();
+            final Set<String> seen = new HashSet<>();
+            for (final LeaderboardService.LeaderEntry entry : ranked.values()) {
+                if (seen.add(entry.steamId())) {
+                    out.add(entry);
+                    if (limit > 0 && out.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return out;
+        }
+    }
+}
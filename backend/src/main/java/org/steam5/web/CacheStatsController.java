@@ -1,6 +1,8 @@
 package org.steam5.web;
 
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.CacheManager;
@@ -11,10 +13,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.steam5.config.CacheKeyFamilyMetrics;
+import org.steam5.config.InstrumentedCaffeineCache;
 
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 @RestController
 @RequiredArgsConstructor
@@ -37,9 +46,16 @@ public class CacheStatsController {
                 .mapToLong(Long::longValue)
                 .sum();
 
+        final long totalEstimatedBytes = caches.stream()
+                .map(CacheStatsResponse::estimatedBytes)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .sum();
+
         final CacheStatsPayload payload = new CacheStatsPayload(
                 caches.size(),
                 totalEstimatedSize,
+                totalEstimatedBytes,
                 caches
         );
 
@@ -62,40 +78,81 @@ public class CacheStatsController {
                     null,
                     null,
                     null,
+                    null,
+                    null,
+                    null,
                     null
             );
         }
 
         final Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
         final CacheStats stats = nativeCache.stats();
-        final Long maximumSize = nativeCache.policy().eviction()
-                .map(eviction -> {
+        final Optional<Policy.Eviction<Object, Object>> eviction = nativeCache.policy().eviction();
+        final boolean weighted = eviction.map(Policy.Eviction::isWeighted).orElse(false);
+        // Weight-bounded caches report their maximum in estimated bytes, not entries
+        final Long maximum = eviction
+                .map(e -> {
                     try {
-                        return eviction.getMaximum();
+                        return e.getMaximum();
                     } catch (UnsupportedOperationException ignored) {
                         return null;
                     }
                 })
                 .orElse(null);
+        final OptionalLong weightedSize = weighted ? eviction.get().weightedSize() : OptionalLong.empty();
+        final Long estimatedBytes = weightedSize.isPresent() ? weightedSize.getAsLong() : null;
 
         return new CacheStatsResponse(
                 cacheName,
                 true,
                 nativeCache.estimatedSize(),
-                maximumSize,
+                weighted ? null : maximum,
+                estimatedBytes,
+                weighted ? maximum : null,
                 stats.hitCount(),
                 stats.missCount(),
                 stats.requestCount(),
                 stats.hitRate(),
                 stats.evictionCount(),
                 stats.loadSuccessCount(),
-                stats.loadFailureCount()
+                stats.loadFailureCount(),
+                caffeineCache instanceof InstrumentedCaffeineCache instrumented
+                        ? describeKeyFamilies(instrumented.keyFamilies()) : null
         );
     }
 
+    private List<KeyFamilyStatsResponse> describeKeyFamilies(final CacheKeyFamilyMetrics.CacheFamilies families) {
+        return families.families().stream()
+                .map(family -> {
+                    final long hits = family.hitCount();
+                    final long misses = family.missCount();
+                    final long loads = family.loadCount();
+                    final Map<String, Long> removals = new LinkedHashMap<>();
+                    for (RemovalCause cause : RemovalCause.values()) {
+                        final long count = family.removalCount(cause);
+                        if (count > 0) {
+                            removals.put(cause.name().toLowerCase(Locale.ROOT), count);
+                        }
+                    }
+                    return new KeyFamilyStatsResponse(
+                            family.name(),
+                            hits,
+                            misses,
+                            hits + misses == 0 ? 1.0 : (double) hits / (hits + misses),
+                            loads,
+                            loads == 0 ? null : family.totalLoadNanos() / 1_000_000.0 / loads,
+                            removals
+                    );
+                })
+                .sorted(Comparator.comparingLong((KeyFamilyStatsResponse f) -> f.hitCount() + f.missCount()).reversed()
+                        .thenComparing(KeyFamilyStatsResponse::family))
+                .toList();
+    }
+
     public record CacheStatsPayload(
             int cacheCount,
             long totalEstimatedSize,
+            long totalEstimatedBytes,
             List<CacheStatsResponse> caches
     ) {
     }
@@ -105,13 +162,30 @@ public class CacheStatsController {
             boolean supportsStats,
             Long estimatedSize,
             Long maximumSize,
+            Long estimatedBytes,
+            Long maximumBytes,
             Long hitCount,
             Long missCount,
             Long requestCount,
             Double hitRate,
             Long evictionCount,
             Long loadSuccessCount,
-            Long loadFailureCount
+            Long loadFailureCount,
+            List<KeyFamilyStatsResponse> keyFamilies
+    ) {
+    }
+
+    /**
+     * Reads, loads and removals (by cause) of one key family within a cache, e.g. {@code picks}.
+     */
+    public record KeyFamilyStatsResponse(
+            String family,
+            long hitCount,
+            long missCount,
+            double hitRate,
+            long loadCount,
+            Double averageLoadMillis,
+            Map<String, Long> removals
     ) {
     }
 }
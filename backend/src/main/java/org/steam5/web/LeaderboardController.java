@@ -1,25 +1,35 @@
 package org.steam5.web;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import org.steam5.domain.GameDate;
-import org.steam5.domain.Guess;
+import org.steam5.domain.LeaderboardSnapshot;
 import org.steam5.domain.LeaderboardType;
 import org.steam5.domain.ReviewGamePick;
 import org.steam5.domain.Season;
-import org.steam5.repository.GuessRepository;
 import org.steam5.repository.LeaderboardRefreshStateRepository;
+import org.steam5.service.LeaderboardRankingService;
 import org.steam5.service.LeaderboardService;
+import org.steam5.service.LeaderboardSnapshotService;
 import org.steam5.service.ReviewGameStateService;
 import org.steam5.service.SeasonService;
+import org.steam5.service.TodayLeaderboard;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -30,38 +40,42 @@ import java.util.List;
 @Validated
 public class LeaderboardController {
 
-    private final GuessRepository guessRepository;
+    private static final String CACHE_HISTORICAL = "public, max-age=31536000, immutable";
+
     private final ReviewGameStateService reviewGameStateService;
     private final SeasonService seasonService;
     private final CacheManager cacheManager;
     private final LeaderboardService leaderboardService;
     private final LeaderboardRefreshStateRepository refreshStateRepository;
+    private final TodayLeaderboard todayLeaderboard;
+    private final LeaderboardRankingService rankingService;
+    private final LeaderboardSnapshotService snapshotService;
 
     /**
-     * Builds the leaderboard for the current review game date.
+     * Returns the leaderboard for the current review game date from the in-memory
+     * {@link TodayLeaderboard}, which is updated as guesses are accepted; rank changes are pushed
+     * over the presence socket.
      *
+     * @param limit maximum number of entries, best first; all of them when omitted
      * @return the leaderboard entries for the current review game date
      */
     @GetMapping("/today")
-    @Cacheable(value = "leaderboard-live", key = "'today:' + T(org.steam5.domain.GameDate).todayUtc()", unless = "#result == null || #result.body == null")
-    public ResponseEntity<List<LeaderboardService.LeaderEntry>> today() {
+    public ResponseEntity<List<LeaderboardService.LeaderEntry>> today(@RequestParam(name = "limit", required = false) @Min(1) Integer limit) {
         final List<ReviewGamePick> picks = reviewGameStateService.generateDailyPicks();
         final LocalDate date = picks.isEmpty() ? GameDate.todayUtc() : picks.getFirst().getPickDate();
-        final List<Guess> guesses = guessRepository.findAllByDate(date);
-        return ResponseEntity.ok(leaderboardService.buildLeaderboard(guesses, date));
+        return ResponseEntity.ok(todayLeaderboard.top(date, limit != null ? limit : 0));
     }
 
     /**
      * Builds the weekly leaderboard for either the current rolling period or the previous full week.
      *
-     * @param floating whether to include the seven days ending on the current date (served from
-     *                 {@code mv_leaderboard_weekly}); otherwise, uses the Monday-through-Sunday week
-     *                 immediately before the current week, computed live (not MV-backed — its window
-     *                 doesn't match the MV's rolling definition)
+     * @param floating whether to include the seven days ending on the current date (summed from
+     *                 the per-day leaderboard aggregates); otherwise, uses the Monday-through-Sunday
+     *                 week immediately before the current week, from its frozen snapshot
      * @return leaderboard entries for the selected period
      */
     @GetMapping("/weekly")
-    @Cacheable(value = "leaderboard-static", key = "'weekly:' + #floating + ':' + T(org.steam5.domain.GameDate).todayUtc()", unless = "#result == null || #result.body == null")
+    @Cacheable(value = "leaderboard-static", key = "'weekly:' + #floating + ':' + T(org.steam5.domain.GameDate).todayUtc()", sync = true)
     public ResponseEntity<List<LeaderboardService.LeaderEntry>> weekly(@RequestParam(name = "floating", required = false, defaultValue = "false") boolean floating) {
         final List<ReviewGamePick> picks = reviewGameStateService.generateDailyPicks();
         final LocalDate today = picks.isEmpty() ? GameDate.todayUtc() : picks.getFirst().getPickDate();
@@ -73,20 +87,21 @@ public class LeaderboardController {
         // last full week: Monday..Sunday immediately before the current week
         final LocalDate startOfCurrentWeek = today.minusDays((today.getDayOfWeek().getValue() + 6) % 7L);
         final LocalDate start = startOfCurrentWeek.minusDays(7);
-        final LocalDate end = startOfCurrentWeek.minusDays(1);
 
-        final List<Guess> guesses = guessRepository.findAllBetween(start, end);
-        return ResponseEntity.ok(leaderboardService.buildLeaderboard(guesses, today));
+        // A completed week never changes again: served from its frozen snapshot
+        return ResponseEntity.ok(snapshotService.find(LeaderboardSnapshotService.weekOf(start), today)
+                .map(snapshotService::entries)
+                .orElse(List.of()));
     }
 
     /**
-     * Builds the leaderboard for the 30-day period ending on the current game date, served from
-     * {@code mv_leaderboard_monthly}.
+     * Builds the leaderboard for the 30-day period ending on the current game date, summed from
+     * the per-day leaderboard aggregates.
      *
      * @return the leaderboard entries for the last 30 days, including the current game date
      */
     @GetMapping("/monthly")
-    @Cacheable(value = "leaderboard-static", key = "'monthly:' + T(org.steam5.domain.GameDate).todayUtc()", unless = "#result == null || #result.body == null")
+    @Cacheable(value = "leaderboard-static", key = "'monthly:' + T(org.steam5.domain.GameDate).todayUtc()", sync = true)
     public ResponseEntity<List<LeaderboardService.LeaderEntry>> monthly() {
         final List<ReviewGamePick> picks = reviewGameStateService.generateDailyPicks();
         final LocalDate today = picks.isEmpty() ? GameDate.todayUtc() : picks.getFirst().getPickDate();
@@ -95,7 +110,7 @@ public class LeaderboardController {
 
     /**
      * Builds the leaderboard for the current season through the current date or the season end date,
-     * served from {@code mv_leaderboard_season}.
+     * summed from the per-day leaderboard aggregates.
      *
      * @return the season leaderboard entries
      */
@@ -107,19 +122,10 @@ public class LeaderboardController {
         final LocalDate asOfDate = season.getEndDate().isBefore(today) ? season.getEndDate() : today;
         final String cacheKey = "season:" + season.getSeasonNumber() + ":" + asOfDate;
         final Cache cache = cacheManager.getCache("leaderboard-static");
-        if (cache != null) {
-            final Cache.ValueWrapper wrapper = cache.get(cacheKey);
-            if (wrapper != null && wrapper.get() instanceof List<?> cached) {
-                @SuppressWarnings("unchecked")
-                final List<LeaderboardService.LeaderEntry> cachedEntries = (List<LeaderboardService.LeaderEntry>) cached;
-                return withRefreshedAtHeader(LeaderboardType.SEASON, cachedEntries);
-            }
-        }
-
-        final List<LeaderboardService.LeaderEntry> entries = leaderboardService.buildSeasonLeaderboard(asOfDate);
-        if (cache != null) {
-            cache.put(cacheKey, entries);
-        }
+        // Single-flight and refreshed ahead, like the @Cacheable(sync = true) siblings
+        final List<LeaderboardService.LeaderEntry> entries = cache != null
+                ? cache.get(cacheKey, () -> leaderboardService.buildSeasonLeaderboard(asOfDate))
+                : leaderboardService.buildSeasonLeaderboard(asOfDate);
         return withRefreshedAtHeader(LeaderboardType.SEASON, entries);
     }
 
@@ -129,14 +135,110 @@ public class LeaderboardController {
      * @return the all-time leaderboard entries
      */
     @GetMapping(value = {"", "/", "/all"})
-    @Cacheable(value = "leaderboard-static", key = "'all-time:' + T(org.steam5.domain.GameDate).todayUtc()", unless = "#result == null || #result.body == null")
+    @Cacheable(value = "leaderboard-static", key = "'all-time:' + T(org.steam5.domain.GameDate).todayUtc()", sync = true)
     public ResponseEntity<List<LeaderboardService.LeaderEntry>> allTime() {
         final LocalDate today = GameDate.todayUtc();
         return withRefreshedAtHeader(LeaderboardType.ALL_TIME, leaderboardService.buildAllTimeLeaderboard(today));
     }
 
     /**
-     * Wraps an MV-backed leaderboard response with the X-Leaderboard-Refreshed-At header,
+     * Returns one page of an aggregate-backed leaderboard, best first, with streaks for the
+     * returned rows only.
+     *
+     * @param board  {@code all}, {@code monthly}, {@code weekly} (the floating seven days) or
+     *               {@code season}, as of the same date as the full board
+     * @param limit  page size
+     * @param cursor {@code nextCursor} of the previous page; omitted for the first page
+     * @return the page, the board size and the cursor of the next page ({@code null} on the last)
+     */
+    @GetMapping("/{board}/top")
+    public ResponseEntity<LeaderboardRankingService.LeaderboardPage> top(
+            @PathVariable("board") final String board,
+            @RequestParam(name = "limit", required = false, defaultValue = "25") @Min(1) @Max(LeaderboardRankingService.MAX_LIMIT) final int limit,
+            @RequestParam(name = "cursor", required = false) final String cursor) {
+        final LeaderboardType type = rankedType(board);
+        return ResponseEntity.ok(rankingService.top(type, rankedAsOfDate(type), cursor, limit));
+    }
+
+    /**
+     * Returns a player's rank on an aggregate-backed leaderboard with the rows around it.
+     *
+     * @param board      see {@link #top}
+     * @param steamId    the player
+     * @param neighbours rows to include above and below the player
+     * @return the player's rank, the board size and the surrounding rows; 404 if the player is
+     * not on the board
+     */
+    @GetMapping("/{board}/rank/{steamId}")
+    public ResponseEntity<LeaderboardRankingService.PlayerRank> rank(
+            @PathVariable("board") final String board,
+            @PathVariable("steamId") final String steamId,
+            @RequestParam(name = "neighbours", required = false, defaultValue = "2") @Min(0) @Max(LeaderboardRankingService.MAX_NEIGHBOURS) final int neighbours) {
+        final LeaderboardType type = rankedType(board);
+        return ResponseEntity.ok(rankingService.around(type, rankedAsOfDate(type), steamId, neighbours));
+    }
+
+    /**
+     * Returns the frozen leaderboard of a completed period, ranked and serialized once when the
+     * period was frozen; immutable, so it is cached for a year downstream.
+     *
+     * @param period {@code 2026-W29} (ISO week), {@code 2026-07} (calendar month) or
+     *               {@code season-3}
+     * @return the period, its dates and its entries in rank order (streaks as of the period's
+     * last day); 404 if it has not ended or nobody played, 400 if malformed
+     */
+    @GetMapping("/history/{period}")
+    public ResponseEntity<byte[]> history(@PathVariable("period") final String period,
+                                          @RequestHeader final HttpHeaders headers) {
+        final LeaderboardSnapshot snapshot = snapshotService.find(period, currentPickDate())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No leaderboard for this period"));
+        if (headers.getIfNoneMatch().contains(snapshot.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.getEtag())
+                    .header("Cache-Control", CACHE_HISTORICAL)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.getEtag())
+                .header("Cache-Control", CACHE_HISTORICAL)
+                .body(snapshot.getBody());
+    }
+
+    private static LeaderboardType rankedType(final String board) {
+        return switch (board) {
+            case "all" -> LeaderboardType.ALL_TIME;
+            case "monthly" -> LeaderboardType.MONTHLY;
+            case "weekly" -> LeaderboardType.WEEKLY;
+            case "season" -> LeaderboardType.SEASON;
+            default -> throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown leaderboard");
+        };
+    }
+
+    /**
+     * The date each full board is computed as of: the current pick date for the rolling boards,
+     * today for all-time, and today capped at the season end for the season.
+     */
+    private LocalDate rankedAsOfDate(final LeaderboardType type) {
+        return switch (type) {
+            case MONTHLY, WEEKLY -> currentPickDate();
+            case SEASON -> {
+                final LocalDate today = GameDate.todayUtc();
+                final Season season = seasonService.findSeasonContaining(today)
+                        .orElseGet(() -> seasonService.ensureSeasonForDate(today));
+                yield season.getEndDate().isBefore(today) ? season.getEndDate() : today;
+            }
+            default -> GameDate.todayUtc();
+        };
+    }
+
+    private LocalDate currentPickDate() {
+        final List<ReviewGamePick> picks = reviewGameStateService.generateDailyPicks();
+        return picks.isEmpty() ? GameDate.todayUtc() : picks.getFirst().getPickDate();
+    }
+
+    /**
+     * Wraps an aggregate-backed leaderboard response with the X-Leaderboard-Refreshed-At header,
      * sourced from leaderboard_refresh_state. Omitted (not just empty) when no refresh has
      * happened yet for this type, so callers don't have to distinguish "just refreshed" from
      * "never refreshed" via an empty string.
@@ -9,12 +9,14 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.steam5.config.ReviewGameConfig;
+import org.steam5.domain.GameDate;
 import org.steam5.repository.IngestStateRepository;
 import org.steam5.repository.ReviewGamePickRepository;
 import org.steam5.repository.SteamAppIndexRepository;
 import org.steam5.repository.SteamAppReviewsRepository;
 import org.steam5.repository.details.*;
 
+import java.time.LocalDate;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -91,7 +93,7 @@ public class MetricsController {
     }
 
     @GetMapping("/counts")
-    @Cacheable(value = "one-hour", key = "'counts'", unless = "#result == null")
+    @Cacheable(value = "one-hour", key = "'counts:' + T(org.steam5.domain.GameDate).todayUtc()", unless = "#result == null")
     public ResponseEntity<EntityCounts> getEntityCounts() {
         final EntityCounts counts = new EntityCounts(
                 indexRepository.count(),
@@ -102,7 +104,7 @@ public class MetricsController {
                 movieRepository.count(),
                 publisherRepository.count(),
                 screenshotRepository.count(),
-                pickRepository.count(),
+                pickRepository.countPicksUpTo(GameDate.todayUtc()),
                 ingestStateRepository.count()
         );
         return ResponseEntity.ok()
@@ -164,11 +166,12 @@ public class MetricsController {
     }
 
     @GetMapping("/picks/summary")
-    @Cacheable(value = "one-hour", key = "'picks-summary'", unless = "#result == null")
+    @Cacheable(value = "one-hour", key = "'picks-summary:' + T(org.steam5.domain.GameDate).todayUtc()", unless = "#result == null")
     public ResponseEntity<PicksSummary> getPicksSummary() {
-        final long totalPicks = pickRepository.count();
-        final long distinctDays = pickRepository.countDistinctPickDates();
-        final var latestDay = pickRepository.findLatestPickDate();
+        final LocalDate today = GameDate.todayUtc();
+        final long totalPicks = pickRepository.countPicksUpTo(today);
+        final long distinctDays = pickRepository.countDistinctPickDates(today);
+        final var latestDay = pickRepository.findLatestPickDate(today);
         return ResponseEntity.ok()
                 .header("Cache-Control", "public, s-maxage=3600, max-age=300")
                 .body(new PicksSummary(totalPicks, distinctDays, latestDay));
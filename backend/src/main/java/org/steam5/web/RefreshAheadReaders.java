@@ -0,0 +1,73 @@
+package org.steam5.web;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.steam5.config.RefreshAheadCaffeineCache;
+import org.steam5.domain.LeaderboardType;
+import org.steam5.service.LeaderboardRankingService;
+import org.steam5.service.PlayerSpotlightService;
+import org.steam5.service.StatisticsService;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Tells each {@link RefreshAheadCaffeineCache} how to reload its keys: by calling the injected
+ * (proxied) bean method that caches the key again, parsed back from the key. Lives in the web
+ * layer because some of those methods are controller handlers.
+ */
+@Component
+@RequiredArgsConstructor
+public class RefreshAheadReaders {
+
+    private final CacheManager cacheManager;
+    private final LeaderboardController leaderboardController;
+    private final StatisticsController statisticsController;
+    private final LeaderboardRankingService rankingService;
+    private final StatisticsService statisticsService;
+    private final PlayerSpotlightService playerSpotlightService;
+
+    @PostConstruct
+    void register() {
+        // Keys: 'weekly:' + floating + ':' + date, 'ranked:' + type + ':' + date, ...
+        register("leaderboard-static", "weekly:", key -> leaderboardController.weekly(Boolean.parseBoolean(key.split(":")[1])));
+        register("leaderboard-static", "monthly:", key -> leaderboardController.monthly());
+        register("leaderboard-static", "all-time:", key -> leaderboardController.allTime());
+        register("leaderboard-static", "season:", key -> leaderboardController.season());
+        register("leaderboard-static", "ranked:", key -> {
+            final String[] parts = key.split(":");
+            rankingService.top(LeaderboardType.valueOf(parts[1]), LocalDate.parse(parts[2]), null, 1);
+        });
+
+        register("stats-long", "stats-genres-", key -> statisticsService.topGenres(intSuffix(key, "stats-genres-")));
+        register("stats-long", "stats-categories-", key -> statisticsService.topCategories(intSuffix(key, "stats-categories-")));
+        register("stats-long", "stats-review-buckets-", key -> statisticsService.reviewBuckets(
+                StatisticsService.BucketMode.valueOf(key.substring("stats-review-buckets-".length()))));
+
+        register("stats-hourly", "stats-user-labels-weekly", key -> statisticsService.getUserAchievementsWeekly());
+        register("stats-hourly", "stats-user-labels-monthly", key -> statisticsService.getUserAchievementsMonthly());
+        register("stats-hourly", "stats-user-labels-season:", key -> statisticsService.getUserAchievementsSeason());
+        register("stats-hourly", "top-games-by-reviews-", key -> statisticsService.getTopGamesByReviewCount(intSuffix(key, "top-games-by-reviews-")));
+        register("stats-hourly", "perfect-days", key -> statisticsService.getPerfectDays());
+        register("stats-hourly", "hardest-games-", key -> statisticsService.getHardestGames(intSuffix(key, "hardest-games-")));
+        register("stats-hourly", "daily-avg-scores", key -> statisticsService.getDailyAvgScoreStats());
+        register("stats-hourly", "game-statistics-", key -> statisticsController.gameStatistics(intSuffix(key, "game-statistics-")));
+
+        register("stats-short", "stats-user-labels-daily", key -> statisticsService.getUserAchievementsDaily());
+        register("stats-short", "spotlight-today:", key -> playerSpotlightService.getTodaySpotlight());
+    }
+
+    private void register(final String cacheName, final String keyPrefix, final Consumer<String> reader) {
+        final Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof RefreshAheadCaffeineCache refreshAhead) {
+            refreshAhead.reloadWith(keyPrefix, reader);
+        }
+    }
+
+    private static int intSuffix(final String key, final String prefix) {
+        return Integer.parseInt(key.substring(prefix.length()));
+    }
+}
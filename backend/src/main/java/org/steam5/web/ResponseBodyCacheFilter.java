@@ -0,0 +1,326 @@
+package org.steam5.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.steam5.config.CacheNames;
+import org.steam5.config.CacheWeigher;
+import org.steam5.config.InstrumentedCaffeineCache;
+import org.steam5.domain.GameDate;
+import org.steam5.security.RequestPathNormalizer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Byte-level cache in front of the hottest public GET endpoints. The first 200 response for a
+ * route (per game day and the query parameters the route reads) is stored as its final JSON bytes,
+ * a pre-compressed gzip variant and its ETag; later requests are answered from those bytes without
+ * reaching the controller, Jackson or Tomcat compression, and {@code If-None-Match} short-circuits
+ * to 304.
+ *
+ * <p>Each route family has its own cache in {@link org.steam5.config.CacheConfig} with a TTL no
+ * longer than the underlying response cache, and is invalidated together with it (see
+ * {@link org.steam5.service.DomainCacheEvictor}); a body rendered while its cache was invalidated
+ * goes to that request only, never to later ones. A controller whose response cache refuses a
+ * body (e.g. an empty round) marks the request with {@link #doNotStore()}, and the body is not
+ * stored here either. The controller's ETag is kept, so the ETags recorded with the response
+ * caches keep matching what clients send back.</p>
+ *
+ * <p>Runs after Spring Security's filter chain (rate limits included) and the CORS filter, so
+ * hits are subject to both like any other request.</p>
+ */
+@Slf4j
+@Component
+@Order(ResponseBodyCacheFilter.ORDER)
+public class ResponseBodyCacheFilter extends OncePerRequestFilter {
+
+    /**
+     * Right after Spring Security's filter chain ({@code spring.security.filter.order}, -100 by
+     * default) and {@link org.steam5.config.CorsConfig#CORS_FILTER_ORDER}.
+     */
+    public static final int ORDER = -98;
+
+    private static final String DO_NOT_STORE_ATTRIBUTE = ResponseBodyCacheFilter.class.getName() + ".DO_NOT_STORE";
+
+    /** Cached routes, with the query parameters each one reads; others do not vary the key. */
+    private static final Map<String, Route> ROUTES = Map.of(
+            "/api/review-game/today", new Route(CacheNames.HTTP_REVIEW_GAME),
+            "/api/review-game/today/details", new Route(CacheNames.HTTP_REVIEW_GAME),
+            "/api/leaderboard", new Route(CacheNames.HTTP_LEADERBOARD_STATIC),
+            "/api/leaderboard/", new Route(CacheNames.HTTP_LEADERBOARD_STATIC),
+            "/api/leaderboard/all", new Route(CacheNames.HTTP_LEADERBOARD_STATIC),
+            "/api/leaderboard/weekly", new Route(CacheNames.HTTP_LEADERBOARD_STATIC, "floating"),
+            "/api/leaderboard/monthly", new Route(CacheNames.HTTP_LEADERBOARD_STATIC),
+            "/api/leaderboard/season", new Route(CacheNames.HTTP_LEADERBOARD_STATIC),
+            "/api/seasons/current", new Route(CacheNames.HTTP_SEASON_CURRENT)
+    );
+
+    /** Mirrors {@code server.compression.min-response-size}. */
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    /** Per-request or per-variant headers that are never replayed from a stored response. */
+    private static final Set<String> NOT_STORED = Set.of(
+            "content-length", "content-type", "content-encoding", "transfer-encoding", "date", "etag",
+            "vary", "set-cookie", CorrelationIdFilter.CORRELATION_ID_HEADER.toLowerCase(Locale.ROOT));
+
+    private final CacheManager cacheManager;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter notModified;
+
+    public ResponseBodyCacheFilter(final CacheManager cacheManager, final MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.hits = resultCounter(meterRegistry, "hit");
+        this.misses = resultCounter(meterRegistry, "miss");
+        this.notModified = resultCounter(meterRegistry, "not_modified");
+    }
+
+    private static Counter resultCounter(final MeterRegistry meterRegistry, final String result) {
+        return Counter.builder("steam5.http.response.cache")
+                .description("Byte-level response cache lookups by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Keeps the current request's response out of this cache. For controllers whose own response
+     * cache refuses the body: such a body is rendered afresh on every request, so the controller
+     * always gets to call this.
+     */
+    public static void doNotStore() {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(DO_NOT_STORE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return !"GET".equals(request.getMethod())
+                || !ROUTES.containsKey(RequestPathNormalizer.normalizedPath(request));
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request,
+                                    final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final String path = RequestPathNormalizer.normalizedPath(request);
+        final Route route = ROUTES.get(path);
+        final Cache cache = cacheManager.getCache(route.cacheName());
+        if (cache == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        final String key = key(path, route, request);
+
+        final long clears = clears(cache);
+        final CachedBody cached = cache.get(key, CachedBody.class);
+        if (cached != null) {
+            cached.headers().forEach((name, values) -> values.forEach(v -> response.addHeader(name, v)));
+            hits.increment();
+            write(cached, request, response);
+            return;
+        }
+
+        final ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        final CachedBody captured = request.getAttribute(DO_NOT_STORE_ATTRIBUTE) == null ? capture(wrapper) : null;
+        if (captured == null) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        // A clear while the controller ran may have been for data this body was rendered from.
+        // Tag invalidations are covered by TaggedCaffeineCache itself: put() dates the entry at
+        // the miss above, so an entry invalidated since is never served.
+        if (clears(cache) == clears) {
+            cache.put(key, captured);
+        }
+        misses.increment();
+        // Headers of this response are already on the real response; only the body is replaced
+        write(captured, request, response);
+    }
+
+    /**
+     * Routes resolve "today" server-side, so the game day is part of the key; of the query string,
+     * only the parameters the route reads are, so arbitrary parameters cannot grow the cache.
+     */
+    static String key(final String path, final Route route, final HttpServletRequest request) {
+        final StringBuilder key = new StringBuilder(path).append('?');
+        for (String name : route.params()) {
+            final String value = request.getParameter(name);
+            if (value != null) {
+                key.append(name).append('=').append(value).append('&');
+            }
+        }
+        return key.append('@').append(GameDate.todayUtc()).toString();
+    }
+
+    private static long clears(final Cache cache) {
+        return cache instanceof InstrumentedCaffeineCache instrumented ? instrumented.clears() : 0L;
+    }
+
+    private CachedBody capture(final ContentCachingResponseWrapper wrapper) throws IOException {
+        final String contentType = wrapper.getContentType();
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK
+                || contentType == null || !contentType.contains("json")
+                || wrapper.getHeader(HttpHeaders.SET_COOKIE) != null
+                || wrapper.getContentSize() == 0) {
+            return null;
+        }
+        final byte[] identity = wrapper.getContentAsByteArray();
+        final Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : wrapper.getHeaderNames()) {
+            if (!NOT_STORED.contains(name.toLowerCase(Locale.ROOT)) && !name.regionMatches(true, 0, "access-control-", 0, 15)) {
+                headers.put(name, new ArrayList<>(wrapper.getHeaders(name)));
+            }
+        }
+        final String etag = wrapper.getHeader(HttpHeaders.ETAG);
+        return new CachedBody(contentType, headers, identity, gzip(identity), etag != null ? etag : strongEtag(identity));
+    }
+
+    private void write(final CachedBody body, final HttpServletRequest request,
+                       final HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, body.etag());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (matches(request.getHeaders(HttpHeaders.IF_NONE_MATCH), body.etag())) {
+            notModified.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(body.contentType());
+        final byte[] out;
+        if (body.gzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            out = body.gzip();
+        } else {
+            out = body.identity();
+        }
+        response.setContentLength(out.length);
+        response.getOutputStream().write(out);
+    }
+
+    static boolean matches(final Enumeration<String> ifNoneMatch, final String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        while (ifNoneMatch.hasMoreElements()) {
+            for (String candidate : ifNoneMatch.nextElement().split(",")) {
+                final String c = candidate.trim();
+                // If-None-Match uses weak comparison
+                if (c.equals("*") || opaque(c).equals(opaque(etag))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(final String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    static boolean acceptsGzip(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            final String[] tokens = part.trim().split(";");
+            final String coding = tokens[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < tokens.length; i++) {
+                final String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0d;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static byte[] gzip(final byte[] identity) throws IOException {
+        if (identity.length < GZIP_MIN_BYTES) {
+            return null;
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(identity.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gz.write(identity);
+        }
+        return out.size() < identity.length ? out.toByteArray() : null;
+    }
+
+    private static String strongEtag(final byte[] identity) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(identity);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param cacheName response body cache of the route
+     * @param params    query parameters the route's handler reads, in key order
+     */
+    record Route(String cacheName, List<String> params) {
+        Route(final String cacheName, final String... params) {
+            this(cacheName, List.of(params));
+        }
+    }
+
+    /**
+     * Final response bytes of one route; {@code gzip} is null when compression would not pay off.
+     */
+    public record CachedBody(String contentType, Map<String, List<String>> headers, byte[] identity,
+                             byte[] gzip, String etag) implements CacheWeigher.Sized {
+        @Override
+        public long estimatedBytes(final CacheWeigher weigher) {
+            long bytes = 48L + weigher.estimate(contentType) + weigher.estimate(identity)
+                    + weigher.estimate(gzip) + weigher.estimate(etag);
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                bytes += weigher.estimate(header.getKey());
+                for (String value : header.getValue()) {
+                    bytes += weigher.estimate(value);
+                }
+            }
+            return bytes;
+        }
+    }
+}
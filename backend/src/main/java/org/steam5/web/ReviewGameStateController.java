@@ -4,6 +4,8 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,6 +14,9 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.steam5.config.CacheNames;
+import org.steam5.config.CacheTags;
+import org.steam5.config.TaggedCaffeineCache;
 import org.steam5.domain.GameDate;
 import org.steam5.domain.ReviewGamePick;
 import org.steam5.domain.SteamAppReviews;
@@ -23,6 +28,8 @@ import org.steam5.repository.SteamAppReviewsRepository;
 import org.steam5.repository.UserRepository;
 import org.steam5.repository.details.SteamAppDetailRepository;
 import org.steam5.security.CurrentUser;
+import org.steam5.service.LeaderboardAggregateService;
+import org.steam5.service.ParticipationService;
 import org.steam5.service.ReviewGameStateService;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
@@ -36,6 +43,7 @@ import java.time.OffsetDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
@@ -65,6 +73,9 @@ public class ReviewGameStateController {
     private final Scheduler scheduler;
     private final MeterRegistry meterRegistry;
     private final PlatformTransactionManager transactionManager;
+    private final CacheManager cacheManager;
+    private final LeaderboardAggregateService leaderboardAggregateService;
+    private final ParticipationService participationService;
 
     // Live daily data — rounds regenerate at ~00:01 UTC; 30 min CDN window absorbs
     // traffic spikes while keeping staleness bounded. must-revalidate forbids any
@@ -141,74 +152,43 @@ public class ReviewGameStateController {
         return new Range(0L, null);
     }
 
-    private static String weakEtagForPicks(List<SteamAppDetail> details) {
-        try {
-            java.security.MessageDigest md = java.security.MessageDigest.getInstance("SHA-256");
-            for (SteamAppDetail d : details) {
-                md.update(java.nio.charset.StandardCharsets.UTF_8.encode(String.valueOf(d.getAppId())));
-                if (d.getName() != null) md.update(d.getName().getBytes(java.nio.charset.StandardCharsets.UTF_8));
-                if (d.getReleaseDate() != null)
-                    md.update(d.getReleaseDate().getBytes(java.nio.charset.StandardCharsets.UTF_8));
-                if (d.getPriceOverview() != null) {
-                    if (d.getPriceOverview().getCurrency() != null)
-                        md.update(d.getPriceOverview().getCurrency().getBytes(java.nio.charset.StandardCharsets.UTF_8));
-                    md.update(Long.toString(d.getPriceOverview().getFinalAmount()).getBytes(java.nio.charset.StandardCharsets.UTF_8));
-                }
-                // screenshot paths influence visual content; limit sample for speed
-                int i = 0;
-                if (d.getScreenshots() != null) for (var s : d.getScreenshots()) {
-                    if (i++ >= 2) break;
-                    if (s.getPathFull() != null)
-                        md.update(s.getPathFull().getBytes(java.nio.charset.StandardCharsets.UTF_8));
-                }
-            }
-            byte[] digest = md.digest();
-            StringBuilder sb = new StringBuilder();
-            for (byte b : digest) sb.append(String.format("%02x", b));
-            return "W/\"" + sb + "\"";
-        } catch (Exception ignored) {
-            log.debug("ETag generation failed for picks", ignored);
+    /**
+     * Answers a conditional request from the ETag recorded when the {@code review-game} entry
+     * {@code cacheKey} was populated, before any repository is touched. Runs on cache misses only
+     * (on hits Spring MVC compares the cached entity's ETag itself); the returned 304 is never
+     * cached ({@link #CACHE_ONLY_2XX}).
+     *
+     * @return a 304, or null if the request must be served normally
+     */
+    private <T> ResponseEntity<T> notModified(final String cacheKey, final HttpHeaders headers,
+                                              final String cacheControl) {
+        if (headers.getIfNoneMatch().isEmpty()
+                || !(cacheManager.getCache(CacheNames.REVIEW_GAME) instanceof TaggedCaffeineCache cache)) {
             return null;
         }
-    }
-
-    private static String weakEtagForStringLists(List<? extends List<String>> lists) {
-        try {
-            java.security.MessageDigest md = java.security.MessageDigest.getInstance("SHA-256");
-            for (List<String> l : lists) {
-                if (l == null) continue;
-                for (String s : l) {
-                    if (s != null) md.update(s.getBytes(java.nio.charset.StandardCharsets.UTF_8));
-                    md.update((byte) '\n');
-                }
-                md.update((byte) '\u0000');
-            }
-            byte[] digest = md.digest();
-            StringBuilder sb = new StringBuilder();
-            for (byte b : digest) sb.append(String.format("%02x", b));
-            return "W/\"" + sb + "\"";
-        } catch (Exception ignored) {
-            log.debug("ETag generation failed for string lists", ignored);
+        final String etag = cache.etag(cacheKey);
+        if (etag == null || !headers.getIfNoneMatch().contains(etag)) {
             return null;
         }
+        return ResponseEntity.status(304)
+                .eTag(etag)
+                .header("Cache-Control", cacheControl)
+                .build();
     }
 
     @GetMapping("/days")
     @Cacheable(value = "review-game", key = "'days'", unless = CACHE_ONLY_2XX)
     public ResponseEntity<List<String>> listDays(@RequestParam(value = "limit", defaultValue = "60") int limit,
                                                  @RequestHeader HttpHeaders headers) {
+        final ResponseEntity<List<String>> notModified = notModified("days", headers, "public, s-maxage=600, max-age=60");
+        if (notModified != null) {
+            return notModified;
+        }
         final int capped = Math.max(1, Math.min(limit, 3650));
-        final List<LocalDate> dates = pickRepository.listDistinctPickDates(PageRequest.of(0, capped));
+        final List<LocalDate> dates = pickRepository.listDistinctPickDates(GameDate.todayUtc(), PageRequest.of(0, capped));
         final List<String> out = dates.stream().map(LocalDate::toString).toList();
-        final String etag = weakEtagForStringLists(java.util.List.of(out));
-        if (etag != null && headers.getIfNoneMatch().contains(etag)) {
-            return ResponseEntity.status(304)
-                    .eTag(etag)
-                    .header("Cache-Control", "public, s-maxage=600, max-age=60")
-                    .build();
-        }
         return ResponseEntity.ok()
-                .eTag(etag)
+                .eTag(WeakEtags.forStringLists(List.of(out)))
                 .header("Cache-Control", "public, s-maxage=600, max-age=60")
                 .body(out);
     }
@@ -229,18 +209,20 @@ public class ReviewGameStateController {
     @GetMapping("/today/details")
     @Cacheable(value = "review-game", key = "'today-details:' + T(org.steam5.domain.GameDate).todayUtc()", unless = CACHE_ONLY_2XX_NONEMPTY_LIST)
     public ResponseEntity<List<SteamAppDetail>> getTodayDetails(@RequestHeader HttpHeaders headers) {
+        final ResponseEntity<List<SteamAppDetail>> notModified =
+                notModified("today-details:" + GameDate.todayUtc(), headers, CACHE_LIVE);
+        if (notModified != null) {
+            return notModified;
+        }
         final List<ReviewGamePick> picks = service.generateDailyPicks();
         final List<Long> appIds = picks.stream().map(ReviewGamePick::getAppId).toList();
         final List<SteamAppDetail> details = detailRepository.findAllByAppIdIn(appIds);
-        final String etag = weakEtagForPicks(details);
-        if (etag != null && headers.getIfNoneMatch().contains(etag)) {
-            return ResponseEntity.status(304)
-                    .eTag(etag)
-                    .header("Cache-Control", CACHE_LIVE)
-                    .build();
+        if (details.isEmpty()) {
+            // Refused by CACHE_ONLY_2XX_NONEMPTY_LIST, so not stored as bytes either
+            ResponseBodyCacheFilter.doNotStore();
         }
         return ResponseEntity.ok()
-                .eTag(etag)
+                .eTag(WeakEtags.forPicks(details))
                 .header("Cache-Control", CACHE_LIVE)
                 .body(details);
     }
@@ -345,7 +327,51 @@ public class ReviewGameStateController {
     @GetMapping("/today")
     @Cacheable(value = "review-game", key = "'today-picks:' + T(org.steam5.domain.GameDate).todayUtc()", unless = CACHE_ONLY_2XX_NONEMPTY_PICKS)
     public ResponseEntity<ReviewGameStateDto> getToday(@RequestHeader HttpHeaders headers) {
+        final ResponseEntity<ReviewGameStateDto> notModified =
+                notModified("today-picks:" + GameDate.todayUtc(), headers, CACHE_LIVE);
+        if (notModified != null) {
+            return notModified;
+        }
         final List<ReviewGamePick> picks = service.generateDailyPicks();
+        final ReviewGameStateDto state = todayState(picks, GameDate.todayUtc());
+        if (state.picks().isEmpty()) {
+            // Refused by CACHE_ONLY_2XX_NONEMPTY_PICKS, so not stored as bytes either
+            ResponseBodyCacheFilter.doNotStore();
+        }
+        return ResponseEntity.ok()
+                .eTag(WeakEtags.forPicks(state.picks()))
+                .header("Cache-Control", CACHE_LIVE)
+                .body(state);
+    }
+
+    /**
+     * Pre-warms the {@code /today} cache entry for a staged day before the UTC rollover, so the
+     * first request after midnight is a cache hit. Not a request mapping; called by
+     * {@link org.steam5.job.ReviewGameStagingJob}. The key matches {@link #getToday} on that day.
+     */
+    @CachePut(value = "review-game", key = "'today-picks:' + #day", unless = CACHE_ONLY_2XX_NONEMPTY_PICKS)
+    public ResponseEntity<ReviewGameStateDto> prewarmToday(final LocalDate day) {
+        final ReviewGameStateDto state = todayState(pickRepository.findByPickDate(day), day);
+        return ResponseEntity.ok()
+                .eTag(WeakEtags.forPicks(state.picks()))
+                .header("Cache-Control", CACHE_LIVE)
+                .body(state);
+    }
+
+    /**
+     * Pre-warms the {@code /today/details} cache entry for a staged day; see {@link #prewarmToday}.
+     */
+    @CachePut(value = "review-game", key = "'today-details:' + #day", unless = CACHE_ONLY_2XX_NONEMPTY_LIST)
+    public ResponseEntity<List<SteamAppDetail>> prewarmTodayDetails(final LocalDate day) {
+        final List<Long> appIds = pickRepository.findByPickDate(day).stream().map(ReviewGamePick::getAppId).toList();
+        final List<SteamAppDetail> details = detailRepository.findAllByAppIdIn(appIds);
+        return ResponseEntity.ok()
+                .eTag(WeakEtags.forPicks(details))
+                .header("Cache-Control", CACHE_LIVE)
+                .body(details);
+    }
+
+    private ReviewGameStateDto todayState(final List<ReviewGamePick> picks, final LocalDate fallbackDate) {
         final List<Long> appIds = picks.stream().map(ReviewGamePick::getAppId).toList();
         final List<SteamAppDetail> fetched = detailRepository.findAllByAppIdIn(appIds).stream().toList();
         // Ensure details preserve the appIds order so round indices match what the user sees
@@ -362,22 +388,16 @@ public class ReviewGameStateController {
             throw new ReviewGameException(500, "Number of appIds and details don't match");
         }
 
-        final LocalDate date = picks.isEmpty() ? GameDate.todayUtc() : picks.getFirst().getPickDate();
-        final String etag = weakEtagForPicks(details);
-        if (etag != null && headers.getIfNoneMatch().contains(etag)) {
-            return ResponseEntity.status(304)
-                    .eTag(etag)
-                    .header("Cache-Control", CACHE_LIVE)
-                    .build();
-        }
-        return ResponseEntity.ok()
-                .eTag(etag)
-                .header("Cache-Control", CACHE_LIVE)
-                .body(new ReviewGameStateDto(date, service.getBucketLabels(), service.getBucketTitles(), details));
+        final LocalDate date = picks.isEmpty() ? fallbackDate : picks.getFirst().getPickDate();
+        return new ReviewGameStateDto(date, service.getBucketLabels(), service.getBucketTitles(), details);
     }
 
     public record ReviewGameStateDto(LocalDate date, List<String> buckets, List<String> bucketTitles,
-                                     List<SteamAppDetail> picks) {
+                                     List<SteamAppDetail> picks) implements CacheTags.EmbedsApps {
+        @Override
+        public Collection<Long> embeddedAppIds() {
+            return picks == null ? List.of() : picks.stream().map(SteamAppDetail::getAppId).toList();
+        }
     }
 
     @GetMapping("/next-challenge-time")
@@ -494,7 +514,11 @@ public class ReviewGameStateController {
 
         // create new; guard against concurrent duplicate via the unique index
         try {
-            guessRepository.save(new org.steam5.domain.Guess(null, steamId, date, roundIndex, req.appId, req.bucketGuess, computedActual, points, java.time.OffsetDateTime.now()));
+            final var saved = guessRepository.save(new org.steam5.domain.Guess(null, steamId, date, roundIndex, req.appId, req.bucketGuess, computedActual, points, java.time.OffsetDateTime.now()));
+            // Same transaction: the leaderboard aggregates and the player's participation bitmap
+            // move with the guess or not at all.
+            leaderboardAggregateService.applyGuess(saved);
+            participationService.markPlayed(steamId, date);
             // Increment only when a brand-new guess is persisted so the
             // counter reflects player throughput, not duplicate submissions.
             Counter.builder("steam5.guesses")
@@ -539,6 +563,15 @@ public class ReviewGameStateController {
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
+        // Staged picks for tomorrow already exist before the rollover; never reveal them.
+        if (day.isAfter(GameDate.todayUtc())) {
+            return ResponseEntity.notFound().build();
+        }
+        final String cc = day.equals(GameDate.todayUtc()) ? CACHE_LIVE : CACHE_HISTORICAL;
+        final ResponseEntity<ReviewGameStateDto> notModified = notModified("picks:" + date, headers, cc);
+        if (notModified != null) {
+            return notModified;
+        }
         final List<ReviewGamePick> picks = pickRepository.findByPickDate(day);
         if (picks.isEmpty()) {
             return ResponseEntity.notFound().build();
@@ -554,18 +587,8 @@ public class ReviewGameStateController {
         if (appIds.size() != details.size()) {
             throw new ReviewGameException(500, "Number of appIds and details don't match for day " + date);
         }
-        final boolean isToday = day.equals(GameDate.todayUtc());
-        final String etag = weakEtagForPicks(details);
-        if (etag != null && headers.getIfNoneMatch().contains(etag)) {
-            final String cc = isToday ? CACHE_LIVE : CACHE_HISTORICAL;
-            return ResponseEntity.status(304)
-                    .eTag(etag)
-                    .header("Cache-Control", cc)
-                    .build();
-        }
-        final String cc = isToday ? CACHE_LIVE : CACHE_HISTORICAL;
         return ResponseEntity.ok()
-                .eTag(etag)
+                .eTag(WeakEtags.forPicks(details))
                 .header("Cache-Control", cc)
                 .body(new ReviewGameStateDto(day, service.getBucketLabels(), service.getBucketTitles(), details));
     }
@@ -575,15 +598,10 @@ public class ReviewGameStateController {
     public ResponseEntity<BucketMeta> buckets(@RequestHeader HttpHeaders headers) {
         final List<String> labels = service.getBucketLabels();
         final List<String> titles = service.getBucketTitles();
-        final String etag = weakEtagForStringLists(java.util.List.of(labels, titles));
-        if (etag != null && headers.getIfNoneMatch().contains(etag)) {
-            return ResponseEntity.status(304)
-                    .eTag(etag)
-                    .header("Cache-Control", CACHE_CONFIG)
-                    .build();
-        }
+        // No 304 here: this entry is cached without an 'unless' guard, and Spring MVC answers
+        // If-None-Match from the returned (or cached) ETag anyway
         return ResponseEntity.ok()
-                .eTag(etag)
+                .eTag(WeakEtags.forStringLists(List.of(labels, titles)))
                 .header("Cache-Control", CACHE_CONFIG)
                 .body(new BucketMeta(labels, titles));
     }
@@ -591,7 +609,11 @@ public class ReviewGameStateController {
     public record ArchiveMonthDayPick(Long appId, String name) {
     }
 
-    public record ArchiveMonthDay(String date, List<ArchiveMonthDayPick> picks) {
+    public record ArchiveMonthDay(String date, List<ArchiveMonthDayPick> picks) implements CacheTags.EmbedsApps {
+        @Override
+        public Collection<Long> embeddedAppIds() {
+            return picks.stream().map(ArchiveMonthDayPick::appId).toList();
+        }
     }
 
     @GetMapping("/archive/month")
@@ -605,8 +627,20 @@ public class ReviewGameStateController {
             return ResponseEntity.badRequest().build();
         }
 
+        final boolean isCurrentMonth = ym.equals(YearMonth.now());
+        final String cacheControl = isCurrentMonth
+                ? "public, s-maxage=86400, max-age=3600"
+                : CACHE_HISTORICAL;
+        final ResponseEntity<List<ArchiveMonthDay>> notModified = notModified("archive-month:" + month, headers, cacheControl);
+        if (notModified != null) {
+            return notModified;
+        }
+
         final LocalDate from = ym.atDay(1);
-        final LocalDate to = ym.plusMonths(1).atDay(1);
+        // Exclusive upper bound, capped at tomorrow so staged picks stay hidden.
+        final LocalDate monthEnd = ym.plusMonths(1).atDay(1);
+        final LocalDate tomorrow = GameDate.todayUtc().plusDays(1);
+        final LocalDate to = monthEnd.isAfter(tomorrow) ? tomorrow : monthEnd;
         final List<org.steam5.repository.ReviewGamePickRepository.MonthlyArchivePickRow> rows =
                 pickRepository.listMonthlyArchivePicks(from, to);
 
@@ -620,11 +654,7 @@ public class ReviewGameStateController {
                 .map(e -> new ArchiveMonthDay(e.getKey(), e.getValue()))
                 .toList();
 
-        final boolean isCurrentMonth = ym.equals(YearMonth.now());
-        final String cacheControl = isCurrentMonth
-                ? "public, s-maxage=86400, max-age=3600"
-                : "public, max-age=31536000, immutable";
-        final String etag = weakEtagForStringLists(
+        final String etag = WeakEtags.forStringLists(
                 out.stream()
                         .map(day -> {
                             final ArrayList<String> lines = new ArrayList<>(day.picks().size() + 1);
@@ -636,12 +666,6 @@ public class ReviewGameStateController {
                         })
                         .toList()
         );
-        if (etag != null && headers.getIfNoneMatch().contains(etag)) {
-            return ResponseEntity.status(304)
-                    .eTag(etag)
-                    .header("Cache-Control", cacheControl)
-                    .build();
-        }
         return ResponseEntity.ok()
                 .eTag(etag)
                 .header("Cache-Control", cacheControl)
@@ -685,7 +709,9 @@ public class ReviewGameStateController {
             return ResponseEntity.badRequest().build();
         }
         if (end.isBefore(start)) return ResponseEntity.badRequest().build();
-        final var result = computeAlwaysPickForRange(start, end);
+        // Never score staged (future) picks.
+        final LocalDate today = GameDate.todayUtc();
+        final var result = computeAlwaysPickForRange(start, end.isAfter(today) ? today : end);
         return ResponseEntity.ok()
                 .header("Cache-Control", "public, s-maxage=3600, max-age=600")
                 .body(new HistoricalAlwaysPickResponse(start.toString(), end.toString(), result.scores()));
@@ -112,7 +112,7 @@ public class StatisticsController {
     @GetMapping(value = "/game", produces = MediaType.APPLICATION_JSON_VALUE)
     @Cacheable(value = "stats-hourly",
             key = "'game-statistics-' + T(Math).max(1, T(Math).min(#topGamesLimit, 50))",
-            unless = "#result == null || #result.body == null")
+            sync = true)
     public ResponseEntity<StatisticsService.GameStatistics> gameStatistics(
             @RequestParam(name = "topGamesLimit", defaultValue = "10") int topGamesLimit) {
         // Clamp in both the SpEL cache key (above) and the handler body so
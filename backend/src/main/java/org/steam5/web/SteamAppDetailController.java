@@ -125,10 +125,7 @@ public class SteamAppDetailController {
                     add.accept(m.getHlsH264());
                 }
             }
-            byte[] digest = md.digest();
-            StringBuilder sb = new StringBuilder();
-            for (byte b : digest) sb.append(String.format("%02x", b));
-            return "W/\"" + sb + "\"";
+            return WeakEtags.format(md.digest());
         } catch (Exception ignored) {
             log.debug("ETag generation failed for detail", ignored);
             return null;
@@ -0,0 +1,71 @@
+package org.steam5.web;
+
+import org.steam5.domain.details.SteamAppDetail;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Weak ETags for cached JSON responses. Only called when a response is (re)built, i.e. once per
+ * cache population; conditional requests are answered from the stored value, see
+ * {@link org.steam5.config.TaggedCaffeineCache#etag(Object)}.
+ */
+public final class WeakEtags {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private WeakEtags() {
+    }
+
+    public static String forPicks(final List<SteamAppDetail> details) {
+        final MessageDigest md = sha256();
+        for (SteamAppDetail d : details) {
+            update(md, String.valueOf(d.getAppId()));
+            update(md, d.getName());
+            update(md, d.getReleaseDate());
+            if (d.getPriceOverview() != null) {
+                update(md, d.getPriceOverview().getCurrency());
+                update(md, Long.toString(d.getPriceOverview().getFinalAmount()));
+            }
+            // screenshot paths influence visual content; limit sample for speed
+            int i = 0;
+            if (d.getScreenshots() != null) for (var s : d.getScreenshots()) {
+                if (i++ >= 2) break;
+                update(md, s.getPathFull());
+            }
+        }
+        return format(md.digest());
+    }
+
+    public static String forStringLists(final List<? extends List<String>> lists) {
+        final MessageDigest md = sha256();
+        for (List<String> l : lists) {
+            if (l == null) continue;
+            for (String s : l) {
+                update(md, s);
+                md.update((byte) '\n');
+            }
+            md.update((byte) '\u0000');
+        }
+        return format(md.digest());
+    }
+
+    public static String format(final byte[] digest) {
+        return "W/\"" + HEX.formatHex(digest) + "\"";
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(final MessageDigest md, final String s) {
+        if (s != null) md.update(s.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -29,15 +29,14 @@
 --     ix_season_award_player      (season_award_results: steam_id)
 --     ux_season_number            UNIQUE (seasons: season_number)
 --     ix_season_dates             (seasons: start_date, end_date)
+--     idx_leaderboard_user_day_game_date (leaderboard_user_day: game_date)
 --   Plus named/implicit unique constraints from @UniqueConstraint (users.steam_id,
 --   review_game_pick(pick_date, app_id) as uq_review_pick_date_app,
 --   comment_reactions(comment_id, steam_id, reaction_type) as uq_comment_reaction, and the
 --   single-column unique constraints on details.Developer/Genre/Category/Publisher).
--- * The 6 materialized-view unique indexes required for REFRESH ... CONCURRENTLY
---   (ux_mv_leaderboard_all_time_steam_id, ux_mv_leaderboard_monthly_steam_id,
---   ux_mv_leaderboard_weekly_steam_id, ux_mv_leaderboard_season_steam_id,
---   ux_mv_hardest_games_app_id, ux_mv_perfect_days_entry) are auto-bootstrapped at app startup
---   by LeaderboardMvBootstrapConfig from their own mv-*.sql files -- not duplicated here, since
+-- * The materialized-view unique index required for REFRESH ... CONCURRENTLY
+--   (ux_mv_hardest_games_app_id) is auto-bootstrapped at app startup by
+--   LeaderboardMvBootstrapConfig from mv-hardest-games.sql -- not duplicated here, since
 --   that would create a second, driftable source of truth for DDL the app itself owns.
 
 -- ============================================================================
@@ -46,7 +45,7 @@
 
 -- Hibernate creates this non-concurrently via ddl-auto; on a large `guesses` table, rebuild it
 -- CONCURRENTLY during a maintenance window instead (see the NOTE on Guess.java's @Table).
--- Backs findAllBetween/findSeasonStats/findSeasonDates (see README's Query Performance Notes).
+-- Backs findAllBetween/findSeasonStats (see README's Query Performance Notes).
 CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_guesses_game_date
     ON guesses (game_date);
 
@@ -1,7 +1,6 @@
--- Manual utility queries for the six leaderboard/hardest-games/perfect-days materialized views
--- (mv_leaderboard_all_time, mv_leaderboard_monthly, mv_leaderboard_weekly,
--- mv_leaderboard_season, mv_hardest_games, mv_perfect_days — see mv-leaderboard-*.sql,
--- mv-hardest-games.sql and mv-perfect-days.sql for their definitions).
+-- Manual utility queries for the hardest-games materialized view (mv_hardest_games — see
+-- mv-hardest-games.sql for its definition) and the leaderboard aggregate tables
+-- (leaderboard_user_day, leaderboard_user_total — maintained by LeaderboardAggregateService).
 -- Not run automatically by anything; copy/paste the statement you need into a SQL console.
 
 -- =============================================================================
@@ -9,46 +8,46 @@
 --    `users` or `guesses`)
 -- =============================================================================
 --
--- Needed because: these MVs query `FROM guesses g LEFT JOIN users u ON ...`, so Postgres
--- tracks a dependency from each MV onto both the `guesses` and `users` tables. `pg_restore
--- --clean --if-exists` issues plain `DROP TABLE IF EXISTS public.users;` / `public.guesses;`
--- statements (with no CASCADE), which fail with:
---   ERROR: cannot drop table public.users because other objects depend on it
---   DETAIL: materialized view public.mv_leaderboard_all_time depends on table public.users
--- pg_restore has no flag to make its own generated DROP statements use CASCADE, so the MVs
--- must be dropped manually first. Run this once, immediately before the pg_restore command:
-DROP MATERIALIZED VIEW IF EXISTS mv_leaderboard_all_time, mv_leaderboard_monthly, mv_leaderboard_weekly, mv_leaderboard_season, mv_hardest_games, mv_perfect_days CASCADE;
+-- Needed because: the MV queries `FROM guesses g`, so Postgres tracks a dependency from it
+-- onto the `guesses` table. `pg_restore --clean --if-exists` issues plain
+-- `DROP TABLE IF EXISTS public.guesses;` statements (with no CASCADE), which fail with:
+--   ERROR: cannot drop table public.guesses because other objects depend on it
+--   DETAIL: materialized view public.mv_hardest_games depends on table public.guesses
+-- pg_restore has no flag to make its own generated DROP statements use CASCADE, so the MV
+-- must be dropped manually first. Run this once, immediately before the pg_restore command.
+-- The other names are the retired per-player leaderboard/perfect-days views, which older
+-- databases may still carry (they also depend on `users`); nothing reads them any more, so
+-- this is also the one-time cleanup for those:
+DROP MATERIALIZED VIEW IF EXISTS mv_hardest_games, mv_leaderboard_all_time, mv_leaderboard_monthly, mv_leaderboard_weekly, mv_leaderboard_season, mv_perfect_days CASCADE;
 
 -- After the restore completes, just restart the backend — LeaderboardMvBootstrapConfig
--- recreates all six MVs and their unique indexes, and immediately populates each with a
--- one-time REFRESH (recording it in leaderboard_refresh_state), with no further manual step.
+-- recreates the MV and its unique index and immediately populates it with a one-time REFRESH
+-- (recording it in leaderboard_refresh_state), and LeaderboardAggregateService rebuilds the
+-- aggregate tables from `guesses` if they are empty, with no further manual step.
 
 -- =============================================================================
--- B) Read the current contents of each materialized view
+-- B) Read the current contents
 -- =============================================================================
 
-SELECT * FROM mv_leaderboard_all_time ORDER BY total_points DESC;
-
-SELECT * FROM mv_leaderboard_monthly ORDER BY total_points DESC;
-
-SELECT * FROM mv_leaderboard_weekly ORDER BY total_points DESC;
-
-SELECT * FROM mv_leaderboard_season ORDER BY total_points DESC;
-
 SELECT * FROM mv_hardest_games ORDER BY avg_score ASC, player_count DESC;
 
-SELECT * FROM mv_perfect_days ORDER BY game_date DESC;
+SELECT * FROM leaderboard_user_total ORDER BY total_points DESC;
+
+SELECT * FROM leaderboard_user_day WHERE game_date >= (now() AT TIME ZONE 'UTC')::date - 6 ORDER BY game_date DESC, total_points DESC;
 
 -- =============================================================================
--- C) Check whether each view has ever been populated / when it was last refreshed
+-- C) Check whether the view has ever been populated / when things were last refreshed
 -- =============================================================================
 -- (Bonus, closely related to (B) — a materialized view created WITH NO DATA raises
 -- "has not been populated" on any SELECT until its first REFRESH.)
 
-SELECT matviewname, ispopulated FROM pg_matviews WHERE matviewname LIKE 'mv_leaderboard_%' OR matviewname IN ('mv_hardest_games', 'mv_perfect_days');
+SELECT matviewname, ispopulated FROM pg_matviews WHERE matviewname = 'mv_hardest_games';
 
 SELECT * FROM leaderboard_refresh_state;
 
+-- Force a full aggregate rebuild: empty the totals and restart the backend.
+-- TRUNCATE leaderboard_user_total;
+
 -- =============================================================================
 -- D) One-time fix: stale CHECK constraint on leaderboard_refresh_state.leaderboard_type
 -- =============================================================================
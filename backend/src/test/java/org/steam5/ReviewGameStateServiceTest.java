@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.steam5.config.ReviewGameConfig;
+import org.steam5.domain.ExcludedApp;
 import org.steam5.domain.GameDate;
 import org.steam5.domain.ReviewGamePick;
 import org.steam5.http.SteamApiException;
@@ -14,14 +15,22 @@ import org.steam5.repository.ExcludedAppRepository;
 import org.steam5.repository.ReviewGamePickRepository;
 import org.steam5.repository.SteamAppReviewsRepository;
 import org.steam5.service.DomainCacheEvictor;
+import org.steam5.service.PickCandidateIndex;
 import org.steam5.service.ReviewGameStateService;
 import org.steam5.service.SteamAppDetailsFetcher;
 import org.steam5.service.SteamAppReviewsFetcher;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
 
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -38,9 +47,12 @@ public class ReviewGameStateServiceTest {
     private ReviewGameConfig config;
     private DomainCacheEvictor cacheEvictor;
     private ApplicationEventPublisher eventPublisher;
+    private PickCandidateIndex candidateIndex;
 
     private ReviewGameStateService service;
 
+    private static final JsonNode DETAILS = new ObjectMapper().createObjectNode().put("name", "Game");
+
     @BeforeEach
     void setUp() throws Exception {
         reviewsRepository = mock(SteamAppReviewsRepository.class);
@@ -52,6 +64,8 @@ public class ReviewGameStateServiceTest {
         config = new ReviewGameConfig();
         cacheEvictor = mock(DomainCacheEvictor.class);
         eventPublisher = mock(ApplicationEventPublisher.class);
+        // Not ready: generation falls back to the SQL sampling stubbed below
+        candidateIndex = mock(PickCandidateIndex.class);
 
         service = new ReviewGameStateService(
                 reviewsRepository,
@@ -62,7 +76,8 @@ public class ReviewGameStateServiceTest {
                 excludedAppRepository,
                 config,
                 cacheEvictor,
-                eventPublisher
+                eventPublisher,
+                candidateIndex
         );
 
         // Defaults for config
@@ -99,7 +114,7 @@ public class ReviewGameStateServiceTest {
                 .thenReturn(List.of(1000L, 1001L, 1002L));
 
         // Details validation succeeds; do not write anything in test
-        doReturn(true).when(detailsFetcher).fetchForAppId(anyLong());
+        doReturn(DETAILS).when(detailsFetcher).fetchDetails(anyLong());
 
         // Save picks returns the same list with ids
         when(pickRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
@@ -111,7 +126,7 @@ public class ReviewGameStateServiceTest {
         // fresh round is served immediately rather than a previously cached one.
         final List<ReviewGamePick> picks = service.generateDailyPicks();
         assertFalse(picks.isEmpty());
-        verify(cacheEvictor).evictReviewGameState();
+        verify(cacheEvictor).evictReviewGameState(GameDate.todayUtc());
     }
 
     @Test
@@ -123,6 +138,18 @@ public class ReviewGameStateServiceTest {
         verify(pickRepository).findByPickDate(GameDate.todayUtc());
     }
 
+    @Test
+    void stageNextDayPicks_writesTomorrowWithoutEvictingTodaysCache() {
+        final LocalDate tomorrow = GameDate.todayUtc().plusDays(1);
+
+        final List<ReviewGamePick> picks = service.stageNextDayPicks();
+
+        assertFalse(picks.isEmpty());
+        assertTrue(picks.stream().allMatch(p -> tomorrow.equals(p.getPickDate())));
+        verify(pickLockRepository).tryAcquire(tomorrow.toString());
+        verify(cacheEvictor, never()).evictReviewGameState(any());
+    }
+
     @Test
     void generatesFivePicksWithoutDbWritesInDryRunStyle() throws Exception {
         final List<ReviewGamePick> picks = service.generateDailyPicks();
@@ -131,9 +158,10 @@ public class ReviewGameStateServiceTest {
         // Ensure unique appIds
         assertEquals(picks.stream().map(ReviewGamePick::getAppId).distinct().count(), picks.size());
 
-        // Verify details were called for each pick, but we don't assert on db writes beyond saveAll
+        // Verify details were fetched and stored for each pick, but we don't assert on db writes beyond saveAll
         for (ReviewGamePick p : picks) {
-            verify(detailsFetcher, atLeastOnce()).fetchForAppId(p.getAppId());
+            verify(detailsFetcher, atLeastOnce()).fetchDetails(p.getAppId());
+            verify(detailsFetcher).store(p.getAppId(), DETAILS);
         }
         // Ensure event published for each
         verify(eventPublisher, atLeast(5)).publishEvent(any(BlurhashEncodeRequested.class));
@@ -154,7 +182,7 @@ public class ReviewGameStateServiceTest {
         // A Steam API outage during generation must not permanently exclude
         // candidates nor lock the day to zero picks.
         doThrow(new SteamApiException(599, "https://store.steampowered.com/api/appdetails?appids=1&key=abc", "Network error"))
-                .when(detailsFetcher).fetchForAppId(anyLong());
+                .when(detailsFetcher).fetchDetails(anyLong());
 
         final List<ReviewGamePick> picks = service.generateDailyPicks();
 
@@ -164,6 +192,108 @@ public class ReviewGameStateServiceTest {
         verify(pickRepository, never()).saveAll(anyList());
     }
 
+    @Test
+    void generateDailyPicks_rateLimitedValidationAbortsGeneration() throws Exception {
+        // A 429 in any concurrent validation lane must abort the whole run
+        // without excluding the app or saving partial picks.
+        doThrow(new SteamApiException(429, "https://store.steampowered.com/api/appdetails?appids=1&key=abc", "Too Many Requests"))
+                .when(detailsFetcher).fetchDetails(anyLong());
+
+        assertThrows(RuntimeException.class, () -> service.generateDailyPicks());
+
+        verify(excludedAppRepository, never()).save(any());
+        verify(pickRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void generateDailyPicks_firstValidCandidateInBucketWins() throws Exception {
+        // Speculative validation of later candidates must not change which app
+        // wins: the earliest valid candidate in sample order is picked.
+        service = stubbedServiceFor(ReviewGameStateService.BUCKET_STRATEGY.EQUAL);
+        doReturn(null).when(detailsFetcher).fetchDetails(1L);
+
+        final List<ReviewGamePick> picks = service.generateDailyPicks();
+
+        final Set<Long> ids = new HashSet<>(picks.stream().map(ReviewGamePick::getAppId).toList());
+        assertEquals(Set.of(2L, 4L, 7L, 10L, 13L), ids);
+        verify(excludedAppRepository).save(argThat((ExcludedApp e) -> e.getAppId() == 1L));
+    }
+
+    @Test
+    void generateDailyPicks_cancelsSpeculativeValidationsOnceTheRoundHasAWinner() throws Exception {
+        // App 2 is only validated speculatively behind app 1, which wins: its slow fetch must be
+        // cancelled rather than run to completion.
+        service = stubbedServiceFor(ReviewGameStateService.BUCKET_STRATEGY.EQUAL);
+        final AtomicBoolean ranToCompletion = new AtomicBoolean();
+        doAnswer(inv -> {
+            if (!new CountDownLatch(1).await(5, TimeUnit.SECONDS)) {
+                ranToCompletion.set(true);
+            }
+            return DETAILS;
+        }).when(detailsFetcher).fetchDetails(2L);
+
+        final List<ReviewGamePick> picks = service.generateDailyPicks();
+
+        assertEquals(Set.of(1L, 4L, 7L, 10L, 13L), new HashSet<>(picks.stream().map(ReviewGamePick::getAppId).toList()));
+        assertFalse(ranToCompletion.get());
+    }
+
+    @Test
+    void generateDailyPicks_fallsBackToAnyWithoutWaitingForOtherRounds() throws Exception {
+        // Round one's bucket has no valid app; its ANY fallback must not wait for the slow
+        // lane of another round.
+        service = stubbedServiceFor(ReviewGameStateService.BUCKET_STRATEGY.EQUAL);
+        doReturn(null).when(detailsFetcher).fetchDetails(1L);
+        doReturn(null).when(detailsFetcher).fetchDetails(2L);
+        doReturn(null).when(detailsFetcher).fetchDetails(3L);
+        final CountDownLatch fallbackValidated = new CountDownLatch(1);
+        doAnswer(inv -> {
+            fallbackValidated.countDown();
+            return DETAILS;
+        }).when(detailsFetcher).fetchDetails(1000L);
+        doAnswer(inv -> fallbackValidated.await(5, TimeUnit.SECONDS) ? DETAILS : null)
+                .when(detailsFetcher).fetchDetails(13L);
+
+        final List<ReviewGamePick> picks = service.generateDailyPicks();
+
+        final Set<Long> ids = new HashSet<>(picks.stream().map(ReviewGamePick::getAppId).toList());
+        assertTrue(ids.contains(1000L));
+        assertTrue(ids.contains(13L));
+    }
+
+    @Test
+    void generateDailyPicks_writesValidationResultsOnTheGeneratingThread() throws Exception {
+        // Lanes run outside the generation transaction: exclusions and detail upserts must be
+        // written by the calling thread so they commit or roll back with the picks.
+        service = stubbedServiceFor(ReviewGameStateService.BUCKET_STRATEGY.EQUAL);
+        doReturn(null).when(detailsFetcher).fetchDetails(1L);
+        final Set<Thread> writers = ConcurrentHashMap.newKeySet();
+        doAnswer(inv -> writers.add(Thread.currentThread())).when(excludedAppRepository).save(any());
+        doAnswer(inv -> writers.add(Thread.currentThread())).when(detailsFetcher).store(anyLong(), any());
+
+        service.generateDailyPicks();
+
+        verify(excludedAppRepository).save(argThat((ExcludedApp e) -> e.getAppId() == 1L));
+        assertEquals(Set.of(Thread.currentThread()), writers);
+    }
+
+    @Test
+    void generateDailyPicks_samplesFromCandidateIndexWhenReady() {
+        // Once the in-memory index is loaded, generation must not run the
+        // ORDER BY random() queries at all.
+        final AtomicLong nextId = new AtomicLong(100L);
+        when(candidateIndex.isReady()).thenReturn(true);
+        when(candidateIndex.sample(anyInt(), anyInt(), any(LocalDate.class)))
+                .thenAnswer(inv -> List.of(nextId.getAndIncrement(), nextId.getAndIncrement()));
+
+        final List<ReviewGamePick> picks = service.generateDailyPicks();
+
+        assertEquals(5, picks.size());
+        verify(reviewsRepository, never()).findRandomBetween(any(), anyInt(), anyInt(), any());
+        verify(reviewsRepository, never()).findRandomGte(any(), anyInt(), any());
+        verify(candidateIndex).onPicked(anyCollection());
+    }
+
     private ReviewGameStateService stubbedServiceFor(ReviewGameStateService.BUCKET_STRATEGY strategy) {
         return new ReviewGameStateService(
                 reviewsRepository,
@@ -174,7 +304,8 @@ public class ReviewGameStateServiceTest {
                 excludedAppRepository,
                 config,
                 cacheEvictor,
-                eventPublisher
+                eventPublisher,
+                candidateIndex
         ) {
             @Override
             public BUCKET_STRATEGY chooseStrategyForDate(LocalDate date) {
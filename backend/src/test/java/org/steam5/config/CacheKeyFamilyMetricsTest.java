@@ -0,0 +1,97 @@
+package org.steam5.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheKeyFamilyMetricsTest {
+
+    private final CacheKeyFamilyMetrics metrics = new CacheKeyFamilyMetrics();
+
+    private Map<String, CacheKeyFamilyMetrics.Family> families(String cache) {
+        return metrics.forCache(cache).families().stream()
+                .collect(Collectors.toMap(CacheKeyFamilyMetrics.Family::name, f -> f));
+    }
+
+    @Test
+    void keysAreGroupedByShape() {
+        assertEquals("today-picks", CacheKeyFamilyMetrics.familyOf("today-picks:2025-03-14"));
+        assertEquals("always-pick-hist", CacheKeyFamilyMetrics.familyOf("always-pick-hist:min:max"));
+        assertEquals("#:*", CacheKeyFamilyMetrics.familyOf("570:101-1000"));
+        assertEquals("#review-count", CacheKeyFamilyMetrics.familyOf("570review-count"));
+        assertEquals("stats-genres-#", CacheKeyFamilyMetrics.familyOf("stats-genres-10"));
+        assertEquals("days", CacheKeyFamilyMetrics.familyOf("days"));
+        assertEquals("#", CacheKeyFamilyMetrics.familyOf(42L));
+        assertEquals("/api/review-game/picks/#-#-#",
+                CacheKeyFamilyMetrics.familyOf("/api/review-game/picks/2025-03-14?x=1@2025-03-14"));
+    }
+
+    @Test
+    void readsAndLoadsAreCountedPerFamily() {
+        final TaggedCaffeineCache cache = new TaggedCaffeineCache("review-game", Caffeine.newBuilder().build(),
+                Duration.ofHours(24), new ReviewGameCacheTags(), metrics);
+
+        cache.get("picks:2025-03-14", () -> "a");
+        cache.get("picks:2025-03-14", () -> "b");
+        cache.get("picks:2025-03-13", () -> "c");
+        assertNull(cache.get("archive-month:2025-03"));
+
+        final Map<String, CacheKeyFamilyMetrics.Family> families = families("review-game");
+        assertEquals(1, families.get("picks").hitCount());
+        assertEquals(2, families.get("picks").missCount());
+        assertEquals(2, families.get("picks").loadCount());
+        assertEquals(1, families.get("archive-month").missCount());
+        assertEquals(0, families.get("archive-month").loadCount());
+    }
+
+    @Test
+    void removalsAreCountedByCause() {
+        final CacheConfig.Budget budget = new CacheConfig.Budget(1_000_000L, Map.of("one-hour", 1),
+                new CacheWeigher(JsonMapper.builder().build(), 1.0), metrics);
+        final InstrumentedCaffeineCache cache = new InstrumentedCaffeineCache("one-hour",
+                budget.builder("one-hour").executor(Runnable::run).build(), metrics);
+
+        cache.put("counts", 1);
+        cache.put("counts", 2);
+        cache.evict("counts");
+
+        final CacheKeyFamilyMetrics.Family family = families("one-hour").get("counts");
+        assertEquals(1, family.removalCount(RemovalCause.REPLACED));
+        assertEquals(1, family.removalCount(RemovalCause.EXPLICIT));
+    }
+
+    @Test
+    void familiesSeenAfterBindingAreRegistered() {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final InstrumentedCaffeineCache cache = new InstrumentedCaffeineCache("one-day",
+                Caffeine.newBuilder().build(), metrics);
+        cache.get("buckets");
+        metrics.bindTo(registry);
+        cache.get(7L);
+
+        assertEquals(1.0, registry.get("steam5.cache.family.gets")
+                .tags("cache", "one-day", "family", "buckets", "result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("steam5.cache.family.gets")
+                .tags("cache", "one-day", "family", "#", "result", "miss").functionCounter().count());
+        assertNotNull(registry.get("steam5.cache.family.loads").tags("family", "#").functionTimer());
+    }
+
+    @Test
+    void familiesAreCappedPerCache() {
+        final CacheKeyFamilyMetrics.CacheFamilies families = metrics.forCache("stats-long");
+        for (int i = 0; i < CacheKeyFamilyMetrics.MAX_FAMILIES + 10; i++) {
+            families.family("family" + (char) ('a' + i % 26) + (char) ('a' + i / 26) + ":x");
+        }
+
+        assertEquals(CacheKeyFamilyMetrics.MAX_FAMILIES + 1, families.families().size());
+        assertSame(families.family("unseen:x"), families.family("another-unseen:x"));
+    }
+}
@@ -0,0 +1,84 @@
+package org.steam5.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheWeigherTest {
+
+    private final CacheWeigher weigher = new CacheWeigher(JsonMapper.builder().build(), 2.0);
+
+    record Row(String name, long count) {
+    }
+
+    @Test
+    void largerPayloadsWeighMore() {
+        final List<Row> small = List.of(new Row("a", 1));
+        final List<Row> large = IntStream.range(0, 200)
+                .mapToObj(i -> new Row("row-" + i, i)).toList();
+
+        assertTrue(weigher.weigh("k", large) > 10 * weigher.weigh("k", small));
+        assertTrue(weigher.estimate(large) > 200 * 20);
+    }
+
+    @Test
+    void indentationOfTheAppMapperIsNotCounted() {
+        final CacheWeigher indenting = new CacheWeigher(
+                JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build(), 2.0);
+        final List<Row> rows = List.of(new Row("a", 1), new Row("b", 2));
+
+        assertEquals(weigher.estimate(rows), indenting.estimate(rows));
+    }
+
+    @Test
+    void largeCollectionsAreWeighedFromASample() {
+        final List<Row> rows = IntStream.range(0, 10_000)
+                .mapToObj(i -> new Row("row-" + i, i)).toList();
+        final long full = (long) (JsonMapper.builder().build().writeValueAsBytes(rows).length * 2.0);
+
+        final long estimate = weigher.estimate(rows);
+
+        assertTrue(Math.abs(estimate - full) < full / 10, estimate + " vs " + full);
+    }
+
+    @Test
+    void responseEntitiesAreWeighedByBodyAndHeaders() {
+        final List<Row> body = List.of(new Row("a", 1), new Row("b", 2));
+        final long bodyOnly = weigher.estimate(body);
+        final long response = weigher.estimate(ResponseEntity.ok().header("Cache-Control", "public").body(body));
+
+        assertTrue(response > bodyOnly);
+        assertTrue(response < bodyOnly + 1_000);
+    }
+
+    @Test
+    void sizedValuesAndBytesAreWeighedDirectly() {
+        final CacheWeigher.Sized sized = w -> 12_345L;
+        assertEquals(12_345L, weigher.estimate(sized));
+        assertEquals(16L + 4_096, weigher.estimate(new byte[4_096]));
+        assertEquals(0L, weigher.estimate(null));
+    }
+
+    @Test
+    void unserializableValuesGetAFixedWeight() {
+        final Object opaque = new Object();
+        assertEquals(CacheWeigher.UNSERIALIZABLE_BYTES, weigher.estimate(opaque));
+    }
+
+    @Test
+    void budgetIsSplitByShare() {
+        final CacheConfig.Budget budget = new CacheConfig.Budget(1_000_000L, Map.of("a", 1, "b", 3), weigher,
+                new CacheKeyFamilyMetrics());
+
+        assertEquals(250_000L, budget.bytesFor("a"));
+        assertEquals(750_000L, budget.bytesFor("b"));
+        assertThrows(IllegalStateException.class, () -> budget.bytesFor("missing"));
+    }
+}
@@ -40,7 +40,7 @@ class LeaderboardMvBootstrapConfigTest {
         config = new LeaderboardMvBootstrapConfig();
     }
 
-    /** Stubs the pg_matviews (existence + populated) / pg_indexes existence checks for every one of the 4 MVs. */
+    /** Stubs the pg_matviews (existence + populated) / pg_indexes existence checks for the hardest-games MV. */
     private void stubExistence(boolean viewExists, boolean viewPopulated, boolean indexExists) throws Exception {
         PreparedStatement viewCheck = mock(PreparedStatement.class);
         ResultSet viewRs = mock(ResultSet.class);
@@ -58,18 +58,18 @@ class LeaderboardMvBootstrapConfigTest {
     }
 
     @Test
-    void bootstrap_neitherExistsNorPopulated_createsViewIndexAndPopulatesForEachMv() throws Exception {
+    void bootstrap_neitherExistsNorPopulated_createsViewIndexAndPopulatesTheMv() throws Exception {
         stubExistence(false, false, false);
 
         config.bootstrapLeaderboardMvs(dataSource).run(mock(ApplicationArguments.class));
 
-        // 6 MVs x 3 statements (CREATE MATERIALIZED VIEW + CREATE UNIQUE INDEX CONCURRENTLY +
-        // the initial REFRESH) each
-        verify(statement, times(18)).execute(any(String.class));
-        verify(connection, times(6)).setAutoCommit(true);
+        // 3 statements: CREATE MATERIALIZED VIEW + CREATE UNIQUE INDEX CONCURRENTLY + the
+        // initial REFRESH
+        verify(statement, times(3)).execute(any(String.class));
+        verify(connection, times(1)).setAutoCommit(true);
         // The initial population is recorded immediately so the freshness header/UI reflects
         // it without waiting for the first scheduled refresh job.
-        verify(refreshStateUpsert, times(6)).executeUpdate();
+        verify(refreshStateUpsert, times(1)).executeUpdate();
     }
 
     @Test
@@ -88,9 +88,9 @@ class LeaderboardMvBootstrapConfigTest {
 
         config.bootstrapLeaderboardMvs(dataSource).run(mock(ApplicationArguments.class));
 
-        // 6 MVs x 1 statement (CREATE UNIQUE INDEX CONCURRENTLY only) — already populated, so
-        // no initial REFRESH is needed.
-        verify(statement, times(6)).execute(any(String.class));
+        // CREATE UNIQUE INDEX CONCURRENTLY only — already populated, so no initial REFRESH is
+        // needed.
+        verify(statement, times(1)).execute(any(String.class));
         verify(refreshStateUpsert, never()).executeUpdate();
     }
 
@@ -99,14 +99,14 @@ class LeaderboardMvBootstrapConfigTest {
         // Covers the exact production/dev symptom this fix addresses: a view (and its index)
         // already exist — created by an earlier bootstrap run, or manually — but nothing has
         // ever refreshed it, so every read fails with "has not been populated" until whichever
-        // scheduled job fires next (up to 24h away for the season/hardest-games MVs specifically).
+        // scheduled job fires next (up to 24h away for the hardest-games MV).
         stubExistence(true, false, true);
 
         config.bootstrapLeaderboardMvs(dataSource).run(mock(ApplicationArguments.class));
 
-        // 6 MVs x 1 statement (REFRESH only) — view+index already exist, just needs populating
-        verify(statement, times(6)).execute(any(String.class));
-        verify(refreshStateUpsert, times(6)).executeUpdate();
+        // REFRESH only — view+index already exist, just needs populating
+        verify(statement, times(1)).execute(any(String.class));
+        verify(refreshStateUpsert, times(1)).executeUpdate();
     }
 
     @Test
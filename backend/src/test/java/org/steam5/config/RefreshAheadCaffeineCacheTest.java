@@ -0,0 +1,157 @@
+package org.steam5.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshAheadCaffeineCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    // Same-thread executor: a triggered refresh has completed when the read returns
+    private final RefreshAheadCaffeineCache cache = new RefreshAheadCaffeineCache("leaderboard-live",
+            Caffeine.newBuilder().ticker(nanos::get), Duration.ofSeconds(60), Duration.ofSeconds(120), Runnable::run);
+
+    private String load() {
+        return "v" + loads.incrementAndGet();
+    }
+
+    private void advance(Duration d) {
+        nanos.addAndGet(d.toNanos());
+    }
+
+    // Stands in for the owning bean's cached method
+    private void readToday(String key) {
+        cache.get(key, this::load);
+    }
+
+    @Test
+    void staleEntryIsServedWhileOneReloadRuns() {
+        cache.reloadWith("to", this::readToday);
+        assertEquals("v1", cache.get("today", this::load));
+        advance(Duration.ofSeconds(30));
+        assertEquals("v1", cache.get("today", this::load));
+        assertEquals(1, loads.get());
+
+        advance(Duration.ofSeconds(31));
+        // The reader past refreshAfter still gets the current value; the reload replaces it
+        assertEquals("v1", cache.get("today", this::load));
+        assertEquals("v2", cache.get("today", this::load));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void plainLookupsAlsoTriggerRefreshOfKnownKeys() {
+        cache.reloadWith("to", this::readToday);
+        cache.get("today", this::load);
+        advance(Duration.ofSeconds(61));
+
+        assertEquals("v1", cache.get("today").get());
+        assertEquals("v2", cache.get("today").get());
+        assertNull(cache.get("unknown"));
+    }
+
+    @Test
+    void reloadsGoThroughTheRegisteredReaderNotTheLoaderOfTheMiss() {
+        final AtomicInteger missLoads = new AtomicInteger();
+        cache.reloadWith("to", this::readToday);
+        cache.reloadWith("tomorrow", key -> {
+            throw new AssertionError("longest prefix wins");
+        });
+        cache.get("today", () -> "miss" + missLoads.incrementAndGet());
+        advance(Duration.ofSeconds(61));
+
+        cache.get("today", () -> "miss" + missLoads.incrementAndGet());
+        assertEquals("v1", cache.get("today").get());
+        assertEquals(1, missLoads.get());
+    }
+
+    @Test
+    void reloadReadsOtherKeysThroughTheCache() {
+        cache.reloadWith("today", key -> {
+            assertEquals("o1", cache.get("other", () -> "o2"));
+            readToday(key);
+        });
+        cache.get("today", this::load);
+        advance(Duration.ofSeconds(30));
+        cache.get("other", () -> "o1");
+        advance(Duration.ofSeconds(31));
+
+        cache.get("today", this::load);
+        assertEquals("v1", cache.get("today").get());
+    }
+
+    @Test
+    void keysWithoutAReaderOrNoLongerReadAreDroppedAtRefresh() {
+        cache.reloadWith("day:", key -> cache.get("day:2", this::load));
+        cache.get("day:1", this::load);
+        cache.get("unregistered", this::load);
+        advance(Duration.ofSeconds(61));
+
+        cache.get("day:1");
+        cache.get("unregistered");
+        assertNull(cache.get("day:1"));
+        assertNull(cache.get("unregistered"));
+    }
+
+    @Test
+    void unreadEntriesExpire() {
+        cache.get("today", this::load);
+        advance(Duration.ofSeconds(121));
+
+        assertEquals("v2", cache.get("today", this::load));
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        final RefreshAheadCaffeineCache shared = new RefreshAheadCaffeineCache("stats-hourly",
+                Caffeine.newBuilder(), Duration.ofHours(1), Duration.ofHours(2), Runnable::run);
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> shared.get("k", () -> {
+            entered.countDown();
+            release.await();
+            return load();
+        }));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        final CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> shared.get("k", this::load));
+
+        assertThrows(TimeoutException.class, () -> second.get(100, TimeUnit.MILLISECONDS));
+        release.countDown();
+
+        assertEquals("v1", first.get(5, TimeUnit.SECONDS));
+        assertEquals("v1", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void responsesTheOldUnlessGuardsRejectedAreReturnedButNotCached() {
+        final ResponseEntity<Object> notFound = ResponseEntity.notFound().build();
+        assertSame(notFound, cache.get("a", () -> notFound));
+        assertNull(cache.get("a"));
+
+        final ResponseEntity<Object> noBody = ResponseEntity.ok().build();
+        assertSame(noBody, cache.get("b", () -> noBody));
+        assertNull(cache.get("b"));
+
+        assertNull(cache.get("c", () -> null));
+        assertNull(cache.get("c"));
+
+        final ResponseEntity<List<String>> ok = ResponseEntity.ok(List.of("x"));
+        assertSame(ok, cache.get("d", () -> ok));
+        assertSame(ok, cache.get("d").get());
+    }
+}
@@ -0,0 +1,179 @@
+package org.steam5.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.http.ResponseEntity;
+import org.steam5.domain.details.SteamAppDetail;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.steam5.config.CacheTags.*;
+
+class TaggedCaffeineCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 14);
+
+    private final TaggedCaffeineCache cache = new TaggedCaffeineCache("review-game",
+            Caffeine.newBuilder().maximumSize(100).build(), Duration.ofHours(24), new ReviewGameCacheTags());
+
+    private static SteamAppDetail detail(long appId) {
+        final SteamAppDetail d = new SteamAppDetail();
+        d.setAppId(appId);
+        return d;
+    }
+
+    private void load(String key, Object value) {
+        assertNull(cache.get(key));
+        cache.put(key, value);
+    }
+
+    @Test
+    void appChangeDropsOnlyEntriesEmbeddingThatApp() {
+        load("picks:" + DAY, ResponseEntity.ok(List.of(detail(1), detail(2))));
+        load("picks:" + DAY.minusDays(1), ResponseEntity.ok(List.of(detail(3))));
+        load("days", ResponseEntity.ok(List.of(DAY.toString())));
+
+        cache.invalidate(List.of(appTag(2)));
+
+        assertNull(cache.get("picks:" + DAY));
+        assertNotNull(cache.get("picks:" + DAY.minusDays(1)));
+        assertNotNull(cache.get("days"));
+    }
+
+    @Test
+    void reviewCountChangeKeepsHistoricalPicksButDropsGuessesAndCounts() {
+        load("picks:" + DAY, ResponseEntity.ok(List.of(detail(7))));
+        load("7review-count", 120);
+        load("7:101-1000", ResponseEntity.ok("guess"));
+        load("8review-count", 5);
+
+        cache.invalidate(List.of(reviewsTag(7)));
+
+        assertNotNull(cache.get("picks:" + DAY));
+        assertNull(cache.get("7review-count"));
+        assertNull(cache.get("7:101-1000"));
+        assertEquals(5, cache.get("8review-count").get());
+    }
+
+    @Test
+    void pickRegenerationDropsThatDayItsMonthAndTheDayList() {
+        load("picks:" + DAY, ResponseEntity.ok(List.of(detail(1))));
+        load("picks:" + DAY.minusMonths(1), ResponseEntity.ok(List.of(detail(1))));
+        load("archive-month:" + YearMonth.from(DAY), ResponseEntity.ok(List.of()));
+        load("archive-month:" + YearMonth.from(DAY.minusMonths(1)), ResponseEntity.ok(List.of()));
+        load("days", ResponseEntity.ok(List.of()));
+
+        cache.invalidate(List.of(dateTag(DAY), monthTag(YearMonth.from(DAY)), PICK_DAYS_TAG));
+
+        assertNull(cache.get("picks:" + DAY));
+        assertNull(cache.get("archive-month:" + YearMonth.from(DAY)));
+        assertNull(cache.get("days"));
+        assertNotNull(cache.get("picks:" + DAY.minusMonths(1)));
+        assertNotNull(cache.get("archive-month:" + YearMonth.from(DAY.minusMonths(1))));
+    }
+
+    @Test
+    void loadThatRacedAnInvalidationIsNotServed() {
+        assertNull(cache.get("7review-count"));
+        // Data changes while the miss is being loaded from the old state
+        cache.invalidate(List.of(reviewsTag(7)));
+        cache.put("7review-count", 100);
+
+        assertNull(cache.get("7review-count"));
+        cache.put("7review-count", 101);
+        assertEquals(101, cache.get("7review-count").get());
+    }
+
+    @Test
+    void valueLoaderReloadsStaleEntries() {
+        final AtomicInteger loads = new AtomicInteger();
+        assertEquals(1, cache.get("7review-count", loads::incrementAndGet));
+        assertEquals(1, cache.get("7review-count", loads::incrementAndGet));
+
+        cache.invalidate(List.of(reviewsTag(7)));
+
+        assertEquals(2, cache.get("7review-count", loads::incrementAndGet));
+        final Cache.ValueWrapper w = cache.get("7review-count");
+        assertNotNull(w);
+        assertEquals(2, w.get());
+    }
+
+    @Test
+    void etagIsRecordedOnPopulateAndFollowsInvalidation() {
+        final String key = "picks:" + DAY.minusDays(1);
+        load(key, ResponseEntity.ok().eTag("W/\"abc\"").body(List.of(detail(3))));
+        load("7review-count", 120);
+
+        assertEquals("W/\"abc\"", cache.etag(key));
+        assertNull(cache.etag("7review-count"));
+
+        // Outlives the body (size eviction) but not an invalidation of its tags
+        cache.getNativeCache().invalidate(key);
+        assertEquals("W/\"abc\"", cache.etag(key));
+        cache.invalidate(List.of(appTag(3)));
+        assertNull(cache.etag(key));
+
+        load(key, ResponseEntity.ok().eTag("W/\"def\"").body(List.of(detail(3))));
+        cache.clear();
+        assertNull(cache.etag(key));
+    }
+
+    @Test
+    void nonSuccessResponsesDropTheRecordedEtag() {
+        final String key = "picks:" + DAY;
+        load(key, ResponseEntity.ok().eTag("W/\"abc\"").body(List.of(detail(1))));
+        cache.put(key, ResponseEntity.notFound().build());
+        assertNull(cache.etag(key));
+    }
+
+    @Test
+    void stampsNothingDependsOnArePrunedButLiveOnesKept() {
+        load("picks:" + DAY, ResponseEntity.ok(List.of(detail(1))));
+        load("picks:" + DAY.minusDays(1), ResponseEntity.ok(List.of(detail(2))));
+        cache.invalidate(List.of(appTag(1)));
+
+        for (int appId = 100; appId < 5_000; appId++) {
+            cache.invalidate(List.of(appTag(appId)));
+        }
+
+        assertTrue(cache.stampCount() < 2_100);
+        // The older entry embedding app 1 is still invalidated; the other one survives
+        assertNull(cache.get("picks:" + DAY));
+        assertNotNull(cache.get("picks:" + DAY.minusDays(1)));
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Object> first = executor.submit(() -> cache.get("7review-count", () -> {
+                started.countDown();
+                release.await();
+                return loads.incrementAndGet();
+            }));
+            started.await();
+            final Future<Object> second = executor.submit(() -> cache.get("7review-count", loads::incrementAndGet));
+            release.countDown();
+
+            assertEquals(1, first.get(5, TimeUnit.SECONDS));
+            assertEquals(1, second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.steam5.domain;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+import org.steam5.repository.GuessRepository;
+import org.steam5.repository.LeaderboardAggregateRepository;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BucketLabelTest {
+
+    // Both columns are NOT NULL
+    private static final List<String> LABELS = List.of(
+            "0-100", "101-1000", "1001-10000", "10000+", " 101-1000", "1,000-10,000", "abc", "");
+
+    /** What {@code CAST(substring(label from LOWER_BOUND_REGEX) AS BIGINT)} yields in Postgres. */
+    private static Long sqlLowerBound(String label) {
+        final Matcher m = Pattern.compile(BucketLabel.LOWER_BOUND_REGEX).matcher(label);
+        return m.find() ? Long.valueOf(m.group(1)) : null;
+    }
+
+    /** A comparison with NULL is not true, so that guess counts as neither. */
+    private static boolean sqlGreater(Long a, Long b) {
+        return a != null && b != null && a > b;
+    }
+
+    @Test
+    void lowerBoundReadsTheLeadingNumber() {
+        assertEquals(101L, BucketLabel.lowerBound("101-1000"));
+        assertEquals(10000L, BucketLabel.lowerBound("10000+"));
+        assertEquals(101L, BucketLabel.lowerBound(" 101-1000"));
+        assertNull(BucketLabel.lowerBound("abc"));
+        assertNull(BucketLabel.lowerBound(null));
+        assertEquals(Integer.MIN_VALUE, BucketLabel.order("abc"));
+    }
+
+    @Test
+    void guessDeltaAndAggregateSqlClassifyEveryLabelPairAlike() {
+        for (String selected : LABELS) {
+            for (String actual : LABELS) {
+                final Guess guess = new Guess(1L, "u1", LocalDate.of(2026, 3, 14), 1, 10L,
+                        selected, actual, 0, OffsetDateTime.now());
+                final GuessStats delta = GuessStats.from(List.of(guess));
+                final Long s = sqlLowerBound(selected);
+                final Long a = sqlLowerBound(actual);
+                final String pair = selected + " vs " + actual;
+                assertEquals(sqlGreater(s, a) ? 1 : 0, delta.tooHigh(), pair);
+                assertEquals(sqlGreater(a, s) ? 1 : 0, delta.tooLow(), pair);
+            }
+        }
+    }
+
+    @Test
+    void aggregateQueriesUseTheSharedSqlRule() throws Exception {
+        final List<String> queries = List.of(
+                LeaderboardAggregateRepository.class.getMethod("insertDaysFrom", LocalDate.class)
+                        .getAnnotation(Query.class).value(),
+                GuessRepository.class.getMethod("aggregateAllTimeStatsHavingMinRounds", long.class)
+                        .getAnnotation(Query.class).value());
+        for (String sql : queries) {
+            assertTrue(sql.contains(BucketLabel.GUESS_TOO_HIGH_SQL), sql);
+            assertTrue(sql.contains(BucketLabel.GUESS_TOO_LOW_SQL), sql);
+            assertFalse(sql.contains("regexp_replace"), sql);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.steam5.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParticipationBitmapTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 14);
+
+    private static List<LocalDate> run(final LocalDate last, final int days) {
+        final List<LocalDate> dates = new ArrayList<>();
+        for (int i = 0; i < days; i++) {
+            dates.add(last.minusDays(i));
+        }
+        return dates;
+    }
+
+    @Test
+    void empty_hasNoStreaks() {
+        final ParticipationBitmap empty = ParticipationBitmap.empty();
+
+        assertEquals(0, empty.currentStreak(TODAY));
+        assertEquals(0, empty.longestStreak());
+        assertEquals(0, empty.countBetween(TODAY.minusDays(10), TODAY));
+        assertNull(empty.latestOnOrBefore(TODAY));
+    }
+
+    @Test
+    void with_setsDaysAndWidensInBothDirections() {
+        final ParticipationBitmap bitmap = ParticipationBitmap.empty()
+                .with(TODAY)
+                .with(TODAY.minusDays(400))
+                .with(TODAY.plusDays(200));
+
+        assertTrue(bitmap.contains(TODAY));
+        assertTrue(bitmap.contains(TODAY.minusDays(400)));
+        assertTrue(bitmap.contains(TODAY.plusDays(200)));
+        assertFalse(bitmap.contains(TODAY.minusDays(1)));
+        assertEquals(0, bitmap.originDay() % 64);
+    }
+
+    @Test
+    void with_alreadySet_returnsTheSameBitmap() {
+        final ParticipationBitmap bitmap = ParticipationBitmap.of(List.of(TODAY));
+
+        assertSame(bitmap, bitmap.with(TODAY));
+    }
+
+    @Test
+    void currentStreak_endsTodayOrYesterday() {
+        assertEquals(3, ParticipationBitmap.of(run(TODAY, 3)).currentStreak(TODAY));
+        // Not played yet today: yesterday's run still counts.
+        assertEquals(3, ParticipationBitmap.of(run(TODAY.minusDays(1), 3)).currentStreak(TODAY));
+        assertEquals(0, ParticipationBitmap.of(run(TODAY.minusDays(2), 3)).currentStreak(TODAY));
+    }
+
+    @Test
+    void currentStreak_spansManyWords() {
+        final List<LocalDate> dates = run(TODAY, 200);
+        dates.add(TODAY.minusDays(201)); // after a gap — not part of the streak
+
+        assertEquals(200, ParticipationBitmap.of(dates).currentStreak(TODAY));
+    }
+
+    @Test
+    void currentStreak_ignoresDaysAfterAsOf() {
+        final ParticipationBitmap bitmap = ParticipationBitmap.of(run(TODAY.plusDays(1), 5));
+
+        assertEquals(4, bitmap.currentStreak(TODAY));
+    }
+
+    @Test
+    void longestStreak_findsTheLongestRunAcrossWordBoundaries() {
+        final List<LocalDate> dates = new ArrayList<>(run(TODAY, 2));
+        dates.addAll(run(TODAY.minusDays(30), 100));
+        dates.addAll(run(TODAY.minusDays(300), 7));
+
+        final ParticipationBitmap bitmap = ParticipationBitmap.of(dates);
+
+        assertEquals(100, bitmap.longestStreak());
+        assertEquals(2, bitmap.currentStreak(TODAY));
+    }
+
+    @Test
+    void longestStreakBetween_clipsRunsToTheRange() {
+        final ParticipationBitmap bitmap = ParticipationBitmap.of(run(TODAY, 10));
+
+        assertEquals(4, bitmap.longestStreakBetween(TODAY.minusDays(20), TODAY.minusDays(6)));
+        assertEquals(10, bitmap.longestStreakBetween(TODAY.minusDays(20), TODAY.plusDays(20)));
+        assertEquals(0, bitmap.longestStreakBetween(TODAY.plusDays(1), TODAY.plusDays(20)));
+    }
+
+    @Test
+    void countBetween_countsOnlyDaysInTheRange() {
+        final ParticipationBitmap bitmap = ParticipationBitmap.of(List.of(
+                TODAY, TODAY.minusDays(2), TODAY.minusDays(70), TODAY.minusDays(500)));
+
+        assertEquals(3, bitmap.countBetween(TODAY.minusDays(100), TODAY));
+        assertEquals(4, bitmap.countBetween(TODAY.minusDays(1000), TODAY.plusDays(1000)));
+        assertEquals(0, bitmap.countBetween(TODAY.minusDays(60), TODAY.minusDays(3)));
+    }
+
+    @Test
+    void latestOnOrBefore_skipsEmptyWords() {
+        final ParticipationBitmap bitmap = ParticipationBitmap.of(List.of(TODAY, TODAY.minusDays(300)));
+
+        assertEquals(TODAY, bitmap.latestOnOrBefore(TODAY.plusDays(50)));
+        assertEquals(TODAY.minusDays(300), bitmap.latestOnOrBefore(TODAY.minusDays(1)));
+        assertNull(bitmap.latestOnOrBefore(TODAY.minusDays(301)));
+    }
+
+    @Test
+    void or_unitesBitmapsWithDifferentOrigins() {
+        final ParticipationBitmap a = ParticipationBitmap.of(run(TODAY, 3));
+        final ParticipationBitmap b = ParticipationBitmap.of(run(TODAY.minusDays(500), 2));
+
+        final ParticipationBitmap union = a.or(b);
+
+        assertEquals(5, union.countBetween(TODAY.minusDays(1000), TODAY));
+        assertEquals(3, union.currentStreak(TODAY));
+    }
+
+    @Test
+    void bytes_roundTrip() {
+        final ParticipationBitmap bitmap = ParticipationBitmap.of(List.of(TODAY, TODAY.minusDays(130)));
+
+        final ParticipationBitmap decoded = ParticipationBitmap.fromBytes(bitmap.originDay(), bitmap.toBytes());
+
+        assertTrue(decoded.contains(TODAY));
+        assertTrue(decoded.contains(TODAY.minusDays(130)));
+        assertEquals(2, decoded.countBetween(TODAY.minusDays(200), TODAY));
+        assertTrue(ParticipationBitmap.fromBytes(0, new byte[0]).isEmpty());
+    }
+}
@@ -0,0 +1,192 @@
+package org.steam5.http;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.steam5.config.SteamAppsConfig;
+import org.steam5.config.SteamRateLimitProperties;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SteamHttpClientTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch stalled = new CountDownLatch(1);
+    private HttpServer server;
+    private SteamHttpClient client;
+    private String base;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/flaky", exchange -> {
+            final int status = calls.incrementAndGet() == 1 ? 503 : 200;
+            respond(exchange, status, "{\"ok\":true}");
+        });
+        server.createContext("/missing", exchange -> {
+            calls.incrementAndGet();
+            respond(exchange, 404, "");
+        });
+        server.createContext("/stalled", exchange -> {
+            if (calls.incrementAndGet() > 1) {
+                respond(exchange, 200, "{\"ok\":true}");
+                return;
+            }
+            // Headers and part of the body, then nothing until the test ends
+            exchange.sendResponseHeaders(200, 11);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("{\"ok\"".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                stalled.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.createContext("/api/appdetails", exchange -> respond(exchange, 200, "{\"10\":{\"success\":true}}"));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        final SteamRateLimitProperties props = new SteamRateLimitProperties();
+        props.setPermitsPerSecond(1000.0);
+        props.setBurst(100);
+        props.getHost().setPermitsPerSecond(1000.0);
+        props.getHost().setBurst(100);
+        client = new SteamHttpClient(new SteamAppsConfig(), new SteamRateLimiter(props, meterRegistry), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stalled.countDown();
+        client.shutdown();
+        server.stop(0);
+    }
+
+    private static void respond(com.sun.net.httpserver.HttpExchange exchange, int status, String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Test
+    void retriesTransientServerErrors() throws Exception {
+        assertEquals("{\"ok\":true}", client.get(base + "/flaky"));
+        assertEquals(2, calls.get());
+        assertEquals(1.0, meterRegistry.get("steam.api.requests").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    void clientErrorsFailWithoutRetry() {
+        final SteamApiException ex = assertThrows(SteamApiException.class, () -> client.get(base + "/missing?key=secret"));
+        assertEquals(404, ex.getStatusCode());
+        assertFalse(ex.getUrl().contains("secret"));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void jsonIsParsedFromTheResponseStream() throws Exception {
+        final JsonHttpClient json = new JsonHttpClient(client, new ObjectMapper());
+        final JsonNode root = json.getJsonAsync(base + "/api/appdetails?appids=10").get();
+        assertTrue(root.path("10").path("success").asBoolean());
+        assertEquals(1.0, meterRegistry.get("steam.api.requests").tag("endpoint", "appDetails").counter().count());
+    }
+
+    @Test
+    void stalledBodyTimesOutAndIsRetried() throws Exception {
+        final SteamAppsConfig cfg = mock(SteamAppsConfig.class);
+        when(cfg.getHttpTimeoutMs()).thenReturn(1000);
+        final SteamRateLimitProperties props = new SteamRateLimitProperties();
+        props.setPermitsPerSecond(1000.0);
+        props.setBurst(100);
+        props.getHost().setPermitsPerSecond(1000.0);
+        props.getHost().setBurst(100);
+        final SteamHttpClient fast = new SteamHttpClient(cfg, new SteamRateLimiter(props, meterRegistry), meterRegistry);
+        try {
+            final JsonNode root = new JsonHttpClient(fast, new ObjectMapper()).getJson(base + "/stalled");
+            assertTrue(root.path("ok").asBoolean());
+            assertEquals(2, calls.get());
+        } finally {
+            fast.shutdown();
+        }
+    }
+
+    @Test
+    void readerTimeBetweenReadsDoesNotCountAgainstTheTimeout() throws Exception {
+        final SteamHttpClient fast = clientWithTimeout(500);
+        try {
+            final Boolean ok = new JsonHttpClient(fast, new ObjectMapper()).streamJson(base + "/api/appdetails", parser -> {
+                parser.nextToken();
+                try {
+                    // Stands in for writing a parsed chunk to the database
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return parser.readValueAsTree() != null;
+            });
+            assertTrue(ok);
+            assertEquals(1.0, meterRegistry.get("steam.api.requests").tag("outcome", "success").counter().count());
+        } finally {
+            fast.shutdown();
+        }
+    }
+
+    @Test
+    void retryOfAStalledBodyWaitsForTheReaderToReturn() throws Exception {
+        final SteamHttpClient fast = clientWithTimeout(1000);
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        try {
+            final JsonNode root = new JsonHttpClient(fast, new ObjectMapper()).streamJson(base + "/stalled", parser -> {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                try {
+                    return parser.readValueAsTree();
+                } catch (RuntimeException e) {
+                    // Still finishing its last write when the stream is closed under it
+                    try {
+                        Thread.sleep(500);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw e;
+                } finally {
+                    active.decrementAndGet();
+                }
+            });
+            assertTrue(root.path("ok").asBoolean());
+            assertEquals(2, calls.get());
+            assertEquals(1, maxActive.get());
+        } finally {
+            fast.shutdown();
+        }
+    }
+
+    private SteamHttpClient clientWithTimeout(int timeoutMs) {
+        final SteamAppsConfig cfg = mock(SteamAppsConfig.class);
+        when(cfg.getHttpTimeoutMs()).thenReturn(timeoutMs);
+        final SteamRateLimitProperties props = new SteamRateLimitProperties();
+        props.setPermitsPerSecond(1000.0);
+        props.setBurst(100);
+        props.getHost().setPermitsPerSecond(1000.0);
+        props.getHost().setBurst(100);
+        return new SteamHttpClient(cfg, new SteamRateLimiter(props, meterRegistry), meterRegistry);
+    }
+}
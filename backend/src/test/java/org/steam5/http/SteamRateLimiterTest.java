@@ -0,0 +1,95 @@
+package org.steam5.http;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.steam5.config.SteamRateLimitProperties;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SteamRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(0L);
+    private final SteamRateLimitProperties props = new SteamRateLimitProperties();
+    private SteamRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        props.setPermitsPerSecond(1.0);
+        props.setBurst(1);
+        props.setRecoveryInterval(Duration.ofSeconds(30));
+        final SteamRateLimitProperties.Bucket openid = new SteamRateLimitProperties.Bucket();
+        openid.setPermitsPerSecond(2.0);
+        openid.setBurst(3);
+        props.getEndpoints().put("openid", openid);
+        props.getHost().setPermitsPerSecond(100.0);
+        props.getHost().setBurst(100);
+        limiter = new SteamRateLimiter(props, new SimpleMeterRegistry(), clock::get);
+    }
+
+    @Test
+    void reservationsQueueAtTheConfiguredRate() {
+        assertEquals(0L, limiter.reserve("appReviews"));
+        assertEquals(SECOND, limiter.reserve("appReviews"));
+        assertEquals(2 * SECOND, limiter.reserve("appReviews"));
+
+        clock.set(10 * SECOND);
+        // Idle time refills at most `burst` permits
+        assertEquals(0L, limiter.reserve("appReviews"));
+        assertEquals(SECOND, limiter.reserve("appReviews"));
+    }
+
+    @Test
+    void endpointsHaveIndependentBuckets() {
+        for (int i = 0; i < 5; i++) {
+            limiter.reserve("appReviews");
+        }
+        // Burst of three, then 2/s — unaffected by the reviews backlog
+        assertEquals(0L, limiter.reserve("openid"));
+        assertEquals(0L, limiter.reserve("openid"));
+        assertEquals(0L, limiter.reserve("openid"));
+        assertEquals(SECOND / 2, limiter.reserve("openid"));
+    }
+
+    @Test
+    void hostBucketCapsAllEndpointsTogether() {
+        props.getHost().setPermitsPerSecond(1.0);
+        props.getHost().setBurst(1);
+        limiter = new SteamRateLimiter(props, new SimpleMeterRegistry(), clock::get);
+
+        assertEquals(0L, limiter.reserve("appReviews"));
+        // openid's own bucket has a burst left, the shared one does not
+        assertEquals(SECOND, limiter.reserve("openid"));
+        // Due after its own bucket's slot (1s), then the host's next free slot after that
+        assertEquals(2 * SECOND, limiter.reserve("appReviews"));
+    }
+
+    @Test
+    void rateLimitedHalvesRateAndRecoversAfterQuietInterval() {
+        limiter.reserve("appDetails");
+        limiter.recordRateLimited("appDetails");
+        assertEquals(0.5, limiter.currentRate("appDetails"), 1e-9);
+        limiter.recordRateLimited("appDetails");
+        assertEquals(0.25, limiter.currentRate("appDetails"), 1e-9);
+        assertEquals(1.0, limiter.currentRate("appReviews"), 1e-9);
+
+        clock.set(31 * SECOND);
+        limiter.reserve("appDetails");
+        assertEquals(0.375, limiter.currentRate("appDetails"), 1e-9);
+
+        clock.set(10 * 60 * SECOND);
+        limiter.reserve("appDetails");
+        assertEquals(1.0, limiter.currentRate("appDetails"), 1e-9);
+    }
+
+    @Test
+    void acquireAsyncCompletesImmediatelyWhenPermitIsAvailable() {
+        assertTrue(limiter.acquireAsync("appList").isDone());
+        assertFalse(limiter.acquireAsync("appList").isDone());
+    }
+}
@@ -0,0 +1,190 @@
+package org.steam5.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.steam5.config.CacheBusProperties;
+import org.steam5.config.CacheNames;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CacheInvalidationBusTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 14);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CacheBusProperties properties = new CacheBusProperties();
+    private final CacheInvalidationPublisher publisher = new CacheInvalidationPublisher(jdbcTemplate, properties);
+
+    private static CacheManager manager(Cache... caches) {
+        final CacheManager cm = mock(CacheManager.class);
+        for (Cache c : caches) {
+            when(cm.getCache(c.getName())).thenReturn(c);
+        }
+        return cm;
+    }
+
+    private static CaffeineCache cache(String name) {
+        return new CaffeineCache(name, Caffeine.newBuilder().build());
+    }
+
+    @Test
+    void payloadsStayUnderTheNotifyLimit() {
+        final Set<String> ops = IntStream.range(0, 2_000).mapToObj(i -> "app-detail " + i)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        final List<String> payloads = CacheInvalidationPublisher.payloads("node-a", ops);
+
+        assertTrue(payloads.size() > 1);
+        for (String p : payloads) {
+            assertTrue(p.length() <= CacheInvalidationPublisher.MAX_PAYLOAD_BYTES);
+            assertTrue(p.startsWith("node-a\n"));
+        }
+        assertEquals(ops, CacheInvalidationListener.operations(payloads, "node-b"));
+    }
+
+    @Test
+    void listenerSkipsOwnNotificationsAndDeduplicates() {
+        final Set<String> ops = CacheInvalidationListener.operations(List.of(
+                "node-a\nstats-hourly\ncomments-for-day 2025-03-14",
+                "node-b\napp-detail 7",
+                "node-c\nstats-hourly\napp-detail 8"), "node-b");
+
+        assertEquals(List.of("stats-hourly", "comments-for-day 2025-03-14", "app-detail 8"), List.copyOf(ops));
+    }
+
+    @Test
+    void listenConnectionTimesOutOnADeadSocket() {
+        properties.setLivenessIntervalMillis(30_000);
+
+        final Properties props = CacheInvalidationListener.connectionProperties("steam5", "secret", properties);
+
+        assertEquals("steam5", props.getProperty("user"));
+        assertEquals("secret", props.getProperty("password"));
+        assertEquals("true", props.getProperty("tcpKeepAlive"));
+        assertEquals("60", props.getProperty("socketTimeout"));
+    }
+
+    @Test
+    void zeroBatchWindowPollsWithoutBlocking() throws SQLException {
+        final PGConnection pg = mock(PGConnection.class);
+        final PGNotification notification = mock(PGNotification.class);
+        when(notification.getParameter()).thenReturn("payload");
+        when(pg.getNotifications()).thenReturn(new PGNotification[]{notification}, new PGNotification[0]);
+        final List<String> payloads = new ArrayList<>();
+
+        assertTrue(CacheInvalidationListener.collect(pg, 0, payloads));
+        assertFalse(CacheInvalidationListener.collect(pg, 0, payloads));
+
+        assertEquals(List.of("payload"), payloads);
+        verify(pg, never()).getNotifications(anyInt());
+    }
+
+    @Test
+    void publishedEvictionsAreSentInOneBatch() {
+        properties.setEnabled(true);
+        // Only the explicit flush below sends
+        properties.setBatchWindowMillis(60_000);
+        final DomainCacheEvictor evictor = new DomainCacheEvictor(manager(), publisher);
+
+        evictor.evictStatsHourly();
+        evictor.evictCommentsForDay(DAY);
+        evictor.evictStatsHourly();
+        publisher.flush();
+
+        verify(jdbcTemplate).queryForList(anyString(), eq(properties.getChannel()),
+                eq(publisher.nodeId() + "\nstats-hourly\ncomments-for-day " + DAY));
+    }
+
+    @Test
+    void nothingIsSentWhenDisabled() {
+        final DomainCacheEvictor evictor = new DomainCacheEvictor(manager(), publisher);
+
+        evictor.evictLeaderboardStatic();
+        publisher.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void remoteOperationsEvictLocallyWithoutRepublishing() {
+        properties.setEnabled(true);
+        final CaffeineCache comments = cache(CacheNames.COMMENTS_FOR_DAY);
+        final CaffeineCache oneDay = cache(CacheNames.ONE_DAY);
+        final CaffeineCache leaderboard = cache(CacheNames.LEADERBOARD_STATIC);
+        comments.put(DAY.toString(), "a");
+        comments.put(DAY.minusDays(1).toString(), "b");
+        oneDay.put(7L, "detail");
+        oneDay.put(8L, "other");
+        leaderboard.put("all", "rows");
+        final DomainCacheEvictor evictor = new DomainCacheEvictor(manager(comments, oneDay, leaderboard), publisher);
+
+        evictor.apply("comments-for-day " + DAY);
+        evictor.apply("app-detail 7");
+        evictor.apply("leaderboard-static");
+        evictor.apply("unknown-op 1");
+        publisher.flush();
+
+        assertNull(comments.get(DAY.toString()));
+        assertNotNull(comments.get(DAY.minusDays(1).toString()));
+        assertNull(oneDay.get(7L));
+        assertNotNull(oneDay.get(8L));
+        assertNull(leaderboard.get("all"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void commentReactionsWrittenDropsEveryViewerSetOfThoseDaysOnly() {
+        properties.setEnabled(true);
+        final CaffeineCache comments = cache(CacheNames.COMMENTS_FOR_DAY);
+        final CaffeineCache viewers = cache(CacheNames.COMMENT_VIEWER_REACTIONS);
+        comments.put(DAY.toString(), "a");
+        viewers.put(DomainCacheEvictor.viewerReactionsKey(DAY, "u1"), "x");
+        viewers.put(DomainCacheEvictor.viewerReactionsKey(DAY, "u2"), "y");
+        viewers.put(DomainCacheEvictor.viewerReactionsKey(DAY.minusDays(1), "u1"), "z");
+        final DomainCacheEvictor evictor = new DomainCacheEvictor(manager(comments, viewers), publisher);
+
+        evictor.commentReactionsWritten(List.of(DAY));
+        publisher.flush();
+
+        assertNull(comments.get(DAY.toString()));
+        assertNull(viewers.get(DomainCacheEvictor.viewerReactionsKey(DAY, "u1")));
+        assertNull(viewers.get(DomainCacheEvictor.viewerReactionsKey(DAY, "u2")));
+        assertNotNull(viewers.get(DomainCacheEvictor.viewerReactionsKey(DAY.minusDays(1), "u1")));
+        // Published by the reaction counters as one operation per flush, not here
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void seasonCurrentIsPublishedAndClearsTheStoredBodyRemotely() {
+        final CaffeineCache response = cache(CacheNames.SEASON_CURRENT_RESPONSE);
+        final CaffeineCache body = cache(CacheNames.HTTP_SEASON_CURRENT);
+        response.put("current", "season");
+        body.put("/api/seasons/current?@" + DAY, "bytes");
+        final DomainCacheEvictor evictor = new DomainCacheEvictor(manager(response, body), publisher);
+
+        evictor.apply(DomainCacheEvictor.OP_SEASON_CURRENT);
+
+        assertNull(response.get("current"));
+        assertNull(body.get("/api/seasons/current?@" + DAY));
+    }
+}
@@ -0,0 +1,143 @@
+package org.steam5.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.steam5.config.CacheBusProperties;
+import org.steam5.config.CacheSnapshotProperties;
+import org.steam5.config.ReviewGameCacheTags;
+import org.steam5.config.TaggedCaffeineCache;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CacheSnapshotServiceTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final CacheBusProperties busProperties = new CacheBusProperties();
+
+    @TempDir
+    Path dir;
+
+    record Row(long appId, String name) {
+    }
+
+    private CacheSnapshotProperties properties() {
+        final CacheSnapshotProperties p = new CacheSnapshotProperties();
+        p.setEnabled(true);
+        p.setPath(dir.resolve("snapshot.bin").toString());
+        p.setCaches(List.of("one-day", "review-game"));
+        return p;
+    }
+
+    private static CacheManager manager(Cache... caches) {
+        final CacheManager cm = mock(CacheManager.class);
+        for (Cache c : caches) {
+            when(cm.getCache(c.getName())).thenReturn(c);
+        }
+        return cm;
+    }
+
+    private static CaffeineCache oneDay() {
+        return new CaffeineCache("one-day", Caffeine.newBuilder().expireAfterWrite(Duration.ofDays(1)).build());
+    }
+
+    private static TaggedCaffeineCache reviewGame() {
+        return new TaggedCaffeineCache("review-game",
+                Caffeine.newBuilder().expireAfterWrite(Duration.ofHours(24)).build(),
+                Duration.ofHours(24), new ReviewGameCacheTags());
+    }
+
+    @Test
+    void entriesSurviveARestart() {
+        final CacheSnapshotProperties props = properties();
+        final CaffeineCache oneDay = oneDay();
+        final TaggedCaffeineCache reviewGame = reviewGame();
+        oneDay.put("rows", List.of(new Row(1, "a"), new Row(2, "b")));
+        oneDay.put(7L, Map.of("k", 3));
+        reviewGame.put("days", ResponseEntity.ok().eTag("\"abc\"").body(List.of("2025-03-14")));
+
+        final CacheSnapshotService before = new CacheSnapshotService(manager(oneDay, reviewGame), objectMapper, props, busProperties);
+        before.start();
+        before.stop();
+        assertTrue(Files.exists(Path.of(props.getPath())));
+
+        final CaffeineCache freshOneDay = oneDay();
+        final TaggedCaffeineCache freshReviewGame = reviewGame();
+        final CacheSnapshotService after = new CacheSnapshotService(
+                manager(freshOneDay, freshReviewGame), objectMapper, props, busProperties);
+        after.start();
+        after.run(null);
+
+        assertEquals(List.of(new Row(1, "a"), new Row(2, "b")), freshOneDay.get("rows").get());
+        assertEquals(Map.of("k", 3), freshOneDay.get(7L).get());
+        final ResponseEntity<?> days = (ResponseEntity<?>) freshReviewGame.get("days").get();
+        assertEquals(200, days.getStatusCode().value());
+        assertEquals("\"abc\"", days.getHeaders().getFirst(HttpHeaders.ETAG));
+        assertEquals(List.of("2025-03-14"), days.getBody());
+        // Loaded once: a crash before the next shutdown must not bring it back
+        assertFalse(Files.exists(Path.of(props.getPath())));
+    }
+
+    @Test
+    void taggedCachesStartEmptyWhenTheCacheBusIsEnabled() throws Exception {
+        final CacheSnapshotProperties props = properties();
+        final CaffeineCache oneDay = oneDay();
+        final TaggedCaffeineCache reviewGame = reviewGame();
+        oneDay.put("rows", List.of("x"));
+        reviewGame.put("days", ResponseEntity.ok(List.of("2025-03-14")));
+        new CacheSnapshotService(manager(oneDay, reviewGame), objectMapper, props, busProperties).write();
+
+        busProperties.setEnabled(true);
+        final CaffeineCache freshOneDay = oneDay();
+        final TaggedCaffeineCache freshReviewGame = reviewGame();
+        new CacheSnapshotService(manager(freshOneDay, freshReviewGame), objectMapper, props, busProperties).load();
+
+        // Invalidations other nodes sent while this one was down are not replayed
+        assertNull(freshReviewGame.get("days"));
+        assertEquals(List.of("x"), freshOneDay.get("rows").get());
+    }
+
+    @Test
+    void existingEntriesAreNotReplaced() throws Exception {
+        final CacheSnapshotProperties props = properties();
+        final CaffeineCache oneDay = oneDay();
+        oneDay.put("rows", List.of("old"));
+        new CacheSnapshotService(manager(oneDay), objectMapper, props, busProperties).write();
+
+        final CaffeineCache fresh = oneDay();
+        fresh.put("rows", List.of("new"));
+        new CacheSnapshotService(manager(fresh), objectMapper, props, busProperties).load();
+
+        assertEquals(List.of("new"), fresh.get("rows").get());
+    }
+
+    @Test
+    void disabledDoesNothing() {
+        final CacheSnapshotProperties props = properties();
+        props.setEnabled(false);
+        final CaffeineCache oneDay = oneDay();
+        oneDay.put("rows", List.of("x"));
+
+        final CacheSnapshotService service = new CacheSnapshotService(manager(oneDay), objectMapper, props, busProperties);
+        service.start();
+        service.run(null);
+        service.stop();
+
+        assertFalse(Files.exists(Path.of(props.getPath())));
+    }
+}
@@ -2,6 +2,7 @@ package org.steam5.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.data.domain.Pageable;
 import org.steam5.domain.Comment;
 import org.steam5.domain.CommentModerator;
@@ -12,6 +13,7 @@ import org.steam5.domain.ReactionType;
 import org.steam5.domain.ReviewGamePick;
 import org.steam5.domain.User;
 import org.steam5.http.ReviewGameException;
+import org.steam5.repository.CommentReactionBulkRepository;
 import org.steam5.repository.CommentReactionRepository;
 import org.steam5.repository.CommentRepository;
 import org.steam5.repository.GuessRepository;
@@ -23,9 +25,12 @@ import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -37,6 +42,9 @@ class CommentServiceTest {
     private ReviewGamePickRepository pickRepository;
     private UserRepository userRepository;
     private DomainCacheEvictor cacheEvictor;
+    private CommentReactionBulkRepository bulkRepository;
+    private CacheInvalidationPublisher publisher;
+    private CommentReactionCounters reactionCounters;
     private CommentService service;
 
     /** Aligns with {@link GameDate#todayUtc()} so write-path tests exercise the happy path. */
@@ -51,13 +59,19 @@ class CommentServiceTest {
         pickRepository = mock(ReviewGamePickRepository.class);
         userRepository = mock(UserRepository.class);
         cacheEvictor = mock(DomainCacheEvictor.class);
+        bulkRepository = mock(CommentReactionBulkRepository.class);
+        publisher = mock(CacheInvalidationPublisher.class);
+        reactionCounters = new CommentReactionCounters(
+                commentReactionRepository, bulkRepository, cacheEvictor, publisher, 1000, 60);
         service = new CommentService(
                 commentRepository,
                 commentReactionRepository,
                 guessRepository,
                 pickRepository,
                 userRepository,
-                cacheEvictor
+                cacheEvictor,
+                new ConcurrentMapCacheManager(),
+                reactionCounters
         );
     }
 
@@ -171,7 +185,7 @@ class CommentServiceTest {
         viewerReaction.setComment(comment);
         viewerReaction.setSteamId("viewer");
         viewerReaction.setReactionType(ReactionType.THUMBS_UP);
-        when(commentReactionRepository.findByComment_IdInAndSteamId(List.of(7L), "viewer"))
+        when(commentReactionRepository.findByComment_GameDateAndSteamId(day, "viewer"))
                 .thenReturn(List.of(viewerReaction));
 
         when(userRepository.findAllById(any())).thenReturn(List.of(user("u1", "Alice", "https://a")));
@@ -182,7 +196,7 @@ class CommentServiceTest {
         CommentService.CommentDto dto = result.getFirst();
         assertEquals("hello", dto.body());
         assertEquals("Alice", dto.author().personaName());
-        verify(commentReactionRepository).findByComment_IdInAndSteamId(List.of(7L), "viewer");
+        verify(commentReactionRepository).findByComment_GameDateAndSteamId(day, "viewer");
 
         CommentService.ReactionDto thumbs = dto.reactions().stream()
                 .filter(r -> r.reactionType().equals("THUMBS_UP"))
@@ -192,6 +206,40 @@ class CommentServiceTest {
         assertTrue(thumbs.reactedByViewer());
     }
 
+    @Test
+    void listComments_buildsTheListOncePerDayAndOverlaysEachViewer() {
+        Comment comment = comment(7L, "u1", "hello");
+        when(commentRepository.findByGameDateAndArchivedFalseOrderByCreatedAtDesc(eq(day), any(Pageable.class)))
+                .thenReturn(List.of(comment));
+        CommentReaction aliceReaction = new CommentReaction();
+        aliceReaction.setComment(comment);
+        aliceReaction.setSteamId("alice");
+        aliceReaction.setReactionType(ReactionType.HUG);
+        when(commentReactionRepository.findByComment_GameDateAndSteamId(day, "alice"))
+                .thenReturn(List.of(aliceReaction));
+        when(commentReactionRepository.findByComment_GameDateAndSteamId(day, "bob")).thenReturn(List.of());
+
+        List<CommentService.CommentDto> forAlice = service.listComments(day, "alice");
+        List<CommentService.CommentDto> forBob = service.listComments(day, "bob");
+        List<CommentService.CommentDto> anonymous = service.listComments(day, null);
+        service.listComments(day, "alice");
+
+        assertTrue(hug(forAlice).reactedByViewer());
+        assertFalse(hug(forBob).reactedByViewer());
+        assertFalse(hug(anonymous).reactedByViewer());
+        verify(commentRepository, times(1))
+                .findByGameDateAndArchivedFalseOrderByCreatedAtDesc(eq(day), any(Pageable.class));
+        verify(commentReactionRepository, times(1)).countByCommentIds(any());
+        verify(commentReactionRepository, times(1)).findByComment_GameDateAndSteamId(day, "alice");
+    }
+
+    private static CommentService.ReactionDto hug(List<CommentService.CommentDto> comments) {
+        return comments.getFirst().reactions().stream()
+                .filter(r -> r.reactionType().equals("HUG"))
+                .findFirst()
+                .orElseThrow();
+    }
+
     @Test
     void listComments_attachesReactorNames() {
         Comment comment = comment(7L, "u1", "hello");
@@ -273,7 +321,7 @@ class CommentServiceTest {
 
     @Test
     void toggleReaction_throwsWhenCommentMissing() {
-        when(commentRepository.findByIdForUpdate(42L)).thenReturn(Optional.empty());
+        when(commentRepository.findById(42L)).thenReturn(Optional.empty());
 
         ReviewGameException ex = assertThrows(ReviewGameException.class,
                 () -> service.toggleReaction(42L, "u1", ReactionType.HUG));
@@ -286,97 +334,176 @@ class CommentServiceTest {
     void toggleReaction_throwsWhenNotCurrentGameDay() {
         Comment comment = comment(7L, "u1", "hello");
         comment.setGameDate(day.minusDays(1));
-        when(commentRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(comment));
+        when(commentRepository.findById(7L)).thenReturn(Optional.of(comment));
 
         ReviewGameException ex = assertThrows(ReviewGameException.class,
                 () -> service.toggleReaction(7L, "viewer", ReactionType.HUG));
 
         assertEquals(400, ex.getStatusCode());
         assertEquals("not_current_game_day", ex.getMessage());
-        verify(commentReactionRepository, never()).delete(any());
-        verify(commentReactionRepository, never()).insertIgnoreConflict(any(), any(), any(), any());
+        assertEquals(0, reactionCounters.pendingCount());
     }
 
     @Test
-    void toggleReaction_deletesExistingReaction() {
+    void toggleReaction_removesExistingReactionBehind() {
         Comment comment = comment(7L, "u1", "hello");
         CommentReaction existing = new CommentReaction(3L, comment, "viewer", ReactionType.LAUGH_CRYING, OffsetDateTime.now());
-        when(commentRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(comment));
-        when(commentReactionRepository.findByComment_IdAndSteamIdAndReactionType(
-                7L, "viewer", ReactionType.LAUGH_CRYING)).thenReturn(Optional.of(existing));
-        when(commentReactionRepository.countByCommentIds(List.of(7L))).thenReturn(List.of());
-        when(commentReactionRepository.findByComment_IdInAndSteamId(List.of(7L), "viewer")).thenReturn(List.of());
+        when(commentRepository.findById(7L)).thenReturn(Optional.of(comment));
+        when(commentRepository.findByGameDateAndArchivedFalseOrderByCreatedAtDesc(eq(day), any(Pageable.class)))
+                .thenReturn(List.of(comment));
+        when(commentReactionRepository.countByCommentIds(List.of(7L))).thenReturn(List.of(
+                countRow(7L, ReactionType.LAUGH_CRYING, 1L), countRow(7L, ReactionType.HUG, 1L)));
+        when(commentReactionRepository.findByComment_GameDateAndSteamId(day, "viewer")).thenReturn(List.of(existing));
         CommentReaction remaining = new CommentReaction(4L, comment, "other", ReactionType.HUG, OffsetDateTime.now());
         when(commentReactionRepository.findTopReactorsByCommentIds(List.of(7L), 5))
-                .thenReturn(List.of(remaining));
-        when(userRepository.findAllById(any())).thenReturn(List.of(user("other", "Dave", "https://d")));
+                .thenReturn(List.of(existing, remaining));
+        when(userRepository.findAllById(any())).thenReturn(List.of(
+                user("viewer", "Viewer", null), user("other", "Dave", "https://d")));
 
         List<CommentService.ReactionDto> reactions =
                 service.toggleReaction(7L, "viewer", ReactionType.LAUGH_CRYING);
 
-        verify(commentReactionRepository).delete(existing);
-        verify(commentReactionRepository, never()).insertIgnoreConflict(any(), any(), any(), any());
-        verify(cacheEvictor).evictCommentsForDay(day);
         assertEquals(ReactionType.values().length, reactions.size());
-        CommentService.ReactionDto hug = reactions.stream()
-                .filter(r -> r.reactionType().equals("HUG"))
-                .findFirst()
-                .orElseThrow();
-        assertEquals(List.of("Dave"), hug.reactors());
+        CommentService.ReactionDto laugh = reaction(reactions, "LAUGH_CRYING");
+        assertEquals(0L, laugh.count());
+        assertFalse(laugh.reactedByViewer());
+        // Names are as of the last write, like the list's
+        assertEquals(List.of("Viewer"), laugh.reactors());
+        assertEquals(List.of("Dave"), reaction(reactions, "HUG").reactors());
+        verifyNoInteractions(bulkRepository);
+
+        reactionCounters.flush();
+
+        verify(bulkRepository).toggleAll(argThat(rows -> rows.size() == 1
+                && rows.iterator().next().reactionType() == ReactionType.LAUGH_CRYING));
+        verify(cacheEvictor).commentReactionsWritten(Set.of(day));
+        verify(publisher).publish(CommentReactionCounters.OP_FLUSHED + " " + day + " 7");
+        verify(commentReactionRepository, never()).findByComment_IdAndSteamIdAndReactionType(any(), any(), any());
     }
 
     @Test
-    void toggleReaction_createsMissingReaction() {
+    void toggleReaction_addsMissingReactionBehind() {
         Comment comment = comment(7L, "u1", "hello");
-        when(commentRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(comment));
-        when(commentReactionRepository.findByComment_IdAndSteamIdAndReactionType(
-                7L, "viewer", ReactionType.HUG)).thenReturn(Optional.empty());
-        when(commentReactionRepository.insertIgnoreConflict(eq(7L), eq("viewer"), eq("HUG"), any()))
-                .thenReturn(1);
+        when(commentRepository.findById(7L)).thenReturn(Optional.of(comment));
         when(commentReactionRepository.countByCommentIds(List.of(7L))).thenReturn(List.of());
-        when(commentReactionRepository.findByComment_IdInAndSteamId(List.of(7L), "viewer")).thenReturn(List.of());
-        CommentReaction inserted = new CommentReaction(5L, comment, "viewer", ReactionType.HUG, OffsetDateTime.now());
-        when(commentReactionRepository.findTopReactorsByCommentIds(List.of(7L), 5))
-                .thenReturn(List.of(inserted));
-        when(userRepository.findAllById(any())).thenReturn(List.of(user("viewer", "Viewer", null)));
+        when(commentReactionRepository.findByComment_GameDateAndSteamId(day, "viewer")).thenReturn(List.of());
 
         List<CommentService.ReactionDto> reactions = service.toggleReaction(7L, "viewer", ReactionType.HUG);
 
-        verify(commentReactionRepository).insertIgnoreConflict(eq(7L), eq("viewer"), eq("HUG"), any());
-        verify(cacheEvictor).evictCommentsForDay(day);
-        CommentService.ReactionDto hug = reactions.stream()
-                .filter(r -> r.reactionType().equals("HUG"))
-                .findFirst()
-                .orElseThrow();
-        assertEquals(List.of("Viewer"), hug.reactors());
+        CommentService.ReactionDto hug = reaction(reactions, "HUG");
+        assertEquals(1L, hug.count());
+        assertTrue(hug.reactedByViewer());
+        assertEquals(List.of(), hug.reactors());
+
+        reactionCounters.flush();
+
+        verify(bulkRepository).toggleAll(argThat(rows -> rows.size() == 1
+                && rows.iterator().next().steamId().equals("viewer")));
+        assertEquals(0, reactionCounters.pendingCount());
     }
 
     @Test
-    void toggleReaction_ignoresConflictWhenInsertReturnsZero() {
+    void toggleReaction_takesReactorNamesFromTheCachedDayList() {
         Comment comment = comment(7L, "u1", "hello");
-        when(commentRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(comment));
-        when(commentReactionRepository.findByComment_IdAndSteamIdAndReactionType(
-                7L, "viewer", ReactionType.HUG)).thenReturn(Optional.empty());
-        when(commentReactionRepository.insertIgnoreConflict(eq(7L), eq("viewer"), eq("HUG"), any()))
-                .thenReturn(0);
+        CommentReaction other = new CommentReaction(4L, comment, "other", ReactionType.HUG, OffsetDateTime.now());
+        when(commentRepository.findById(7L)).thenReturn(Optional.of(comment));
+        when(commentRepository.findByGameDateAndArchivedFalseOrderByCreatedAtDesc(eq(day), any(Pageable.class)))
+                .thenReturn(List.of(comment));
+        when(commentReactionRepository.countByCommentIds(List.of(7L)))
+                .thenReturn(List.of(countRow(7L, ReactionType.HUG, 1L)));
+        when(commentReactionRepository.findTopReactorsByCommentIds(List.of(7L), 5)).thenReturn(List.of(other));
+        when(userRepository.findAllById(any())).thenReturn(List.of(user("other", "Dave", "https://d")));
+
+        service.listComments(day, "viewer");
+        service.toggleReaction(7L, "viewer", ReactionType.HUG);
+        List<CommentService.ReactionDto> reactions = service.toggleReaction(7L, "viewer", ReactionType.LAUGH_CRYING);
+
+        assertEquals(2L, reaction(reactions, "HUG").count());
+        assertTrue(reaction(reactions, "HUG").reactedByViewer());
+        assertEquals(List.of("Dave"), reaction(reactions, "HUG").reactors());
+        verify(commentReactionRepository, times(1)).findTopReactorsByCommentIds(any(), anyInt());
+        verify(userRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void toggleReaction_twiceBeforeFlushWritesNothing() {
+        Comment comment = comment(7L, "u1", "hello");
+        when(commentRepository.findById(7L)).thenReturn(Optional.of(comment));
         when(commentReactionRepository.countByCommentIds(List.of(7L))).thenReturn(List.of());
-        when(commentReactionRepository.findByComment_IdInAndSteamId(List.of(7L), "viewer"))
-                .thenReturn(List.of(new CommentReaction(9L, comment, "viewer", ReactionType.HUG, OffsetDateTime.now())));
-        when(commentReactionRepository.findTopReactorsByCommentIds(List.of(7L), 5))
-                .thenReturn(List.of(new CommentReaction(9L, comment, "viewer", ReactionType.HUG, OffsetDateTime.now())));
-        when(userRepository.findAllById(any())).thenReturn(List.of(user("viewer", "Viewer", null)));
 
-        List<CommentService.ReactionDto> reactions =
-                assertDoesNotThrow(() -> service.toggleReaction(7L, "viewer", ReactionType.HUG));
+        service.toggleReaction(7L, "viewer", ReactionType.HUG);
+        List<CommentService.ReactionDto> reactions = service.toggleReaction(7L, "viewer", ReactionType.HUG);
 
-        verify(commentReactionRepository).insertIgnoreConflict(eq(7L), eq("viewer"), eq("HUG"), any());
-        verify(cacheEvictor).evictCommentsForDay(day);
-        CommentService.ReactionDto hug = reactions.stream()
-                .filter(r -> r.reactionType().equals("HUG"))
-                .findFirst()
-                .orElseThrow();
-        assertTrue(hug.reactedByViewer());
-        assertEquals(List.of("Viewer"), hug.reactors());
+        assertEquals(0L, reaction(reactions, "HUG").count());
+        assertFalse(reaction(reactions, "HUG").reactedByViewer());
+        verify(commentReactionRepository, times(1)).findByComment_GameDateAndSteamId(day, "viewer");
+        reactionCounters.flush();
+        verifyNoInteractions(bulkRepository);
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void toggleReaction_failedFlushKeepsTheToggleQueued() {
+        Comment comment = comment(7L, "u1", "hello");
+        when(commentRepository.findById(7L)).thenReturn(Optional.of(comment));
+        when(commentRepository.findByGameDateAndArchivedFalseOrderByCreatedAtDesc(eq(day), any(Pageable.class)))
+                .thenReturn(List.of(comment));
+        when(commentReactionRepository.countByCommentIds(List.of(7L))).thenReturn(List.of());
+        doThrow(new IllegalStateException("db down")).doNothing().when(bulkRepository).toggleAll(any());
+
+        service.toggleReaction(7L, "viewer", ReactionType.HUG);
+        reactionCounters.flush();
+
+        assertEquals(1, reactionCounters.pendingCount());
+        assertTrue(hug(service.listComments(day, "viewer")).reactedByViewer());
+        verifyNoInteractions(publisher);
+
+        reactionCounters.flush();
+
+        assertEquals(0, reactionCounters.pendingCount());
+        verify(bulkRepository, times(2)).toggleAll(argThat(rows -> rows.size() == 1));
+    }
+
+    @Test
+    void flushedOperation_fromAnotherNode_dropsThatDaysCachesAndCounts() {
+        when(commentReactionRepository.countByCommentIds(List.of(7L)))
+                .thenReturn(List.of(countRow(7L, ReactionType.HUG, 1L)), List.of(countRow(7L, ReactionType.HUG, 2L)));
+        assertEquals(1L, reactionCounters.counts(List.of(7L)).get(7L).get(ReactionType.HUG));
+
+        reactionCounters.apply(day + " 7");
+
+        verify(cacheEvictor).commentReactionsWritten(List.of(day));
+        assertEquals(2L, reactionCounters.counts(List.of(7L)).get(7L).get(ReactionType.HUG));
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void listComments_countsIncludeUnwrittenToggles() {
+        Comment comment = comment(7L, "u1", "hello");
+        when(commentRepository.findByGameDateAndArchivedFalseOrderByCreatedAtDesc(eq(day), any(Pageable.class)))
+                .thenReturn(List.of(comment));
+        when(commentRepository.findById(7L)).thenReturn(Optional.of(comment));
+        when(commentReactionRepository.countByCommentIds(List.of(7L)))
+                .thenReturn(List.of(countRow(7L, ReactionType.HUG, 2L)));
+
+        assertEquals(2L, hug(service.listComments(day, null)).count());
+        service.toggleReaction(7L, "viewer", ReactionType.HUG);
+
+        assertEquals(3L, hug(service.listComments(day, null)).count());
+        assertTrue(hug(service.listComments(day, "viewer")).reactedByViewer());
+        verify(commentReactionRepository, times(1)).countByCommentIds(any());
+    }
+
+    private static CommentService.ReactionDto reaction(List<CommentService.ReactionDto> reactions, String type) {
+        return reactions.stream().filter(r -> r.reactionType().equals(type)).findFirst().orElseThrow();
+    }
+
+    private static CommentReactionRepository.ReactionCountRow countRow(Long commentId, ReactionType type, long count) {
+        CommentReactionRepository.ReactionCountRow row = mock(CommentReactionRepository.ReactionCountRow.class);
+        when(row.getCommentId()).thenReturn(commentId);
+        when(row.getReactionType()).thenReturn(type);
+        when(row.getReactionCount()).thenReturn(count);
+        return row;
     }
 
     @Test
@@ -0,0 +1,131 @@
+package org.steam5.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.steam5.domain.GameDate;
+import org.steam5.domain.Guess;
+import org.steam5.repository.LeaderboardAggregateRepository;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeaderboardAggregateServiceTest {
+
+    private LeaderboardAggregateRepository repository;
+    private TodayLeaderboard todayLeaderboard;
+    private DomainCacheEvictor cacheEvictor;
+    private LeaderboardAggregateService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(LeaderboardAggregateRepository.class);
+        todayLeaderboard = mock(TodayLeaderboard.class);
+        cacheEvictor = mock(DomainCacheEvictor.class);
+        service = new LeaderboardAggregateService(repository, todayLeaderboard, cacheEvictor,
+                mock(PlatformTransactionManager.class), 2);
+    }
+
+    @Test
+    void applyGuess_takesTheSharedLockThenAddsTheGuessDeltaToDayAndTotal() {
+        final LocalDate day = LocalDate.of(2026, 3, 14);
+        // Guessed one bucket too high: 3 points, no hit, no flop, tooHigh.
+        final Guess guess = new Guess(1L, "u1", day, 4, 100L, "1001-10000", "101-1000", 3, OffsetDateTime.now());
+
+        service.applyGuess(guess);
+
+        final InOrder order = inOrder(repository);
+        order.verify(repository).lockShared(LeaderboardAggregateService.AGGREGATE_LOCK_KEY);
+        order.verify(repository).addToDay("u1", day, 3, 0, 0, 1, 0, 4);
+        order.verify(repository).addToTotal("u1", 3, 0, 0, 1, 0);
+    }
+
+    @Test
+    void applyGuess_exactHit_countsAsHitOnly() {
+        final LocalDate day = LocalDate.of(2026, 3, 14);
+        final Guess guess = new Guess(1L, "u1", day, 1, 100L, "101-1000", "101-1000", 5, OffsetDateTime.now());
+
+        service.applyGuess(guess);
+
+        verify(repository).addToDay("u1", day, 5, 1, 0, 0, 0, 1);
+        verify(repository).addToTotal("u1", 5, 1, 0, 0, 0);
+    }
+
+    @Test
+    void applyGuess_withoutTransactionSynchronization_refreshesTheTodayLeaderboardRowImmediately() {
+        final LocalDate day = LocalDate.of(2026, 3, 14);
+        final Guess guess = new Guess(1L, "u1", day, 1, 100L, "101-1000", "101-1000", 5, OffsetDateTime.now());
+
+        service.applyGuess(guess);
+
+        verify(todayLeaderboard).playerGuessed(day, "u1");
+        verify(cacheEvictor).evictLeaderboardStatic();
+    }
+
+    @Test
+    void applyGuess_dropsTheCachedFullBoardsOnlyOnceTheGuessCommits() {
+        final LocalDate day = LocalDate.of(2026, 3, 14);
+        final Guess guess = new Guess(1L, "u1", day, 1, 100L, "101-1000", "101-1000", 5, OffsetDateTime.now());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.applyGuess(guess);
+            verify(cacheEvictor, never()).evictLeaderboardStatic();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(cacheEvictor).evictLeaderboardStatic();
+        verify(todayLeaderboard).playerGuessed(day, "u1");
+    }
+
+    @Test
+    void reconcile_takesTheExclusiveLockAndRecomputesOnlyTheRecentDays() {
+        service.reconcile();
+
+        final LocalDate from = GameDate.todayUtc().minusDays(1);
+        final InOrder order = inOrder(repository);
+        order.verify(repository).lockExclusive(LeaderboardAggregateService.AGGREGATE_LOCK_KEY);
+        order.verify(repository).deleteDaysFrom(from);
+        order.verify(repository).insertDaysFrom(from);
+        order.verify(repository).upsertTotalsForDaysFrom(from);
+        verify(repository, never()).deleteAllTotals();
+    }
+
+    @Test
+    void run_whenTotalsAlreadyExist_doesNotRebuild() {
+        when(repository.hasTotals()).thenReturn(true);
+
+        service.run(mock(ApplicationArguments.class));
+
+        verify(repository, never()).deleteAllTotals();
+        verify(repository, never()).insertDaysFrom(any());
+        verify(repository, never()).addToTotal(anyString(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void run_whenTotalsEmptyAndGuessesExist_rebuildsFromTheBeginning() {
+        when(repository.hasTotals()).thenReturn(false);
+        when(repository.hasGuesses()).thenReturn(true);
+
+        service.run(mock(ApplicationArguments.class));
+
+        verify(repository).deleteAllTotals();
+        verify(repository).insertDaysFrom(LocalDate.of(1970, 1, 1));
+        verify(repository).upsertTotalsForDaysFrom(LocalDate.of(1970, 1, 1));
+    }
+}
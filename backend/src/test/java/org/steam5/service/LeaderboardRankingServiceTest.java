@@ -0,0 +1,142 @@
+package org.steam5.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.web.server.ResponseStatusException;
+import org.steam5.domain.LeaderboardType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeaderboardRankingServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 7, 20);
+
+    private LeaderboardService leaderboardService;
+    private LeaderboardRankingService service;
+
+    @BeforeEach
+    void setUp() {
+        leaderboardService = mock(LeaderboardService.class);
+        final CacheManager cacheManager = mock(CacheManager.class);
+        final Cache cache = new ConcurrentMapCache("leaderboard-static");
+        when(cacheManager.getCache("leaderboard-static")).thenReturn(cache);
+        service = new LeaderboardRankingService(leaderboardService, cacheManager);
+
+        // e: 9, a: 7, b: 7, d: 4, c: 1 — given out of order
+        when(leaderboardService.rankAllTime()).thenReturn(new RankedLeaderboard(List.of(
+                entry("c", 1), entry("b", 7), entry("e", 9), entry("a", 7), entry("d", 4))));
+        when(leaderboardService.withStreaks(anyList(), any())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void top_pagesThroughTheBoardWithTheCursor() {
+        final LeaderboardRankingService.LeaderboardPage first = service.top(LeaderboardType.ALL_TIME, DAY, null, 2);
+        assertEquals(List.of("e", "a"), ids(first.entries()));
+        assertEquals(1, first.firstRank());
+        assertEquals(5, first.total());
+
+        final LeaderboardRankingService.LeaderboardPage second = service.top(LeaderboardType.ALL_TIME, DAY, first.nextCursor(), 2);
+        assertEquals(List.of("b", "d"), ids(second.entries()));
+        assertEquals(3, second.firstRank());
+
+        final LeaderboardRankingService.LeaderboardPage last = service.top(LeaderboardType.ALL_TIME, DAY, second.nextCursor(), 2);
+        assertEquals(List.of("c"), ids(last.entries()));
+        assertNull(last.nextCursor());
+
+        verify(leaderboardService, times(1)).rankAllTime();
+    }
+
+    @Test
+    void top_continuesAfterTheCursorRowEvenIfItLeftTheBoard() {
+        final String cursor = LeaderboardRankingService.encodeCursor(entry("aa", 7));
+
+        final LeaderboardRankingService.LeaderboardPage page = service.top(LeaderboardType.ALL_TIME, DAY, cursor, 10);
+
+        assertEquals(List.of("b", "d", "c"), ids(page.entries()));
+    }
+
+    @Test
+    void top_onlyEnrichesTheReturnedRows() {
+        service.top(LeaderboardType.ALL_TIME, DAY, null, 2);
+
+        verify(leaderboardService).withStreaks(List.of(entry("e", 9), entry("a", 7)), DAY);
+    }
+
+    @Test
+    void top_withAMalformedCursor_isBadRequest() {
+        final ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> service.top(LeaderboardType.ALL_TIME, DAY, "not base64!", 10));
+
+        assertEquals(400, ex.getStatusCode().value());
+    }
+
+    @Test
+    void around_returnsTheRankAndNeighbours() {
+        final LeaderboardRankingService.PlayerRank rank = service.around(LeaderboardType.ALL_TIME, DAY, "b", 1);
+
+        assertEquals(3, rank.rank());
+        assertEquals(2, rank.firstRank());
+        assertEquals(List.of("a", "b", "d"), ids(rank.entries()));
+    }
+
+    @Test
+    void around_atTheTop_clampsTheNeighbours() {
+        final LeaderboardRankingService.PlayerRank rank = service.around(LeaderboardType.ALL_TIME, DAY, "e", 2);
+
+        assertEquals(1, rank.rank());
+        assertEquals(List.of("e", "a", "b"), ids(rank.entries()));
+    }
+
+    @Test
+    void around_forAPlayerNotOnTheBoard_isNotFound() {
+        final ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> service.around(LeaderboardType.ALL_TIME, DAY, "zz", 2));
+
+        assertEquals(404, ex.getStatusCode().value());
+    }
+
+    @Test
+    void positionAfter_matchesALinearScan() {
+        final List<LeaderboardService.LeaderEntry> rows = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            rows.add(entry("p" + (i % 7) + i, i % 5));
+        }
+        final RankedLeaderboard board = new RankedLeaderboard(rows);
+        final List<LeaderboardService.LeaderEntry> sorted = board.slice(0, board.size());
+
+        for (long points = -1; points <= 5; points++) {
+            for (final String steamId : List.of("", "p0", "p3", "p35", "q")) {
+                int expected = 0;
+                while (expected < sorted.size()
+                        && RankedLeaderboard.ORDER.compare(sorted.get(expected), entry(steamId, points)) <= 0) {
+                    expected++;
+                }
+                assertEquals(expected, board.positionAfter(points, steamId), points + ":" + steamId);
+            }
+        }
+    }
+
+    private static LeaderboardService.LeaderEntry entry(final String steamId, final long points) {
+        return new LeaderboardService.LeaderEntry(steamId, steamId, points, 1L, 0L, 0L, 0L, 0L,
+                points, 0, null, null);
+    }
+
+    private static List<String> ids(final List<LeaderboardService.LeaderEntry> entries) {
+        return entries.stream().map(LeaderboardService.LeaderEntry::steamId).toList();
+    }
+}
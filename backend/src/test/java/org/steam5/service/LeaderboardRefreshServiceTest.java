@@ -3,17 +3,25 @@ package org.steam5.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.steam5.domain.LeaderboardRefreshState;
 import org.steam5.domain.LeaderboardType;
 import org.steam5.repository.LeaderboardMvRepository;
 import org.steam5.repository.LeaderboardRefreshStateRepository;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -22,90 +30,55 @@ class LeaderboardRefreshServiceTest {
 
     private LeaderboardMvRepository leaderboardMvRepository;
     private LeaderboardRefreshStateRepository refreshStateRepository;
+    private LeaderboardAggregateService aggregateService;
     private LeaderboardRefreshService service;
 
     @BeforeEach
     void setUp() {
         leaderboardMvRepository = mock(LeaderboardMvRepository.class);
         refreshStateRepository = mock(LeaderboardRefreshStateRepository.class);
-        service = new LeaderboardRefreshService(leaderboardMvRepository, refreshStateRepository);
+        aggregateService = mock(LeaderboardAggregateService.class);
+        service = new LeaderboardRefreshService(leaderboardMvRepository, refreshStateRepository, aggregateService);
         // Default: lock acquired, so existing tests exercise the populated-check/refresh path
         // unchanged; tests for the "lock not acquired" branch override this per-case.
         when(leaderboardMvRepository.tryAdvisoryXactLock(anyLong())).thenReturn(true);
     }
 
     @Test
-    void refreshAllTime_whenPopulated_usesConcurrentRefreshAndRecordsState() {
-        when(leaderboardMvRepository.isPopulated("mv_leaderboard_all_time")).thenReturn(true);
-
+    void refreshAllTime_reconcilesAggregatesThenRecordsState() {
         service.refreshAllTime();
 
-        verify(leaderboardMvRepository).refreshAllTimeConcurrently();
-        verify(leaderboardMvRepository, never()).refreshAllTimeFull();
-
+        final InOrder order = inOrder(aggregateService, refreshStateRepository);
+        order.verify(aggregateService).reconcile();
         ArgumentCaptor<LeaderboardRefreshState> captor = ArgumentCaptor.forClass(LeaderboardRefreshState.class);
-        verify(refreshStateRepository).save(captor.capture());
+        order.verify(refreshStateRepository).save(captor.capture());
         assertEquals(LeaderboardType.ALL_TIME, captor.getValue().getLeaderboardType());
         assertNotNull(captor.getValue().getRefreshedAt());
+        // The per-player leaderboards are not views any more — nothing to REFRESH or lock here.
+        verifyNoInteractions(leaderboardMvRepository);
     }
 
     @Test
-    void refreshAllTime_whenNotPopulated_fallsBackToFullRefreshAndRecordsState() {
-        when(leaderboardMvRepository.isPopulated("mv_leaderboard_all_time")).thenReturn(false);
-
-        service.refreshAllTime();
-
-        verify(leaderboardMvRepository).refreshAllTimeFull();
-        verify(leaderboardMvRepository, never()).refreshAllTimeConcurrently();
-
-        ArgumentCaptor<LeaderboardRefreshState> captor = ArgumentCaptor.forClass(LeaderboardRefreshState.class);
-        verify(refreshStateRepository).save(captor.capture());
-        assertEquals(LeaderboardType.ALL_TIME, captor.getValue().getLeaderboardType());
-    }
-
-    @Test
-    void refreshSeason_whenIsPopulatedReturnsNull_fallsBackToFullRefreshAndRecordsState() {
-        // A null result (e.g. the view row is missing from pg_matviews) must not NPE —
-        // treat it the same as "not populated" so the failure surfaces from the REFRESH
-        // statement itself (missing relation) rather than a silent skip.
-        when(leaderboardMvRepository.isPopulated("mv_leaderboard_season")).thenReturn(null);
-
-        service.refreshSeason();
-
-        verify(leaderboardMvRepository).refreshSeasonFull();
-        verify(leaderboardMvRepository, never()).refreshSeasonConcurrently();
-
-        ArgumentCaptor<LeaderboardRefreshState> captor = ArgumentCaptor.forClass(LeaderboardRefreshState.class);
-        verify(refreshStateRepository).save(captor.capture());
-        assertEquals(LeaderboardType.SEASON, captor.getValue().getLeaderboardType());
-    }
-
-    @Test
-    void refreshMonthly_whenPopulated_usesConcurrentRefreshAndRecordsState() {
-        when(leaderboardMvRepository.isPopulated("mv_leaderboard_monthly")).thenReturn(true);
-
+    void refreshMonthlyWeeklySeasonAndPerfectDays_eachReconcileAndRecordTheirOwnType() {
         service.refreshMonthly();
+        service.refreshWeekly();
+        service.refreshSeason();
+        service.refreshPerfectDays();
 
-        verify(leaderboardMvRepository).refreshMonthlyConcurrently();
-        verify(leaderboardMvRepository, never()).refreshMonthlyFull();
-
+        verify(aggregateService, times(4)).reconcile();
         ArgumentCaptor<LeaderboardRefreshState> captor = ArgumentCaptor.forClass(LeaderboardRefreshState.class);
-        verify(refreshStateRepository).save(captor.capture());
-        assertEquals(LeaderboardType.MONTHLY, captor.getValue().getLeaderboardType());
+        verify(refreshStateRepository, times(4)).save(captor.capture());
+        assertEquals(List.of(LeaderboardType.MONTHLY, LeaderboardType.WEEKLY, LeaderboardType.SEASON, LeaderboardType.PERFECT_DAYS),
+                captor.getAllValues().stream().map(LeaderboardRefreshState::getLeaderboardType).toList());
     }
 
     @Test
-    void refreshWeekly_whenPopulated_usesConcurrentRefreshAndRecordsState() {
-        when(leaderboardMvRepository.isPopulated("mv_leaderboard_weekly")).thenReturn(true);
+    void refreshSeason_whenReconcileFails_doesNotRecordState() {
+        doThrow(new RuntimeException("boom")).when(aggregateService).reconcile();
 
-        service.refreshWeekly();
-
-        verify(leaderboardMvRepository).refreshWeeklyConcurrently();
-        verify(leaderboardMvRepository, never()).refreshWeeklyFull();
+        assertThrows(RuntimeException.class, () -> service.refreshSeason());
 
-        ArgumentCaptor<LeaderboardRefreshState> captor = ArgumentCaptor.forClass(LeaderboardRefreshState.class);
-        verify(refreshStateRepository).save(captor.capture());
-        assertEquals(LeaderboardType.WEEKLY, captor.getValue().getLeaderboardType());
+        verify(refreshStateRepository, never()).save(any());
     }
 
     @Test
@@ -133,73 +106,46 @@ class LeaderboardRefreshServiceTest {
     }
 
     @Test
-    void refreshPerfectDays_whenPopulated_usesConcurrentRefreshAndRecordsState() {
-        when(leaderboardMvRepository.isPopulated("mv_perfect_days")).thenReturn(true);
-
-        service.refreshPerfectDays();
-
-        verify(leaderboardMvRepository).refreshPerfectDaysConcurrently();
-        verify(leaderboardMvRepository, never()).refreshPerfectDaysFull();
-
-        ArgumentCaptor<LeaderboardRefreshState> captor = ArgumentCaptor.forClass(LeaderboardRefreshState.class);
-        verify(refreshStateRepository).save(captor.capture());
-        assertEquals(LeaderboardType.PERFECT_DAYS, captor.getValue().getLeaderboardType());
-        assertNotNull(captor.getValue().getRefreshedAt());
-    }
-
-    @Test
-    void refreshPerfectDays_whenNotPopulated_fallsBackToFullRefreshAndRecordsState() {
-        when(leaderboardMvRepository.isPopulated("mv_perfect_days")).thenReturn(false);
-
-        service.refreshPerfectDays();
-
-        verify(leaderboardMvRepository).refreshPerfectDaysFull();
-        verify(leaderboardMvRepository, never()).refreshPerfectDaysConcurrently();
-
-        ArgumentCaptor<LeaderboardRefreshState> captor = ArgumentCaptor.forClass(LeaderboardRefreshState.class);
-        verify(refreshStateRepository).save(captor.capture());
-        assertEquals(LeaderboardType.PERFECT_DAYS, captor.getValue().getLeaderboardType());
-    }
-
-    @Test
-    void refreshPerfectDays_whenAdvisoryLockNotAcquired_skipsEntirely() {
-        when(leaderboardMvRepository.tryAdvisoryXactLock(anyLong())).thenReturn(false);
-
-        service.refreshPerfectDays();
-
-        verify(leaderboardMvRepository, never()).isPopulated(anyString());
-        verify(leaderboardMvRepository, never()).refreshPerfectDaysConcurrently();
-        verify(leaderboardMvRepository, never()).refreshPerfectDaysFull();
-        verifyNoInteractions(refreshStateRepository);
-    }
-
-    @Test
-    void refreshMonthly_whenAdvisoryLockNotAcquired_skipsEntirely() {
+    void refreshHardestGames_whenAdvisoryLockNotAcquired_skipsEntirely() {
         // Guards against a real production deadlock: two processes (e.g. an old instance mid-
-        // REFRESH during a restart, and a newly-started instance's immediately-firing intraday
-        // trigger) both trying to REFRESH the same MV. If another session already holds the
-        // advisory lock for this type, this run must skip cleanly rather than proceed and risk
+        // REFRESH during a restart, and a newly-started instance's immediately-firing trigger)
+        // both trying to REFRESH the same MV. If another session already holds the advisory
+        // lock for this type, this run must skip cleanly rather than proceed and risk
         // colliding with it.
         when(leaderboardMvRepository.tryAdvisoryXactLock(anyLong())).thenReturn(false);
 
-        service.refreshMonthly();
+        service.refreshHardestGames();
 
         verify(leaderboardMvRepository, never()).isPopulated(anyString());
-        verify(leaderboardMvRepository, never()).refreshMonthlyConcurrently();
-        verify(leaderboardMvRepository, never()).refreshMonthlyFull();
+        verify(leaderboardMvRepository, never()).refreshHardestGamesConcurrently();
+        verify(leaderboardMvRepository, never()).refreshHardestGamesFull();
         verifyNoInteractions(refreshStateRepository);
     }
 
     @Test
-    void refreshAllTime_whenAdvisoryLockReturnsNull_treatedAsNotAcquiredAndSkips() {
+    void refreshHardestGames_whenAdvisoryLockReturnsNull_treatedAsNotAcquiredAndSkips() {
         // Boolean unboxing safety: a null result (unexpected, but must not NPE) is treated the
         // same as "not acquired" — fail closed (skip) rather than assume the lock was granted.
         when(leaderboardMvRepository.tryAdvisoryXactLock(anyLong())).thenReturn(null);
 
-        service.refreshAllTime();
+        service.refreshHardestGames();
 
-        verify(leaderboardMvRepository, never()).refreshAllTimeConcurrently();
-        verify(leaderboardMvRepository, never()).refreshAllTimeFull();
+        verify(leaderboardMvRepository, never()).refreshHardestGamesConcurrently();
+        verify(leaderboardMvRepository, never()).refreshHardestGamesFull();
         verifyNoInteractions(refreshStateRepository);
     }
+
+    @Test
+    void refreshHardestGames_whenIsPopulatedReturnsNull_fallsBackToFullRefreshAndRecordsState() {
+        // A null result (e.g. the view row is missing from pg_matviews) must not NPE —
+        // treat it the same as "not populated" so the failure surfaces from the REFRESH
+        // statement itself (missing relation) rather than a silent skip.
+        when(leaderboardMvRepository.isPopulated("mv_hardest_games")).thenReturn(null);
+
+        service.refreshHardestGames();
+
+        verify(leaderboardMvRepository).refreshHardestGamesFull();
+        verify(leaderboardMvRepository, never()).refreshHardestGamesConcurrently();
+        verify(refreshStateRepository).save(any());
+    }
 }
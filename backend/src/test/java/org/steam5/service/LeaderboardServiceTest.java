@@ -3,33 +3,35 @@ package org.steam5.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.steam5.domain.Guess;
+import org.steam5.domain.ParticipationBitmap;
 import org.steam5.domain.User;
-import org.steam5.repository.GuessRepository;
-import org.steam5.repository.LeaderboardMvRepository;
+import org.steam5.repository.LeaderboardAggregateRepository;
 import org.steam5.repository.UserRepository;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class LeaderboardServiceTest {
 
-    private GuessRepository guessRepository;
+    private ParticipationService participationService;
     private UserRepository userRepository;
-    private LeaderboardMvRepository leaderboardMvRepository;
+    private LeaderboardAggregateRepository aggregateRepository;
     private LeaderboardService service;
 
     @BeforeEach
     void setUp() {
-        guessRepository = mock(GuessRepository.class);
+        participationService = mock(ParticipationService.class);
         userRepository = mock(UserRepository.class);
-        leaderboardMvRepository = mock(LeaderboardMvRepository.class);
-        service = new LeaderboardService(guessRepository, userRepository, leaderboardMvRepository);
+        aggregateRepository = mock(LeaderboardAggregateRepository.class);
+        service = new LeaderboardService(participationService, userRepository, aggregateRepository);
     }
 
     @Test
@@ -72,6 +74,18 @@ class LeaderboardServiceTest {
         assertEquals(1.0, second.avgPoints());
     }
 
+    @Test
+    void buildLeaderboard_takesStreaksFromTheParticipationBitmaps() {
+        LocalDate asOfDate = LocalDate.of(2026, 3, 14);
+        Guess g1 = new Guess(1L, "u1", asOfDate, 1, 100L, "1-100", "1-100", 5, OffsetDateTime.now());
+        when(participationService.findAll(any())).thenReturn(Map.of("u1", ParticipationBitmap.of(List.of(
+                asOfDate, asOfDate.minusDays(1), asOfDate.minusDays(2), asOfDate.minusDays(4)))));
+
+        List<LeaderboardService.LeaderEntry> result = service.buildLeaderboard(List.of(g1), asOfDate);
+
+        assertEquals(3, result.get(0).streak());
+    }
+
     @Test
     void buildLeaderboard_emptyGuesses_returnsEmptyList() {
         assertEquals(List.of(), service.buildLeaderboard(List.of(), LocalDate.now()));
@@ -105,9 +119,9 @@ class LeaderboardServiceTest {
 
     @Test
     void buildAllTimeLeaderboard_returnsAggregatedLeaders() {
-        // all-time aggregates come from mv_leaderboard_all_time, pre-ordered by total points
-        // descending (see mv-leaderboard-all-time.sql) — not walked from raw Guess rows.
-        final LeaderboardMvRepository.LeaderboardMvRow r1 = mock(LeaderboardMvRepository.LeaderboardMvRow.class);
+        // all-time aggregates come from leaderboard_user_total, pre-ordered by total points
+        // descending (see LeaderboardAggregateRepository#findAllTime) — not walked from raw Guess rows.
+        final LeaderboardAggregateRepository.LeaderboardRow r1 = mock(LeaderboardAggregateRepository.LeaderboardRow.class);
         when(r1.getSteamId()).thenReturn("u1");
         when(r1.getTotalPoints()).thenReturn(5L);
         when(r1.getRounds()).thenReturn(1L);
@@ -118,7 +132,7 @@ class LeaderboardServiceTest {
         when(r1.getAvgPoints()).thenReturn(5.0);
         when(r1.getPersonaName()).thenReturn("User One");
 
-        final LeaderboardMvRepository.LeaderboardMvRow r2 = mock(LeaderboardMvRepository.LeaderboardMvRow.class);
+        final LeaderboardAggregateRepository.LeaderboardRow r2 = mock(LeaderboardAggregateRepository.LeaderboardRow.class);
         when(r2.getSteamId()).thenReturn("u2");
         when(r2.getTotalPoints()).thenReturn(1L);
         when(r2.getRounds()).thenReturn(1L);
@@ -129,9 +143,9 @@ class LeaderboardServiceTest {
         when(r2.getAvgPoints()).thenReturn(1.0);
         // r2.getPersonaName() intentionally left unstubbed (null) — exercises the steamId fallback
 
-        when(leaderboardMvRepository.findAllTime()).thenReturn(List.of(r1, r2));
-        // findDistinctDatesUpToForUsers intentionally left unstubbed —
-        // Mockito's empty-list default exercises the null-safe streak fallback path.
+        when(aggregateRepository.findAllTime()).thenReturn(List.of(r1, r2));
+        // participationService.findAll intentionally left unstubbed —
+        // Mockito's empty-map default exercises the missing-bitmap streak fallback path.
 
         List<LeaderboardService.LeaderEntry> result = service.buildAllTimeLeaderboard(LocalDate.now());
 
@@ -146,13 +160,13 @@ class LeaderboardServiceTest {
 
     @Test
     void buildAllTimeLeaderboard_noRows_returnsEmptyList() {
-        when(leaderboardMvRepository.findAllTime()).thenReturn(List.of());
+        when(aggregateRepository.findAllTime()).thenReturn(List.of());
         assertEquals(List.of(), service.buildAllTimeLeaderboard(LocalDate.now()));
     }
 
     @Test
-    void buildMonthlyLeaderboard_delegatesToMonthlyMv() {
-        final LeaderboardMvRepository.LeaderboardMvRow row = mock(LeaderboardMvRepository.LeaderboardMvRow.class);
+    void buildMonthlyLeaderboard_sumsTheThirtyDaysEndingToday() {
+        final LeaderboardAggregateRepository.LeaderboardRow row = mock(LeaderboardAggregateRepository.LeaderboardRow.class);
         when(row.getSteamId()).thenReturn("u1");
         when(row.getTotalPoints()).thenReturn(10L);
         when(row.getRounds()).thenReturn(2L);
@@ -162,9 +176,10 @@ class LeaderboardServiceTest {
         when(row.getTooLow()).thenReturn(1L);
         when(row.getAvgPoints()).thenReturn(5.0);
 
-        when(leaderboardMvRepository.findMonthly()).thenReturn(List.of(row));
+        final LocalDate today = LocalDate.of(2026, 3, 31);
+        when(aggregateRepository.findBetween(LocalDate.of(2026, 3, 2), today)).thenReturn(List.of(row));
 
-        List<LeaderboardService.LeaderEntry> result = service.buildMonthlyLeaderboard(LocalDate.now());
+        List<LeaderboardService.LeaderEntry> result = service.buildMonthlyLeaderboard(today);
 
         assertEquals(1, result.size());
         assertEquals("u1", result.get(0).steamId());
@@ -172,8 +187,8 @@ class LeaderboardServiceTest {
     }
 
     @Test
-    void buildWeeklyLeaderboard_delegatesToWeeklyMv() {
-        final LeaderboardMvRepository.LeaderboardMvRow row = mock(LeaderboardMvRepository.LeaderboardMvRow.class);
+    void buildWeeklyLeaderboard_sumsTheSevenDaysEndingToday() {
+        final LeaderboardAggregateRepository.LeaderboardRow row = mock(LeaderboardAggregateRepository.LeaderboardRow.class);
         when(row.getSteamId()).thenReturn("u1");
         when(row.getTotalPoints()).thenReturn(7L);
         when(row.getRounds()).thenReturn(2L);
@@ -183,9 +198,10 @@ class LeaderboardServiceTest {
         when(row.getTooLow()).thenReturn(0L);
         when(row.getAvgPoints()).thenReturn(3.5);
 
-        when(leaderboardMvRepository.findWeekly()).thenReturn(List.of(row));
+        final LocalDate today = LocalDate.of(2026, 3, 31);
+        when(aggregateRepository.findBetween(LocalDate.of(2026, 3, 25), today)).thenReturn(List.of(row));
 
-        List<LeaderboardService.LeaderEntry> result = service.buildWeeklyLeaderboard(LocalDate.now());
+        List<LeaderboardService.LeaderEntry> result = service.buildWeeklyLeaderboard(today);
 
         assertEquals(1, result.size());
         assertEquals("u1", result.get(0).steamId());
@@ -193,8 +209,8 @@ class LeaderboardServiceTest {
     }
 
     @Test
-    void buildSeasonLeaderboard_delegatesToSeasonMv() {
-        final LeaderboardMvRepository.LeaderboardMvRow row = mock(LeaderboardMvRepository.LeaderboardMvRow.class);
+    void buildSeasonLeaderboard_sumsTheSeasonContainingTheDate() {
+        final LeaderboardAggregateRepository.LeaderboardRow row = mock(LeaderboardAggregateRepository.LeaderboardRow.class);
         when(row.getSteamId()).thenReturn("u1");
         when(row.getTotalPoints()).thenReturn(20L);
         when(row.getRounds()).thenReturn(4L);
@@ -204,12 +220,48 @@ class LeaderboardServiceTest {
         when(row.getTooLow()).thenReturn(0L);
         when(row.getAvgPoints()).thenReturn(5.0);
 
-        when(leaderboardMvRepository.findSeason()).thenReturn(List.of(row));
+        final LocalDate asOf = LocalDate.of(2026, 3, 31);
+        when(aggregateRepository.findSeasonContaining(asOf)).thenReturn(List.of(row));
 
-        List<LeaderboardService.LeaderEntry> result = service.buildSeasonLeaderboard(LocalDate.now());
+        List<LeaderboardService.LeaderEntry> result = service.buildSeasonLeaderboard(asOf);
 
         assertEquals(1, result.size());
         assertEquals("u1", result.get(0).steamId());
         assertEquals(20L, result.get(0).totalPoints());
     }
+
+    @Test
+    void rankWeekly_skipsStreaksUntilARowIsReturned() {
+        final LeaderboardAggregateRepository.LeaderboardRow row = mock(LeaderboardAggregateRepository.LeaderboardRow.class);
+        when(row.getSteamId()).thenReturn("u1");
+        when(row.getTotalPoints()).thenReturn(7L);
+
+        final LocalDate today = LocalDate.of(2026, 3, 31);
+        when(aggregateRepository.findBetween(LocalDate.of(2026, 3, 25), today)).thenReturn(List.of(row));
+        when(participationService.findAll(any())).thenReturn(Map.of("u1", ParticipationBitmap.of(List.of(today))));
+
+        final RankedLeaderboard board = service.rankWeekly(today);
+
+        assertEquals(0, board.slice(0, 1).getFirst().streak());
+        verifyNoInteractions(participationService);
+        assertEquals(1, service.withStreaks(board.slice(0, 1), today).getFirst().streak());
+    }
+
+    @Test
+    void buildPeriodLeaderboard_takesStreaksAsOfThePeriodsLastDay() {
+        final LeaderboardAggregateRepository.LeaderboardRow row = mock(LeaderboardAggregateRepository.LeaderboardRow.class);
+        when(row.getSteamId()).thenReturn("u1");
+        when(row.getTotalPoints()).thenReturn(12L);
+
+        final LocalDate from = LocalDate.of(2026, 7, 13);
+        final LocalDate to = LocalDate.of(2026, 7, 19);
+        when(aggregateRepository.findBetween(from, to)).thenReturn(List.of(row));
+        when(participationService.findAll(any())).thenReturn(Map.of("u1", ParticipationBitmap.of(List.of(
+                to.minusDays(1), to))));
+
+        List<LeaderboardService.LeaderEntry> result = service.buildPeriodLeaderboard(from, to);
+
+        assertEquals(12L, result.getFirst().totalPoints());
+        assertEquals(2, result.getFirst().streak());
+    }
 }
@@ -0,0 +1,141 @@
+package org.steam5.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.server.ResponseStatusException;
+import org.steam5.domain.LeaderboardSnapshot;
+import org.steam5.domain.Season;
+import org.steam5.repository.LeaderboardSnapshotRepository;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class LeaderboardSnapshotServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 8, 3);
+
+    private LeaderboardSnapshotRepository repository;
+    private LeaderboardService leaderboardService;
+    private SeasonService seasonService;
+    private LeaderboardSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(LeaderboardSnapshotRepository.class);
+        leaderboardService = mock(LeaderboardService.class);
+        seasonService = mock(SeasonService.class);
+        service = new LeaderboardSnapshotService(repository, leaderboardService, seasonService, new ObjectMapper());
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void find_freezesAnIsoWeekOnFirstRead() {
+        final List<LeaderboardService.LeaderEntry> board = List.of(entry("a", 9), entry("b", 4));
+        when(leaderboardService.buildPeriodLeaderboard(LocalDate.of(2026, 7, 13), LocalDate.of(2026, 7, 19))).thenReturn(board);
+        final LeaderboardSnapshot stored = new LeaderboardSnapshot();
+        when(repository.findById("2026-W29")).thenReturn(Optional.empty(), Optional.of(stored));
+
+        assertSame(stored, service.find("2026-W29", TODAY).orElseThrow());
+
+        final ArgumentCaptor<byte[]> body = ArgumentCaptor.forClass(byte[].class);
+        verify(repository).insertIfAbsent(eq("2026-W29"), eq(LocalDate.of(2026, 7, 13)), eq(LocalDate.of(2026, 7, 19)),
+                eq(2), body.capture(), anyString());
+        stored.setBody(body.getValue());
+        assertEquals(board, service.entries(stored));
+    }
+
+    @Test
+    void find_ofAFrozenPeriod_neverRebuildsIt() {
+        final LeaderboardSnapshot stored = new LeaderboardSnapshot("2026-07", LocalDate.of(2026, 7, 1),
+                LocalDate.of(2026, 7, 31), 1, new byte[0], "\"x\"", OffsetDateTime.now());
+        when(repository.findById("2026-07")).thenReturn(Optional.of(stored));
+
+        assertSame(stored, service.find("2026-07", TODAY).orElseThrow());
+
+        verifyNoInteractions(leaderboardService);
+    }
+
+    @Test
+    void find_ofAPeriodNobodyPlayed_storesNothing() {
+        when(leaderboardService.buildPeriodLeaderboard(any(), any())).thenReturn(List.of());
+
+        assertTrue(service.find("2026-06", TODAY).isEmpty());
+
+        verify(leaderboardService).buildPeriodLeaderboard(LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 30));
+        verify(repository, never()).insertIfAbsent(any(), any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void find_ofASeason_usesItsDates() {
+        final Season season = new Season();
+        season.setSeasonNumber(3);
+        season.setStartDate(LocalDate.of(2026, 5, 1));
+        season.setEndDate(LocalDate.of(2026, 7, 31));
+        when(seasonService.findSeasonByNumber(3)).thenReturn(Optional.of(season));
+        when(leaderboardService.buildPeriodLeaderboard(any(), any())).thenReturn(List.of());
+
+        service.find("season-3", TODAY);
+
+        verify(leaderboardService).buildPeriodLeaderboard(LocalDate.of(2026, 5, 1), LocalDate.of(2026, 7, 31));
+    }
+
+    @Test
+    void find_ofAPeriodStillRunning_isNotFound() {
+        final ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> service.find("2026-08", TODAY));
+
+        assertEquals(404, ex.getStatusCode().value());
+        verifyNoInteractions(leaderboardService);
+    }
+
+    @Test
+    void find_ofAMalformedPeriod_isBadRequest() {
+        for (final String period : List.of("2026-W54", "2026-13", "last-week", "season-")) {
+            final ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                    () -> service.find(period, TODAY), period);
+            assertEquals(400, ex.getStatusCode().value(), period);
+        }
+    }
+
+    @Test
+    void freezeCompletedPeriods_freezesTheWeekAndMonthThatJustEnded() {
+        when(seasonService.findSeasonContaining(TODAY)).thenReturn(Optional.empty());
+        when(leaderboardService.buildPeriodLeaderboard(any(), any())).thenReturn(List.of(entry("a", 1)));
+        when(repository.existsById("2026-07")).thenReturn(true);
+
+        service.freezeCompletedPeriods(TODAY);
+
+        verify(repository).insertIfAbsent(eq("2026-W31"), eq(LocalDate.of(2026, 7, 27)), eq(LocalDate.of(2026, 8, 2)),
+                eq(1), any(), anyString());
+        verify(leaderboardService, never()).buildPeriodLeaderboard(LocalDate.of(2026, 7, 1), LocalDate.of(2026, 7, 31));
+    }
+
+    @Test
+    void weekOf_usesTheIsoWeekBasedYear() {
+        assertEquals("2026-W53", LeaderboardSnapshotService.weekOf(LocalDate.of(2027, 1, 1)));
+        assertEquals("2026-W29", LeaderboardSnapshotService.weekOf(LocalDate.of(2026, 7, 19)));
+    }
+
+    private static LeaderboardService.LeaderEntry entry(final String steamId, final long points) {
+        return new LeaderboardService.LeaderEntry(steamId, steamId, points, 1L, 0L, 0L, 0L, 0L,
+                points, 0, null, null);
+    }
+}
@@ -0,0 +1,94 @@
+package org.steam5.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.steam5.domain.ParticipationBitmap;
+import org.steam5.repository.UserParticipationRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParticipationServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 14);
+
+    private UserParticipationRepository repository;
+    private ParticipationService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UserParticipationRepository.class);
+        service = new ParticipationService(repository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void findAll_decodesRowsAndDefaultsMissingPlayersToEmpty() {
+        final ParticipationBitmap played = ParticipationBitmap.of(List.of(DAY.minusDays(1), DAY));
+        final UserParticipationRepository.ParticipationRow row = row("u1", played);
+        when(repository.findAllBySteamIdIn(List.of("u1", "u2"))).thenReturn(List.of(row));
+
+        final Map<String, ParticipationBitmap> result = service.findAll(List.of("u1", "u2"));
+
+        assertEquals(2, result.get("u1").currentStreak(DAY));
+        assertTrue(result.get("u2").isEmpty());
+    }
+
+    @Test
+    void markPlayed_dayAlreadySet_doesNotWrite() {
+        final UserParticipationRepository.ParticipationRow row = row("u1", ParticipationBitmap.of(List.of(DAY)));
+        when(repository.findAllBySteamIdIn(List.of("u1"))).thenReturn(List.of(row));
+
+        service.markPlayed("u1", DAY);
+
+        verify(repository, never()).insertIfAbsent(anyString());
+        verify(repository, never()).update(anyString(), anyInt(), any());
+    }
+
+    @Test
+    void markPlayed_newDay_mergesIntoTheLockedRow() {
+        final UserParticipationRepository.ParticipationRow row = row("u1", ParticipationBitmap.of(List.of(DAY.minusDays(1))));
+        when(repository.findAllBySteamIdIn(List.of("u1"))).thenReturn(List.of(row));
+        when(repository.lockBySteamId("u1")).thenReturn(row);
+
+        service.markPlayed("u1", DAY);
+
+        verify(repository).insertIfAbsent("u1");
+        final ArgumentCaptor<Integer> origin = ArgumentCaptor.forClass(Integer.class);
+        final ArgumentCaptor<byte[]> bits = ArgumentCaptor.forClass(byte[].class);
+        verify(repository).update(eq("u1"), origin.capture(), bits.capture());
+        final ParticipationBitmap written = ParticipationBitmap.fromBytes(origin.getValue(), bits.getValue());
+        assertEquals(2, written.currentStreak(DAY));
+    }
+
+    @Test
+    void run_whenBitmapsExist_doesNotBuild() {
+        when(repository.hasAny()).thenReturn(true);
+
+        service.run(mock(ApplicationArguments.class));
+
+        verify(repository, never()).findAllDistinctDates();
+    }
+
+    private static UserParticipationRepository.ParticipationRow row(final String steamId, final ParticipationBitmap bitmap) {
+        final UserParticipationRepository.ParticipationRow row = mock(UserParticipationRepository.ParticipationRow.class);
+        when(row.getSteamId()).thenReturn(steamId);
+        when(row.getOriginDay()).thenReturn(bitmap.originDay());
+        when(row.getBits()).thenReturn(bitmap.toBytes());
+        return row;
+    }
+}
@@ -0,0 +1,86 @@
+package org.steam5.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.steam5.domain.IngestState;
+import org.steam5.http.SteamApiException;
+import org.steam5.repository.IngestStateRepository;
+import org.steam5.repository.SteamAppIndexRepository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PartitionedIngestEngineTest {
+
+    private static final TreeSet<Long> APPS = new TreeSet<>(List.of(10L, 20L, 30L, 250_010L, 250_020L));
+
+    private IngestStateRepository ingestStateRepository;
+    private PartitionedIngestEngine engine;
+    private final Map<String, Long> cursors = new ConcurrentHashMap<>();
+    private final Set<Long> seen = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() {
+        final SteamAppIndexRepository appIndexRepository = mock(SteamAppIndexRepository.class);
+        ingestStateRepository = mock(IngestStateRepository.class);
+        engine = new PartitionedIngestEngine(appIndexRepository, ingestStateRepository);
+
+        when(appIndexRepository.findMaxAppId()).thenReturn(APPS.last());
+        when(appIndexRepository.findAppIdsInRange(anyLong(), anyLong(), any(Pageable.class))).thenAnswer(inv -> {
+            final long after = inv.getArgument(0);
+            final long upper = inv.getArgument(1);
+            final Pageable page = inv.getArgument(2);
+            return APPS.subSet(after, false, upper, true).stream().limit(page.getPageSize()).toList();
+        });
+        when(ingestStateRepository.findAllById(anyIterable())).thenReturn(List.of());
+        // Legacy single cursor: range 0 resumes after app 20
+        when(ingestStateRepository.findById("k")).thenReturn(Optional.of(new IngestState("k", 20L, OffsetDateTime.now())));
+        doAnswer(inv -> {
+            cursors.put(inv.getArgument(0), inv.getArgument(1));
+            return null;
+        }).when(ingestStateRepository).upsert(anyString(), anyLong(), any());
+    }
+
+    @Test
+    void processesEveryRangeFromItsCursorAndResetsExhaustedRanges() throws Exception {
+        final long processed = engine.run("k", 3, 100, seen::add);
+
+        assertEquals(3, processed);
+        assertEquals(Set.of(30L, 250_010L, 250_020L), seen);
+        verify(ingestStateRepository).upsert(eq("k#0"), eq(30L), any());
+        verify(ingestStateRepository).upsert(eq("k#1"), eq(250_020L), any());
+        // Both ranges ran dry, so the next run starts a refresh pass from their lower bounds
+        assertEquals(Map.of("k#0", 0L, "k#1", 250_000L), cursors);
+    }
+
+    @Test
+    void batchLimitCapsWorkAcrossWorkers() throws Exception {
+        final long processed = engine.run("k", 4, 2, seen::add);
+
+        assertEquals(2, processed);
+        assertEquals(2, seen.size());
+    }
+
+    @Test
+    void rateLimitStopsAllWorkersAndKeepsProgress() {
+        final SteamApiException ex = assertThrows(SteamApiException.class, () -> engine.run("k", 1, 100, appId -> {
+            if (appId == 250_020L) {
+                throw new SteamApiException(429, "https://example.invalid", "HTTP 429");
+            }
+            seen.add(appId);
+        }));
+
+        assertEquals(429, ex.getStatusCode());
+        assertEquals(Map.of("k#0", 30L, "k#1", 250_010L), cursors);
+    }
+}
@@ -0,0 +1,152 @@
+package org.steam5.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.steam5.config.ReviewGameConfig;
+import org.steam5.repository.ExcludedAppRepository;
+import org.steam5.repository.ReviewGamePickRepository;
+import org.steam5.repository.ReviewsBucketRepository;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PickCandidateIndexTest {
+
+    private static final LocalDate SINCE = LocalDate.of(2026, 1, 1);
+
+    private ReviewsBucketRepository bucketRepository;
+    private ExcludedAppRepository excludedAppRepository;
+    private ReviewGamePickRepository pickRepository;
+    private PickCandidateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        bucketRepository = mock(ReviewsBucketRepository.class);
+        excludedAppRepository = mock(ExcludedAppRepository.class);
+        pickRepository = mock(ReviewGamePickRepository.class);
+        final ReviewGameConfig config = new ReviewGameConfig();
+        config.setBucketBoundaries(List.of(100, 1000, 10000, 100000));
+        index = new PickCandidateIndex(bucketRepository, excludedAppRepository, pickRepository, config);
+
+        // appId -> total: two apps per bucket
+        doAnswer(inv -> {
+            final ReviewsBucketRepository.AppTotalConsumer consumer = inv.getArgument(0);
+            consumer.accept(1L, 5);
+            consumer.accept(2L, 50);
+            consumer.accept(3L, 500);
+            consumer.accept(4L, 600);
+            consumer.accept(5L, 5000);
+            consumer.accept(6L, 6000);
+            consumer.accept(7L, 50000);
+            consumer.accept(8L, 60000);
+            consumer.accept(9L, 500000);
+            consumer.accept(10L, 600000);
+            return null;
+        }).when(bucketRepository).forEachReviewedApp(any());
+        when(excludedAppRepository.findAllAppIds()).thenReturn(List.of(2L));
+        when(pickRepository.findAppIdsPickedSince(SINCE)).thenReturn(List.of(3L));
+    }
+
+    @Test
+    void notReadyUntilLoaded() {
+        assertFalse(index.isReady());
+        index.rebuild();
+        assertTrue(index.isReady());
+    }
+
+    @Test
+    void sampleReturnsOnlyEligibleAppsFromRequestedBucket() {
+        index.rebuild();
+
+        // bucket 0 holds 1 and 2; 2 is excluded
+        assertEquals(List.of(1L), index.sample(0, 8, SINCE));
+        // bucket 1 holds 3 and 4; 3 was picked within the window
+        assertEquals(List.of(4L), index.sample(1, 8, SINCE));
+        assertEquals(Set.of(9L, 10L), new HashSet<>(index.sample(4, 8, SINCE)));
+    }
+
+    @Test
+    void sampleAnySkipsBlockedAppsAcrossBuckets() {
+        index.rebuild();
+
+        final List<Long> any = index.sampleAny(20, SINCE);
+        assertEquals(8, any.size());
+        assertFalse(any.contains(2L));
+        assertFalse(any.contains(3L));
+    }
+
+    @Test
+    void recentWindowIsReloadedOnlyWhenItChanges() {
+        index.rebuild();
+        index.sample(0, 1, SINCE);
+        index.sample(1, 1, SINCE);
+        verify(pickRepository, times(1)).findAppIdsPickedSince(SINCE);
+
+        // A later window no longer covers app 3
+        final LocalDate later = SINCE.plusDays(1);
+        when(pickRepository.findAppIdsPickedSince(later)).thenReturn(List.of());
+        assertEquals(Set.of(3L, 4L), new HashSet<>(index.sample(1, 8, later)));
+    }
+
+    @Test
+    void savedReviewsMoveAppBetweenBuckets() {
+        index.rebuild();
+
+        index.onReviewsSaved(Map.of(1L, 50000));
+        assertEquals(List.of(), index.sample(0, 8, SINCE));
+        assertEquals(Set.of(1L, 7L, 8L), new HashSet<>(index.sample(3, 8, SINCE)));
+
+        // New app enters, and an app dropping to zero reviews leaves the index
+        index.onReviewsSaved(Map.of(11L, 7, 7L, 0));
+        assertEquals(List.of(11L), index.sample(0, 8, SINCE));
+        assertEquals(Set.of(1L, 8L), new HashSet<>(index.sample(3, 8, SINCE)));
+    }
+
+    @Test
+    void oneFlushMovesManyAppsAndLeavesUnchangedOnesInPlace() {
+        index.rebuild();
+
+        index.onReviewsSaved(Map.of(1L, 6, 4L, 5000, 5L, 5000, 12L, 700, 13L, 800));
+        assertEquals(Set.of(1L), new HashSet<>(index.sample(0, 8, SINCE)));
+        assertEquals(Set.of(12L, 13L), new HashSet<>(index.sample(1, 8, SINCE)));
+        assertEquals(Set.of(4L, 5L, 6L), new HashSet<>(index.sample(2, 8, SINCE)));
+    }
+
+    @Test
+    void exclusionsAndPicksWaitForTheCommit() {
+        index.rebuild();
+        index.sample(4, 8, SINCE);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.onExcluded(9L);
+            index.onPicked(List.of(10L));
+            assertEquals(Set.of(9L, 10L), new HashSet<>(index.sample(4, 8, SINCE)));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(), index.sample(4, 8, SINCE));
+    }
+
+    @Test
+    void exclusionsAndPicksAreAppliedImmediatelyWithoutATransaction() {
+        index.rebuild();
+        index.sample(4, 8, SINCE);
+
+        index.onExcluded(9L);
+        index.onPicked(List.of(10L));
+
+        assertEquals(List.of(), index.sample(4, 8, SINCE));
+    }
+}
@@ -6,6 +6,7 @@ import org.mockito.ArgumentCaptor;
 import org.steam5.domain.Comment;
 import org.steam5.domain.GameDate;
 import org.steam5.domain.Guess;
+import org.steam5.domain.ParticipationBitmap;
 import org.steam5.domain.PlayerSpotlight;
 import org.steam5.domain.PlayerSpotlightInsightType;
 import org.steam5.domain.ReactionType;
@@ -18,9 +19,12 @@ import org.steam5.repository.UserRepository;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -34,6 +38,7 @@ class PlayerSpotlightServiceTest {
     private PlayerSpotlightRepository playerSpotlightRepository;
     private CommentRepository commentRepository;
     private CommentReactionRepository commentReactionRepository;
+    private ParticipationService participationService;
     private PlayerSpotlightService service;
 
     private final LocalDate today = GameDate.todayUtc();
@@ -46,6 +51,7 @@ class PlayerSpotlightServiceTest {
         playerSpotlightRepository = mock(PlayerSpotlightRepository.class);
         commentRepository = mock(CommentRepository.class);
         commentReactionRepository = mock(CommentReactionRepository.class);
+        participationService = mock(ParticipationService.class);
 
         service = new PlayerSpotlightService(
                 guessRepository,
@@ -53,7 +59,8 @@ class PlayerSpotlightServiceTest {
                 statisticsService,
                 playerSpotlightRepository,
                 commentRepository,
-                commentReactionRepository
+                commentReactionRepository,
+                participationService
         );
 
         // Safe defaults so tiers below the one under test don't NPE on unstubbed mocks.
@@ -99,16 +106,27 @@ class PlayerSpotlightServiceTest {
         return row;
     }
 
-    private GuessRepository.UserDateRow dateRow(String steamId, LocalDate date) {
-        final GuessRepository.UserDateRow row = mock(GuessRepository.UserDateRow.class);
-        when(row.getSteamId()).thenReturn(steamId);
-        when(row.getGameDate()).thenReturn(date);
-        return row;
+    private record DateRow(String steamId, LocalDate date) {
+    }
+
+    private DateRow dateRow(String steamId, LocalDate date) {
+        return new DateRow(steamId, date);
+    }
+
+    /** Serves the given (player, day) rows as the candidates' participation bitmaps. */
+    private void stubParticipation(List<DateRow> rows) {
+        final Map<String, List<LocalDate>> datesBySteamId = rows.stream().collect(Collectors.groupingBy(
+                DateRow::steamId, Collectors.mapping(DateRow::date, Collectors.toList())));
+        when(participationService.findAll(anyCollection())).thenAnswer(inv -> {
+            final Map<String, ParticipationBitmap> bitmaps = new HashMap<>();
+            datesBySteamId.forEach((steamId, dates) -> bitmaps.put(steamId, ParticipationBitmap.of(dates)));
+            return bitmaps;
+        });
     }
 
-    /** dates descending, most recent first — matches findDistinctDatesUpToForUsers ordering. */
-    private List<GuessRepository.UserDateRow> consecutiveDaysEnding(String steamId, LocalDate lastDate, int count) {
-        final List<GuessRepository.UserDateRow> rows = new ArrayList<>();
+    /** dates descending, most recent first. */
+    private List<DateRow> consecutiveDaysEnding(String steamId, LocalDate lastDate, int count) {
+        final List<DateRow> rows = new ArrayList<>();
         for (int i = 0; i < count; i++) {
             rows.add(dateRow(steamId, lastDate.minusDays(i)));
         }
@@ -169,10 +187,10 @@ class PlayerSpotlightServiceTest {
         final GuessRepository.AllTimeStatsRow eligible = allTimeRow("eligible", 100, 2.0);
         stubAllTimeStats(belowThreshold, eligible);
 
-        final List<GuessRepository.UserDateRow> allDates = new ArrayList<>();
+        final List<DateRow> allDates = new ArrayList<>();
         allDates.addAll(consecutiveDaysEnding("belowThreshold", today, 1));
         allDates.addAll(consecutiveDaysEnding("eligible", today, 1));
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today))).thenReturn(allDates);
+        stubParticipation(allDates);
 
         service.computeAndPersistForToday();
 
@@ -187,10 +205,10 @@ class PlayerSpotlightServiceTest {
         final GuessRepository.AllTimeStatsRow active = allTimeRow("active", 100, 2.0);
         stubAllTimeStats(stale, active);
 
-        final List<GuessRepository.UserDateRow> allDates = new ArrayList<>();
+        final List<DateRow> allDates = new ArrayList<>();
         allDates.addAll(consecutiveDaysEnding("stale", today.minusDays(20), 1)); // last played 20 days ago
         allDates.addAll(consecutiveDaysEnding("active", today, 1));
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today))).thenReturn(allDates);
+        stubParticipation(allDates);
 
         // Override the default (which would otherwise auto-grant "stale" 35 recent rounds
         // too): "stale" is genuinely dormant, so it's simply omitted here, leaving it with a
@@ -216,10 +234,10 @@ class PlayerSpotlightServiceTest {
         final GuessRepository.AllTimeStatsRow active = allTimeRow("active", 100, 2.0);
         stubAllTimeStats(dormantVeteran, active);
 
-        final List<GuessRepository.UserDateRow> allDates = new ArrayList<>();
+        final List<DateRow> allDates = new ArrayList<>();
         allDates.addAll(consecutiveDaysEnding("dormantVeteran", today, 1)); // played today, but just a fluke
         allDates.addAll(consecutiveDaysEnding("active", today, 1));
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today))).thenReturn(allDates);
+        stubParticipation(allDates);
 
         final List<Guess> recentRounds = new ArrayList<>();
         for (int i = 0; i < 5; i++) recentRounds.add(guess("dormantVeteran", today, 2)); // only 5 in the window
@@ -239,10 +257,10 @@ class PlayerSpotlightServiceTest {
         final GuessRepository.AllTimeStatsRow oneAndDone = allTimeRow("oneAndDone", 100, 2.0);
         stubAllTimeStats(streaker, oneAndDone);
 
-        final List<GuessRepository.UserDateRow> allDates = new ArrayList<>();
+        final List<DateRow> allDates = new ArrayList<>();
         allDates.addAll(consecutiveDaysEnding("streaker", today, 6)); // active 6-day streak, >= MIN_DAY_STREAK
         allDates.addAll(consecutiveDaysEnding("oneAndDone", today, 1)); // only played today — milestone tier only
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today))).thenReturn(allDates);
+        stubParticipation(allDates);
 
         service.computeAndPersistForToday();
 
@@ -257,8 +275,8 @@ class PlayerSpotlightServiceTest {
         final GuessRepository.AllTimeStatsRow onlySteadyPlayer = allTimeRow("onlySteadyPlayer", 90, 2.5);
         stubAllTimeStats(onlySteadyPlayer);
 
-        final List<GuessRepository.UserDateRow> dates = consecutiveDaysEnding("onlySteadyPlayer", today, 1);
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today))).thenReturn(dates);
+        final List<DateRow> dates = consecutiveDaysEnding("onlySteadyPlayer", today, 1);
+        stubParticipation(dates);
 
         service.computeAndPersistForToday();
 
@@ -287,8 +305,8 @@ class PlayerSpotlightServiceTest {
         final GuessRepository.AllTimeStatsRow tooFewRounds = allTimeRow("tooFewRounds", 10, 2.0);
         stubAllTimeStats(tooFewRounds);
 
-        final List<GuessRepository.UserDateRow> dates = consecutiveDaysEnding("tooFewRounds", today, 1);
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today))).thenReturn(dates);
+        final List<DateRow> dates = consecutiveDaysEnding("tooFewRounds", today, 1);
+        stubParticipation(dates);
 
         service.computeAndPersistForToday();
 
@@ -304,10 +322,10 @@ class PlayerSpotlightServiceTest {
         final GuessRepository.AllTimeStatsRow freshPlayer = allTimeRow("freshPlayer", 100, 2.0);
         stubAllTimeStats(recentlyFeatured, freshPlayer);
 
-        final List<GuessRepository.UserDateRow> allDates = new ArrayList<>();
+        final List<DateRow> allDates = new ArrayList<>();
         allDates.addAll(consecutiveDaysEnding("recentlyFeatured", today, 1));
         allDates.addAll(consecutiveDaysEnding("freshPlayer", today, 1));
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today))).thenReturn(allDates);
+        stubParticipation(allDates);
 
         // Both candidates only qualify for the MILESTONE fallback (single date, no other
         // tier-qualifying signal), so once the cooldown drops "recentlyFeatured", "freshPlayer"
@@ -332,8 +350,8 @@ class PlayerSpotlightServiceTest {
         final GuessRepository.AllTimeStatsRow onlyPlayer = allTimeRow("onlyPlayer", 100, 2.0);
         stubAllTimeStats(onlyPlayer);
 
-        final List<GuessRepository.UserDateRow> dates = consecutiveDaysEnding("onlyPlayer", today, 1);
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today))).thenReturn(dates);
+        final List<DateRow> dates = consecutiveDaysEnding("onlyPlayer", today, 1);
+        stubParticipation(dates);
 
         // "onlyPlayer" is the only eligible candidate today, but was also featured yesterday.
         // The player cooldown must not suppress the entire pool just to enforce variety.
@@ -368,10 +386,10 @@ class PlayerSpotlightServiceTest {
         final GuessRepository.AllTimeStatsRow playerB = allTimeRow("playerB", 90, 2.0);
         stubAllTimeStats(playerA, playerB);
 
-        final List<GuessRepository.UserDateRow> allDates = new ArrayList<>();
+        final List<DateRow> allDates = new ArrayList<>();
         allDates.addAll(consecutiveDaysEnding("playerA", today, 1));
         allDates.addAll(consecutiveDaysEnding("playerB", today, 1));
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today))).thenReturn(allDates);
+        stubParticipation(allDates);
 
         service.computeAndPersistForToday();
         final ArgumentCaptor<PlayerSpotlight> captor = ArgumentCaptor.forClass(PlayerSpotlight.class);
@@ -391,8 +409,8 @@ class PlayerSpotlightServiceTest {
         final GuessRepository.AllTimeStatsRow commenter = allTimeRow("commenter", 100, 2.0);
         stubAllTimeStats(commenter);
 
-        final List<GuessRepository.UserDateRow> dates = consecutiveDaysEnding("commenter", yesterday, 1);
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today))).thenReturn(dates);
+        final List<DateRow> dates = consecutiveDaysEnding("commenter", yesterday, 1);
+        stubParticipation(dates);
 
         final Comment comment = new Comment();
         comment.setId(77L);
@@ -427,8 +445,8 @@ class PlayerSpotlightServiceTest {
         final GuessRepository.AllTimeStatsRow recordBreaker = allTimeRow("recordBreaker", 100, 2.0);
         stubAllTimeStats(recordBreaker);
 
-        final List<GuessRepository.UserDateRow> dates = consecutiveDaysEnding("recordBreaker", yesterday, 1);
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today))).thenReturn(dates);
+        final List<DateRow> dates = consecutiveDaysEnding("recordBreaker", yesterday, 1);
+        stubParticipation(dates);
 
         final List<GuessRepository.DailyTotalRow> dailyTotals = List.of(
                 dailyTotal("recordBreaker", yesterday.minusDays(10), 8),
@@ -451,8 +469,8 @@ class PlayerSpotlightServiceTest {
         final GuessRepository.AllTimeStatsRow oddsBeater = allTimeRow("oddsBeater", 100, 2.0);
         stubAllTimeStats(oddsBeater);
 
-        final List<GuessRepository.UserDateRow> dates = consecutiveDaysEnding("oddsBeater", yesterday, 1);
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today))).thenReturn(dates);
+        final List<DateRow> dates = consecutiveDaysEnding("oddsBeater", yesterday, 1);
+        stubParticipation(dates);
 
         final GuessRepository.RoundAvgScoreRow hardRound = mock(GuessRepository.RoundAvgScoreRow.class);
         when(hardRound.getGameDate()).thenReturn(yesterday);
@@ -481,10 +499,10 @@ class PlayerSpotlightServiceTest {
         final GuessRepository.AllTimeStatsRow returner = allTimeRow("returner", 100, 2.0);
         stubAllTimeStats(returner);
 
-        final List<GuessRepository.UserDateRow> dates = new ArrayList<>();
+        final List<DateRow> dates = new ArrayList<>();
         dates.add(dateRow("returner", mostRecent));
         dates.add(dateRow("returner", beforeGap));
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today))).thenReturn(dates);
+        stubParticipation(dates);
 
         stubRecentHistory(List.of(
                 guess("returner", mostRecent, 4),
@@ -504,9 +522,8 @@ class PlayerSpotlightServiceTest {
         final GuessRepository.AllTimeStatsRow improver = allTimeRow("improver", 100, 2.0);
         stubAllTimeStats(improver);
 
-        final List<GuessRepository.UserDateRow> dates = consecutiveDaysEnding("improver", today, 1);
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today)))
-                .thenReturn(dates);
+        final List<DateRow> dates = consecutiveDaysEnding("improver", today, 1);
+        stubParticipation(dates);
 
         final LocalDate last30Start = today.minusDays(30);
         final LocalDate prior30Start = today.minusDays(60);
@@ -538,10 +555,10 @@ class PlayerSpotlightServiceTest {
         final GuessRepository.AllTimeStatsRow improver = allTimeRow("improver", 100, 2.0);
         stubAllTimeStats(streaker, improver);
 
-        final List<GuessRepository.UserDateRow> allDates = new ArrayList<>();
+        final List<DateRow> allDates = new ArrayList<>();
         allDates.addAll(consecutiveDaysEnding("streaker", today, 6)); // active 6-day streak, >= MIN_DAY_STREAK
         allDates.addAll(consecutiveDaysEnding("improver", today, 1)); // only played today — too short for DAY_STREAK
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today))).thenReturn(allDates);
+        stubParticipation(allDates);
 
         final LocalDate last30Start = today.minusDays(30);
         final LocalDate prior30Start = today.minusDays(60);
@@ -590,10 +607,10 @@ class PlayerSpotlightServiceTest {
         final GuessRepository.AllTimeStatsRow improver = allTimeRow("improver", 100, 2.0);
         stubAllTimeStats(streaker, improver);
 
-        final List<GuessRepository.UserDateRow> allDates = new ArrayList<>();
+        final List<DateRow> allDates = new ArrayList<>();
         allDates.addAll(consecutiveDaysEnding("streaker", today, 6));
         allDates.addAll(consecutiveDaysEnding("improver", today, 1));
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today))).thenReturn(allDates);
+        stubParticipation(allDates);
 
         final LocalDate last30Start = today.minusDays(30);
         final LocalDate prior30Start = today.minusDays(60);
@@ -623,8 +640,8 @@ class PlayerSpotlightServiceTest {
         final GuessRepository.AllTimeStatsRow streaker = allTimeRow("streaker", 100, 2.0);
         stubAllTimeStats(streaker);
 
-        final List<GuessRepository.UserDateRow> dates = consecutiveDaysEnding("streaker", today, 6);
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today))).thenReturn(dates);
+        final List<DateRow> dates = consecutiveDaysEnding("streaker", today, 6);
+        stubParticipation(dates);
 
         // DAY_STREAK is the only qualifying tier today, but it was also featured yesterday.
         // The cooldown must not suppress the entire competitive pool just to enforce variety.
@@ -674,8 +691,8 @@ class PlayerSpotlightServiceTest {
         final GuessRepository.AllTimeStatsRow achiever = allTimeRow("achiever", 100, 2.0);
         stubAllTimeStats(achiever);
 
-        final List<GuessRepository.UserDateRow> dates = consecutiveDaysEnding("achiever", today, 1);
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today))).thenReturn(dates);
+        final List<DateRow> dates = consecutiveDaysEnding("achiever", today, 1);
+        stubParticipation(dates);
 
         final StatisticsService.UserLabel label = new StatisticsService.UserLabel(
                 "achiever", StatisticsService.UserAchievement.SHARPSHOOTER, null, 4.2, null, null, null);
@@ -698,9 +715,8 @@ class PlayerSpotlightServiceTest {
         when(almostCentury.getTotalPoints()).thenReturn(400L);
         stubAllTimeStats(almostCentury);
 
-        final List<GuessRepository.UserDateRow> dates = consecutiveDaysEnding("almostCentury", today, 1);
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today)))
-                .thenReturn(dates);
+        final List<DateRow> dates = consecutiveDaysEnding("almostCentury", today, 1);
+        stubParticipation(dates);
 
         service.computeAndPersistForToday();
 
@@ -725,9 +741,8 @@ class PlayerSpotlightServiceTest {
         when(almostThousandPoints.getTotalPoints()).thenReturn(995L);
         stubAllTimeStats(almostThousandPoints);
 
-        final List<GuessRepository.UserDateRow> dates = consecutiveDaysEnding("almostThousandPoints", today, 1);
-        when(guessRepository.findDistinctDatesUpToForUsers(anyList(), eq(today)))
-                .thenReturn(dates);
+        final List<DateRow> dates = consecutiveDaysEnding("almostThousandPoints", today, 1);
+        stubParticipation(dates);
 
         service.computeAndPersistForToday();
 
@@ -0,0 +1,61 @@
+package org.steam5.service;
+
+import org.junit.jupiter.api.Test;
+import org.steam5.repository.SteamAppReviewsBulkRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReviewCountSnapshotTest {
+
+    private final SteamAppReviewsBulkRepository repository = mock(SteamAppReviewsBulkRepository.class);
+    private final ReviewCountSnapshot snapshot = new ReviewCountSnapshot(repository);
+
+    @Test
+    void reportsChangedUntilLoaded() {
+        snapshot.put(10L, 5, 1);
+
+        assertFalse(snapshot.isUnchanged(10L, 5, 1));
+    }
+
+    @Test
+    void comparesBothCountsExactly() {
+        doAnswer(inv -> {
+            final SteamAppReviewsBulkRepository.AppCountsConsumer c = inv.getArgument(0);
+            c.accept(10L, 5, 1);
+            c.accept(20L, 0, 0);
+            return null;
+        }).when(repository).forEachCount(any());
+
+        snapshot.reload();
+
+        assertTrue(snapshot.isReady());
+        assertTrue(snapshot.isUnchanged(10L, 5, 1));
+        assertTrue(snapshot.isUnchanged(20L, 0, 0));
+        assertFalse(snapshot.isUnchanged(10L, 6, 0));
+        assertFalse(snapshot.isUnchanged(10L, 5, 2));
+        assertFalse(snapshot.isUnchanged(30L, 0, 0));
+
+        snapshot.put(10L, 6, 0);
+        assertTrue(snapshot.isUnchanged(10L, 6, 0));
+    }
+
+    @Test
+    void growsPastInitialCapacity() {
+        doAnswer(inv -> {
+            final SteamAppReviewsBulkRepository.AppCountsConsumer c = inv.getArgument(0);
+            for (long id = 1; id <= 200_000; id++) {
+                c.accept(id * 7, (int) id, (int) (id % 13));
+            }
+            return null;
+        }).when(repository).forEachCount(any());
+
+        snapshot.reload();
+
+        for (long id = 1; id <= 200_000; id += 997) {
+            assertTrue(snapshot.isUnchanged(id * 7, (int) id, (int) (id % 13)));
+        }
+        assertFalse(snapshot.isUnchanged(8L, 0, 0));
+    }
+}
@@ -0,0 +1,120 @@
+package org.steam5.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.steam5.config.JobsConfig;
+import org.steam5.config.ReviewGameConfig;
+import org.steam5.repository.ReviewRefreshScheduleRepository;
+import org.steam5.repository.ReviewRefreshScheduleRepository.AppRefreshState;
+import org.steam5.repository.ReviewRefreshScheduleRepository.ScheduleUpdate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReviewRefreshSchedulerTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2025, 6, 1, 3, 0, 0, 0, ZoneOffset.UTC);
+    private static final List<Integer> BOUNDARIES = List.of(100, 1000, 10000);
+
+    private final JobsConfig jobsConfig = new JobsConfig();
+    private final ReviewGameConfig gameConfig = new ReviewGameConfig();
+    private ReviewRefreshScheduleRepository repository;
+    private ReviewRefreshScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ReviewRefreshScheduleRepository.class);
+        gameConfig.setBucketBoundaries(BOUNDARIES);
+        scheduler = new ReviewRefreshScheduler(repository, gameConfig, jobsConfig);
+    }
+
+    private JobsConfig.ReviewsRefresh cfg() {
+        return jobsConfig.getReviewsRefresh();
+    }
+
+    @Test
+    void boundaryDistanceRespectsUpperInclusiveBuckets() {
+        assertEquals(1, ReviewRefreshScheduler.boundaryDistance(100, BOUNDARIES));
+        assertEquals(1, ReviewRefreshScheduler.boundaryDistance(101, BOUNDARIES));
+        assertEquals(11, ReviewRefreshScheduler.boundaryDistance(90, BOUNDARIES));
+        assertEquals(4000, ReviewRefreshScheduler.boundaryDistance(14000, BOUNDARIES));
+    }
+
+    @Test
+    void dormantAppsWaitTheMaximumInterval() {
+        assertEquals(180d, ReviewRefreshScheduler.intervalDays(5000, 0d, BOUNDARIES, cfg()));
+    }
+
+    @Test
+    void dormantAppsNextToABoundaryAreStillRechecked() {
+        // One review from leaving its bucket, drift threshold of 5 reviews: a fifth of the maximum
+        assertEquals(36d, ReviewRefreshScheduler.intervalDays(100, 0d, BOUNDARIES, cfg()), 1e-9);
+        // Far from every boundary the dormant maximum still applies
+        assertEquals(180d, ReviewRefreshScheduler.intervalDays(5000, 0d, BOUNDARIES, cfg()), 1e-9);
+    }
+
+    @Test
+    void boundaryAdjacentAppsComeBackSoonerThanDistantOnesAtTheSameVelocity() {
+        final double nearBoundary = ReviewRefreshScheduler.intervalDays(995, 1d, BOUNDARIES, cfg());
+        final double midBucket = ReviewRefreshScheduler.intervalDays(500, 1d, BOUNDARIES, cfg());
+
+        assertEquals(3d, nearBoundary, 1e-9);
+        assertEquals(25d, midBucket, 1e-9);
+    }
+
+    @Test
+    void fastMoversAreClampedToTheMinimumInterval() {
+        assertEquals(0.5d, ReviewRefreshScheduler.intervalDays(50_000, 10_000d, BOUNDARIES, cfg()), 1e-9);
+    }
+
+    @Test
+    void firstObservationUsesTheFirstInterval() {
+        final ScheduleUpdate u = scheduler.next(new AppRefreshState(7L, 420, null, null, 0d), NOW);
+
+        assertEquals(NOW.plusDays(7), u.nextDueAt());
+        assertEquals(0d, u.reviewsPerDay());
+    }
+
+    @Test
+    void velocityBlendsObservedDeltaByElapsedTime() {
+        // 30 days (one half-life) since the last check, 60 new reviews => 2/day observed
+        final ScheduleUpdate u = scheduler.next(
+                new AppRefreshState(7L, 560, 500, NOW.minusDays(30), 0d), NOW);
+
+        assertEquals(1d, u.reviewsPerDay(), 1e-9);
+        assertTrue(Duration.between(NOW, u.nextDueAt()).toDays() <= 180);
+        assertEquals(560, u.total());
+    }
+
+    @Test
+    void recordRefreshedWritesOneBatchAndSwallowsFailures() {
+        when(repository.findStates(anyCollection())).thenReturn(List.of(
+                new AppRefreshState(1L, 10, null, null, 0d),
+                new AppRefreshState(2L, 20, 20, NOW.minusDays(1), 0d)));
+
+        scheduler.recordRefreshed(List.of(1L, 2L), NOW);
+        verify(repository).upsertAll(argThat(c -> c.size() == 2), eq(NOW));
+
+        when(repository.findStates(anyCollection())).thenThrow(new IllegalStateException("db down"));
+        assertDoesNotThrow(() -> scheduler.recordRefreshed(List.of(1L), NOW));
+    }
+
+    @Test
+    void appWhoseScheduleCannotBeComputedComesBackAfterTheMinimumInterval() {
+        gameConfig.setBucketBoundaries(null);
+        when(repository.findStates(anyCollection())).thenReturn(List.of(
+                new AppRefreshState(1L, 10, null, null, 0d),
+                new AppRefreshState(2L, 20, 20, NOW.minusDays(1), 0.5d)));
+
+        scheduler.recordRefreshed(List.of(1L, 2L), NOW);
+
+        verify(repository).upsertAll(argThat(c -> c.size() == 2 && c.contains(
+                new ScheduleUpdate(2L, 20, 0.5d, NOW.plusHours(12)))), eq(NOW));
+    }
+}
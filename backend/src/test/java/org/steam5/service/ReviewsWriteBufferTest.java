@@ -0,0 +1,175 @@
+package org.steam5.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.steam5.domain.SteamAppReviews;
+import org.steam5.repository.IngestStateRepository;
+import org.steam5.repository.SteamAppReviewsBulkRepository;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReviewsWriteBufferTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<List<SteamAppReviews>> flushed = new ArrayList<>();
+    private final List<Long> refreshed = new ArrayList<>();
+    private SteamAppReviewsBulkRepository bulkRepository;
+    private IngestStateRepository ingestStateRepository;
+    private ReviewsWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        bulkRepository = mock(SteamAppReviewsBulkRepository.class);
+        ingestStateRepository = mock(IngestStateRepository.class);
+        buffer = new ReviewsWriteBuffer(bulkRepository, ingestStateRepository, flushed::add, refreshed::addAll,
+                3, Duration.ofSeconds(30), clock::get);
+    }
+
+    private static SteamAppReviews row(long appId) {
+        return new SteamAppReviews(appId, 10, 1, OffsetDateTime.now());
+    }
+
+    @Test
+    void flushesOnSizeWithOneStatement() {
+        buffer.add(row(1));
+        buffer.add(row(2));
+        verifyNoInteractions(bulkRepository);
+
+        buffer.add(row(3));
+
+        verify(bulkRepository, times(1)).upsertAll(argThat((Collection<SteamAppReviews> c) -> c.size() == 3));
+        assertEquals(1, flushed.size());
+        assertEquals(3, buffer.written());
+    }
+
+    @Test
+    void flushesWhenOldestRowIsTooOld() {
+        buffer.add(row(1));
+        clock.set(Duration.ofSeconds(31).toNanos());
+        buffer.add(row(2));
+
+        verify(bulkRepository).upsertAll(argThat((Collection<SteamAppReviews> c) -> c.size() == 2));
+    }
+
+    @Test
+    void timerFlushesWithoutAFurtherAdd() {
+        final ReviewsWriteBuffer timed = new ReviewsWriteBuffer(bulkRepository, ingestStateRepository, flushed::add,
+                refreshed::addAll, 100, Duration.ofMillis(50), System::nanoTime);
+
+        timed.add(row(1));
+
+        verify(bulkRepository, timeout(5_000)).upsertAll(argThat((Collection<SteamAppReviews> c) -> c.size() == 1));
+    }
+
+    @Test
+    void staleTimerWaitsForTheCurrentOldestRow() {
+        buffer.add(row(1));
+        buffer.flush();
+        clock.set(Duration.ofSeconds(20).toNanos());
+        buffer.add(row(2));
+
+        // Set for the first row; the second one is only 20s old
+        clock.set(Duration.ofSeconds(30).toNanos());
+        buffer.flushIfStale();
+        verify(bulkRepository, times(1)).upsertAll(anyCollection());
+
+        clock.set(Duration.ofSeconds(50).toNanos());
+        buffer.flushIfStale();
+        verify(bulkRepository, times(2)).upsertAll(anyCollection());
+    }
+
+    @Test
+    void workersKeepBufferingWhileAFlushWrites() throws Exception {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(bulkRepository.upsertAll(anyCollection())).thenAnswer(inv -> {
+            writing.countDown();
+            release.await();
+            return 1;
+        });
+        buffer.add(row(1));
+        final CompletableFuture<Void> flushing = CompletableFuture.runAsync(buffer::flush);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        // Would block on the buffer's monitor if the write held it
+        CompletableFuture.runAsync(() -> buffer.add(row(2))).get(5, TimeUnit.SECONDS);
+
+        release.countDown();
+        flushing.get(5, TimeUnit.SECONDS);
+        buffer.flush();
+        verify(bulkRepository, times(2)).upsertAll(anyCollection());
+        assertEquals(List.of(1L), flushed.get(0).stream().map(SteamAppReviews::getAppId).toList());
+        assertEquals(List.of(2L), flushed.get(1).stream().map(SteamAppReviews::getAppId).toList());
+    }
+
+    @Test
+    void cursorsAreWrittenOnlyAfterTheirRows() {
+        buffer.add(row(1));
+        buffer.commit("steam_app_reviews#0", 1L);
+        buffer.commit("steam_app_reviews#0", 5L);
+        verifyNoInteractions(ingestStateRepository);
+
+        buffer.flush();
+
+        final InOrder order = inOrder(bulkRepository, ingestStateRepository);
+        order.verify(bulkRepository).upsertAll(anyCollection());
+        order.verify(ingestStateRepository).upsert(eq("steam_app_reviews#0"), eq(5L), any());
+        verify(ingestStateRepository, times(1)).upsert(anyString(), anyLong(), any());
+    }
+
+    @Test
+    void unchangedAppsAreOnlyTouchedAndCountTowardsTheSizeThreshold() {
+        buffer.touch(1L);
+        buffer.touch(2L);
+        verifyNoInteractions(bulkRepository);
+
+        buffer.add(row(3));
+
+        verify(bulkRepository).upsertAll(argThat((Collection<SteamAppReviews> c) -> c.size() == 1));
+        verify(bulkRepository).touchUpdatedAt(eq(List.of(1L, 2L)), any());
+        assertEquals(1, flushed.size());
+        assertEquals(1, buffer.written());
+        assertEquals(2, buffer.touched());
+        assertEquals(List.of(3L, 1L, 2L), refreshed);
+    }
+
+    @Test
+    void changedRowSupersedesATouchForTheSameApp() {
+        buffer.touch(1L);
+        buffer.add(row(1));
+        buffer.touch(1L);
+
+        buffer.flush();
+
+        verify(bulkRepository).upsertAll(argThat((Collection<SteamAppReviews> c) -> c.size() == 1));
+        verify(bulkRepository, never()).touchUpdatedAt(anyCollection(), any());
+    }
+
+    @Test
+    void failedWriteKeepsRowsAndCursorsForTheNextFlush() {
+        buffer.add(row(1));
+        buffer.commit("k#0", 1L);
+        when(bulkRepository.upsertAll(anyCollection())).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(IllegalStateException.class, buffer::flush);
+        verifyNoInteractions(ingestStateRepository);
+
+        reset(bulkRepository);
+        buffer.flush();
+        verify(bulkRepository).upsertAll(argThat((Collection<SteamAppReviews> c) -> c.size() == 1));
+        verify(ingestStateRepository).upsert(eq("k#0"), eq(1L), any());
+    }
+}
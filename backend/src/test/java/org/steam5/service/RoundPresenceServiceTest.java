@@ -170,6 +170,23 @@ class RoundPresenceServiceTest {
         assertDoesNotThrow(() -> service.broadcastSnapshot("unknownScope"));
     }
 
+    @Test
+    void broadcastSendsTheMessageToTheScopeOnly() throws IOException {
+        final WebSocketSession inScope = sessionFor("scopeA", "1.1.1.1", null, null, null);
+        final WebSocketSession otherScope = sessionFor("scopeB", "1.1.1.2", null, null, null);
+        service.register(inScope);
+        service.register(otherScope);
+
+        service.broadcast("scopeA", Map.of("type", "leaderboard", "rank", 1));
+
+        final var captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(inScope).sendMessage(captor.capture());
+        final Map<?, ?> sent = new ObjectMapper().readValue(captor.getValue().getPayload(), Map.class);
+        assertEquals("leaderboard", sent.get("type"));
+        assertEquals(1, sent.get("rank"));
+        verify(otherScope, never()).sendMessage(any());
+    }
+
     @Test
     void broadcastSendsFullSnapshotToAnonymousSessionsToo() throws IOException {
         final WebSocketSession authed = sessionFor("scopeA", "1.1.1.1", "1", "Alice", "http://avatar/a");
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.steam5.config.SeasonProperties;
+import org.steam5.domain.ParticipationBitmap;
 import org.steam5.domain.Season;
 import org.steam5.domain.SeasonAwardCategory;
 import org.steam5.domain.SeasonAwardResult;
@@ -15,6 +16,7 @@ import org.steam5.repository.SeasonRepository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,6 +29,7 @@ class SeasonServiceTest {
     private SeasonAwardResultRepository awardResultRepository;
     private GuessRepository guessRepository;
     private SeasonCreatorService seasonCreator;
+    private ParticipationService participationService;
     private SeasonProperties seasonProperties;
     private SeasonService service;
 
@@ -36,9 +39,10 @@ class SeasonServiceTest {
         awardResultRepository = mock(SeasonAwardResultRepository.class);
         guessRepository = mock(GuessRepository.class);
         seasonCreator = mock(SeasonCreatorService.class);
+        participationService = mock(ParticipationService.class);
         seasonProperties = new SeasonProperties();
         service = new SeasonService(seasonRepository, awardResultRepository, guessRepository,
-                seasonProperties, seasonCreator);
+                seasonProperties, seasonCreator, participationService, mock(DomainCacheEvictor.class));
     }
 
     private static Season seasonWith(int number, LocalDate start, LocalDate end, SeasonStatus status) {
@@ -364,7 +368,6 @@ class SeasonServiceTest {
         GuessRepository.SeasonStatRow rowB = statRow("playerB", 80L, 6L, 0L, 12L, 10L);
 
         when(guessRepository.findSeasonStats(start, end)).thenReturn(List.of(rowA, rowB));
-        when(guessRepository.findSeasonDates(start, end)).thenReturn(List.of());
 
         SeasonService.SeasonReport report = service.buildSeasonReport(completed);
 
@@ -532,8 +535,6 @@ class SeasonServiceTest {
         when(seasonRepository.claimForFinalization(20L)).thenReturn(1);
         when(guessRepository.findSeasonStats(season.getStartDate(), season.getEndDate()))
                 .thenReturn(List.of(rowA, rowB));
-        when(guessRepository.findSeasonDates(season.getStartDate(), season.getEndDate()))
-                .thenReturn(List.of());
         when(seasonRepository.save(any(Season.class))).thenAnswer(inv -> inv.getArgument(0));
 
         Season result = service.finalizeSeason(season);
@@ -555,6 +556,40 @@ class SeasonServiceTest {
         assertEquals(2, saved.get(1).getPlacementLevel());
     }
 
+    @Test
+    void finalizeSeason_longestStreakCountsOnlyDaysInsideTheSeason() {
+        Season season = seasonWith(23, LocalDate.of(2026, 4, 1), LocalDate.of(2026, 4, 30), SeasonStatus.ACTIVE);
+        seasonProperties.getAwards().setCategories(List.of(SeasonAwardCategory.LONGEST_STREAK));
+        seasonProperties.getAwards().setMinRounds(1);
+
+        GuessRepository.SeasonStatRow rowA = statRow("playerA", 10L, 1L, 0L, 10L, 4L);
+        GuessRepository.SeasonStatRow rowB = statRow("playerB", 10L, 1L, 0L, 10L, 3L);
+
+        when(seasonRepository.findById(23L)).thenReturn(Optional.of(season));
+        when(seasonRepository.claimForFinalization(23L)).thenReturn(1);
+        when(guessRepository.findSeasonStats(season.getStartDate(), season.getEndDate()))
+                .thenReturn(List.of(rowA, rowB));
+        // playerA's run starts before the season: only Apr 1-2 count. playerB plays Apr 10-12.
+        when(participationService.findAll(List.of("playerA", "playerB"))).thenReturn(Map.of(
+                "playerA", ParticipationBitmap.of(List.of(LocalDate.of(2026, 3, 29), LocalDate.of(2026, 3, 30),
+                        LocalDate.of(2026, 3, 31), LocalDate.of(2026, 4, 1), LocalDate.of(2026, 4, 2))),
+                "playerB", ParticipationBitmap.of(List.of(LocalDate.of(2026, 4, 10), LocalDate.of(2026, 4, 11),
+                        LocalDate.of(2026, 4, 12)))));
+        when(seasonRepository.save(any(Season.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.finalizeSeason(season);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SeasonAwardResult>> captor = ArgumentCaptor.forClass(List.class);
+        verify(awardResultRepository, times(1)).saveAll(captor.capture());
+        List<SeasonAwardResult> saved = captor.getValue();
+
+        assertEquals("playerB", saved.get(0).getSteamId());
+        assertEquals(3L, saved.get(0).getMetricValue());
+        assertEquals("playerA", saved.get(1).getSteamId());
+        assertEquals(2L, saved.get(1).getMetricValue());
+    }
+
     @Test
     void finalizeSeason_excludesPlayersBelowMinRounds() {
         Season season = seasonWith(21, LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 28), SeasonStatus.ACTIVE);
@@ -568,8 +603,6 @@ class SeasonServiceTest {
         when(seasonRepository.claimForFinalization(21L)).thenReturn(1);
         when(guessRepository.findSeasonStats(season.getStartDate(), season.getEndDate()))
                 .thenReturn(List.of(qualifies, tooFewRounds));
-        when(guessRepository.findSeasonDates(season.getStartDate(), season.getEndDate()))
-                .thenReturn(List.of());
         when(seasonRepository.save(any(Season.class))).thenAnswer(inv -> inv.getArgument(0));
 
         service.finalizeSeason(season);
@@ -591,8 +624,6 @@ class SeasonServiceTest {
         when(seasonRepository.claimForFinalization(22L)).thenReturn(1);
         when(guessRepository.findSeasonStats(season.getStartDate(), season.getEndDate()))
                 .thenReturn(List.of());
-        when(guessRepository.findSeasonDates(season.getStartDate(), season.getEndDate()))
-                .thenReturn(List.of());
         when(seasonRepository.save(any(Season.class))).thenAnswer(inv -> inv.getArgument(0));
 
         Season result = service.finalizeSeason(season);
@@ -2,6 +2,7 @@ package org.steam5.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.steam5.repository.LeaderboardAggregateRepository;
 import org.steam5.repository.LeaderboardMvRepository;
 import org.steam5.repository.ReviewGamePickRepository;
 import org.steam5.repository.ReviewsBucketRepository;
@@ -17,6 +18,7 @@ import static org.mockito.Mockito.when;
 class StatisticsServiceTest {
 
     private LeaderboardMvRepository leaderboardMvRepository;
+    private LeaderboardAggregateRepository aggregateRepository;
     private StatisticsService service;
 
     @BeforeEach
@@ -28,8 +30,9 @@ class StatisticsServiceTest {
         final SeasonService seasonService = mock(SeasonService.class);
         final org.springframework.cache.CacheManager cacheManager = mock(org.springframework.cache.CacheManager.class);
         leaderboardMvRepository = mock(LeaderboardMvRepository.class);
+        aggregateRepository = mock(LeaderboardAggregateRepository.class);
         service = new StatisticsService(detailRepository, reviewsBucketRepository, reviewGamePickRepository,
-                guessRepository, seasonService, cacheManager, leaderboardMvRepository);
+                guessRepository, seasonService, cacheManager, leaderboardMvRepository, aggregateRepository);
     }
 
     private LeaderboardMvRepository.HardestGameMvRow row(long appId, String name, double avgScore, long players,
@@ -89,11 +92,11 @@ class StatisticsServiceTest {
         assertEquals(List.of(), service.getHardestGames(10));
     }
 
-    private LeaderboardMvRepository.PerfectDayMvRow perfectDayRow(String steamId, String personaName,
-                                                                    String avatarFull, String blurdataAvatarFull,
-                                                                    String profileUrl, LocalDate gameDate,
-                                                                    String appNames) {
-        final LeaderboardMvRepository.PerfectDayMvRow r = mock(LeaderboardMvRepository.PerfectDayMvRow.class);
+    private LeaderboardAggregateRepository.PerfectDayRow perfectDayRow(String steamId, String personaName,
+                                                                       String avatarFull, String blurdataAvatarFull,
+                                                                       String profileUrl, LocalDate gameDate,
+                                                                       String appNames) {
+        final LeaderboardAggregateRepository.PerfectDayRow r = mock(LeaderboardAggregateRepository.PerfectDayRow.class);
         when(r.getSteamId()).thenReturn(steamId);
         when(r.getPersonaName()).thenReturn(personaName);
         when(r.getAvatarFull()).thenReturn(avatarFull);
@@ -106,10 +109,10 @@ class StatisticsServiceTest {
 
     @Test
     void getPerfectDays_mapsRowsAndSplitsAppNamesOnCommaSpace() {
-        final LeaderboardMvRepository.PerfectDayMvRow row = perfectDayRow(
+        final LeaderboardAggregateRepository.PerfectDayRow row = perfectDayRow(
                 "76561198000000001", "Alice", "https://avatar/full.jpg", "data:blur", "https://steamcommunity.com/id/alice",
                 LocalDate.of(2026, 1, 15), "Half-Life, Portal 2, Left 4 Dead");
-        when(leaderboardMvRepository.findPerfectDays()).thenReturn(List.of(row));
+        when(aggregateRepository.findPerfectDays()).thenReturn(List.of(row));
 
         final List<StatisticsService.PerfectDayEntry> result = service.getPerfectDays();
 
@@ -125,9 +128,9 @@ class StatisticsServiceTest {
 
     @Test
     void getPerfectDays_nullAppNames_mapsToEmptyList() {
-        final LeaderboardMvRepository.PerfectDayMvRow row = perfectDayRow(
+        final LeaderboardAggregateRepository.PerfectDayRow row = perfectDayRow(
                 "76561198000000002", "Bob", null, null, null, LocalDate.of(2026, 2, 1), null);
-        when(leaderboardMvRepository.findPerfectDays()).thenReturn(List.of(row));
+        when(aggregateRepository.findPerfectDays()).thenReturn(List.of(row));
 
         final List<StatisticsService.PerfectDayEntry> result = service.getPerfectDays();
 
@@ -137,9 +140,9 @@ class StatisticsServiceTest {
 
     @Test
     void getPerfectDays_singleAppName_returnsSingletonList() {
-        final LeaderboardMvRepository.PerfectDayMvRow row = perfectDayRow(
+        final LeaderboardAggregateRepository.PerfectDayRow row = perfectDayRow(
                 "76561198000000003", "Carol", null, null, null, LocalDate.of(2026, 3, 1), "Portal");
-        when(leaderboardMvRepository.findPerfectDays()).thenReturn(List.of(row));
+        when(aggregateRepository.findPerfectDays()).thenReturn(List.of(row));
 
         final List<StatisticsService.PerfectDayEntry> result = service.getPerfectDays();
 
@@ -148,18 +151,18 @@ class StatisticsServiceTest {
 
     @Test
     void getPerfectDays_noRows_returnsEmptyList() {
-        when(leaderboardMvRepository.findPerfectDays()).thenReturn(List.of());
+        when(aggregateRepository.findPerfectDays()).thenReturn(List.of());
         assertEquals(List.of(), service.getPerfectDays());
     }
 
     @Test
     void getPerfectDays_preservesRepositoryOrdering() {
-        final LeaderboardMvRepository.PerfectDayMvRow newer = perfectDayRow(
+        final LeaderboardAggregateRepository.PerfectDayRow newer = perfectDayRow(
                 "steam-newer", "Newer", null, null, null, LocalDate.of(2026, 5, 1), "Game A");
-        final LeaderboardMvRepository.PerfectDayMvRow older = perfectDayRow(
+        final LeaderboardAggregateRepository.PerfectDayRow older = perfectDayRow(
                 "steam-older", "Older", null, null, null, LocalDate.of(2026, 4, 1), "Game B");
         // Repository query orders by game_date DESC — the service must not re-sort.
-        when(leaderboardMvRepository.findPerfectDays()).thenReturn(List.of(newer, older));
+        when(aggregateRepository.findPerfectDays()).thenReturn(List.of(newer, older));
 
         final List<StatisticsService.PerfectDayEntry> result = service.getPerfectDays();
 
@@ -0,0 +1,79 @@
+package org.steam5.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.steam5.config.JobsConfig;
+import org.steam5.config.SteamAppsConfig;
+import org.steam5.http.JsonHttpClient;
+import org.steam5.repository.IngestStateRepository;
+import org.steam5.repository.SteamAppIndexBulkRepository;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SteamAppListFetcherTest {
+
+    private static final String PAGE = """
+            {"response":{"apps":[
+              {"appid":10,"name":"Counter-Strike","last_modified":1,"price_change_number":2},
+              {"appid":20,"name":"Team Fortress Classic","extra":{"nested":[1,2]}},
+              {"appid":30,"name":""},
+              {"appid":40,"name":"Renamed"},
+              {"appid":50,"name":"New App"}
+            ],"have_more_results":true,"last_appid":50}}
+            """;
+
+    private SteamAppIndexBulkRepository bulkRepository;
+    private IngestStateRepository ingestStateRepository;
+    private SteamAppListFetcher fetcher;
+    private final List<String> upserted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        bulkRepository = mock(SteamAppIndexBulkRepository.class);
+        ingestStateRepository = mock(IngestStateRepository.class);
+        final JsonHttpClient jsonHttpClient = mock(JsonHttpClient.class);
+        final SteamAppsConfig config = new SteamAppsConfig();
+        ReflectionTestUtils.setField(config, "apiKey", "k");
+        fetcher = new SteamAppListFetcher(config, bulkRepository, ingestStateRepository, jsonHttpClient, new JobsConfig());
+
+        when(ingestStateRepository.findById("steam_app_list")).thenReturn(Optional.empty());
+        doAnswer(inv -> {
+            final SteamAppIndexBulkRepository.AppNameConsumer consumer = inv.getArgument(1);
+            consumer.accept(10L, "Counter-Strike");
+            consumer.accept(20L, "Team Fortress Classic");
+            consumer.accept(40L, "Old Name");
+            return null;
+        }).when(bulkRepository).forEachName(eq(0L), any());
+        when(bulkRepository.upsertNames(any(), any(), anyInt())).thenAnswer(inv -> {
+            final long[] ids = inv.getArgument(0);
+            final String[] names = inv.getArgument(1);
+            final int count = inv.getArgument(2);
+            for (int i = 0; i < count; i++) {
+                upserted.add(ids[i] + "=" + names[i]);
+            }
+            return count;
+        });
+        when(jsonHttpClient.streamJson(anyString(), any())).thenAnswer(inv -> {
+            final JsonHttpClient.StreamingReader<?> reader = inv.getArgument(1);
+            return reader.read(new ObjectMapper().createParser(PAGE));
+        });
+    }
+
+    @Test
+    void writesOnlyNewAndRenamedAppsAndAdvancesCursor() throws Exception {
+        fetcher.ingest();
+
+        assertEquals(List.of("40=Renamed", "50=New App"), upserted);
+        verify(bulkRepository, times(1)).upsertNames(any(), any(), anyInt());
+        verify(ingestStateRepository).upsert(eq("steam_app_list"), eq(50L), any(OffsetDateTime.class));
+    }
+}
@@ -0,0 +1,196 @@
+package org.steam5.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.steam5.domain.Guess;
+import org.steam5.repository.GuessRepository;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TodayLeaderboardTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 14);
+
+    private GuessRepository guessRepository;
+    private LeaderboardService leaderboardService;
+    private RoundPresenceService presenceService;
+    private CacheInvalidationPublisher publisher;
+    private TodayLeaderboard board;
+
+    @BeforeEach
+    void setUp() {
+        guessRepository = mock(GuessRepository.class);
+        leaderboardService = mock(LeaderboardService.class);
+        presenceService = mock(RoundPresenceService.class);
+        publisher = mock(CacheInvalidationPublisher.class);
+        board = new TodayLeaderboard(guessRepository, leaderboardService, presenceService, publisher);
+
+        final List<Guess> all = List.of(guess("a", 1, 5), guess("b", 1, 3), guess("c", 1, 1));
+        when(guessRepository.findAllByDate(DAY)).thenReturn(all);
+        when(leaderboardService.buildLeaderboard(all, DAY)).thenReturn(List.of(
+                entry("a", 5, 1), entry("b", 3, 1), entry("c", 1, 1)));
+        when(leaderboardService.withStreaks(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void top_loadsTheDayOnceAndReturnsTheFirstK() {
+        assertEquals(List.of("a", "b"), ids(board.top(DAY, 2)));
+        assertEquals(List.of("a", "b", "c"), ids(board.top(DAY, 0)));
+
+        verify(guessRepository, times(1)).findAllByDate(DAY);
+    }
+
+    @Test
+    void refreshPlayer_movesTheRowAndBroadcastsTheRankChange() {
+        board.top(DAY, 0);
+        when(guessRepository.findAllForDay("c", DAY)).thenReturn(List.of(guess("c", 1, 1), guess("c", 2, 5)));
+
+        board.refreshPlayer(DAY, "c");
+
+        assertEquals(List.of("c", "a", "b"), ids(board.top(DAY, 0)));
+        assertEquals(6L, board.top(DAY, 1).getFirst().totalPoints());
+        final ArgumentCaptor<TodayLeaderboard.RankDelta> delta = ArgumentCaptor.forClass(TodayLeaderboard.RankDelta.class);
+        verify(presenceService).broadcast(any(), delta.capture());
+        assertEquals(TodayLeaderboard.MESSAGE_TYPE, delta.getValue().type());
+        assertEquals("c", delta.getValue().entry().steamId());
+        assertEquals(1, delta.getValue().rank());
+        assertEquals(3, delta.getValue().previousRank());
+        assertEquals(2L, delta.getValue().entry().rounds());
+    }
+
+    @Test
+    void refreshPlayer_addsANewPlayerWithTheirProfile() {
+        board.top(DAY, 0);
+        final List<Guess> guesses = List.of(guess("d", 1, 4));
+        when(guessRepository.findAllForDay("d", DAY)).thenReturn(guesses);
+        when(leaderboardService.buildLeaderboard(guesses, DAY)).thenReturn(List.of(entry("d", 4, 1)));
+
+        board.refreshPlayer(DAY, "d");
+
+        assertEquals(List.of("a", "d", "b", "c"), ids(board.top(DAY, 0)));
+        final ArgumentCaptor<TodayLeaderboard.RankDelta> delta = ArgumentCaptor.forClass(TodayLeaderboard.RankDelta.class);
+        verify(presenceService).broadcast(any(), delta.capture());
+        assertEquals(2, delta.getValue().rank());
+        assertNull(delta.getValue().previousRank());
+    }
+
+    @Test
+    void refreshPlayer_tiedPlayersShareARank() {
+        board.top(DAY, 0);
+        when(guessRepository.findAllForDay("c", DAY)).thenReturn(List.of(guess("c", 1, 1), guess("c", 2, 2)));
+
+        board.refreshPlayer(DAY, "c");
+
+        final ArgumentCaptor<TodayLeaderboard.RankDelta> delta = ArgumentCaptor.forClass(TodayLeaderboard.RankDelta.class);
+        verify(presenceService).broadcast(any(), delta.capture());
+        assertEquals(2, delta.getValue().rank());
+        assertEquals(3, delta.getValue().previousRank());
+    }
+
+    @Test
+    void refreshPlayer_recomputesTheStreakOfAKnownPlayer() {
+        board.top(DAY, 0);
+        when(guessRepository.findAllForDay("b", DAY)).thenReturn(List.of(guess("b", 1, 3), guess("b", 2, 1)));
+        when(leaderboardService.withStreaks(any(), any())).thenAnswer(invocation -> {
+            final List<LeaderboardService.LeaderEntry> entries = invocation.getArgument(0);
+            final LeaderboardService.LeaderEntry e = entries.getFirst();
+            return List.of(new LeaderboardService.LeaderEntry(e.steamId(), e.personaName(), e.totalPoints(),
+                    e.rounds(), e.hits(), e.flops(), e.tooHigh(), e.tooLow(), e.avgPoints(), 4, e.avatar(), e.profileUrl()));
+        });
+
+        board.refreshPlayer(DAY, "b");
+
+        final LeaderboardService.LeaderEntry b = board.top(DAY, 0).stream()
+                .filter(e -> e.steamId().equals("b")).findFirst().orElseThrow();
+        assertEquals(4, b.streak());
+        assertEquals(4L, b.totalPoints());
+    }
+
+    @Test
+    void playerGuessed_publishesTheUpdateForOtherNodes() {
+        board.playerGuessed(DAY, "c");
+
+        verify(publisher).publish(TodayLeaderboard.OP_PLAYER_GUESSED + " " + DAY + " c");
+    }
+
+    @Test
+    void apply_refreshesWithoutRepublishing() {
+        board.top(DAY, 0);
+        when(guessRepository.findAllForDay("c", DAY)).thenReturn(List.of(guess("c", 1, 1), guess("c", 2, 5)));
+
+        board.apply(DAY + " c");
+
+        verify(guessRepository, timeout(2_000)).findAllForDay("c", DAY);
+        verify(publisher, never()).publish(anyString());
+    }
+
+    @Test
+    void refreshPlayer_withNoNewRounds_isIgnored() {
+        board.top(DAY, 0);
+        when(guessRepository.findAllForDay("a", DAY)).thenReturn(List.of(guess("a", 1, 5)));
+
+        board.refreshPlayer(DAY, "a");
+
+        verify(presenceService, never()).broadcast(anyString(), any());
+    }
+
+    @Test
+    void top_forALaterDay_reloadsTheBoard() {
+        board.top(DAY, 0);
+        final LocalDate next = DAY.plusDays(1);
+        when(guessRepository.findAllByDate(next)).thenReturn(List.of());
+        when(leaderboardService.buildLeaderboard(List.of(), next)).thenReturn(List.of());
+
+        assertEquals(List.of(), board.top(next, 0));
+        verify(guessRepository).findAllByDate(next);
+    }
+
+    @Test
+    void top_forAnEarlierDay_readsTheGuessesWithoutReplacingTheBoard() {
+        board.top(DAY, 0);
+        final LocalDate previous = DAY.minusDays(1);
+        when(guessRepository.findAllByDate(previous)).thenReturn(List.of());
+        when(leaderboardService.buildLeaderboard(List.of(), previous)).thenReturn(List.of(entry("z", 9, 1)));
+
+        assertEquals(List.of("z"), ids(board.top(previous, 0)));
+        assertEquals(List.of("a", "b", "c"), ids(board.top(DAY, 0)));
+        verify(guessRepository, times(1)).findAllByDate(DAY);
+    }
+
+    @Test
+    void invalidate_rebuildsOnNextAccess() {
+        board.top(DAY, 0);
+
+        board.invalidate();
+        board.top(DAY, 0);
+
+        verify(guessRepository, times(2)).findAllByDate(DAY);
+    }
+
+    private static Guess guess(final String steamId, final int round, final int points) {
+        return new Guess(null, steamId, DAY, round, 100L, "101-1000", "101-1000", points, OffsetDateTime.now());
+    }
+
+    private static LeaderboardService.LeaderEntry entry(final String steamId, final long points, final long rounds) {
+        return new LeaderboardService.LeaderEntry(steamId, steamId, points, rounds, 0L, 0L, 0L, 0L,
+                (double) points / rounds, 1, null, null);
+    }
+
+    private static List<String> ids(final List<LeaderboardService.LeaderEntry> entries) {
+        return entries.stream().map(LeaderboardService.LeaderEntry::steamId).toList();
+    }
+}
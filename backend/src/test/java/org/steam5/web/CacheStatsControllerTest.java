@@ -7,11 +7,14 @@ import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.http.ResponseEntity;
+import org.steam5.config.CacheKeyFamilyMetrics;
+import org.steam5.config.InstrumentedCaffeineCache;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class CacheStatsControllerTest {
@@ -54,5 +57,55 @@ class CacheStatsControllerTest {
         assertNotNull(stats.estimatedSize());
         assertNotNull(stats.requestCount());
     }
-}
 
+    @Test
+    void cacheStats_reportsBytesForWeightBoundedCaches() {
+        final CaffeineCache weighted = new CaffeineCache(
+                "weighted-cache",
+                Caffeine.newBuilder()
+                        .maximumWeight(1_000)
+                        .weigher((k, v) -> 100)
+                        .recordStats()
+                        .build()
+        );
+        weighted.put("a", "value");
+        weighted.put("b", "value");
+        final SimpleCacheManager manager = new SimpleCacheManager();
+        manager.setCaches(List.of(weighted));
+        manager.initializeCaches();
+
+        final CacheStatsController.CacheStatsPayload payload =
+                new CacheStatsController(manager).cacheStats().getBody();
+
+        assertNotNull(payload);
+        final CacheStatsController.CacheStatsResponse stats = payload.caches().get(0);
+        assertEquals(200L, stats.estimatedBytes());
+        assertEquals(1_000L, stats.maximumBytes());
+        assertNull(stats.maximumSize());
+        assertEquals(200L, payload.totalEstimatedBytes());
+    }
+
+    @Test
+    void cacheStats_reportsKeyFamiliesOfInstrumentedCaches() {
+        final InstrumentedCaffeineCache cache = new InstrumentedCaffeineCache(
+                "review-game", Caffeine.newBuilder().recordStats().build(), new CacheKeyFamilyMetrics());
+        cache.get("picks:2025-03-14", () -> "a");
+        cache.get("picks:2025-03-14", () -> "a");
+        cache.get("archive-month:2025-03");
+        final SimpleCacheManager manager = new SimpleCacheManager();
+        manager.setCaches(List.of(cache));
+        manager.initializeCaches();
+
+        final CacheStatsController.CacheStatsPayload payload =
+                new CacheStatsController(manager).cacheStats().getBody();
+
+        assertNotNull(payload);
+        final List<CacheStatsController.KeyFamilyStatsResponse> families = payload.caches().get(0).keyFamilies();
+        assertEquals(List.of("picks", "archive-month"),
+                families.stream().map(CacheStatsController.KeyFamilyStatsResponse::family).toList());
+        assertEquals(0.5, families.get(0).hitRate());
+        assertEquals(1L, families.get(0).loadCount());
+        assertEquals(0L, families.get(1).hitCount());
+        assertNull(families.get(1).averageLoadMillis());
+    }
+}
@@ -4,18 +4,25 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.steam5.domain.Guess;
+import org.springframework.web.server.ResponseStatusException;
+import org.steam5.domain.GameDate;
 import org.steam5.domain.LeaderboardRefreshState;
+import org.steam5.domain.LeaderboardSnapshot;
 import org.steam5.domain.LeaderboardType;
 import org.steam5.domain.ReviewGamePick;
 import org.steam5.domain.Season;
-import org.steam5.repository.GuessRepository;
 import org.steam5.repository.LeaderboardRefreshStateRepository;
+import org.steam5.service.LeaderboardRankingService;
 import org.steam5.service.LeaderboardService;
+import org.steam5.service.LeaderboardSnapshotService;
 import org.steam5.service.ReviewGameStateService;
 import org.steam5.service.SeasonService;
+import org.steam5.service.TodayLeaderboard;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
@@ -26,8 +33,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -36,52 +43,62 @@ import static org.mockito.Mockito.when;
 
 public class LeaderboardControllerTest {
 
-    private GuessRepository guessRepository;
     private ReviewGameStateService reviewGameStateService;
     private SeasonService seasonService;
     private CacheManager cacheManager;
     private LeaderboardService leaderboardService;
     private LeaderboardRefreshStateRepository refreshStateRepository;
+    private TodayLeaderboard todayLeaderboard;
+    private LeaderboardRankingService rankingService;
+    private LeaderboardSnapshotService snapshotService;
 
     @BeforeEach
     void setUp() {
-        guessRepository = mock(GuessRepository.class);
         reviewGameStateService = mock(ReviewGameStateService.class);
         seasonService = mock(SeasonService.class);
         cacheManager = mock(CacheManager.class);
         leaderboardService = mock(LeaderboardService.class);
         refreshStateRepository = mock(LeaderboardRefreshStateRepository.class);
+        todayLeaderboard = mock(TodayLeaderboard.class);
+        rankingService = mock(LeaderboardRankingService.class);
+        snapshotService = mock(LeaderboardSnapshotService.class);
         when(refreshStateRepository.findById(any(LeaderboardType.class))).thenReturn(Optional.empty());
     }
 
     private LeaderboardController newController() {
-        return new LeaderboardController(guessRepository, reviewGameStateService, seasonService, cacheManager, leaderboardService, refreshStateRepository);
+        return new LeaderboardController(reviewGameStateService, seasonService, cacheManager, leaderboardService, refreshStateRepository, todayLeaderboard, rankingService, snapshotService);
     }
 
     @Test
-    void today_fetchesGuessesThenDelegatesToService() {
+    void today_servesTheInMemoryBoardOfThePickDate() {
         LeaderboardController c = newController();
         LocalDate pickDate = LocalDate.now();
         when(reviewGameStateService.generateDailyPicks()).thenReturn(List.of(new ReviewGamePick(1L, pickDate, 42L, OffsetDateTime.now())));
 
-        Guess g1 = new Guess(1L, "u1", pickDate, 1, 100L, "1-100", "1-100", 5, OffsetDateTime.now());
-        List<Guess> guesses = List.of(g1);
-        when(guessRepository.findAllByDate(pickDate)).thenReturn(guesses);
-
         List<LeaderboardService.LeaderEntry> canned = List.of(
                 new LeaderboardService.LeaderEntry("u1", "User One", 5L, 1L, 1L, 0L, 0L, 0L, 5.0, 1, null, null)
         );
-        when(leaderboardService.buildLeaderboard(guesses, pickDate)).thenReturn(canned);
+        when(todayLeaderboard.top(pickDate, 0)).thenReturn(canned);
 
-        ResponseEntity<List<LeaderboardService.LeaderEntry>> res = c.today();
+        ResponseEntity<List<LeaderboardService.LeaderEntry>> res = c.today(null);
         assertEquals(200, res.getStatusCode().value());
         assertNotNull(res.getBody());
         assertSame(canned, res.getBody());
-        verify(guessRepository).findAllByDate(pickDate);
-        verify(leaderboardService).buildLeaderboard(guesses, pickDate);
         assertNull(res.getHeaders().getFirst("X-Leaderboard-Refreshed-At"));
     }
 
+    @Test
+    void today_passesTheLimitThrough() {
+        LeaderboardController c = newController();
+        LocalDate pickDate = LocalDate.now();
+        when(reviewGameStateService.generateDailyPicks()).thenReturn(List.of(new ReviewGamePick(1L, pickDate, 42L, OffsetDateTime.now())));
+        when(todayLeaderboard.top(pickDate, 10)).thenReturn(List.of());
+
+        c.today(10);
+
+        verify(todayLeaderboard).top(pickDate, 10);
+    }
+
     @Test
     void allTime_delegatesToServiceAndSetsRefreshedAtHeaderWhenStateExists() {
         LeaderboardController c = newController();
@@ -100,7 +117,6 @@ public class LeaderboardControllerTest {
         assertEquals(200, res.getStatusCode().value());
         assertSame(canned, res.getBody());
         verify(leaderboardService).buildAllTimeLeaderboard(any(LocalDate.class));
-        verifyNoInteractions(guessRepository);
         assertEquals(refreshedAt.toString(), res.getHeaders().getFirst("X-Leaderboard-Refreshed-At"));
     }
 
@@ -133,27 +149,39 @@ public class LeaderboardControllerTest {
         assertEquals(200, res.getStatusCode().value());
         assertSame(canned, res.getBody());
         verify(leaderboardService).buildWeeklyLeaderboard(any(LocalDate.class));
-        verifyNoInteractions(guessRepository);
         assertEquals(refreshedAt.toString(), res.getHeaders().getFirst("X-Leaderboard-Refreshed-At"));
     }
 
     @Test
-    void weekly_nonFloating_usesLiveQueryAndOmitsHeader() {
+    void weekly_nonFloating_servesTheFrozenPreviousWeekAndOmitsHeader() {
         LeaderboardController c = newController();
-        when(reviewGameStateService.generateDailyPicks()).thenReturn(List.of());
-        when(guessRepository.findAllBetween(any(LocalDate.class), any(LocalDate.class))).thenReturn(List.of());
-        when(leaderboardService.buildLeaderboard(any(), any())).thenReturn(List.of());
+        LocalDate wednesday = LocalDate.of(2026, 7, 22);
+        when(reviewGameStateService.generateDailyPicks()).thenReturn(List.of(new ReviewGamePick(1L, wednesday, 42L, OffsetDateTime.now())));
+        LeaderboardSnapshot snapshot = new LeaderboardSnapshot();
+        List<LeaderboardService.LeaderEntry> frozen = List.of(
+                new LeaderboardService.LeaderEntry("u1", "User One", 7L, 2L, 1L, 0L, 0L, 1L, 3.5, 1, null, null)
+        );
+        when(snapshotService.find("2026-W29", wednesday)).thenReturn(Optional.of(snapshot));
+        when(snapshotService.entries(snapshot)).thenReturn(frozen);
 
         ResponseEntity<List<LeaderboardService.LeaderEntry>> res = c.weekly(false);
 
         assertEquals(200, res.getStatusCode().value());
-        verify(guessRepository).findAllBetween(any(LocalDate.class), any(LocalDate.class));
-        verify(leaderboardService).buildLeaderboard(any(), any());
+        assertSame(frozen, res.getBody());
         verify(leaderboardService, never()).buildWeeklyLeaderboard(any());
         verifyNoInteractions(refreshStateRepository);
         assertNull(res.getHeaders().getFirst("X-Leaderboard-Refreshed-At"));
     }
 
+    @Test
+    void weekly_nonFloating_withNobodyPlaying_isEmpty() {
+        LeaderboardController c = newController();
+        when(reviewGameStateService.generateDailyPicks()).thenReturn(List.of());
+        when(snapshotService.find(any(), any())).thenReturn(Optional.empty());
+
+        assertEquals(List.of(), c.weekly(false).getBody());
+    }
+
     @Test
     void monthly_delegatesToMvBackedServiceAndSetsHeader() {
         LeaderboardController c = newController();
@@ -173,7 +201,6 @@ public class LeaderboardControllerTest {
         assertEquals(200, res.getStatusCode().value());
         assertSame(canned, res.getBody());
         verify(leaderboardService).buildMonthlyLeaderboard(any(LocalDate.class));
-        verifyNoInteractions(guessRepository);
         assertEquals(refreshedAt.toString(), res.getHeaders().getFirst("X-Leaderboard-Refreshed-At"));
     }
 
@@ -188,9 +215,8 @@ public class LeaderboardControllerTest {
         season.setEndDate(today.plusDays(20));
         when(seasonService.findSeasonContaining(any(LocalDate.class))).thenReturn(Optional.of(season));
 
-        Cache cache = mock(Cache.class);
+        Cache cache = new ConcurrentMapCache("leaderboard-static");
         when(cacheManager.getCache("leaderboard-static")).thenReturn(cache);
-        when(cache.get(anyString())).thenReturn(null);
 
         List<LeaderboardService.LeaderEntry> canned = List.of(
                 new LeaderboardService.LeaderEntry("u1", "User One", 20L, 4L, 2L, 1L, 1L, 0L, 5.0, 1, null, null)
@@ -206,7 +232,7 @@ public class LeaderboardControllerTest {
         assertEquals(200, res.getStatusCode().value());
         assertSame(canned, res.getBody());
         verify(leaderboardService).buildSeasonLeaderboard(any(LocalDate.class));
-        verify(cache).put(anyString(), any());
+        assertSame(canned, cache.get("season:3:" + GameDate.todayUtc()).get());
         assertEquals(refreshedAt.toString(), res.getHeaders().getFirst("X-Leaderboard-Refreshed-At"));
     }
 
@@ -224,10 +250,9 @@ public class LeaderboardControllerTest {
         List<LeaderboardService.LeaderEntry> cached = List.of(
                 new LeaderboardService.LeaderEntry("u1", "User One", 20L, 4L, 2L, 1L, 1L, 0L, 5.0, 1, null, null)
         );
-        Cache cache = mock(Cache.class);
+        Cache cache = new ConcurrentMapCache("leaderboard-static");
+        cache.put("season:3:" + GameDate.todayUtc(), cached);
         when(cacheManager.getCache("leaderboard-static")).thenReturn(cache);
-        Cache.ValueWrapper wrapper = () -> cached;
-        when(cache.get(anyString())).thenReturn(wrapper);
 
         OffsetDateTime refreshedAt = OffsetDateTime.of(2026, 7, 24, 0, 46, 0, 0, ZoneOffset.UTC);
         when(refreshStateRepository.findById(LeaderboardType.SEASON))
@@ -240,4 +265,86 @@ public class LeaderboardControllerTest {
         verifyNoInteractions(leaderboardService);
         assertEquals(refreshedAt.toString(), res.getHeaders().getFirst("X-Leaderboard-Refreshed-At"));
     }
+
+    @Test
+    void top_resolvesTheBoardAndItsDate() {
+        LeaderboardController c = newController();
+        LocalDate pickDate = LocalDate.of(2026, 7, 20);
+        when(reviewGameStateService.generateDailyPicks()).thenReturn(List.of(new ReviewGamePick(1L, pickDate, 42L, OffsetDateTime.now())));
+        LeaderboardRankingService.LeaderboardPage page = new LeaderboardRankingService.LeaderboardPage(0, 1, List.of(), null);
+        when(rankingService.top(LeaderboardType.MONTHLY, pickDate, "abc", 10)).thenReturn(page);
+
+        ResponseEntity<LeaderboardRankingService.LeaderboardPage> res = c.top("monthly", 10, "abc");
+
+        assertSame(page, res.getBody());
+    }
+
+    @Test
+    void rank_ofTheSeason_isAsOfTheSeasonEndOnceItIsOver() {
+        LeaderboardController c = newController();
+        LocalDate today = GameDate.todayUtc();
+        Season season = new Season();
+        season.setSeasonNumber(3);
+        season.setStartDate(today.minusDays(30));
+        season.setEndDate(today.minusDays(2));
+        when(seasonService.findSeasonContaining(any(LocalDate.class))).thenReturn(Optional.of(season));
+
+        c.rank("season", "u1", 2);
+
+        verify(rankingService).around(LeaderboardType.SEASON, today.minusDays(2), "u1", 2);
+    }
+
+    @Test
+    void top_ofAnUnknownBoard_isNotFound() {
+        LeaderboardController c = newController();
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> c.top("today", 10, null));
+
+        assertEquals(404, ex.getStatusCode().value());
+        verifyNoInteractions(rankingService);
+    }
+
+    @Test
+    void history_servesTheStoredBodyAsImmutable() {
+        LeaderboardController c = newController();
+        when(reviewGameStateService.generateDailyPicks()).thenReturn(List.of());
+        byte[] body = "{\"period\":\"2026-06\"}".getBytes(StandardCharsets.UTF_8);
+        LeaderboardSnapshot snapshot = new LeaderboardSnapshot("2026-06", LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 30),
+                1, body, "\"abc\"", OffsetDateTime.now());
+        when(snapshotService.find(any(), any())).thenReturn(Optional.of(snapshot));
+
+        ResponseEntity<byte[]> res = c.history("2026-06", new HttpHeaders());
+
+        assertEquals(200, res.getStatusCode().value());
+        assertSame(body, res.getBody());
+        assertEquals("\"abc\"", res.getHeaders().getETag());
+        assertEquals("public, max-age=31536000, immutable", res.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void history_withAMatchingEtag_isNotModified() {
+        LeaderboardController c = newController();
+        when(reviewGameStateService.generateDailyPicks()).thenReturn(List.of());
+        LeaderboardSnapshot snapshot = new LeaderboardSnapshot("2026-06", LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 30),
+                1, new byte[0], "\"abc\"", OffsetDateTime.now());
+        when(snapshotService.find(any(), any())).thenReturn(Optional.of(snapshot));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch("\"abc\"");
+
+        ResponseEntity<byte[]> res = c.history("2026-06", headers);
+
+        assertEquals(304, res.getStatusCode().value());
+        assertNull(res.getBody());
+    }
+
+    @Test
+    void history_ofAPeriodNobodyPlayed_isNotFound() {
+        LeaderboardController c = newController();
+        when(reviewGameStateService.generateDailyPicks()).thenReturn(List.of());
+        when(snapshotService.find(any(), any())).thenReturn(Optional.empty());
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> c.history("1999-01", new HttpHeaders()));
+
+        assertEquals(404, ex.getStatusCode().value());
+    }
 }
@@ -0,0 +1,270 @@
+package org.steam5.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.steam5.config.CacheKeyFamilyMetrics;
+import org.steam5.config.CacheNames;
+import org.steam5.config.CorsConfig;
+import org.steam5.config.InstrumentedCaffeineCache;
+import org.steam5.config.ReviewGameBodyCacheTags;
+import org.steam5.config.ReviewGameCacheTags;
+import org.steam5.config.TaggedCaffeineCache;
+import org.steam5.domain.GameDate;
+import org.steam5.domain.details.SteamAppDetail;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.steam5.config.CacheTags.UNRESOLVED_APPS_TAG;
+import static org.steam5.config.CacheTags.appTag;
+
+class ResponseBodyCacheFilterTest {
+
+    private static final String JSON = "{\n  \"picks\" : [ " + "\"x\", ".repeat(400) + "\"y\" ]\n}";
+
+    private final AtomicInteger controllerCalls = new AtomicInteger();
+    private final FilterChain chain = (req, res) -> {
+        controllerCalls.incrementAndGet();
+        final var response = (jakarta.servlet.http.HttpServletResponse) res;
+        response.setStatus(200);
+        response.setContentType("application/json");
+        response.setHeader("Cache-Control", "public, max-age=60");
+        response.setHeader("ETag", "W/\"weak\"");
+        response.setHeader(CorrelationIdFilter.CORRELATION_ID_HEADER, "abc");
+        response.getOutputStream().write(JSON.getBytes(StandardCharsets.UTF_8));
+    };
+
+    private SimpleCacheManager cacheManager;
+    private ResponseBodyCacheFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new ConcurrentMapCache(CacheNames.HTTP_REVIEW_GAME)));
+        cacheManager.afterPropertiesSet();
+        filter = new ResponseBodyCacheFilter(cacheManager, new SimpleMeterRegistry());
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        final MockHttpServletRequest req = new MockHttpServletRequest("GET", uri);
+        req.setRequestURI(uri);
+        return req;
+    }
+
+    private static MockHttpServletRequest getWithQuery(String uri, String name, String value) {
+        final MockHttpServletRequest req = get(uri);
+        req.setQueryString(name + "=" + value);
+        req.addParameter(name, value);
+        return req;
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest req) throws Exception {
+        final MockHttpServletResponse resp = new MockHttpServletResponse();
+        filter.doFilter(req, resp, chain);
+        return resp;
+    }
+
+    @Test
+    void secondRequestIsServedFromStoredBytesWithTheControllersEtag() throws Exception {
+        final MockHttpServletResponse first = run(get("/api/review-game/today"));
+        final MockHttpServletResponse second = run(get("/api/review-game/today"));
+
+        assertEquals(1, controllerCalls.get());
+        assertEquals(JSON, first.getContentAsString());
+        assertEquals(JSON, second.getContentAsString());
+        // The ETag the review-game cache recorded, so its If-None-Match index keeps matching
+        assertEquals("W/\"weak\"", first.getHeader("ETag"));
+        assertEquals("W/\"weak\"", second.getHeader("ETag"));
+        assertEquals("public, max-age=60", second.getHeader("Cache-Control"));
+        assertNull(second.getHeader(CorrelationIdFilter.CORRELATION_ID_HEADER));
+    }
+
+    @Test
+    void matchingIfNoneMatchShortCircuitsTo304() throws Exception {
+        final String etag = run(get("/api/review-game/today")).getHeader("ETag");
+        final MockHttpServletRequest conditional = get("/api/review-game/today");
+        conditional.addHeader("If-None-Match", "\"other\", " + etag);
+
+        final MockHttpServletResponse resp = run(conditional);
+
+        assertEquals(304, resp.getStatus());
+        assertEquals(0, resp.getContentAsByteArray().length);
+        assertEquals(1, controllerCalls.get());
+    }
+
+    @Test
+    void gzipVariantIsServedToClientsThatAcceptIt() throws Exception {
+        run(get("/api/review-game/today"));
+        final MockHttpServletRequest req = get("/api/review-game/today");
+        req.addHeader("Accept-Encoding", "br, gzip;q=0.8");
+
+        final MockHttpServletResponse resp = run(req);
+
+        assertEquals("gzip", resp.getHeader("Content-Encoding"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(resp.getContentAsByteArray()))) {
+            assertEquals(JSON, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertTrue(resp.getContentAsByteArray().length < JSON.length());
+    }
+
+    @Test
+    void responsesWithoutAnEtagGetAStrongOne() throws Exception {
+        final FilterChain noEtag = (req, res) -> {
+            controllerCalls.incrementAndGet();
+            final var response = (jakarta.servlet.http.HttpServletResponse) res;
+            response.setStatus(200);
+            response.setContentType("application/json");
+            response.getOutputStream().write(JSON.getBytes(StandardCharsets.UTF_8));
+        };
+        cacheManager.setCaches(List.of(new ConcurrentMapCache(CacheNames.HTTP_LEADERBOARD_STATIC)));
+        cacheManager.afterPropertiesSet();
+        filter.doFilter(get("/api/leaderboard/all"), new MockHttpServletResponse(), noEtag);
+        final MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(get("/api/leaderboard/all"), second, noEtag);
+
+        assertEquals(1, controllerCalls.get());
+        assertNotNull(second.getHeader("ETag"));
+        assertFalse(second.getHeader("ETag").startsWith("W/"));
+    }
+
+    @Test
+    void weakAndStrongFormsOfTheEtagBothMatch() {
+        assertTrue(ResponseBodyCacheFilter.matches(Collections.enumeration(List.of("\"weak\"")), "W/\"weak\""));
+        assertTrue(ResponseBodyCacheFilter.matches(Collections.enumeration(List.of("W/\"abc\"")), "\"abc\""));
+        assertFalse(ResponseBodyCacheFilter.matches(Collections.enumeration(List.of("W/\"abc\"")), "\"abd\""));
+    }
+
+    @Test
+    void responsesTheControllerMarkedAreNotStored() throws Exception {
+        final FilterChain emptyRound = (req, res) -> {
+            RequestContextHolder.setRequestAttributes(
+                    new ServletRequestAttributes(
+                            (HttpServletRequest) req));
+            try {
+                ResponseBodyCacheFilter.doNotStore();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+            chain.doFilter(req, res);
+        };
+
+        final MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(get("/api/review-game/today"), first, emptyRound);
+        run(get("/api/review-game/today"));
+        run(get("/api/review-game/today"));
+
+        assertEquals(JSON, first.getContentAsString());
+        assertEquals(2, controllerCalls.get());
+    }
+
+    @Test
+    void onlyTheParametersARouteReadsVaryTheKey() throws Exception {
+        cacheManager.setCaches(List.of(new ConcurrentMapCache(CacheNames.HTTP_LEADERBOARD_STATIC)));
+        cacheManager.afterPropertiesSet();
+
+        run(getWithQuery("/api/leaderboard/all", "x", "1"));
+        run(getWithQuery("/api/leaderboard/all", "x", "2"));
+        run(getWithQuery("/api/leaderboard/weekly", "floating", "true"));
+        run(getWithQuery("/api/leaderboard/weekly", "floating", "true"));
+        run(getWithQuery("/api/leaderboard/weekly", "floating", "false"));
+
+        assertEquals(3, controllerCalls.get());
+    }
+
+    @Test
+    void runsAfterTheSecurityChainAndCors() {
+        // Spring Security's FilterChainProxy is registered at -100 by default
+        assertTrue(CorsConfig.CORS_FILTER_ORDER > -100);
+        assertTrue(ResponseBodyCacheFilter.ORDER > CorsConfig.CORS_FILTER_ORDER);
+        assertEquals(ResponseBodyCacheFilter.ORDER,
+                ResponseBodyCacheFilter.class.getAnnotation(Order.class).value());
+    }
+
+    @Test
+    void otherPathsAndClearedCachesReachTheController() throws Exception {
+        run(get("/api/review-game/day/2025-01-01"));
+        run(get("/api/review-game/today"));
+        cacheManager.getCache(CacheNames.HTTP_REVIEW_GAME).clear();
+        run(get("/api/review-game/today"));
+
+        assertEquals(3, controllerCalls.get());
+    }
+
+    @Test
+    void bodyRenderedWhileTheCacheWasClearedIsNotStored() throws Exception {
+        final InstrumentedCaffeineCache cache = new InstrumentedCaffeineCache(CacheNames.HTTP_REVIEW_GAME,
+                Caffeine.newBuilder().build(), new CacheKeyFamilyMetrics());
+        cacheManager.setCaches(List.of(cache));
+        cacheManager.afterPropertiesSet();
+        final FilterChain clearing = (req, res) -> {
+            chain.doFilter(req, res);
+            cache.clear();
+        };
+
+        final MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(get("/api/review-game/today"), first, clearing);
+        run(get("/api/review-game/today"));
+        run(get("/api/review-game/today"));
+
+        assertEquals(JSON, first.getContentAsString());
+        assertEquals(2, controllerCalls.get());
+    }
+
+    @Test
+    void storedBodiesFollowTheTagsOfTheReviewGameEntry() throws Exception {
+        final LocalDate today = GameDate.todayUtc();
+        final TaggedCaffeineCache reviewGame = new TaggedCaffeineCache("review-game",
+                Caffeine.newBuilder().build(), Duration.ofHours(24), new ReviewGameCacheTags());
+        final TaggedCaffeineCache bodies = new TaggedCaffeineCache(CacheNames.HTTP_REVIEW_GAME,
+                Caffeine.newBuilder().build(), Duration.ofMinutes(10), new ReviewGameBodyCacheTags(reviewGame));
+        cacheManager.setCaches(List.of(bodies));
+        cacheManager.afterPropertiesSet();
+        final SteamAppDetail detail = new SteamAppDetail();
+        detail.setAppId(7L);
+        reviewGame.put("today-details:" + today, ResponseEntity.ok(List.of(detail)));
+
+        run(get("/api/review-game/today/details"));
+        run(get("/api/review-game/today"));
+        bodies.invalidate(List.of(appTag(8)));
+        run(get("/api/review-game/today/details"));
+        assertEquals(2, controllerCalls.get());
+
+        // /today had no review-game entry to take app tags from: dropped on any app change
+        bodies.invalidate(List.of(appTag(8), UNRESOLVED_APPS_TAG));
+        run(get("/api/review-game/today/details"));
+        run(get("/api/review-game/today"));
+        assertEquals(3, controllerCalls.get());
+
+        bodies.invalidate(List.of(appTag(7)));
+        run(get("/api/review-game/today/details"));
+        assertEquals(4, controllerCalls.get());
+    }
+
+    @Test
+    void acceptEncodingParsing() {
+        assertTrue(ResponseBodyCacheFilter.acceptsGzip("gzip, deflate"));
+        assertTrue(ResponseBodyCacheFilter.acceptsGzip("*"));
+        assertFalse(ResponseBodyCacheFilter.acceptsGzip("gzip;q=0"));
+        assertFalse(ResponseBodyCacheFilter.acceptsGzip("br"));
+        assertFalse(ResponseBodyCacheFilter.acceptsGzip(null));
+    }
+}
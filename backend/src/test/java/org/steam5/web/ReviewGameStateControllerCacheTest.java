@@ -1,9 +1,11 @@
 package org.steam5.web;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.quartz.Scheduler;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.expression.Expression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
@@ -11,6 +13,7 @@ import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.steam5.config.TaggedCaffeineCache;
 import org.steam5.domain.GameDate;
 import org.steam5.domain.Guess;
 import org.steam5.domain.ReviewGamePick;
@@ -20,9 +23,12 @@ import org.steam5.repository.ReviewGamePickRepository;
 import org.steam5.repository.SteamAppReviewsRepository;
 import org.steam5.repository.UserRepository;
 import org.steam5.repository.details.SteamAppDetailRepository;
+import org.steam5.service.LeaderboardAggregateService;
+import org.steam5.service.ParticipationService;
 import org.steam5.service.ReviewGameStateService;
 
 import java.lang.reflect.Field;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -34,6 +40,8 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -41,7 +49,8 @@ import static org.mockito.Mockito.when;
  * <ul>
  *   <li>Per-user endpoints (/my/today, /my/day) must return {@code private} so a
  *       shared/CDN cache can never serve one user's guesses to another.</li>
- *   <li>The conditional handlers must compute 304/200 per request, and the
+ *   <li>The conditional handlers must compute 304/200 per request (from the ETag recorded
+ *       when the cache entry was populated), and the
  *       {@code @Cacheable(unless = ...)} expression must skip caching any non-2xx
  *       response so a bodyless 304 is never replayed to a non-conditional client.</li>
  * </ul>
@@ -56,6 +65,7 @@ public class ReviewGameStateControllerCacheTest {
     private ReviewGamePickRepository pickRepository;
     private Scheduler scheduler;
     private MeterRegistry meterRegistry;
+    private TaggedCaffeineCache reviewGameCache;
 
     private ReviewGameStateController controller;
 
@@ -69,9 +79,14 @@ public class ReviewGameStateControllerCacheTest {
         pickRepository = mock(ReviewGamePickRepository.class);
         scheduler = mock(Scheduler.class);
         meterRegistry = mock(MeterRegistry.class);
+        reviewGameCache = new TaggedCaffeineCache("review-game", Caffeine.newBuilder().build(),
+                Duration.ofHours(24), (key, value) -> List.of());
+        final CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache("review-game")).thenReturn(reviewGameCache);
         controller = new ReviewGameStateController(service, detailRepository, guessRepository,
                 reviewsRepository, userRepository, pickRepository, scheduler, meterRegistry,
-                mock(PlatformTransactionManager.class));
+                mock(PlatformTransactionManager.class), cacheManager, mock(LeaderboardAggregateService.class),
+                mock(ParticipationService.class));
     }
 
     // --- Finding 2: per-user data must never be publicly cacheable ---
@@ -159,12 +174,25 @@ public class ReviewGameStateControllerCacheTest {
         final String etag = ok.getHeaders().getETag();
         assertNotNull(etag);
 
-        // Matching If-None-Match -> 304 with no body (built fresh from the request).
+        // Before the entry is cached there is no recorded ETag: rebuilt, MVC does the comparison.
         final HttpHeaders conditional = new HttpHeaders();
         conditional.set(HttpHeaders.IF_NONE_MATCH, etag);
+        assertEquals(200, controller.getTodayDetails(conditional).getStatusCode().value());
+
+        // Once populated (body evicted, e.g. by size), a matching If-None-Match is a 304 with no
+        // body, answered from the recorded ETag without reloading details.
+        reviewGameCache.put("today-details:" + GameDate.todayUtc(), ok);
+        reviewGameCache.getNativeCache().invalidateAll();
         final ResponseEntity<List<SteamAppDetail>> notModified = controller.getTodayDetails(conditional);
         assertEquals(304, notModified.getStatusCode().value());
         assertNull(notModified.getBody());
+        assertEquals(etag, notModified.getHeaders().getETag());
+        verify(detailRepository, times(2)).findAllByAppIdIn(anyList());
+
+        // A different ETag still gets the full body.
+        final HttpHeaders stale = new HttpHeaders();
+        stale.set(HttpHeaders.IF_NONE_MATCH, "W/\"other\"");
+        assertEquals(200, controller.getTodayDetails(stale).getStatusCode().value());
     }
 
     // --- Finding 1: the @Cacheable(unless) expression must skip caching non-2xx ---
@@ -4,6 +4,8 @@ import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.quartz.Scheduler;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.steam5.domain.GameDate;
@@ -12,6 +14,8 @@ import org.steam5.repository.ReviewGamePickRepository;
 import org.steam5.repository.SteamAppReviewsRepository;
 import org.steam5.repository.UserRepository;
 import org.steam5.repository.details.SteamAppDetailRepository;
+import org.steam5.service.LeaderboardAggregateService;
+import org.steam5.service.ParticipationService;
 import org.steam5.service.ReviewGameStateService;
 
 import java.time.LocalDate;
@@ -23,6 +27,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /** Covers GET /api/review-game/archive/random: a historical-day pick used to keep playing after round 5. */
@@ -43,7 +49,8 @@ public class ReviewGameStateControllerRandomArchiveTest {
         final MeterRegistry meterRegistry = mock(MeterRegistry.class);
         controller = new ReviewGameStateController(service, detailRepository, guessRepository,
                 reviewsRepository, userRepository, pickRepository, scheduler, meterRegistry,
-                mock(PlatformTransactionManager.class));
+                mock(PlatformTransactionManager.class), mock(CacheManager.class),
+                mock(LeaderboardAggregateService.class), mock(ParticipationService.class));
     }
 
     @Test
@@ -82,4 +89,14 @@ public class ReviewGameStateControllerRandomArchiveTest {
         final var res = controller.alwaysPickHistory("2024-01-01", "2024-01-31");
         assertEquals(200, res.getStatusCode().value());
     }
+
+    @Test
+    void getByDate_stagedFutureDayIsNotFound() {
+        final LocalDate tomorrow = GameDate.todayUtc().plusDays(1);
+
+        final var res = controller.getByDate(tomorrow.toString(), new HttpHeaders());
+
+        assertEquals(404, res.getStatusCode().value());
+        verify(pickRepository, never()).findByPickDate(tomorrow);
+    }
 }
@@ -2,8 +2,8 @@
 
 import "@/styles/components/leaderboard.css";
 import Avatar from "@/components/Avatar";
-import useSWR from "swr";
-import {useCallback, useMemo, useState} from "react";
+import useSWR, {useSWRConfig} from "swr";
+import {useCallback, useEffect, useMemo, useState} from "react";
 import {
     UserAchievement,
     getAchievementLabel,
@@ -11,7 +11,8 @@ import {
 } from "@/lib/achievements";
 import AchievementsTable from "@/components/AchievementsTable";
 import SortableTH from "@/components/SortableTH";
-import {formatRefreshedAt} from "@/lib/leaderboard";
+import {applyRankDelta, formatRefreshedAt, isRankDelta} from "@/lib/leaderboard";
+import {useRoundPresence, type PresenceMessage} from "@/lib/hooks/useRoundPresence";
 
 type LeaderEntry = {
     steamId: string;
@@ -81,8 +82,25 @@ export default function LeaderboardTable(props: {
 
     const refreshInterval = props.refreshMs ?? (props.mode === 'today' ? 60000 : 120000);
 
+    // Today's board is kept current by the rank changes pushed to the day's presence scope; it
+    // only polls while that socket is down, and re-fetches once per (re)connect to catch up.
+    const gameDate = props.mode === 'today' ? new Date().toISOString().slice(0, 10) : null;
+    const {mutate} = useSWRConfig();
+    const onPresenceMessage = useCallback((message: PresenceMessage) => {
+        if (!gameDate || !isRankDelta<LeaderEntry>(message, gameDate)) return;
+        void mutate<LeaderboardFetchResult>(endpoint, (current) => current
+            ? {...current, data: applyRankDelta(current.data, message)}
+            : current, {revalidate: false});
+    }, [gameDate, endpoint, mutate]);
+    const {connected} = useRoundPresence(gameDate, onPresenceMessage);
+    const live = gameDate !== null && connected;
+
+    useEffect(() => {
+        if (live) void mutate(endpoint);
+    }, [live, endpoint, mutate]);
+
     const {data: leaderboardResult, error, isLoading} = useSWR<LeaderboardFetchResult>(endpoint, fetcher, {
-        refreshInterval,
+        refreshInterval: live ? 0 : refreshInterval,
         revalidateOnFocus: true,
         focusThrottleInterval: refreshInterval,
         fallbackData: props.initialData ? {data: props.initialData, refreshedAt: null} : undefined,
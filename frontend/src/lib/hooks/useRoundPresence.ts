@@ -17,6 +17,9 @@ export interface PresenceSnapshot {
     players: PlayerInfo[];
 }
 
+/** A message other than a presence snapshot sharing the socket, e.g. a leaderboard rank change. */
+export type PresenceMessage = { type: string } & Record<string, unknown>;
+
 const EMPTY_SNAPSHOT: PresenceSnapshot = {
     totalCount: 0,
     anonymousCount: 0,
@@ -66,9 +69,13 @@ async function fetchTicket(scopeKey: string): Promise<string | null> {
  * Tracks the real-time presence of players within a round.
  *
  * @param scopeKey - Identifier for the round or presence scope to monitor
+ * @param onMessage - Receives the typed (non-snapshot) messages sent to the scope
  * @returns The current presence snapshot and connection status
  */
-export function useRoundPresence(scopeKey: string | null): PresenceSnapshot & {
+export function useRoundPresence(
+    scopeKey: string | null,
+    onMessage?: (message: PresenceMessage) => void,
+): PresenceSnapshot & {
     connected: boolean;
     reconnecting: boolean;
 } {
@@ -83,6 +90,11 @@ export function useRoundPresence(scopeKey: string | null): PresenceSnapshot & {
     const closedByUserRef = useRef(false);
     const retryCountRef = useRef(0);
     const connectionIdRef = useRef(0);
+    const onMessageRef = useRef(onMessage);
+
+    useEffect(() => {
+        onMessageRef.current = onMessage;
+    }, [onMessage]);
 
     useEffect(() => {
         closedByUserRef.current = false;
@@ -185,7 +197,12 @@ export function useRoundPresence(scopeKey: string | null): PresenceSnapshot & {
             ws.onmessage = (ev) => {
                 if (disposed || socketRef.current !== ws) return;
                 try {
-                    const data = JSON.parse(ev.data) as Partial<PresenceSnapshot>;
+                    const data = JSON.parse(ev.data) as Partial<PresenceSnapshot> & { type?: unknown };
+                    // Typed messages (e.g. leaderboard rank changes) share the socket but are not snapshots.
+                    if (typeof data.type === "string") {
+                        onMessageRef.current?.(data as PresenceMessage);
+                        return;
+                    }
                     setSnapshot({
                         totalCount: typeof data.totalCount === "number" ? data.totalCount : 0,
                         anonymousCount: typeof data.anonymousCount === "number" ? data.anonymousCount : 0,
@@ -1,5 +1,5 @@
 import {describe, expect, it} from 'vitest';
-import {formatRefreshedAt} from './leaderboard';
+import {applyRankDelta, formatRefreshedAt, isRankDelta, type RankDelta} from './leaderboard';
 
 describe('formatRefreshedAt', () => {
     it('formats a valid ISO timestamp into a non-empty localized string', () => {
@@ -25,3 +25,39 @@ describe('formatRefreshedAt', () => {
         expect(formatRefreshedAt('not-a-date')).toBeNull();
     });
 });
+
+describe('applyRankDelta', () => {
+    const row = (steamId: string, totalPoints: number) => ({steamId, totalPoints});
+    const delta = (steamId: string, totalPoints: number): RankDelta<{steamId: string; totalPoints: number}> => ({
+        type: 'leaderboard', date: '2026-07-24', rank: 1, previousRank: null, entry: row(steamId, totalPoints),
+    });
+
+    it('moves an existing player to their new place', () => {
+        const rows = [row('a', 9), row('b', 5), row('c', 3)];
+        expect(applyRankDelta(rows, delta('c', 7)).map((r) => r.steamId)).toEqual(['a', 'c', 'b']);
+    });
+
+    it('adds a player new to the board, ties ordered by steam id', () => {
+        const rows = [row('a', 9), row('c', 5)];
+        expect(applyRankDelta(rows, delta('b', 5)).map((r) => r.steamId)).toEqual(['a', 'b', 'c']);
+    });
+
+    it('does not modify the given rows', () => {
+        const rows = [row('a', 9)];
+        applyRankDelta(rows, delta('a', 10));
+        expect(rows).toEqual([row('a', 9)]);
+    });
+});
+
+describe('isRankDelta', () => {
+    const message = {type: 'leaderboard', date: '2026-07-24', rank: 1, previousRank: null, entry: {steamId: 'a', totalPoints: 3}};
+
+    it('accepts rank changes of the given day', () => {
+        expect(isRankDelta(message, '2026-07-24')).toBe(true);
+    });
+
+    it('rejects other days and other message types', () => {
+        expect(isRankDelta(message, '2026-07-25')).toBe(false);
+        expect(isRankDelta({...message, type: 'presence'}, '2026-07-24')).toBe(false);
+    });
+});
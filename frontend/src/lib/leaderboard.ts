@@ -94,4 +94,45 @@ export function formatRefreshedAt(iso: string | null | undefined): string | null
   const date = new Date(iso);
   if (Number.isNaN(date.getTime())) return null;
   return new Intl.DateTimeFormat("en-US", {dateStyle: 'medium', timeStyle: 'short'}).format(date);
-}
\ No newline at end of file
+}
+
+/** `type` of the rank-change messages the today leaderboard receives on the presence socket. */
+export const RANK_DELTA_TYPE = "leaderboard";
+
+/** Minimal row shape {@link applyRankDelta} needs; the full leaderboard entry in practice. */
+export type RankedRow = { steamId: string; totalPoints: number };
+
+/**
+ * One player's new standing on the day's leaderboard, pushed after each of their guesses
+ * (backend `TodayLeaderboard.RankDelta`).
+ */
+export type RankDelta<T extends RankedRow> = {
+  type: typeof RANK_DELTA_TYPE;
+  date: string;
+  rank: number;
+  previousRank: number | null;
+  entry: T;
+};
+
+/**
+ * Type guard for rank-change messages of the given game day.
+ */
+export function isRankDelta<T extends RankedRow>(message: { type: string }, date: string): message is RankDelta<T> {
+  const m = message as Partial<RankDelta<T>>;
+  return m.type === RANK_DELTA_TYPE
+    && m.date === date
+    && typeof m.entry?.steamId === "string"
+    && typeof m.entry?.totalPoints === "number";
+}
+
+/**
+ * Replaces (or adds) the delta's player row, keeping the server's order: total points
+ * descending, then steam id.
+ */
+export function applyRankDelta<T extends RankedRow>(rows: readonly T[], delta: RankDelta<T>): T[] {
+  const next = rows.filter((row) => row.steamId !== delta.entry.steamId);
+  next.push(delta.entry);
+  next.sort((a, b) => b.totalPoints - a.totalPoints
+    || (a.steamId < b.steamId ? -1 : a.steamId > b.steamId ? 1 : 0));
+  return next;
+}